@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.cassandra;
+
+import org.apache.calcite.util.Util;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Iterator over the rows of one or more CQL statements, executed with the
+ * driver's asynchronous API.
+ *
+ * <p>As soon as a page is handed to the consumer, the next page of the same
+ * statement is requested, so that fetching overlaps with row processing.
+ *
+ * <p>Up to {@code parallelism} statements (typically, one per token range)
+ * run concurrently. Each of them has at most one page being consumed and one
+ * page in flight, so memory use is bounded regardless of the table size.
+ * Rows of different statements are interleaved in the order in which their
+ * pages arrive.
+ */
+class CassandraAsyncIterator implements Iterator<Row>, AutoCloseable {
+  private final CqlSession session;
+  private final Deque<Statement<?>> pending;
+  private final int parallelism;
+
+  /** Next page of each running statement, in round-robin order. */
+  private final List<CompletableFuture<AsyncResultSet>> running =
+      new ArrayList<>();
+
+  private Iterator<Row> page = Collections.emptyIterator();
+
+  CassandraAsyncIterator(CqlSession session, List<? extends Statement<?>> statements,
+      int parallelism) {
+    checkArgument(parallelism > 0,
+        "invalid parallelism. Expected %s > 0", parallelism);
+    this.session = session;
+    this.pending = new ArrayDeque<>(statements);
+    this.parallelism = parallelism;
+  }
+
+  @Override public boolean hasNext() {
+    while (!page.hasNext()) {
+      while (running.size() < parallelism && !pending.isEmpty()) {
+        running.add(
+            session.executeAsync(pending.poll()).toCompletableFuture());
+      }
+      if (running.isEmpty()) {
+        return false;
+      }
+      final AsyncResultSet resultSet = nextCompleted();
+      if (resultSet.hasMorePages()) {
+        // prefetch while the caller consumes the current page
+        running.add(resultSet.fetchNextPage().toCompletableFuture());
+      }
+      page = resultSet.currentPage().iterator();
+    }
+    return true;
+  }
+
+  /** Removes and returns the first page that has arrived, waiting if none
+   * has arrived yet. */
+  private AsyncResultSet nextCompleted() {
+    for (;;) {
+      for (int i = 0; i < running.size(); i++) {
+        final CompletableFuture<AsyncResultSet> future = running.get(i);
+        if (future.isDone()) {
+          running.remove(i);
+          try {
+            return future.join();
+          } catch (CompletionException e) {
+            close();
+            throw Util.throwAsRuntime(Util.causeOrSelf(e));
+          }
+        }
+      }
+      try {
+        CompletableFuture.anyOf(running.toArray(new CompletableFuture[0]))
+            .join();
+      } catch (CompletionException e) {
+        // the failed future is reported by the loop above
+      }
+    }
+  }
+
+  @Override public Row next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return page.next();
+  }
+
+  @Override public void close() {
+    pending.clear();
+    for (CompletableFuture<AsyncResultSet> future : running) {
+      future.cancel(false);
+    }
+    running.clear();
+    page = Collections.emptyIterator();
+  }
+}
@@ -56,7 +56,18 @@ class CassandraEnumerator implements Enumerator<Object> {
    * @param protoRowType The type of resulting rows
    */
   CassandraEnumerator(ResultSet results, RelProtoDataType protoRowType) {
-    this.iterator = results.iterator();
+    this(results.iterator(), protoRowType);
+  }
+
+  /** Creates a CassandraEnumerator.
+   *
+   * @param rows Iterator over Cassandra rows; if it is a
+   *             {@link CassandraAsyncIterator}, it is closed when this
+   *             enumerator is closed
+   * @param protoRowType The type of resulting rows
+   */
+  CassandraEnumerator(Iterator<Row> rows, RelProtoDataType protoRowType) {
+    this.iterator = rows;
     this.current = null;
 
     final RelDataTypeFactory typeFactory =
@@ -152,6 +163,8 @@ class CassandraEnumerator implements Enumerator<Object> {
   }
 
   @Override public void close() {
-    // Nothing to do here
+    if (iterator instanceof CassandraAsyncIterator) {
+      ((CassandraAsyncIterator) iterator).close();
+    }
   }
 }
@@ -67,6 +67,8 @@
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -79,6 +81,10 @@ public class CassandraSchema extends AbstractSchema {
   final String name;
   final Hook.Closeable hook;
 
+  /** Number of token-range slices that a full table scan is split into and
+   * read concurrently; 1 means no splitting. */
+  final int splits;
+
   static final CqlToSqlTypeConversionRules CQL_TO_SQL_TYPE =
       CqlToSqlTypeConversionRules.instance();
 
@@ -114,12 +120,33 @@ public CassandraSchema(
       SchemaPlus parentSchema,
       String keyspace,
       String name) {
+    this(session, parentSchema, keyspace, name, 1);
+  }
+
+  /**
+   * Creates a Cassandra schema.
+   *
+   * @param session a Cassandra session
+   * @param parentSchema the parent schema
+   * @param keyspace the keyspace name
+   * @param name the schema name
+   * @param splits number of token-range slices into which a full table scan
+   *               is split and read concurrently
+   */
+  public CassandraSchema(
+      CqlSession session,
+      SchemaPlus parentSchema,
+      String keyspace,
+      String name,
+      int splits) {
     super();
 
+    checkArgument(splits > 0, "invalid splits. Expected %s > 0", splits);
     this.session = session;
     this.keyspace = keyspace;
     this.parentSchema = parentSchema;
     this.name = name;
+    this.splits = splits;
     this.hook = prepareHook();
   }
 
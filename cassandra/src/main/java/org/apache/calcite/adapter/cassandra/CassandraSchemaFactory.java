@@ -95,7 +95,8 @@ public CassandraSchemaFactory() {
         .map(CqlIdentifier::asInternal)
         .orElse(name);
 
-    return new CassandraSchema(session, parentSchema, keyspace, name);
+    return new CassandraSchema(session, parentSchema, keyspace, name,
+        getSplits(operand));
   }
 
   private static Map<String, Object> projectMapOverKeys(
@@ -105,6 +106,17 @@ private static Map<String, Object> projectMapOverKeys(
         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
   }
 
+  private static int getSplits(Map<String, Object> map) {
+    final Object splitsObj = map.get("splits");
+    if (splitsObj == null) {
+      return 1;
+    } else if (splitsObj instanceof String) {
+      return parseInt((String) splitsObj);
+    } else {
+      return (int) splitsObj;
+    }
+  }
+
   private static int getPort(Map<String, Object> map) {
     if (map.containsKey("port")) {
       Object portObj = map.get("port");
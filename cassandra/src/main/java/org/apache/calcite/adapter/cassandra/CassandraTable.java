@@ -38,16 +38,23 @@
 import org.apache.calcite.sql.type.SqlTypeFactoryImpl;
 import org.apache.calcite.util.Util;
 
+import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
-import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import com.google.common.collect.ImmutableList;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
@@ -62,6 +69,7 @@ public class CassandraTable extends AbstractQueryableTable
   final List<RelFieldCollation> clusteringOrder;
   private final Optional<String> keyspace;
   private final String columnFamily;
+  private final int splits;
 
   @Deprecated // to be removed before 2.0
   public CassandraTable(CassandraSchema schema, String columnFamily, boolean isView) {
@@ -72,6 +80,7 @@ public CassandraTable(CassandraSchema schema, String columnFamily, boolean isVie
     this.partitionKeys = schema.getPartitionKeys(columnFamily, isView);
     this.clusteringKeys = schema.getClusteringKeys(columnFamily, isView);
     this.clusteringOrder = schema.getClusteringOrder(columnFamily, isView);
+    this.splits = schema.splits;
   }
 
   public CassandraTable(
@@ -86,6 +95,7 @@ public CassandraTable(
     this.partitionKeys = schema.getPartitionKeys(columnFamily, isView);
     this.clusteringKeys = schema.getClusteringKeys(columnFamily, isView);
     this.clusteringOrder = schema.getClusteringOrder(columnFamily, isView);
+    this.splits = schema.splits;
   }
 
   @Deprecated // to be removed before 2.0
@@ -218,12 +228,21 @@ public Enumerable<Object> query(final CqlSession session, List<Map.Entry<String,
     }
     queryBuilder.append(" ALLOW FILTERING");
 
+    // A full scan without ordering or limit can be split into token ranges
+    // that are read concurrently
+    final boolean split = splits > 1 && predicates.isEmpty() && order.isEmpty()
+        && limit <= 0 && !partitionKeys.isEmpty();
+
     return new AbstractEnumerable<Object>() {
       @Override public Enumerator<Object> enumerator() {
-        final ResultSet results = session.execute(queryBuilder.toString());
+        final List<Statement<?>> statements = split
+            ? tokenRangeStatements(session, selectString)
+            : ImmutableList.of(SimpleStatement.newInstance(queryBuilder.toString()));
+        final Iterator<Row> rows =
+            new CassandraAsyncIterator(session, statements, splits);
         // Skip results until we get to the right offset
         int skip = 0;
-        Enumerator<Object> enumerator = new CassandraEnumerator(results, resultRowType);
+        Enumerator<Object> enumerator = new CassandraEnumerator(rows, resultRowType);
         while (skip < offset && enumerator.moveNext()) {
           skip++;
         }
@@ -232,6 +251,76 @@ public Enumerable<Object> query(final CqlSession session, List<Map.Entry<String,
     };
   }
 
+  /** Creates one statement per slice of the token ring, each reading the rows
+   * whose partition key token falls within the slice.
+   *
+   * <p>The ring is divided into at least {@link #splits} slices; if the
+   * cluster has more token ranges than that (as is usual with virtual nodes),
+   * there is one slice per token range. Each statement is routed to a replica
+   * that owns its slice.
+   *
+   * <p>The range that wraps around the end of the ring is unwrapped into a
+   * range that ends at the minimum token, which is read without an upper
+   * bound and is not divided, and a range that starts at the minimum token.
+   *
+   * <p>Returns a single unrestricted statement if the driver has no token
+   * metadata, or if the ring consists of a single range. */
+  private List<Statement<?>> tokenRangeStatements(CqlSession session,
+      String selectString) {
+    final StringBuilder tableName = new StringBuilder();
+    keyspace.ifPresent(s -> tableName.append('"').append(s).append("\"."));
+    tableName.append('"').append(columnFamily).append('"');
+
+    final List<TokenRange> ranges = new ArrayList<>();
+    session.getMetadata().getTokenMap().ifPresent(tokenMap -> {
+      for (TokenRange range : tokenMap.getTokenRanges()) {
+        ranges.addAll(range.unwrap());
+      }
+    });
+    if (ranges.isEmpty()
+        || ranges.size() == 1 && ranges.get(0).getStart().equals(ranges.get(0).getEnd())) {
+      // No token metadata, or a single range that covers the whole ring
+      return ImmutableList.of(
+          SimpleStatement.newInstance("SELECT " + selectString + " FROM "
+              + tableName + " ALLOW FILTERING"));
+    }
+
+    final String token = partitionKeys.stream()
+        .map(key -> CqlIdentifier.fromInternal(key).asCql(true))
+        .collect(Collectors.joining(", ", "token(", ")"));
+    final PreparedStatement bounded =
+        session.prepare("SELECT " + selectString + " FROM " + tableName
+            + " WHERE " + token + " > ? AND " + token + " <= ?");
+    // For the range that ends at the minimum token, "token <= min" would
+    // match nothing; it actually extends to the end of the ring
+    final PreparedStatement unbounded =
+        session.prepare("SELECT " + selectString + " FROM " + tableName
+            + " WHERE " + token + " > ?");
+
+    final int perRange = (splits + ranges.size() - 1) / ranges.size();
+    final List<Statement<?>> statements = new ArrayList<>();
+    for (TokenRange range : ranges) {
+      // After unwrap, only a range that ends at the minimum token has an
+      // end that is not greater than its start
+      if (range.getEnd().compareTo(range.getStart()) <= 0) {
+        statements.add(
+            unbounded.bind()
+                .setToken(0, range.getStart())
+                .setRoutingToken(range.getEnd()));
+        continue;
+      }
+      for (TokenRange subRange
+          : perRange > 1 ? range.splitEvenly(perRange) : ImmutableList.of(range)) {
+        statements.add(
+            bounded.bind()
+                .setToken(0, subRange.getStart())
+                .setToken(1, subRange.getEnd())
+                .setRoutingToken(subRange.getEnd()));
+      }
+    }
+    return statements;
+  }
+
   @Override public <T> Queryable<T> asQueryable(QueryProvider queryProvider,
       SchemaPlus schema, String tableName) {
     return new CassandraQueryable<>(queryProvider, schema, this, tableName);
@@ -16,6 +16,8 @@
  */
 package org.apache.calcite.test;
 
+import org.apache.calcite.util.TestUtil;
+
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.google.common.collect.ImmutableMap;
 
@@ -27,6 +29,14 @@
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
 /**
  * Tests for the {@code org.apache.calcite.adapter.cassandra} package.
  *
@@ -46,6 +56,10 @@ class CassandraAdapterTest {
   private static final ImmutableMap<String, String> TWISSANDRA =
           CassandraExtension.getDataset("/model.json");
 
+  /** Same as {@link #TWISSANDRA}, but splits full scans into token ranges. */
+  private static final ImmutableMap<String, String> TWISSANDRA_SPLITS =
+          CassandraExtension.getDataset("/model-splits.json");
+
   @BeforeAll
   static void load(CqlSession session) {
     new CQLDataLoader(session)
@@ -59,6 +73,36 @@ static void load(CqlSession session) {
         .returnsCount(10);
   }
 
+  /** Tests that a scan split into token ranges returns the same rows as an
+   * unsplit scan. In particular, it must return rows whose token is greater
+   * than the highest token of the ring, which belong to the range that wraps
+   * around. */
+  @Test void testSelectTokenRangeSplits() {
+    CalciteAssert.that()
+        .with(TWISSANDRA_SPLITS)
+        .query("select count(*) as c from \"userline\"")
+        .returns("C=292\n");
+    for (String table : Arrays.asList("users", "userline", "tweets")) {
+      final String sql = "select * from \"" + table + "\"";
+      final List<String> rows = new ArrayList<>();
+      CalciteAssert.that()
+          .with(TWISSANDRA)
+          .query(sql)
+          .returns(resultSet -> {
+            try {
+              rows.addAll(CalciteAssert.toList(resultSet));
+            } catch (SQLException e) {
+              throw TestUtil.rethrow(e);
+            }
+          });
+      assertThat(rows.isEmpty(), is(false));
+      CalciteAssert.that()
+          .with(TWISSANDRA_SPLITS)
+          .query(sql)
+          .returnsUnordered(rows.toArray(new String[0]));
+    }
+  }
+
   @Test void testFilter() {
     CalciteAssert.that()
         .with(TWISSANDRA)
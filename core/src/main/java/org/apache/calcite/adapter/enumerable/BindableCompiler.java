@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.enumerable;
+
+import org.apache.calcite.linq4j.tree.ClassDeclaration;
+import org.apache.calcite.runtime.ArrayBindable;
+import org.apache.calcite.runtime.Bindable;
+
+/**
+ * Turns the Java class generated for a plan into a {@link Bindable}.
+ *
+ * <p>The default implementation, {@link EnumerableInterpretable#JANINO},
+ * compiles the source code of the class with Janino;
+ * {@link EnumerableInterpretable#JDK} compiles it with the Java compiler of
+ * the JDK. Either, or another implementation, for example one that emits
+ * bytecode directly from the linq4j expression tree, can be selected by
+ * setting the
+ * {@link org.apache.calcite.config.CalciteSystemProperty#ENUMERABLE_COMPILER}
+ * property to "janino", "jdk", or the name of its class, which must have a
+ * public no-argument constructor.
+ *
+ * <p>The generated class has a public no-argument constructor, and
+ * implements {@link ArrayBindable} if the row type has more than one field,
+ * otherwise {@link Bindable} and {@link org.apache.calcite.runtime.Typed}.
+ */
+public interface BindableCompiler {
+  /** Compiles a class and returns an instance of it.
+   *
+   * @param expr Declaration of the class
+   * @param classBody Java source code of the members of the class, as
+   *                  generated from {@code expr}
+   * @param fieldCount Number of fields of the row type
+   * @return Instance of the compiled class
+   */
+  Bindable compile(ClassDeclaration expr, String classBody, int fieldCount)
+      throws Exception;
+}
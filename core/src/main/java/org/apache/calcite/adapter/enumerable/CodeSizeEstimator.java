@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.enumerable;
+
+import org.apache.calcite.linq4j.tree.BinaryExpression;
+import org.apache.calcite.linq4j.tree.ClassDeclaration;
+import org.apache.calcite.linq4j.tree.ConditionalExpression;
+import org.apache.calcite.linq4j.tree.ConditionalStatement;
+import org.apache.calcite.linq4j.tree.ConstantExpression;
+import org.apache.calcite.linq4j.tree.DeclarationStatement;
+import org.apache.calcite.linq4j.tree.Expression;
+import org.apache.calcite.linq4j.tree.ForStatement;
+import org.apache.calcite.linq4j.tree.GotoStatement;
+import org.apache.calcite.linq4j.tree.IndexExpression;
+import org.apache.calcite.linq4j.tree.MemberExpression;
+import org.apache.calcite.linq4j.tree.MethodCallExpression;
+import org.apache.calcite.linq4j.tree.MethodDeclaration;
+import org.apache.calcite.linq4j.tree.NewArrayExpression;
+import org.apache.calcite.linq4j.tree.NewExpression;
+import org.apache.calcite.linq4j.tree.Node;
+import org.apache.calcite.linq4j.tree.ParameterExpression;
+import org.apache.calcite.linq4j.tree.TernaryExpression;
+import org.apache.calcite.linq4j.tree.ThrowStatement;
+import org.apache.calcite.linq4j.tree.TypeBinaryExpression;
+import org.apache.calcite.linq4j.tree.UnaryExpression;
+import org.apache.calcite.linq4j.tree.VisitorImpl;
+import org.apache.calcite.linq4j.tree.WhileStatement;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the size of the bytecode that will be generated for a linq4j
+ * expression tree.
+ *
+ * <p>Each node counts for the few bytes of the instructions that a Java
+ * compiler typically emits for it. The estimate is not exact, but it is
+ * close enough to detect a generated method that will exceed HotSpot's limit
+ * for JIT compilation (8,000 bytes, see {@code -XX:-DontCompileHugeMethods})
+ * and therefore run in the interpreter, or the JVM's 64 KB limit on the size
+ * of a method.
+ *
+ * <p>Methods of anonymous classes declared in a method body are not part of
+ * that method, and are estimated separately.
+ */
+class CodeSizeEstimator extends VisitorImpl<@Nullable Void> {
+  /** Estimated size of each method visited so far, keyed by path. */
+  private final Map<String, Integer> methodSizes = new LinkedHashMap<>();
+
+  /** Methods being visited, innermost first. */
+  private final Deque<Frame> frames = new ArrayDeque<>();
+
+  /** Size of code that is outside any method, such as field initializers. */
+  private int size;
+
+  private CodeSizeEstimator() {
+  }
+
+  /** Returns the estimated size, in bytes of bytecode, of a statement or
+   * expression. */
+  static int estimate(Node node) {
+    final CodeSizeEstimator estimator = new CodeSizeEstimator();
+    node.accept(estimator);
+    return estimator.size;
+  }
+
+  /** Returns the estimated size, in bytes of bytecode, of each method of a
+   * class, including methods of classes nested in it. The key is the path of
+   * the method, for example "bind/enumerator/current". */
+  static Map<String, Integer> methodSizes(ClassDeclaration classDeclaration) {
+    final CodeSizeEstimator estimator = new CodeSizeEstimator();
+    classDeclaration.accept(estimator);
+    return ImmutableMap.copyOf(estimator.methodSizes);
+  }
+
+  private void add(int bytes) {
+    final Frame frame = frames.peek();
+    if (frame == null) {
+      size += bytes;
+    } else {
+      frame.size += bytes;
+    }
+  }
+
+  @Override public @Nullable Void visit(MethodDeclaration methodDeclaration) {
+    final Frame parent = frames.peek();
+    final String path = parent == null
+        ? methodDeclaration.name
+        : parent.path + "/" + methodDeclaration.name;
+    final Frame frame = new Frame(path);
+    frames.push(frame);
+    try {
+      return super.visit(methodDeclaration);
+    } finally {
+      frames.pop();
+      String key = path;
+      for (int i = 2; methodSizes.containsKey(key); i++) {
+        key = path + "#" + i;
+      }
+      methodSizes.put(key, frame.size);
+    }
+  }
+
+  @Override public @Nullable Void visit(BinaryExpression binaryExpression) {
+    add(3);
+    return super.visit(binaryExpression);
+  }
+
+  @Override public @Nullable Void visit(ConditionalExpression conditionalExpression) {
+    add(6);
+    return super.visit(conditionalExpression);
+  }
+
+  @Override public @Nullable Void visit(ConditionalStatement conditionalStatement) {
+    add(3 * conditionalStatement.expressionList.size());
+    return super.visit(conditionalStatement);
+  }
+
+  @Override public @Nullable Void visit(ConstantExpression constantExpression) {
+    add(2);
+    return super.visit(constantExpression);
+  }
+
+  @Override public @Nullable Void visit(DeclarationStatement declarationStatement) {
+    add(2);
+    // Skip the parameter; a declared variable is not a load
+    return declarationStatement.initializer == null
+        ? null
+        : declarationStatement.initializer.accept(this);
+  }
+
+  @Override public @Nullable Void visit(ForStatement forStatement) {
+    add(6);
+    return super.visit(forStatement);
+  }
+
+  @Override public @Nullable Void visit(GotoStatement gotoStatement) {
+    add(3);
+    return super.visit(gotoStatement);
+  }
+
+  @Override public @Nullable Void visit(IndexExpression indexExpression) {
+    add(1);
+    return super.visit(indexExpression);
+  }
+
+  @Override public @Nullable Void visit(MemberExpression memberExpression) {
+    add(3);
+    return super.visit(memberExpression);
+  }
+
+  @Override public @Nullable Void visit(MethodCallExpression methodCallExpression) {
+    add(3);
+    return super.visit(methodCallExpression);
+  }
+
+  @Override public @Nullable Void visit(NewArrayExpression newArrayExpression) {
+    final List<Expression> expressions = newArrayExpression.expressions;
+    add(4 + (expressions == null ? 0 : 4 * expressions.size()));
+    return super.visit(newArrayExpression);
+  }
+
+  @Override public @Nullable Void visit(NewExpression newExpression) {
+    add(7);
+    return super.visit(newExpression);
+  }
+
+  @Override public @Nullable Void visit(ParameterExpression parameterExpression) {
+    add(1);
+    return super.visit(parameterExpression);
+  }
+
+  @Override public @Nullable Void visit(TernaryExpression ternaryExpression) {
+    add(6);
+    return super.visit(ternaryExpression);
+  }
+
+  @Override public @Nullable Void visit(ThrowStatement throwStatement) {
+    add(1);
+    return super.visit(throwStatement);
+  }
+
+  @Override public @Nullable Void visit(TypeBinaryExpression typeBinaryExpression) {
+    add(3);
+    return super.visit(typeBinaryExpression);
+  }
+
+  @Override public @Nullable Void visit(UnaryExpression unaryExpression) {
+    add(3);
+    return super.visit(unaryExpression);
+  }
+
+  @Override public @Nullable Void visit(WhileStatement whileStatement) {
+    add(6);
+    return super.visit(whileStatement);
+  }
+
+  /** Method being visited. */
+  private static class Frame {
+    final String path;
+    int size;
+
+    Frame(String path) {
+      this.path = path;
+    }
+  }
+}
@@ -131,8 +131,14 @@ public static EnumerableAsofJoin create(
   /** Generates the function that compares two rows from the right collection on
    * their timestamp field.
    *
+   * <p>A row is greater if it is a better match. Rows whose timestamp is null
+   * never match, and sort last, so that for any row of the left collection
+   * the rows that match it come first; the runtime relies on this to find the
+   * best match by binary search.
+   *
    * @param rightCollectionType  Type of data in right collection.
-   * @param kind                 Comparison kind.
+   * @param kind                 Comparison kind, with the field of the right
+   *                             collection as its first operand.
    * @param timestampFieldIndex  Index of the field that is the timestamp field.
    */
   private static Expression generateTimestampComparator(
@@ -154,11 +160,18 @@ private static Expression generateTimestampComparator(
     final List<RelFieldCollation> fieldCollations = new ArrayList<>(1);
     fieldCollations.add(
         new RelFieldCollation(timestampFieldIndex, direction,
-            RelFieldCollation.NullDirection.FIRST));
+            RelFieldCollation.NullDirection.LAST));
     final RelCollation collation = RelCollations.of(fieldCollations);
     return rightCollectionType.generateComparator(collation);
   }
 
+  /** Returns whether the first operand of a comparison 'call' is the
+   * field from the inner collection. */
+  private boolean isInnerFirst(RexCall call) {
+    final RexInputRef ref = (RexInputRef) call.getOperands().get(0);
+    return ref.getIndex() >= left.getRowType().getFieldCount();
+  }
+
   /** Extracts from a comparison 'call' the index of the field from
    * the inner collection that is used in the comparison. */
   private int getTimestampFieldIndex(RexCall call) {
@@ -206,7 +219,7 @@ private int getTimestampFieldIndex(RexCall call) {
     // and the timestamp field in the right collection.
     assert matchCondition instanceof RexCall;
     RexCall call = (RexCall) matchCondition;
-    SqlKind kind = call.getKind();
+    SqlKind kind = isInnerFirst(call) ? call.getKind() : call.getKind().reverse();
     int timestampFieldIndex = getTimestampFieldIndex(call);
 
     Expression timestampComparator =
@@ -18,7 +18,9 @@
 
 import org.apache.calcite.DataContext;
 import org.apache.calcite.adapter.java.JavaTypeFactory;
+import org.apache.calcite.config.CalciteSystemProperty;
 import org.apache.calcite.linq4j.Enumerator;
+import org.apache.calcite.linq4j.function.Function1;
 import org.apache.calcite.linq4j.tree.BlockBuilder;
 import org.apache.calcite.linq4j.tree.BlockStatement;
 import org.apache.calcite.linq4j.tree.Blocks;
@@ -38,11 +40,16 @@
 import org.apache.calcite.rel.metadata.RelMdCollation;
 import org.apache.calcite.rel.metadata.RelMdDistribution;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexLocalRef;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexProgram;
 import org.apache.calcite.rex.RexSimplify;
 import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
 import org.apache.calcite.sql.validate.SqlConformance;
 import org.apache.calcite.sql.validate.SqlConformanceEnum;
 import org.apache.calcite.util.BuiltInMethod;
@@ -55,12 +62,16 @@
 
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.apache.calcite.adapter.enumerable.EnumUtils.BRIDGE_METHODS;
 import static org.apache.calcite.adapter.enumerable.EnumUtils.NO_EXPRS;
 import static org.apache.calcite.adapter.enumerable.EnumUtils.NO_PARAMS;
 
+import static java.util.Objects.requireNonNull;
+
 /** Implementation of {@link org.apache.calcite.rel.core.Calc} in
  * {@link org.apache.calcite.adapter.enumerable.EnumerableConvention enumerable calling convention}. */
 public class EnumerableCalc extends Calc implements EnumerableRel {
@@ -205,6 +216,34 @@ public static EnumerableCalc create(final RelNode input,
     BlockStatement currentBody =
         builder3.toBlock();
 
+    // If "current" would be too large for the JIT compiler, evaluate the
+    // projections, or the branches of a single CASE, in several smaller
+    // methods.
+    final List<MemberDeclaration> projectors = new ArrayList<>();
+    final int splitSize = CalciteSystemProperty.METHOD_SPLIT_SIZE.value();
+    if (splitSize >= 0) {
+      final int size = CodeSizeEstimator.estimate(currentBody);
+      if (size > splitSize) {
+        final int groupCount = size / Math.max(splitSize, 1) + 1;
+        final RexToLixTranslator.InputGetter inputGetter =
+            new RexToLixTranslator.InputGetterImpl(input, result.physType);
+        if (program.getProjectList().size() > 1) {
+          currentBody =
+              splitProjects(program, groupCount, typeFactory, conformance,
+                  physType, inputGetter, implementor.allCorrelateVariables,
+                  projectors);
+        } else {
+          final BlockStatement caseBody =
+              splitCase(program, groupCount, rexBuilder, typeFactory,
+                  conformance, physType, inputGetter,
+                  implementor.allCorrelateVariables, projectors);
+          if (caseBody != null) {
+            currentBody = caseBody;
+          }
+        }
+      }
+    }
+
     final Expression inputEnumerable =
         builder.append(
             "inputEnumerable", result.block, false);
@@ -212,7 +251,7 @@ public static EnumerableCalc create(final RelNode input,
         Expressions.new_(
             enumeratorType,
             NO_EXPRS,
-            Expressions.list(
+            Expressions.<MemberDeclaration>list(
                 Expressions.fieldDecl(
                     Modifier.PUBLIC
                     | Modifier.FINAL,
@@ -245,7 +284,8 @@ public static EnumerableCalc create(final RelNode input,
                         : outputJavaType,
                     "current",
                     NO_PARAMS,
-                    currentBody)));
+                    currentBody))
+            .appendAll(projectors));
     builder.add(
         Expressions.return_(
             null,
@@ -264,6 +304,217 @@ public static EnumerableCalc create(final RelNode input,
     return implementor.result(physType, builder.toBlock());
   }
 
+  /** Generates code that evaluates the projections of a program in several
+   * objects, each of which writes some of the fields of the output row into
+   * an array.
+   *
+   * <p>Each object is an anonymous {@link java.util.function.Consumer} held
+   * in a field of the enumerator; the field declarations are added to
+   * {@code projectors}. Returns the new body of the enumerator's
+   * {@code current()} method, which calls them in turn.
+   *
+   * <p>Common sub-expressions of projections in different groups are
+   * evaluated once per group. */
+  private static BlockStatement splitProjects(RexProgram program,
+      int groupCount, JavaTypeFactory typeFactory, SqlConformance conformance,
+      PhysType physType, RexToLixTranslator.InputGetter inputGetter,
+      Function1<String, RexToLixTranslator.InputGetter> correlates,
+      List<MemberDeclaration> projectors) {
+    final List<RexLocalRef> projects = program.getProjectList();
+    final List<String> fieldNames = program.getOutputRowType().getFieldNames();
+    final int fieldCount = projects.size();
+    final int groupSize =
+        (fieldCount + Math.min(groupCount, fieldCount) - 1)
+            / Math.min(groupCount, fieldCount);
+
+    final BlockBuilder builder = new BlockBuilder();
+    final Expression values =
+        builder.append("values",
+            Expressions.newArrayBounds(Object.class, 1,
+                Expressions.constant(fieldCount)));
+    for (int start = 0; start < fieldCount; start += groupSize) {
+      final int end = Math.min(start + groupSize, fieldCount);
+      final List<RexLocalRef> groupProjects = projects.subList(start, end);
+      final RexProgram groupProgram =
+          new RexProgram(program.getInputRowType(), program.getExprList(),
+              groupProjects, null,
+              typeFactory.createStructType(
+                  Util.transform(groupProjects, RexNode::getType),
+                  fieldNames.subList(start, end)));
+
+      final BlockBuilder builder2 = new BlockBuilder();
+      final ParameterExpression parameter =
+          Expressions.parameter(Object.class, "o");
+      final Expression values2 =
+          builder2.append("values",
+              Expressions.convert_(parameter, Object[].class));
+      final List<Expression> expressions =
+          RexToLixTranslator.translateProjects(groupProgram, typeFactory,
+              conformance, builder2, null, null, DataContext.ROOT,
+              inputGetter, correlates);
+      for (int i = 0; i < expressions.size(); i++) {
+        builder2.add(
+            Expressions.statement(
+                Expressions.assign(
+                    Expressions.arrayIndex(values2,
+                        Expressions.constant(start + i)),
+                    EnumUtils.convert(expressions.get(i), Object.class))));
+      }
+      final ParameterExpression projector =
+          Expressions.parameter(Consumer.class, "projector" + projectors.size());
+      projectors.add(
+          Expressions.fieldDecl(Modifier.FINAL, projector,
+              Expressions.new_(Consumer.class, NO_EXPRS,
+                  ImmutableList.of(
+                      EnumUtils.overridingMethodDecl(
+                          BuiltInMethod.CONSUMER_ACCEPT.method,
+                          ImmutableList.of(parameter),
+                          builder2.toBlock())))));
+      builder.add(
+          Expressions.statement(
+              Expressions.call(projector,
+                  BuiltInMethod.CONSUMER_ACCEPT.method, values)));
+    }
+
+    addReturnRow(builder, values, fieldCount, physType);
+    return builder.toBlock();
+  }
+
+  /** Generates code that evaluates a program whose only projection is a
+   * {@code CASE} with many branches in several objects, each of which tests
+   * some of the branches.
+   *
+   * <p>Each object is an anonymous {@link java.util.function.Consumer} held
+   * in a field of the enumerator; the field declarations are added to
+   * {@code projectors}. Each object writes into an array the value of a
+   * {@code CASE} of some of the {@code WHEN} branches, whose {@code ELSE}
+   * calls the next object; so the conditions are still evaluated lazily and
+   * in order. Returns the new body of the enumerator's {@code current()}
+   * method, which calls the first object; or null if the projection is not
+   * such a {@code CASE}. */
+  private static @Nullable BlockStatement splitCase(RexProgram program,
+      int groupCount, RexBuilder rexBuilder, JavaTypeFactory typeFactory,
+      SqlConformance conformance, PhysType physType,
+      RexToLixTranslator.InputGetter inputGetter,
+      Function1<String, RexToLixTranslator.InputGetter> correlates,
+      List<MemberDeclaration> projectors) {
+    final RexNode project =
+        program.expandLocalRef(program.getProjectList().get(0));
+    if (project.getKind() != SqlKind.CASE) {
+      return null;
+    }
+    final List<RexNode> operands = ((RexCall) project).getOperands();
+    final int branchCount = operands.size() / 2;
+    if (branchCount < 2 || operands.size() % 2 != 1) {
+      return null;
+    }
+    final int groupSize =
+        (branchCount + Math.min(groupCount, branchCount) - 1)
+            / Math.min(groupCount, branchCount);
+    final int objectCount = (branchCount + groupSize - 1) / groupSize;
+
+    // Each group's ELSE is an extra input field, whose value is computed by
+    // calling the object of the next group.
+    final RelDataType type = project.getType();
+    final int elseIndex = program.getInputRowType().getFieldCount();
+    final RelDataType inputRowType =
+        typeFactory.builder()
+            .addAll(program.getInputRowType().getFieldList())
+            .add("$else", type)
+            .build();
+    final List<ParameterExpression> fields = new ArrayList<>();
+    for (int i = 0; i < objectCount; i++) {
+      fields.add(
+          Expressions.parameter(Consumer.class,
+              "projector" + (projectors.size() + i)));
+    }
+    for (int i = 0; i < objectCount; i++) {
+      final List<RexNode> groupOperands =
+          new ArrayList<>(
+              operands.subList(2 * i * groupSize,
+                  2 * Math.min((i + 1) * groupSize, branchCount)));
+      final boolean last = i == objectCount - 1;
+      groupOperands.add(
+          last ? Util.last(operands) : rexBuilder.makeInputRef(type, elseIndex));
+      final RexProgram groupProgram =
+          RexProgram.create(inputRowType,
+              ImmutableList.of(
+                  rexBuilder.makeCall(type, SqlStdOperatorTable.CASE,
+                      groupOperands)),
+              null, program.getOutputRowType(), rexBuilder);
+
+      final BlockBuilder builder2 = new BlockBuilder();
+      final ParameterExpression parameter =
+          Expressions.parameter(Object.class, "o");
+      final Expression values2 =
+          builder2.append("values",
+              Expressions.convert_(parameter, Object[].class));
+      final Expression value2 =
+          Expressions.arrayIndex(values2, Expressions.constant(0));
+      final @Nullable ParameterExpression next =
+          last ? null : fields.get(i + 1);
+      final RexToLixTranslator.InputGetter groupInputGetter =
+          (list, index, storageType) -> {
+            if (index < elseIndex) {
+              return inputGetter.field(list, index, storageType);
+            }
+            list.add(
+                Expressions.statement(
+                    Expressions.call(requireNonNull(next, "next"),
+                        BuiltInMethod.CONSUMER_ACCEPT.method, values2)));
+            return EnumUtils.convert(value2,
+                storageType != null ? storageType
+                    : typeFactory.getJavaClass(type));
+          };
+      final List<Expression> expressions =
+          RexToLixTranslator.translateProjects(groupProgram, typeFactory,
+              conformance, builder2, null, null, DataContext.ROOT,
+              groupInputGetter, correlates);
+      builder2.add(
+          Expressions.statement(
+              Expressions.assign(value2,
+                  EnumUtils.convert(expressions.get(0), Object.class))));
+      projectors.add(
+          Expressions.fieldDecl(Modifier.FINAL, fields.get(i),
+              Expressions.new_(Consumer.class, NO_EXPRS,
+                  ImmutableList.of(
+                      EnumUtils.overridingMethodDecl(
+                          BuiltInMethod.CONSUMER_ACCEPT.method,
+                          ImmutableList.of(parameter),
+                          builder2.toBlock())))));
+    }
+
+    final BlockBuilder builder = new BlockBuilder();
+    final Expression values =
+        builder.append("values",
+            Expressions.newArrayBounds(Object.class, 1,
+                Expressions.constant(1)));
+    builder.add(
+        Expressions.statement(
+            Expressions.call(fields.get(0),
+                BuiltInMethod.CONSUMER_ACCEPT.method, values)));
+    addReturnRow(builder, values, 1, physType);
+    return builder.toBlock();
+  }
+
+  /** Adds to a block a statement that returns a row whose fields have been
+   * written into an array. */
+  private static void addReturnRow(BlockBuilder builder, Expression values,
+      int fieldCount, PhysType physType) {
+    if (physType.getFormat() == JavaRowFormat.ARRAY) {
+      builder.add(Expressions.return_(null, values));
+    } else {
+      final List<Expression> fields = new ArrayList<>();
+      for (int i = 0; i < fieldCount; i++) {
+        fields.add(
+            EnumUtils.convert(
+                Expressions.arrayIndex(values, Expressions.constant(i)),
+                physType.getJavaFieldType(i)));
+      }
+      builder.add(Expressions.return_(null, physType.record(fields)));
+    }
+  }
+
   @Override public @Nullable Pair<RelTraitSet, List<RelTraitSet>> passThroughTraits(
       final RelTraitSet required) {
     final List<RexNode> exps =
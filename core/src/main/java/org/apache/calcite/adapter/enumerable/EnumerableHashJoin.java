@@ -39,10 +39,12 @@
 import org.apache.calcite.util.ImmutableIntList;
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.Util;
+import org.apache.calcite.util.trace.CalciteTrace;
 
 import com.google.common.collect.ImmutableList;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
 
 import java.lang.reflect.Method;
 import java.util.List;
@@ -51,6 +53,8 @@
 /** Implementation of {@link org.apache.calcite.rel.core.Join} in
  * {@link org.apache.calcite.adapter.enumerable.EnumerableConvention enumerable calling convention}. */
 public class EnumerableHashJoin extends Join implements EnumerableRel {
+  private static final Logger JOIN_LOGGER = CalciteTrace.getJoinTracer();
+
   /** Creates an EnumerableHashJoin.
    *
    * <p>Use {@link #create} unless you know what you're doing. */
@@ -256,13 +260,20 @@ private Result implementHashJoin(EnumerableRelImplementor implementor, Prefer pr
                 rightResult.physType, nonEquiCondition);
       }
     }
+    // adaptiveHashJoin chooses an algorithm from the actual size of the right
+    // (build) input; trace the estimate here, not in the generated code, so
+    // that plans that differ only in their estimates share generated code
+    if (JOIN_LOGGER.isDebugEnabled()) {
+      JOIN_LOGGER.debug("Right input of join {} has an estimated {} rows",
+          getId(), getCluster().getMetadataQuery().getRowCount(right));
+    }
     return implementor.result(
         physType,
         builder.append(
             Expressions.call(
-                leftExpression,
-                BuiltInMethod.HASH_JOIN.method,
+                BuiltInMethod.ADAPTIVE_HASH_JOIN.method,
                 Expressions.list(
+                    leftExpression,
                     rightExpression,
                     leftResult.physType.generateAccessorWithoutNulls(joinInfo.leftKeys),
                     rightResult.physType.generateAccessorWithoutNulls(joinInfo.rightKeys),
@@ -17,6 +17,7 @@
 package org.apache.calcite.adapter.enumerable;
 
 import org.apache.calcite.DataContext;
+import org.apache.calcite.avatica.AvaticaUtils;
 import org.apache.calcite.avatica.Helper;
 import org.apache.calcite.config.CalciteSystemProperty;
 import org.apache.calcite.interpreter.Compiler;
@@ -44,6 +45,9 @@
 import org.apache.calcite.runtime.Typed;
 import org.apache.calcite.util.Util;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
@@ -57,7 +61,6 @@
 import java.lang.reflect.Modifier;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
 
 import static java.util.Objects.requireNonNull;
 
@@ -103,6 +106,20 @@ protected EnumerableInterpretable(RelOptCluster cluster, RelNode input) {
           .maximumSize(CalciteSystemProperty.BINDABLE_CACHE_MAX_SIZE.value())
           .build();
 
+  /** Compiler that compiles the source code of the generated class with
+   * Janino. */
+  public static final BindableCompiler JANINO =
+      EnumerableInterpretable::compileWithJanino;
+
+  /** Compiler that compiles the source code of the generated class with the
+   * Java compiler of the JDK. */
+  public static final BindableCompiler JDK = new JdkBindableCompiler();
+
+  /** Compiler selected by {@link CalciteSystemProperty#ENUMERABLE_COMPILER},
+   * created on first use. */
+  private static final Supplier<BindableCompiler> COMPILER =
+      Suppliers.memoize(EnumerableInterpretable::createCompiler);
+
   public static Bindable toBindable(Map<String, Object> parameters,
       CalcitePrepare.@Nullable SparkHandler spark, EnumerableRel rel,
       EnumerableRel.Prefer prefer) {
@@ -118,6 +135,9 @@ public static Bindable toBindable(Map<String, Object> parameters,
     }
 
     Hook.JAVA_PLAN.run(s);
+    if (Hook.JAVA_METHOD_SIZES.hasHandlers()) {
+      Hook.JAVA_METHOD_SIZES.run(CodeSizeEstimator.methodSizes(expr));
+    }
 
     try {
       if (spark != null && spark.enabled()) {
@@ -131,9 +151,49 @@ public static Bindable toBindable(Map<String, Object> parameters,
     }
   }
 
-  static Bindable getBindable(ClassDeclaration expr, String classBody, int fieldCount)
-      throws CompileException, ExecutionException, ClassNotFoundException,
-      InvocationTargetException, InstantiationException, IllegalAccessException {
+  static Bindable getBindable(ClassDeclaration expr, String classBody,
+      int fieldCount) throws Exception {
+    final BindableCompiler defaultCompiler = COMPILER.get();
+    final BindableCompiler compiler =
+        Hook.BINDABLE_COMPILER.get(defaultCompiler);
+    // The cache only holds classes compiled by the default compiler
+    if (compiler == defaultCompiler
+        && CalciteSystemProperty.BINDABLE_CACHE_MAX_SIZE.value() != 0) {
+      StaticFieldDetector detector = new StaticFieldDetector();
+      expr.accept(detector);
+      if (!detector.containsStaticField) {
+        return BINDABLE_CACHE.get(classBody, () ->
+            compiler.compile(expr, classBody, fieldCount));
+      }
+    }
+    return compiler.compile(expr, classBody, fieldCount);
+  }
+
+  /** Creates the compiler selected by
+   * {@link CalciteSystemProperty#ENUMERABLE_COMPILER}. */
+  private static BindableCompiler createCompiler() {
+    return createCompiler(CalciteSystemProperty.ENUMERABLE_COMPILER.value());
+  }
+
+  /** Creates a compiler, given a value of the
+   * {@link CalciteSystemProperty#ENUMERABLE_COMPILER} property. */
+  @VisibleForTesting
+  static BindableCompiler createCompiler(String name) {
+    switch (name) {
+    case "janino":
+      return JANINO;
+    case "jdk":
+      return JDK;
+    default:
+      return AvaticaUtils.instantiatePlugin(BindableCompiler.class, name);
+    }
+  }
+
+  private static Bindable compileWithJanino(ClassDeclaration expr,
+      String classBody, int fieldCount)
+      throws CompileException, ClassNotFoundException,
+      InvocationTargetException, InstantiationException,
+      IllegalAccessException {
     ICompilerFactory compilerFactory;
     ClassLoader classLoader =
         requireNonNull(EnumerableInterpretable.class.getClassLoader(),
@@ -146,40 +206,33 @@ static Bindable getBindable(ClassDeclaration expr, String classBody, int fieldCo
     }
     final ISimpleCompiler compiler = compilerFactory.newSimpleCompiler();
     compiler.setParentClassLoader(classLoader);
-    final String s = "public final class " + expr.name + " implements "
-        + (fieldCount == 1
-          ? Bindable.class.getCanonicalName() + ", " + Typed.class.getCanonicalName()
-          : ArrayBindable.class.getCanonicalName())
-        + " {\n"
-        + classBody
-        + "\n"
-        + "}";
+    final String s = classSource(expr.name, classBody, fieldCount);
 
     if (CalciteSystemProperty.DEBUG.value()) {
       // Add line numbers to the generated janino class
       compiler.setDebuggingInformation(true, true, true);
     }
 
-    if (CalciteSystemProperty.BINDABLE_CACHE_MAX_SIZE.value() != 0) {
-      StaticFieldDetector detector = new StaticFieldDetector();
-      expr.accept(detector);
-      if (!detector.containsStaticField) {
-        return BINDABLE_CACHE.get(classBody, () ->  compileToBindable(expr.name, s, compiler));
-      }
-    }
-    return compileToBindable(expr.name, s, compiler);
-  }
-
-  private static Bindable<?> compileToBindable(String className, String s, ISimpleCompiler compiler)
-      throws CompileException, ClassNotFoundException, InvocationTargetException,
-      InstantiationException, IllegalAccessException {
     compiler.cook(s);
     return (Bindable<?>) compiler.getClassLoader()
-        .loadClass(className)
+        .loadClass(expr.name)
         .getDeclaredConstructors()[0]
         .newInstance();
   }
 
+  /** Returns the source code of the generated class, given the source code
+   * of its members. */
+  static String classSource(String name, String classBody, int fieldCount) {
+    return "public final class " + name + " implements "
+        + (fieldCount == 1
+          ? Bindable.class.getCanonicalName() + ", " + Typed.class.getCanonicalName()
+          : ArrayBindable.class.getCanonicalName())
+        + " {\n"
+        + classBody
+        + "\n"
+        + "}";
+  }
+
   /**
    * A visitor detecting if the Java AST contains static fields.
    */
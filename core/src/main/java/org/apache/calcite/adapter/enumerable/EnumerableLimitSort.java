@@ -24,18 +24,25 @@
 import org.apache.calcite.rel.RelCollation;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.Sort;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.util.BuiltInMethod;
 import org.apache.calcite.util.Pair;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.List;
+
 import static org.apache.calcite.adapter.enumerable.EnumerableLimit.getExpression;
 
 /**
  * Implementation of {@link org.apache.calcite.rel.core.Sort} in
  * {@link org.apache.calcite.adapter.enumerable.EnumerableConvention enumerable calling convention}.
  * It optimizes sorts that have a limit and an optional offset.
+ *
+ * <p>Only the first {@code offset + fetch} rows are buffered, in a bounded
+ * heap. If the input is known to be sorted already, rows are not buffered at
+ * all, and the input is read no further than the last row required.
  */
 public class EnumerableLimitSort extends Sort implements EnumerableRel {
 
@@ -92,6 +99,26 @@ public static EnumerableLimitSort create(
             result.format);
     final Expression childExp = builder.append("child", result.block);
 
+    if (isInputSorted()) {
+      // The input already arrives in the required order; skip and take
+      // rows as they stream past, and stop reading after the last one.
+      Expression v = childExp;
+      if (offset != null) {
+        v =
+            builder.append("offset",
+                Expressions.call(v, BuiltInMethod.SKIP.method,
+                    getExpression(offset)));
+      }
+      if (fetch != null) {
+        v =
+            builder.append("fetch",
+                Expressions.call(v, BuiltInMethod.TAKE.method,
+                    getExpression(fetch)));
+      }
+      builder.add(Expressions.return_(null, v));
+      return implementor.result(physType, builder.toBlock());
+    }
+
     final PhysType inputPhysType = result.physType;
     final Pair<Expression, Expression> pair =
         inputPhysType.generateCollationKey(this.collation.getFieldCollations());
@@ -125,4 +152,20 @@ public static EnumerableLimitSort create(
                             Expressions.constant(fetchVal))))));
     return implementor.result(physType, builder.toBlock());
   }
+
+  /** Returns whether the input is known to be sorted on this sort's
+   * collation, in which case there is no need to buffer rows. */
+  private boolean isInputSorted() {
+    final RelMetadataQuery mq = getCluster().getMetadataQuery();
+    final List<RelCollation> collations = mq.collations(getInput());
+    if (collations == null) {
+      return false;
+    }
+    for (RelCollation inputCollation : collations) {
+      if (inputCollation.satisfies(collation)) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -107,7 +107,8 @@ protected EnumerableMergeJoin(
     // legit, but not yet supported:
     // SELECT * FROM foo JOIN bar ON foo.a = bar.c AND foo.b = bar.d;
     // MergeJoin has collation on [a, d], or [b, c]
-    if (!RelCollations.collationsContainKeysOrderless(collations, joinInfo.leftKeys)
+    if (joinType != JoinRelType.FULL
+        && !RelCollations.collationsContainKeysOrderless(collations, joinInfo.leftKeys)
         && !RelCollations.collationsContainKeysOrderless(collations, rightKeys)
         && !RelCollations.keysContainCollationsOrderless(joinInfo.leftKeys, collations)
         && !RelCollations.keysContainCollationsOrderless(rightKeys, collations)) {
@@ -217,6 +218,10 @@ private static List<RelCollation> getCollations(RelTraitSet traits) {
    */
   @Override public @Nullable Pair<RelTraitSet, List<RelTraitSet>> passThroughTraits(
       final RelTraitSet required) {
+    if (joinType.generatesNullsOnLeft()) {
+      // Rows that have no match on the left are not sorted on left columns
+      return null;
+    }
     // Required collation keys can be subset or superset of merge join keys.
     RelCollation collation = getCollation(required);
     int leftInputFieldCount = left.getRowType().getFieldCount();
@@ -300,6 +305,9 @@ private static List<RelCollation> getCollations(RelTraitSet traits) {
 
   @Override public @Nullable Pair<RelTraitSet, List<RelTraitSet>> deriveTraits(
       final RelTraitSet childTraits, final int childId) {
+    if (joinType.generatesNullsOnLeft()) {
+      return null;
+    }
     final int keyCount = joinInfo.leftKeys.size();
     RelCollation collation = getCollation(childTraits);
     final int colCount = collation.getFieldCollations().size();
@@ -95,7 +95,15 @@ protected EnumerableMergeJoinRule(Config config) {
 
     RelTraitSet traitSet = join.getTraitSet()
         .replace(EnumerableConvention.INSTANCE);
-    if (!collations.isEmpty()) {
+    switch (join.getJoinType()) {
+    case RIGHT:
+      // Left columns are null in right rows that have no match
+      traitSet = traitSet.replace(collations.get(1));
+      break;
+    case FULL:
+      traitSet = traitSet.replace(RelCollations.EMPTY);
+      break;
+    default:
       traitSet = traitSet.replace(collations);
     }
     // Re-arrange condition: first the equi-join elements, then the non-equi-join ones (if any);
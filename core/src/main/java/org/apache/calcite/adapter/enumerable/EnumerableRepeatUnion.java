@@ -18,6 +18,7 @@
 
 import org.apache.calcite.linq4j.function.Experimental;
 import org.apache.calcite.linq4j.function.Function0;
+import org.apache.calcite.linq4j.function.Function2;
 import org.apache.calcite.linq4j.tree.BlockBuilder;
 import org.apache.calcite.linq4j.tree.Expression;
 import org.apache.calcite.linq4j.tree.Expressions;
@@ -26,12 +27,16 @@
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.RepeatUnion;
+import org.apache.calcite.rel.core.TableSpool;
+import org.apache.calcite.runtime.Hook;
+import org.apache.calcite.schema.ModifiableTable;
 import org.apache.calcite.schema.TransientTable;
 import org.apache.calcite.util.BuiltInMethod;
 import org.apache.calcite.util.Util;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Collection;
 import java.util.List;
 
 import static org.apache.calcite.util.Util.last;
@@ -72,6 +77,8 @@ public class EnumerableRepeatUnion extends RepeatUnion implements EnumerableRel
     RelNode iteration = getIterativeRel();
 
     Expression cleanUpFunctionExp = Expressions.constant(null);
+    Expression deltaExp = Expressions.constant(null);
+    Expression listenerExp = Expressions.constant(null);
     if (transientTable != null) {
       // root.getRootSchema().add(tableName, table);
       Expression tableExp =
@@ -95,6 +102,26 @@ public class EnumerableRepeatUnion extends RepeatUnion implements EnumerableRel
                   Expressions.call(implementor.getRootExpression(),
                       BuiltInMethod.DATA_CONTEXT_GET_ROOT_SCHEMA.method),
                   BuiltInMethod.SCHEMA_PLUS_REMOVE_TABLE.method, tableNameExp));
+
+      // If both inputs write directly to the transient table, each
+      // iteration can read only the rows that are new (semi-naive evaluation)
+      final ModifiableTable modifiableTable =
+          transientTable.unwrap(ModifiableTable.class);
+      if (!all
+          && modifiableTable != null
+          && writesTo(seed, transientTable)
+          && writesTo(iteration, transientTable)) {
+        deltaExp =
+            implementor.stash(modifiableTable.getModifiableCollection(),
+                Collection.class);
+      }
+
+      final Function2<Integer, Integer, @Nullable Void> listener =
+          (step, rowCount) -> {
+            Hook.REPEAT_UNION_STEP.run(new Object[] {tableName, step, rowCount});
+            return null;
+          };
+      listenerExp = implementor.stash(listener, Function2.class);
     }
 
     Result seedResult = implementor.visitChild(this, 0, (EnumerableRel) seed, pref);
@@ -115,10 +142,19 @@ public class EnumerableRepeatUnion extends RepeatUnion implements EnumerableRel
             Expressions.constant(all, boolean.class),
             Util.first(physType.comparer(),
                 Expressions.call(BuiltInMethod.IDENTITY_COMPARER.method)),
-            cleanUpFunctionExp);
+            cleanUpFunctionExp,
+            deltaExp,
+            listenerExp);
     builder.add(unionExp);
 
     return implementor.result(physType, builder.toBlock());
   }
 
+  /** Returns whether a relational expression is a spool that writes every
+   * row it returns to a given table. */
+  private static boolean writesTo(RelNode rel, RelOptTable table) {
+    return rel instanceof TableSpool
+        && ((TableSpool) rel).getTable().getQualifiedName()
+            .equals(table.getQualifiedName());
+  }
 }
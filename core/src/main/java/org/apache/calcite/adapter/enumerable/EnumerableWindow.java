@@ -35,6 +35,8 @@
 import org.apache.calcite.plan.RelOptCost;
 import org.apache.calcite.plan.RelOptPlanner;
 import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelCollation;
+import org.apache.calcite.rel.RelCollations;
 import org.apache.calcite.rel.RelFieldCollation;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.AggregateCall;
@@ -51,6 +53,7 @@
 import org.apache.calcite.sql.SqlAggFunction;
 import org.apache.calcite.sql.validate.SqlConformance;
 import org.apache.calcite.util.BuiltInMethod;
+import org.apache.calcite.util.Holder;
 import org.apache.calcite.util.ImmutableBitSet;
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.Util;
@@ -100,6 +103,38 @@ public class EnumerableWindow extends Window implements EnumerableRel {
     return cost.multiplyBy(EnumerableConvention.COST_MULTIPLIER);
   }
 
+  @Override public @Nullable Pair<RelTraitSet, List<RelTraitSet>> passThroughTraits(
+      RelTraitSet required) {
+    // If the input is sorted so that every group can read one partition at a
+    // time, the output is in the same order as the input
+    final RelCollation collation = required.getCollation();
+    if (collation == null || !isSortedForAll(collation)) {
+      return null;
+    }
+    final RelTraitSet traits = traitSet.replace(collation);
+    return Pair.of(traits, ImmutableList.of(traits));
+  }
+
+  @Override public @Nullable Pair<RelTraitSet, List<RelTraitSet>> deriveTraits(
+      final RelTraitSet childTraits, final int childId) {
+    final RelCollation collation = childTraits.getCollation();
+    if (collation == null || !isSortedForAll(collation)) {
+      return null;
+    }
+    final RelTraitSet traits = traitSet.replace(collation);
+    return Pair.of(traits, ImmutableList.of(childTraits));
+  }
+
+  /** Returns whether input sorted on a collation is sorted as every group
+   * requires. The collation must refer to input fields only. */
+  private boolean isSortedForAll(RelCollation collation) {
+    final int inputFieldCount = getInput().getRowType().getFieldCount();
+    return !collation.getFieldCollations().isEmpty()
+        && collation.getFieldCollations().stream()
+            .allMatch(c -> c.getFieldIndex() < inputFieldCount)
+        && groups.stream().allMatch(group -> isSortedFor(collation, group));
+  }
+
   /** Implementation of {@link RexToLixTranslator.InputGetter}
    * suitable for generating implementations of windowed aggregate
    * functions. */
@@ -202,8 +237,22 @@ private static void sampleOfTheGeneratedWindowedAggregate() {
     builder.add(Expressions.declare(0, prevStart, null));
     builder.add(Expressions.declare(0, prevEnd, null));
 
+    // Collations of the input. A group whose partitions and order are
+    // already present in the input can read one partition at a time; the
+    // output of such a group is in the same order as its input, so the
+    // collations still hold for the next group.
+    final RelMetadataQuery mq = getCluster().getMetadataQuery();
+    List<RelCollation> inputCollations =
+        Util.first(mq.collations(getInput()), ImmutableList.of());
+
     for (int windowIdx = 0; windowIdx < groups.size(); windowIdx++) {
       Group group = groups.get(windowIdx);
+      final boolean sorted =
+          inputCollations.stream()
+              .anyMatch(collation -> isSortedFor(collation, group));
+      if (!sorted) {
+        inputCollations = ImmutableList.of();
+      }
       // Comparator:
       // final Comparator<JdbcTest.Employee> comparator =
       //    new Comparator<JdbcTest.Employee>() {
@@ -216,9 +265,9 @@ private static void sampleOfTheGeneratedWindowedAggregate() {
           builder.append("comparator",
               inputPhysType.generateComparator(group.collation()));
 
-      Pair<Expression, Expression> partitionIterator =
+      Pair<@Nullable Expression, Expression> partitionIterator =
           getPartitionIterator(builder, source_, inputPhysType, group,
-              comparator_);
+              comparator_, sorted);
       final Expression collectionExpr = partitionIterator.left;
       final Expression iterator_ = partitionIterator.right;
 
@@ -248,9 +297,11 @@ private static void sampleOfTheGeneratedWindowedAggregate() {
 
       final Expression list_ =
           builder.append("list",
-              Expressions.new_(ArrayList.class,
-                  Expressions.call(collectionExpr,
-                      BuiltInMethod.COLLECTION_SIZE.method)),
+              collectionExpr == null
+                  ? Expressions.new_(ArrayList.class)
+                  : Expressions.new_(ArrayList.class,
+                      Expressions.call(collectionExpr,
+                          BuiltInMethod.COLLECTION_SIZE.method)),
               false);
 
       Pair<@Nullable Expression, @Nullable Expression> collationKey =
@@ -301,8 +352,15 @@ private static void sampleOfTheGeneratedWindowedAggregate() {
                 outputPhysType.getJavaFieldType(i)));
       }
 
-      declareAndResetState(typeFactory, builder, result, windowIdx, aggs,
-          outputPhysType, outputRow, group.exclude);
+      // If the lower bound of the frame moves, and every aggregate function
+      // can remove rows, the frame is maintained incrementally: rows that
+      // leave the frame are removed, rather than recomputing the frame.
+      final boolean frameSliding =
+          !group.lowerBound.isUnboundedPreceding()
+              && group.exclude == RexWindowExclusion.EXCLUDE_NO_OTHER;
+      final boolean removable =
+          declareAndResetState(typeFactory, builder, result, windowIdx, aggs,
+              outputPhysType, outputRow, group.exclude, frameSliding);
 
       // There are assumptions that minX==0. If ever change this, look for
       // frameRowCount, bounds checking, etc
@@ -413,9 +471,64 @@ private static void sampleOfTheGeneratedWindowedAggregate() {
       Expression needRecomputeWindow =
           Expressions.orElse(Expressions.orElse(isExcluding, lowerBoundCanChange),
               Expressions.lessThan(endX, prevEnd));
+      if (removable) {
+        // The frame can slide if it is non-empty, has moved forward, and
+        // overlaps or is adjacent to the previous non-empty frame
+        needRecomputeWindow =
+            Expressions.not(
+                Expressions.foldAnd(
+                    ImmutableList.of(
+                        Expressions.greaterThanOrEqual(prevStart,
+                            Expressions.constant(0)),
+                        Expressions.greaterThanOrEqual(startX, prevStart),
+                        Expressions.lessThanOrEqual(startX,
+                            Expressions.add(prevEnd, Expressions.constant(1))),
+                        Expressions.greaterThanOrEqual(endX, prevEnd))));
+      }
+
+      final Function<AggImpState, List<RexNode>> rexArguments = agg -> {
+        List<Integer> argList = agg.call.getArgList();
+        List<RelDataType> inputTypes =
+            EnumUtils.fieldRowTypes(result.physType.getRowType(), constants,
+                argList);
+        List<RexNode> args = new ArrayList<>(inputTypes.size());
+        for (int i = 0; i < argList.size(); i++) {
+          Integer idx = argList.get(i);
+          args.add(new RexInputRef(idx, inputTypes.get(i)));
+        }
+        return args;
+      };
 
       BlockStatement resetWindowState = builder6.toBlock();
-      if (resetWindowState.statements.size() == 1) {
+      if (removable) {
+        //   for (int k = prevStart; k < startX; k++) {
+        //     remove row k from each accumulator
+        //   }
+        //   actualStart = prevEnd + 1;
+        final DeclarationStatement kDecl =
+            Expressions.declare(0, "k", prevStart);
+        final BlockBuilder builder8 = new BlockBuilder(true, builder5);
+        implementRemove(aggs, builder8,
+            getBlockBuilderWinAggFrameResultContextFunction(typeFactory,
+                implementor.getConformance(), result, translatedConstants,
+                comparator_, rows_, i_, startX, endX, minX, maxX,
+                hasRows, frameRowCount, partitionRowCount,
+                kDecl, inputPhysType),
+            rexArguments, kDecl);
+        builder5.add(
+            Expressions.declare(0, actualStart, null));
+        builder5.add(
+            Expressions.ifThenElse(needRecomputeWindow,
+                resetWindowState,
+                Expressions.block(
+                    Expressions.for_(kDecl,
+                        Expressions.lessThan(kDecl.parameter, startX),
+                        Expressions.preIncrementAssign(kDecl.parameter),
+                        builder8.toBlock()),
+                    Expressions.statement(
+                        Expressions.assign(actualStart,
+                            Expressions.add(prevEnd, Expressions.constant(1)))))));
+      } else if (resetWindowState.statements.size() == 1) {
         builder5.add(
             Expressions.declare(0, actualStart,
                 Expressions.condition(needRecomputeWindow, startX,
@@ -451,19 +564,6 @@ private static void sampleOfTheGeneratedWindowedAggregate() {
               hasRows, frameRowCount, partitionRowCount,
               jDecl, inputPhysTypeFinal);
 
-      final Function<AggImpState, List<RexNode>> rexArguments = agg -> {
-        List<Integer> argList = agg.call.getArgList();
-        List<RelDataType> inputTypes =
-            EnumUtils.fieldRowTypes(result.physType.getRowType(), constants,
-                argList);
-        List<RexNode> args = new ArrayList<>(inputTypes.size());
-        for (int i = 0; i < argList.size(); i++) {
-          Integer idx = argList.get(i);
-          args.add(new RexInputRef(idx, inputTypes.get(i)));
-        }
-        return args;
-      };
-
       implementAdd(aggs, builder7, resultContextBuilder, rexArguments, jDecl);
       BlockStatement forBlock = builder7.toBlock();
 
@@ -510,9 +610,11 @@ private static void sampleOfTheGeneratedWindowedAggregate() {
           Expressions.while_(
               Expressions.call(iterator_, BuiltInMethod.ITERATOR_HAS_NEXT.method),
               builder3.toBlock()));
-      builder.add(
-          Expressions.statement(
-              Expressions.call(collectionExpr, BuiltInMethod.MAP_CLEAR.method)));
+      if (collectionExpr != null) {
+        builder.add(
+            Expressions.statement(
+                Expressions.call(collectionExpr, BuiltInMethod.MAP_CLEAR.method)));
+      }
 
       // We're not assigning to "source". For each group, create a new
       // final variable called "source" or "sourceN".
@@ -659,12 +761,37 @@ public Expression getRow(Expression rowIndex) {
     };
   }
 
-  private static Pair<Expression, Expression> getPartitionIterator(
+  /** Returns whether rows sorted on a collation are already sorted as a
+   * group requires: all rows of a partition are adjacent, and the rows of
+   * each partition are sorted on the group's ORDER BY keys. */
+  static boolean isSortedFor(RelCollation collation, Group group) {
+    final List<RelFieldCollation> fieldCollations =
+        collation.getFieldCollations();
+    final List<RelFieldCollation> orderKeys =
+        group.orderKeys.getFieldCollations();
+    final int keyCount = group.keys.cardinality();
+    if (fieldCollations.size() < keyCount + orderKeys.size()) {
+      return false;
+    }
+    return ImmutableBitSet.of(
+            RelCollations.ordinals(fieldCollations.subList(0, keyCount)))
+        .equals(group.keys)
+        && fieldCollations.subList(keyCount, keyCount + orderKeys.size())
+            .equals(orderKeys);
+  }
+
+  /** Generates code that creates an iterator over the partitions of the
+   * input, each as an array sorted on the group's ORDER BY keys.
+   *
+   * <p>Returns the iterator and the collection that holds the rows, or null
+   * if the input is already sorted and is read one partition at a time. */
+  private static Pair<@Nullable Expression, Expression> getPartitionIterator(
       BlockBuilder builder,
       Expression source_,
       PhysType inputPhysType,
       Group group,
-      Expression comparator_) {
+      Expression comparator_,
+      boolean sorted) {
     // Populate map of lists, one per partition
     //   final Map<Integer, List<Employee>> multiMap =
     //     new SortedMultiMap<Integer, List<Employee>>();
@@ -703,8 +830,6 @@ private static Pair<Expression, Expression> getPartitionIterator(
                   comparator_,
                   tempList_)));
     }
-    Expression multiMap_ =
-        builder.append("multiMap", Expressions.new_(SortedMultiMap.class));
     final BlockBuilder builder2 = new BlockBuilder();
     final ParameterExpression v_ =
         Expressions.parameter(inputPhysType.getJavaRowType(),
@@ -735,6 +860,28 @@ private static Pair<Expression, Expression> getPartitionIterator(
       builder2.add(declare);
       key_ = declare.parameter;
     }
+    if (sorted) {
+      // The input is sorted on the partition keys, so the rows of each
+      // partition are adjacent, and are already in order.
+      //
+      //   Iterator<Employee[]> iterator =
+      //       SortedMultiMap.runArrayIterator(source.enumerator(),
+      //           new Function1<Employee, Integer>() {
+      //             public Integer apply(Employee v) {
+      //               final Integer key = v.deptno;
+      //               return key;
+      //             }
+      //           });
+      builder2.add(Expressions.return_(null, key_));
+      return Pair.of(null,
+          builder.append("iterator",
+              Expressions.call(null, BuiltInMethod.SORTED_MULTI_MAP_RUNS.method,
+                  Expressions.call(source_,
+                      BuiltInMethod.ENUMERABLE_ENUMERATOR.method),
+                  Expressions.lambda(builder2.toBlock(), v_))));
+    }
+    Expression multiMap_ =
+        builder.append("multiMap", Expressions.new_(SortedMultiMap.class));
     builder2.add(
         Expressions.statement(
             Expressions.call(multiMap_,
@@ -770,10 +917,19 @@ private static Pair<Expression, Expression> getPartitionIterator(
     }
   }
 
-  private void declareAndResetState(final JavaTypeFactory typeFactory,
+  /** Creates the context of each aggregate function, and declares and
+   * resets its state.
+   *
+   * <p>Returns whether the frame is maintained incrementally; that is, the
+   * frame slides, and every aggregate function can remove rows. Each
+   * implementor learns this through {@link WinAggContext#isFrameSliding()}
+   * before it chooses its state. */
+  private boolean declareAndResetState(final JavaTypeFactory typeFactory,
       BlockBuilder builder, final Result result, int windowIdx,
       List<AggImpState> aggs, PhysType outputPhysType,
-      List<Expression> outputRow, RexWindowExclusion exclusion) {
+      List<Expression> outputRow, RexWindowExclusion exclusion,
+      boolean frameSliding) {
+    final Holder<Boolean> removable = Holder.of(false);
     for (final AggImpState agg : aggs) {
       agg.context =
           new WinAggContext() {
@@ -818,13 +974,26 @@ private void declareAndResetState(final JavaTypeFactory typeFactory,
             @Override public RexWindowExclusion getExclude() {
               return exclusion;
             }
+
+            @Override public boolean isFrameSliding() {
+              return removable.get();
+            }
           };
+    }
+    removable.set(frameSliding
+        && aggs.stream().allMatch(agg ->
+            agg.implementor instanceof RemovableAggImplementor
+                && ((RemovableAggImplementor) agg.implementor)
+                    .canRemove(requireNonNull(agg.context, "agg.context"))));
+    for (final AggImpState agg : aggs) {
+      final WinAggContext context =
+          (WinAggContext) requireNonNull(agg.context, "agg.context");
       String aggName = "a" + agg.aggIdx;
       if (CalciteSystemProperty.DEBUG.value()) {
         aggName = Util.toJavaId(agg.call.getAggregation().getName(), 0)
             .substring("ID$0$".length()) + aggName;
       }
-      List<Type> state = agg.implementor.getStateType(agg.context);
+      List<Type> state = agg.implementor.getStateType(context);
       final List<Expression> decls = new ArrayList<>(state.size());
       for (int i = 0; i < state.size(); i++) {
         Type type = state.get(i);
@@ -836,7 +1005,7 @@ private void declareAndResetState(final JavaTypeFactory typeFactory,
         decls.add(pe);
       }
       agg.state = decls;
-      Type aggHolderType = agg.context.returnType();
+      Type aggHolderType = context.returnType();
       Type aggStorageType =
           outputPhysType.getJavaFieldType(outputRow.size());
       if (Primitive.is(aggHolderType) && !Primitive.is(aggStorageType)) {
@@ -855,11 +1024,12 @@ private void declareAndResetState(final JavaTypeFactory typeFactory,
                   aggRes.getType())));
       agg.result = aggRes;
       outputRow.add(aggRes);
-      agg.implementor.implementReset(agg.context,
+      agg.implementor.implementReset(context,
           new WinAggResetContextImpl(builder, agg.state,
               castNonNull(null), castNonNull(null), castNonNull(null), castNonNull(null),
               castNonNull(null), castNonNull(null)));
     }
+    return removable.get();
   }
 
   private static void implementAdd(List<AggImpState> aggs,
@@ -886,6 +1056,32 @@ private static void implementAdd(List<AggImpState> aggs,
     }
   }
 
+  private static void implementRemove(List<AggImpState> aggs,
+      final BlockBuilder builder8,
+      final Function<BlockBuilder, WinAggFrameResultContext> frame,
+      final Function<AggImpState, List<RexNode>> rexArguments,
+      final DeclarationStatement kDecl) {
+    for (final AggImpState agg : aggs) {
+      final WinAggAddContext removeContext =
+          new WinAggAddContextImpl(builder8, requireNonNull(agg.state, "agg.state"), frame) {
+            @Override public Expression currentPosition() {
+              return kDecl.parameter;
+            }
+
+            @Override public List<RexNode> rexArguments() {
+              return rexArguments.apply(agg);
+            }
+
+            @Override public @Nullable RexNode rexFilterArgument() {
+              return null;
+            }
+          };
+      ((RemovableAggImplementor) agg.implementor)
+          .implementRemove(requireNonNull(agg.context, "agg.context"),
+              removeContext);
+    }
+  }
+
   private static boolean implementResult(List<AggImpState> aggs,
       final BlockBuilder builder,
       final Function<BlockBuilder, WinAggFrameResultContext> frame,
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.enumerable;
+
+import org.apache.calcite.config.CalciteSystemProperty;
+import org.apache.calcite.linq4j.tree.ClassDeclaration;
+import org.apache.calcite.runtime.Bindable;
+import org.apache.calcite.util.Sources;
+
+import com.google.common.collect.ImmutableList;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implementation of {@link BindableCompiler} that compiles the source code
+ * of the generated class, in memory, with the Java compiler of the JDK
+ * ({@link ToolProvider#getSystemJavaCompiler()}).
+ *
+ * <p>It is selected by setting
+ * {@link CalciteSystemProperty#ENUMERABLE_COMPILER} to "jdk". It compiles
+ * more slowly than Janino, but accepts the whole Java language, and its
+ * bytecode is what the JIT compiler is tuned for. It requires a JDK, not just
+ * a JRE, and that the classes that generated code uses are on the class
+ * path of Calcite's class loader or of the JVM.
+ */
+public class JdkBindableCompiler implements BindableCompiler {
+  @Override public Bindable compile(ClassDeclaration expr, String classBody,
+      int fieldCount) throws Exception {
+    final JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+    if (javac == null) {
+      throw new IllegalStateException("Java compiler is not available; "
+          + "the \"jdk\" compiler requires a JDK");
+    }
+    final ClassLoader parentLoader =
+        requireNonNull(JdkBindableCompiler.class.getClassLoader(),
+            "classLoader");
+    final String source =
+        EnumerableInterpretable.classSource(expr.name, classBody, fieldCount);
+    final DiagnosticCollector<JavaFileObject> diagnostics =
+        new DiagnosticCollector<>();
+    final MemoryFileManager fileManager =
+        new MemoryFileManager(
+            javac.getStandardFileManager(diagnostics, Locale.ROOT,
+                StandardCharsets.UTF_8));
+    final List<String> options =
+        ImmutableList.of("-classpath", classPath(parentLoader),
+            "-proc:none", "-nowarn",
+            CalciteSystemProperty.DEBUG.value() ? "-g" : "-g:none");
+    final boolean success =
+        javac.getTask(null, fileManager, diagnostics, options, null,
+            ImmutableList.of(new SourceFile(expr.name, source))).call();
+    if (!success) {
+      throw new IllegalStateException("Error while compiling "
+          + expr.name + ": " + diagnostics.getDiagnostics());
+    }
+    final ClassLoader classLoader =
+        new MemoryClassLoader(parentLoader, fileManager.classes);
+    return (Bindable<?>) classLoader.loadClass(expr.name)
+        .getDeclaredConstructors()[0]
+        .newInstance();
+  }
+
+  /** Returns the class path for compiling generated code: the directories
+   * and jars of a class loader and its ancestors, then the class path of the
+   * JVM. */
+  private static String classPath(ClassLoader classLoader) {
+    final Set<String> paths = new LinkedHashSet<>();
+    for (@Nullable ClassLoader c = classLoader; c != null; c = c.getParent()) {
+      if (c instanceof URLClassLoader) {
+        for (URL url : ((URLClassLoader) c).getURLs()) {
+          if (url.getProtocol().equals("file")) {
+            paths.add(Sources.of(url).file().getPath());
+          }
+        }
+      }
+    }
+    final String javaClassPath = System.getProperty("java.class.path");
+    if (javaClassPath != null && !javaClassPath.isEmpty()) {
+      paths.addAll(ImmutableList.copyOf(javaClassPath.split(File.pathSeparator)));
+    }
+    return String.join(File.pathSeparator, paths);
+  }
+
+  /** Java source file held in a string. */
+  private static class SourceFile extends SimpleJavaFileObject {
+    private final String source;
+
+    SourceFile(String className, String source) {
+      super(URI.create("string:///" + className.replace('.', '/')
+          + Kind.SOURCE.extension), Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return source;
+    }
+  }
+
+  /** Class file held in memory. */
+  private static class ClassFile extends SimpleJavaFileObject {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    ClassFile(String className) {
+      super(URI.create("mem:///" + className.replace('.', '/')
+          + Kind.CLASS.extension), Kind.CLASS);
+    }
+
+    @Override public OutputStream openOutputStream() {
+      return bytes;
+    }
+  }
+
+  /** File manager that writes class files to memory. The generated class
+   * may produce several, one for each anonymous class it contains. */
+  private static class MemoryFileManager
+      extends ForwardingJavaFileManager<JavaFileManager> {
+    final Map<String, ClassFile> classes = new HashMap<>();
+
+    MemoryFileManager(JavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override public JavaFileObject getJavaFileForOutput(Location location,
+        String className, JavaFileObject.Kind kind,
+        @Nullable FileObject sibling) {
+      final ClassFile file = new ClassFile(className);
+      classes.put(className, file);
+      return file;
+    }
+  }
+
+  /** Class loader that defines classes from class files held in memory. */
+  private static class MemoryClassLoader extends ClassLoader {
+    private final Map<String, ClassFile> classes;
+
+    MemoryClassLoader(ClassLoader parent, Map<String, ClassFile> classes) {
+      super(parent);
+      this.classes = classes;
+    }
+
+    @Override protected Class<?> findClass(String name)
+        throws ClassNotFoundException {
+      final ClassFile file = classes.get(name);
+      if (file == null) {
+        throw new ClassNotFoundException(name);
+      }
+      final byte[] bytes = file.bytes.toByteArray();
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.enumerable;
+
+/**
+ * Implements an aggregate function whose accumulator can remove a row that
+ * it has previously added.
+ *
+ * <p>{@link EnumerableWindow} uses removal to maintain a moving frame, such
+ * as {@code ROWS BETWEEN 10 PRECEDING AND CURRENT ROW}, incrementally: when
+ * the frame moves, it removes the rows that have left the frame and adds the
+ * rows that have entered it, rather than resetting the accumulator and
+ * adding every row of the frame again.
+ *
+ * @see WinAggContext#isFrameSliding()
+ */
+public interface RemovableAggImplementor extends AggImplementor {
+  /**
+   * Returns whether this implementor can remove rows.
+   *
+   * <p>It is called before {@link #getStateType(AggContext)}, and the result
+   * determines {@link WinAggContext#isFrameSliding()}, so it must not depend
+   * on the state.
+   *
+   * <p>For example, {@code SUM} over {@code DOUBLE} values returns false,
+   * because subtracting a value does not exactly undo its addition.
+   *
+   * @param info Aggregate context
+   * @return Whether {@link #implementRemove} may be called
+   */
+  boolean canRemove(AggContext info);
+
+  /**
+   * Updates intermediate values to account for a row that has left the
+   * frame. It is the inverse of {@link #implementAdd}; the row is one that
+   * was previously added, and rows are removed in the order that they were
+   * added.
+   *
+   * @param info Aggregate context
+   * @param remove Context of the row to remove
+   */
+  void implementRemove(AggContext info, AggAddContext remove);
+}
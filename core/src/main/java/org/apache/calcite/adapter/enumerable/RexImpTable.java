@@ -47,6 +47,7 @@
 import org.apache.calcite.rex.RexPatternFieldRef;
 import org.apache.calcite.rex.RexWindowExclusion;
 import org.apache.calcite.runtime.FlatLists;
+import org.apache.calcite.runtime.MonotonicDeque;
 import org.apache.calcite.runtime.PairList;
 import org.apache.calcite.runtime.SqlFunctions;
 import org.apache.calcite.schema.FunctionContext;
@@ -1018,13 +1019,16 @@ void populate2() {
       define(IS_NOT_DISTINCT_FROM, new IsNotDistinctFromImplementor());
 
       // LIKE, ILIKE, RLIKE and SIMILAR
-      defineReflective(LIKE, BuiltInMethod.LIKE.method,
-          BuiltInMethod.LIKE_ESCAPE.method);
-      defineReflective(ILIKE, BuiltInMethod.ILIKE.method,
-          BuiltInMethod.ILIKE_ESCAPE.method);
+      define(LIKE,
+          new LikeImplementor(false, false, BuiltInMethod.LIKE.method,
+              BuiltInMethod.LIKE_ESCAPE.method));
+      define(ILIKE,
+          new LikeImplementor(false, true, BuiltInMethod.ILIKE.method,
+              BuiltInMethod.ILIKE_ESCAPE.method));
       defineReflective(RLIKE, BuiltInMethod.RLIKE.method);
-      defineReflective(SIMILAR_TO, BuiltInMethod.SIMILAR.method,
-          BuiltInMethod.SIMILAR_ESCAPE.method);
+      define(SIMILAR_TO,
+          new LikeImplementor(true, false, BuiltInMethod.SIMILAR.method,
+              BuiltInMethod.SIMILAR_ESCAPE.method));
 
       // POSIX REGEX
       ReflectiveImplementor insensitiveImplementor =
@@ -1686,6 +1690,17 @@ static class CountImplementor extends StrictAggImplementor {
           Expressions.statement(
               Expressions.postIncrementAssign(add.accumulator().get(0))));
     }
+
+    @Override protected boolean canRemoveNotNull(AggContext info) {
+      return true;
+    }
+
+    @Override protected void implementNotNullRemove(AggContext info,
+        AggAddContext remove) {
+      remove.currentBlock().add(
+          Expressions.statement(
+              Expressions.postDecrementAssign(remove.accumulator().get(0))));
+    }
   }
 
   /** Implementor for the {@code COUNT} windowed aggregate function. */
@@ -1717,6 +1732,20 @@ static class CountWinImplementor extends StrictWinAggImplementor {
               Expressions.postIncrementAssign(add.accumulator().get(0))));
     }
 
+    @Override protected boolean canRemoveNotNull(AggContext info) {
+      return true;
+    }
+
+    @Override protected void implementNotNullRemove(AggContext info,
+        AggAddContext remove) {
+      if (justFrameRowCount) {
+        return;
+      }
+      remove.currentBlock().add(
+          Expressions.statement(
+              Expressions.postDecrementAssign(remove.accumulator().get(0))));
+    }
+
     @Override protected Expression implementNotNullResult(WinAggContext info,
         WinAggResultContext result) {
       if (justFrameRowCount) {
@@ -1775,6 +1804,30 @@ static class SumImplementor extends StrictAggImplementor {
       accAdvance(add, acc, next);
     }
 
+    @Override protected boolean canRemoveNotNull(AggContext info) {
+      // Subtracting a floating-point value does not exactly undo its
+      // addition, so only exact types are removable
+      if (info.returnType() == BigDecimal.class) {
+        return true;
+      }
+      final Primitive p = Primitive.of(Primitive.unbox(info.returnType()));
+      return p != null && p.isFixedNumeric();
+    }
+
+    @Override protected void implementNotNullRemove(AggContext info,
+        AggAddContext remove) {
+      Expression acc = remove.accumulator().get(0);
+      Expression next;
+      if (info.returnType() == BigDecimal.class) {
+        next = Expressions.call(acc, "subtract", remove.arguments().get(0));
+      } else {
+        final Expression arg =
+            EnumUtils.convert(remove.arguments().get(0), acc.type);
+        next = Expressions.subtract(acc, arg);
+      }
+      accAdvance(remove, acc, next);
+    }
+
     @Override public Expression implementNotNullResult(AggContext info,
         AggResultContext result) {
       return super.implementNotNullResult(info, result);
@@ -1783,11 +1836,36 @@ static class SumImplementor extends StrictAggImplementor {
 
   /** Implementor for the {@code MIN} and {@code MAX} aggregate functions. */
   static class MinMaxImplementor extends StrictAggImplementor {
+    /** Type of the values, if the accumulator is a {@link MonotonicDeque}
+     * because the function is {@code MIN} or {@code MAX} over a window frame
+     * that is maintained incrementally; otherwise null. */
+    private @Nullable Type dequeValueType;
+
+    @Override public List<Type> getNotNullState(AggContext info) {
+      final List<Type> state = super.getNotNullState(info);
+      final SqlKind kind = info.aggregation().kind;
+      if ((kind == SqlKind.MIN || kind == SqlKind.MAX)
+          && info instanceof WinAggContext
+          && ((WinAggContext) info).isFrameSliding()) {
+        dequeValueType = state.get(0);
+        return Collections.singletonList(MonotonicDeque.class);
+      }
+      return state;
+    }
+
     @Override protected void implementNotNullReset(AggContext info,
         AggResetContext reset) {
       Expression acc = reset.accumulator().get(0);
-      Primitive p = Primitive.of(acc.getType());
       final boolean isMin = info.aggregation().kind == SqlKind.MIN;
+      if (dequeValueType != null) {
+        reset.currentBlock().add(
+            Expressions.statement(
+                Expressions.assign(acc,
+                    Expressions.new_(MonotonicDeque.class,
+                        Expressions.constant(isMin)))));
+        return;
+      }
+      Primitive p = Primitive.of(acc.getType());
       Object inf = p == null ? null : (isMin ? p.max : p.min);
       reset.currentBlock().add(
           Expressions.statement(
@@ -1799,6 +1877,14 @@ static class MinMaxImplementor extends StrictAggImplementor {
         AggAddContext add) {
       Expression acc = add.accumulator().get(0);
       Expression arg = add.arguments().get(0);
+      if (dequeValueType != null) {
+        add.currentBlock().add(
+            Expressions.statement(
+                Expressions.call(acc, BuiltInMethod.MONOTONIC_DEQUE_ADD.method,
+                    ((WinAggAddContext) add).currentPosition(),
+                    EnumUtils.convert(arg, Primitive.box(dequeValueType)))));
+        return;
+      }
       final boolean isMin = info.aggregation().kind == SqlKind.MIN;
       final Method method = (isMin
           ? BuiltInMethod.LESSER
@@ -1808,6 +1894,39 @@ static class MinMaxImplementor extends StrictAggImplementor {
               acc, Expressions.unbox(arg));
       accAdvance(add, acc, next);
     }
+
+    @Override protected boolean canRemoveNotNull(AggContext info) {
+      // Removal switches the state to a MonotonicDeque
+      final SqlKind kind = info.aggregation().kind;
+      return kind == SqlKind.MIN || kind == SqlKind.MAX;
+    }
+
+    @Override protected void implementNotNullRemove(AggContext info,
+        AggAddContext remove) {
+      remove.currentBlock().add(
+          Expressions.statement(
+              Expressions.call(remove.accumulator().get(0),
+                  BuiltInMethod.MONOTONIC_DEQUE_REMOVE.method,
+                  ((WinAggAddContext) remove).currentPosition())));
+    }
+
+    @Override protected Expression implementNotNullResult(AggContext info,
+        AggResultContext result) {
+      final Type valueType = dequeValueType;
+      if (valueType == null) {
+        return super.implementNotNullResult(info, result);
+      }
+      final Expression acc = result.accumulator().get(0);
+      return Expressions.condition(
+          Expressions.call(acc, BuiltInMethod.MONOTONIC_DEQUE_IS_EMPTY.method),
+          RexImpTable.getDefaultValue(valueType),
+          EnumUtils.convert(
+              Expressions.convert_(
+                  Expressions.call(acc,
+                      BuiltInMethod.MONOTONIC_DEQUE_FIRST.method),
+                  Primitive.box(valueType)),
+              valueType));
+    }
   }
 
   /** Implementor for the {@code ARG_MIN} and {@code ARG_MAX} aggregate
@@ -4681,6 +4800,65 @@ protected MethodCallExpression implementSafe(Method method,
     }
   }
 
+  /** Implementor for the {@code LIKE}, {@code ILIKE} and {@code SIMILAR TO}
+   * operators.
+   *
+   * <p>If the pattern is a literal, generates a call to a deterministic
+   * factory of a matcher, such as
+   * {@link SqlFunctions#likeMatcher(String, String, boolean)}, which the code
+   * optimizer hoists into a static field, so that evaluating a row neither
+   * allocates nor looks up a cache. Otherwise, calls the function object,
+   * which caches matchers by pattern, as it does if the literal pattern is
+   * invalid. */
+  private static class LikeImplementor extends ReflectiveImplementor {
+    private final boolean similar;
+    private final boolean caseInsensitive;
+
+    LikeImplementor(boolean similar, boolean caseInsensitive,
+        Method... methods) {
+      super(ImmutableList.copyOf(methods));
+      this.similar = similar;
+      this.caseInsensitive = caseInsensitive;
+    }
+
+    @Override Expression implementSafe(RexToLixTranslator translator,
+        RexCall call, List<Expression> argValueList) {
+      final Object pattern = translator.getLiteralValue(argValueList.get(1));
+      final Object escape = argValueList.size() > 2
+          ? translator.getLiteralValue(argValueList.get(2))
+          : null;
+      if (!(pattern instanceof String)
+          || argValueList.size() > 2 && (similar || !(escape instanceof String))) {
+        return super.implementSafe(translator, call, argValueList);
+      }
+      // If the pattern or escape is invalid, creating the matcher in a static
+      // initializer would fail with ExceptionInInitializerError; let the
+      // function object report the error when a row is evaluated.
+      try {
+        if (similar) {
+          SqlFunctions.similarMatcher((String) pattern);
+        } else {
+          SqlFunctions.likeMatcher((String) pattern, (@Nullable String) escape,
+              caseInsensitive);
+        }
+      } catch (RuntimeException e) {
+        return super.implementSafe(translator, call, argValueList);
+      }
+      final Expression matcher = similar
+          ? Expressions.call(BuiltInMethod.SIMILAR_MATCHER.method,
+              Expressions.constant(pattern))
+          : Expressions.call(BuiltInMethod.LIKE_MATCHER.method,
+              Expressions.constant(pattern),
+              Expressions.constant(escape, String.class),
+              Expressions.constant(caseInsensitive));
+      final Expression s =
+          EnumUtils.fromInternal(new Class<?>[] {String.class},
+              argValueList.subList(0, 1)).get(0);
+      return Expressions.call(matcher, BuiltInMethod.PREDICATE1_APPLY.method,
+          s);
+    }
+  }
+
   /** Implementor for the {@code PI} operator. */
   private static class PiImplementor extends AbstractRexCallImplementor {
     PiImplementor() {
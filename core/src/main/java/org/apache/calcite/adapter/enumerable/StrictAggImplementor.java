@@ -36,7 +36,7 @@
  * @see org.apache.calcite.adapter.enumerable.RexImpTable.CountImplementor
  * @see org.apache.calcite.adapter.enumerable.RexImpTable.SumImplementor
  */
-public abstract class StrictAggImplementor implements AggImplementor {
+public abstract class StrictAggImplementor implements RemovableAggImplementor {
   private boolean needTrackEmptySet;
   private boolean trackNullsPerRow;
   private int stateSize;
@@ -63,8 +63,7 @@ protected static void accAdvance(AggAddContext add, Expression acc,
     if (!needTrackEmptySet) {
       return subState;
     }
-    final boolean hasNullableArgs = anyNullable(info.parameterRelTypes());
-    trackNullsPerRow = !(info instanceof WinAggContext) || hasNullableArgs;
+    trackNullsPerRow = needTrackNullsPerRow(info);
 
     List<Type> res = new ArrayList<>(subState.size() + 1);
     res.addAll(subState);
@@ -72,6 +71,15 @@ protected static void accAdvance(AggAddContext add, Expression acc,
     return res;
   }
 
+  /** Returns whether the accumulator needs a flag that is set when a row
+   * with non-null arguments is added. Does not depend on the state, so it
+   * can be called before {@link #getStateType}. */
+  private boolean needTrackNullsPerRow(AggContext info) {
+    return nonDefaultOnEmptySet(info)
+        && (!(info instanceof WinAggContext)
+            || anyNullable(info.parameterRelTypes()));
+  }
+
   private static boolean anyNullable(List<? extends RelDataType> types) {
     for (RelDataType type : types) {
       if (type.isNullable()) {
@@ -157,6 +165,62 @@ protected void implementNotNullReset(AggContext info,
   protected abstract void implementNotNullAdd(AggContext info,
       AggAddContext add);
 
+  /** {@inheritDoc}
+   *
+   * <p>Rows can be removed only if the sub-class can remove non-null values,
+   * and if the accumulator does not need to remember whether it has seen a
+   * non-null value; a flag cannot be un-set when that value is removed. */
+  @Override public final boolean canRemove(AggContext info) {
+    return !needTrackNullsPerRow(info) && canRemoveNotNull(info);
+  }
+
+  /** Returns whether {@link #implementNotNullRemove} is implemented for
+   * the given context. Called before {@link #getNotNullState}, so it must
+   * not depend on the state that method chooses.
+   *
+   * <p>The default returns false, and the window then recomputes the
+   * aggregate from scratch for each frame. A sub-class that returns true
+   * for some context must override {@link #implementNotNullRemove} to
+   * handle that context. */
+  protected boolean canRemoveNotNull(AggContext info) {
+    return false;
+  }
+
+  @Override public final void implementRemove(AggContext info,
+      AggAddContext remove) {
+    final List<RexNode> args = remove.rexArguments();
+    final RexToLixTranslator translator = remove.rowTranslator();
+    final Expression condition =
+        Expressions.foldAnd(
+            translator.translateList(args, RexImpTable.NullAs.IS_NOT_NULL));
+    if (Expressions.constant(false).equals(condition)) {
+      return;
+    }
+    if (Expressions.constant(true).equals(condition)) {
+      implementNotNullRemove(info, remove);
+      return;
+    }
+    final BlockBuilder thenBlock = remove.nestBlock();
+    implementNotNullRemove(info, remove);
+    remove.exitBlock();
+    remove.currentBlock().add(Expressions.ifThen(condition, thenBlock.toBlock()));
+  }
+
+  /** Removes a row whose arguments are not null; the inverse of
+   * {@link #implementNotNullAdd}.
+   *
+   * <p>Called only for contexts for which {@link #canRemoveNotNull} returns
+   * true. The default implementation throws, because the default
+   * {@code canRemoveNotNull} returns false; a sub-class that overrides one
+   * must override the other. */
+  protected void implementNotNullRemove(AggContext info,
+      AggAddContext remove) {
+    throw new UnsupportedOperationException("Aggregate "
+        + info.aggregation().getName() + " cannot remove rows; "
+        + getClass().getSimpleName() + " overrides canRemoveNotNull but not "
+        + "implementNotNullRemove");
+  }
+
   @Override public final Expression implementResult(AggContext info,
       final AggResultContext result) {
     if (!needTrackEmptySet) {
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.enumerable;
+
+import org.apache.calcite.DataContext;
+import org.apache.calcite.adapter.java.JavaTypeFactory;
+import org.apache.calcite.interpreter.Interpreter;
+import org.apache.calcite.linq4j.Enumerable;
+import org.apache.calcite.linq4j.QueryProvider;
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.AsofJoin;
+import org.apache.calcite.rel.core.Calc;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rel.core.SetOp;
+import org.apache.calcite.rel.core.Sort;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.core.Values;
+import org.apache.calcite.runtime.ArrayBindable;
+import org.apache.calcite.runtime.Bindable;
+import org.apache.calcite.schema.FilterableTable;
+import org.apache.calcite.schema.ProjectableFilterableTable;
+import org.apache.calcite.schema.ScannableTable;
+import org.apache.calcite.schema.SchemaPlus;
+import org.apache.calcite.util.Util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bindable that interprets an Enumerable plan while the plan is compiled in
+ * the background, and runs the compiled code once it is ready.
+ *
+ * <p>A query that runs once over a few rows thus does not wait for code
+ * generation and Janino, while a prepared statement that is executed many
+ * times gets compiled code from its first execution after the compilation
+ * finishes. An execution that has started in the interpreter finishes there.
+ *
+ * <p>If the interpreter cannot run the plan (for example, because a table is
+ * neither scannable nor filterable), the execution waits for the compiled
+ * code. If compilation fails, every execution uses the interpreter.
+ *
+ * @see org.apache.calcite.config.CalciteSystemProperty#ENUMERABLE_TIERED
+ */
+public class TieredBindable implements ArrayBindable {
+  /** Executor that compiles plans; a single thread, so that compilation does
+   * not compete with queries for more than one core. */
+  private static final ExecutorService EXECUTOR =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("calcite-compiler-%d")
+              .build());
+
+  private final RelNode rel;
+  private final Map<String, Object> parameters;
+  private final Future<Bindable> compiled;
+
+  private TieredBindable(RelNode rel, Map<String, Object> parameters,
+      Future<Bindable> compiled) {
+    this.rel = rel;
+    this.parameters = parameters;
+    this.compiled = compiled;
+  }
+
+  /** Creates a TieredBindable and starts compiling.
+   *
+   * @param rel Plan, in Enumerable convention, whose rows are arrays
+   * @param parameters Internal parameters, to which the compiler adds the
+   *                   values stashed by the generated code
+   * @param compiler Compiles the plan, using {@code parameters}
+   */
+  public static TieredBindable create(RelNode rel,
+      Map<String, Object> parameters, Callable<Bindable> compiler) {
+    return new TieredBindable(rel, parameters, EXECUTOR.submit(compiler));
+  }
+
+  /** Returns whether every relational expression in a plan is of a kind
+   * that the {@link Interpreter} can execute. */
+  public static boolean canInterpret(RelNode rel) {
+    if (rel instanceof TableScan) {
+      final RelOptTable table = rel.getTable();
+      return table != null
+          && (table.unwrap(ScannableTable.class) != null
+              || table.unwrap(FilterableTable.class) != null
+              || table.unwrap(ProjectableFilterableTable.class) != null);
+    }
+    if (!(rel instanceof Values
+        || rel instanceof Filter
+        || rel instanceof Project
+        || rel instanceof Calc
+        || rel instanceof Aggregate
+        || rel instanceof Sort
+        || rel instanceof SetOp
+        || rel instanceof Join && canInterpretJoin((Join) rel))) {
+      return false;
+    }
+    for (RelNode input : rel.getInputs()) {
+      if (!canInterpret(input)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns whether the interpreter's {@code JoinNode} can execute a join;
+   * it does not handle correlation or the ASOF join types. */
+  private static boolean canInterpretJoin(Join join) {
+    if (join instanceof AsofJoin || !join.getVariablesSet().isEmpty()) {
+      return false;
+    }
+    switch (join.getJoinType()) {
+    case INNER:
+    case LEFT:
+    case RIGHT:
+    case FULL:
+    case SEMI:
+    case ANTI:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  @Override public Class<Object[]> getElementType() {
+    return Object[].class;
+  }
+
+  @Override public Enumerable<@Nullable Object[]> bind(DataContext dataContext) {
+    if (compiled.isDone()) {
+      try {
+        return bind(compiled.get(), dataContext);
+      } catch (InterruptedException | ExecutionException e) {
+        // Compilation failed; keep interpreting
+      }
+    }
+    final Interpreter interpreter;
+    try {
+      interpreter = new Interpreter(dataContext, rel);
+    } catch (RuntimeException | AssertionError e) {
+      // The interpreter reports an unsupported relational expression by
+      // throwing AssertionError. Wait for the compiled code.
+      try {
+        return bind(compiled.get(), dataContext);
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw Util.throwAsRuntime(ie);
+      } catch (ExecutionException ee) {
+        throw Util.throwAsRuntime(Util.causeOrSelf(ee));
+      }
+    }
+    return interpreter;
+  }
+
+  /** Binds the compiled code, with a data context that contains the values
+   * stashed by the code generator. */
+  private Enumerable<@Nullable Object[]> bind(Bindable bindable,
+      DataContext dataContext) {
+    final DataContext dataContext2 = new DataContext() {
+      @Override public @Nullable SchemaPlus getRootSchema() {
+        return dataContext.getRootSchema();
+      }
+
+      @Override public JavaTypeFactory getTypeFactory() {
+        return dataContext.getTypeFactory();
+      }
+
+      @Override public QueryProvider getQueryProvider() {
+        return dataContext.getQueryProvider();
+      }
+
+      @Override public @Nullable Object get(String name) {
+        final Object value = parameters.get(name);
+        return value != null ? value : dataContext.get(name);
+      }
+    };
+    return EnumerableInterpretable.box(bindable).bind(dataContext2);
+  }
+}
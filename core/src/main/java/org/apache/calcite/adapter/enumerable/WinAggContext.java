@@ -26,4 +26,17 @@
 public interface WinAggContext extends AggContext {
   /** The exclude clause of the group of the window function. */
   RexWindowExclusion getExclude();
+
+  /** Returns whether the frame is maintained incrementally: rows may leave
+   * the frame as the current row advances, as in
+   * {@code ROWS BETWEEN 10 PRECEDING AND CURRENT ROW}, and every aggregate
+   * function of the group is a {@link RemovableAggImplementor} that can
+   * remove them.
+   *
+   * <p>If so, an implementor may choose a different state in
+   * {@link AggImplementor#getStateType(AggContext)} to make removal
+   * possible. */
+  default boolean isFrameSliding() {
+    return false;
+  }
 }
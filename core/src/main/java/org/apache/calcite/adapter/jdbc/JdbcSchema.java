@@ -19,6 +19,7 @@
 import org.apache.calcite.avatica.AvaticaUtils;
 import org.apache.calcite.avatica.MetaImpl;
 import org.apache.calcite.avatica.SqlType;
+import org.apache.calcite.config.CalciteSystemProperty;
 import org.apache.calcite.linq4j.function.Experimental;
 import org.apache.calcite.linq4j.tree.Expression;
 import org.apache.calcite.rel.type.RelDataType;
@@ -26,6 +27,7 @@
 import org.apache.calcite.rel.type.RelDataTypeImpl;
 import org.apache.calcite.rel.type.RelDataTypeSystem;
 import org.apache.calcite.rel.type.RelProtoDataType;
+import org.apache.calcite.runtime.Hook;
 import org.apache.calcite.schema.Schema;
 import org.apache.calcite.schema.SchemaFactory;
 import org.apache.calcite.schema.SchemaPlus;
@@ -45,8 +47,14 @@
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.Util;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Ordering;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
@@ -57,12 +65,17 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -91,12 +104,26 @@ public class JdbcSchema extends JdbcBaseSchema implements Schema, Wrapper {
   private final LazyReference<Lookup<Table>> tables = new LazyReference<>();
   private final Lookup<JdbcSchema> subSchemas = Lookup.empty();
 
+  /** Row types of the tables of each database schema, keyed by (catalog,
+   * schema); null unless {@link CalciteSystemProperty#JDBC_METADATA_BULK} is
+   * set. */
+  private final @Nullable LoadingCache<Pair<@Nullable String, @Nullable String>,
+      Map<String, RelProtoDataType>> bulkRowTypes;
+
   @Experimental
   public static final ThreadLocal<@Nullable Foo> THREAD_METADATA = new ThreadLocal<>();
 
   private static final Ordering<Iterable<Integer>> VERSION_ORDERING =
       Ordering.<Integer>natural().lexicographical();
 
+  /** Executor that loads and refreshes column metadata in bulk. */
+  private static final ExecutorService METADATA_EXECUTOR =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("calcite-jdbc-metadata-%d")
+              .build());
+
   /**
    * Creates a JDBC schema.
    *
@@ -113,6 +140,31 @@ public JdbcSchema(DataSource dataSource, SqlDialect dialect,
     this.convention = convention;
     this.catalog = catalog;
     this.schema = schema;
+    this.bulkRowTypes =
+        Hook.JDBC_METADATA_BULK.get(CalciteSystemProperty.JDBC_METADATA_BULK.value())
+            ? createBulkRowTypes()
+            : null;
+  }
+
+  private LoadingCache<Pair<@Nullable String, @Nullable String>,
+      Map<String, RelProtoDataType>> createBulkRowTypes() {
+    final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+    final int refresh =
+        Hook.JDBC_METADATA_REFRESH.get(
+            CalciteSystemProperty.JDBC_METADATA_REFRESH.value());
+    if (refresh > 0) {
+      builder.refreshAfterWrite(refresh, TimeUnit.SECONDS);
+    }
+    return builder.build(
+        CacheLoader.asyncReloading(
+            new CacheLoader<Pair<@Nullable String, @Nullable String>,
+                Map<String, RelProtoDataType>>() {
+              @Override public Map<String, RelProtoDataType> load(
+                  Pair<@Nullable String, @Nullable String> key)
+                  throws SQLException {
+                return loadRowTypes(key.left, key.right);
+              }
+            }, METADATA_EXECUTOR));
   }
 
   public static JdbcSchema create(
@@ -291,6 +343,24 @@ private static Stream<ResultSet> asStream(Connection connection, ResultSet resul
   }
 
   private JdbcTable jdbcTableMapper(MetaImpl.MetaTable tableDef) {
+    final LoadingCache<Pair<@Nullable String, @Nullable String>,
+        Map<String, RelProtoDataType>> bulkRowTypes = this.bulkRowTypes;
+    if (bulkRowTypes != null) {
+      // Start loading the columns of all tables in the table's schema, so
+      // that the load overlaps with the resolution of other tables.
+      final Pair<@Nullable String, @Nullable String> key =
+          Pair.of(tableDef.tableCat, tableDef.tableSchem);
+      if (bulkRowTypes.getIfPresent(key) == null) {
+        METADATA_EXECUTOR.execute(() -> {
+          try {
+            bulkRowTypes.get(key);
+          } catch (ExecutionException | UncheckedExecutionException e) {
+            // Reported to the caller of getRelDataType
+            LOGGER.debug("Error while loading columns of schema {}", key, e);
+          }
+        });
+      }
+    }
     return new JdbcTable(this, tableDef.tableCat, tableDef.tableSchem, tableDef.tableName,
         getTableType(tableDef.tableType));
   }
@@ -370,8 +440,37 @@ private static List<Integer> version(DatabaseMetaData metaData) throws SQLExcept
     }
   }
 
+  /** Returns whether this schema caches, and refreshes, the row types of its
+   * tables; if so, a table should not hold on to its row type. */
+  boolean cachesRowTypes() {
+    return bulkRowTypes != null;
+  }
+
   RelProtoDataType getRelDataType(String catalogName, String schemaName,
       String tableName) throws SQLException {
+    final LoadingCache<Pair<@Nullable String, @Nullable String>,
+        Map<String, RelProtoDataType>> bulkRowTypes = this.bulkRowTypes;
+    if (bulkRowTypes != null) {
+      final Pair<@Nullable String, @Nullable String> key =
+          Pair.of(catalogName, schemaName);
+      final Map<String, RelProtoDataType> rowTypes;
+      try {
+        rowTypes = bulkRowTypes.get(key);
+      } catch (ExecutionException | UncheckedExecutionException e) {
+        final Throwable cause = Util.causeOrSelf(e);
+        if (cause instanceof SQLException) {
+          throw (SQLException) cause;
+        }
+        throw Util.throwAsRuntime(cause);
+      }
+      final RelProtoDataType rowType = rowTypes.get(tableName);
+      if (rowType != null) {
+        return rowType;
+      }
+      // The table was created after the columns were loaded. Reload them in
+      // the background; until then, read the columns of this table alone.
+      bulkRowTypes.refresh(key);
+    }
     Connection connection = null;
     try {
       connection = dataSource.getConnection();
@@ -394,31 +493,69 @@ RelProtoDataType getRelDataType(DatabaseMetaData metaData, String catalogName,
         new SqlTypeFactoryImpl(RelDataTypeSystem.DEFAULT);
     final RelDataTypeFactory.Builder fieldInfo = typeFactory.builder();
     while (resultSet.next()) {
-      final String columnName = requireNonNull(resultSet.getString(4), "columnName");
-      final int dataType = resultSet.getInt(5);
-      final String typeString = resultSet.getString(6);
-      final int precision;
-      final int scale;
-      switch (SqlType.valueOf(dataType)) {
-      case TIMESTAMP:
-      case TIME:
-        precision = resultSet.getInt(9); // SCALE
-        scale = 0;
-        break;
-      default:
-        precision = resultSet.getInt(7); // SIZE
-        scale = resultSet.getInt(9); // SCALE
-        break;
-      }
-      RelDataType sqlType =
-          sqlType(typeFactory, dataType, precision, scale, typeString);
-      boolean nullable = resultSet.getInt(11) != DatabaseMetaData.columnNoNulls;
-      fieldInfo.add(columnName, sqlType).nullable(nullable);
+      addColumn(typeFactory, fieldInfo, resultSet);
     }
     resultSet.close();
     return RelDataTypeImpl.proto(fieldInfo.build());
   }
 
+  /** Reads the row types of all tables in a database schema, with a single
+   * call to {@link DatabaseMetaData#getColumns}. */
+  private Map<String, RelProtoDataType> loadRowTypes(@Nullable String catalogName,
+      @Nullable String schemaName) throws SQLException {
+    final RelDataTypeFactory typeFactory =
+        new SqlTypeFactoryImpl(RelDataTypeSystem.DEFAULT);
+    final Map<String, RelDataTypeFactory.Builder> fieldInfos = new HashMap<>();
+    try (Connection connection = dataSource.getConnection();
+         ResultSet resultSet =
+             connection.getMetaData().getColumns(catalogName, schemaName, null,
+                 null)) {
+      while (resultSet.next()) {
+        // The schema name is a pattern, and may match other schemas
+        if (schemaName != null && !schemaName.equals(resultSet.getString(2))) {
+          continue;
+        }
+        final String tableName =
+            requireNonNull(resultSet.getString(3), "tableName");
+        addColumn(typeFactory,
+            fieldInfos.computeIfAbsent(tableName, t -> typeFactory.builder()),
+            resultSet);
+      }
+    }
+    final ImmutableMap.Builder<String, RelProtoDataType> builder =
+        ImmutableMap.builder();
+    fieldInfos.forEach((tableName, fieldInfo) ->
+        builder.put(tableName, RelDataTypeImpl.proto(fieldInfo.build())));
+    return builder.build();
+  }
+
+  /** Adds the column described by the current row of a
+   * {@link DatabaseMetaData#getColumns} result set to a row type. */
+  private static void addColumn(RelDataTypeFactory typeFactory,
+      RelDataTypeFactory.Builder fieldInfo, ResultSet resultSet)
+      throws SQLException {
+    final String columnName = requireNonNull(resultSet.getString(4), "columnName");
+    final int dataType = resultSet.getInt(5);
+    final String typeString = resultSet.getString(6);
+    final int precision;
+    final int scale;
+    switch (SqlType.valueOf(dataType)) {
+    case TIMESTAMP:
+    case TIME:
+      precision = resultSet.getInt(9); // SCALE
+      scale = 0;
+      break;
+    default:
+      precision = resultSet.getInt(7); // SIZE
+      scale = resultSet.getInt(9); // SCALE
+      break;
+    }
+    RelDataType sqlType =
+        sqlType(typeFactory, dataType, precision, scale, typeString);
+    boolean nullable = resultSet.getInt(11) != DatabaseMetaData.columnNoNulls;
+    fieldInfo.add(columnName, sqlType).nullable(nullable);
+  }
+
   private static RelDataType sqlType(RelDataTypeFactory typeFactory, int dataType,
       int precision, int scale, @Nullable String typeString) {
     // Fall back to ANY if type is unknown
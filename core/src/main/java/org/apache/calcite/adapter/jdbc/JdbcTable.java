@@ -117,7 +117,13 @@ public class JdbcTable extends AbstractQueryableTable
   }
 
   @Override public RelDataType getRowType(RelDataTypeFactory typeFactory) {
-    return protoRowTypeSupplier.get().apply(typeFactory);
+    // A schema that loads column metadata in bulk also refreshes it; read
+    // from the schema each time, so that this table sees the refreshed columns
+    final RelProtoDataType protoRowType =
+        jdbcSchema.cachesRowTypes()
+            ? supplyProto()
+            : protoRowTypeSupplier.get();
+    return protoRowType.apply(typeFactory);
   }
 
   private RelProtoDataType supplyProto() {
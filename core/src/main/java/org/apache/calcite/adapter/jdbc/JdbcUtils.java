@@ -255,6 +255,9 @@ static class ObjectArrayRowBuilder2 extends ObjectArrayRowBuilder1 {
   static class DataSourcePool {
     public static final DataSourcePool INSTANCE = new DataSourcePool();
 
+    /** Maximum number of prepared statements pooled per connection. */
+    private static final int MAX_OPEN_PREPARED_STATEMENTS = 100;
+
     private final LoadingCache<List<@Nullable String>, BasicDataSource> cache =
         CacheBuilder.newBuilder().softValues()
             .build(CacheLoader.from(DataSourcePool::dataSource));
@@ -266,6 +269,10 @@ private static BasicDataSource dataSource(
       dataSource.setUsername(key.get(1));
       dataSource.setPassword(key.get(2));
       dataSource.setDriverClassName(key.get(3));
+      // Queries such as the right input of a batch nested loop join execute
+      // the same parameterized SQL many times; re-use the prepared statement
+      dataSource.setPoolPreparedStatements(true);
+      dataSource.setMaxOpenPreparedStatements(MAX_OPEN_PREPARED_STATEMENTS);
       return dataSource;
     }
 
@@ -392,6 +392,23 @@
   public static final CalciteSystemProperty<Integer> BINDABLE_CACHE_CONCURRENCY_LEVEL =
       intProperty("calcite.bindable.cache.concurrencyLevel", 1, v -> v >= 1);
 
+  /**
+   * Maximum number of rows that the interpreter buffers between a node and
+   * each of its consumers.
+   *
+   * <p>The default value is 0, which means that each node of an interpreted
+   * plan runs to completion, leaves first, and stores its output in an
+   * unbounded buffer.
+   *
+   * <p>A positive value makes the interpreter run each node in its own
+   * thread, exchanging rows through bounded buffers, so that rows flow
+   * through a streaming plan (such as scan, filter, project, limit) as soon
+   * as they are produced, and memory use does not grow with the size of the
+   * input.
+   */
+  public static final CalciteSystemProperty<Integer> INTERPRETER_BUFFER_SIZE =
+      intProperty("calcite.interpreter.buffer.size", 0, v -> v >= 0);
+
   /**
    * The maximum number of items in a function-level cache.
    *
@@ -439,6 +456,76 @@
   public static final CalciteSystemProperty<Integer> JOIN_SELECTOR_COMPACT_CODE_THRESHOLD =
       intProperty("calcite.join.selector.compact.code.threshold", 100);
 
+  /**
+   * Estimated size, in bytes of bytecode, above which the code generated for
+   * the projections of an
+   * {@link org.apache.calcite.adapter.enumerable.EnumerableCalc} is split
+   * into several methods.
+   *
+   * <p>HotSpot does not JIT-compile a method whose bytecode is larger than
+   * 8,000 bytes, so a wide projection or a large {@code CASE} expression
+   * that generates one huge method runs interpreted; and a method larger
+   * than 64 KB cannot be loaded at all.
+   *
+   * <p>The default value is 4,000, leaving a margin for the inaccuracy of the
+   * estimate. A negative value disables splitting.
+   */
+  public static final CalciteSystemProperty<Integer> METHOD_SPLIT_SIZE =
+      intProperty("calcite.enumerable.method.split.size", 4_000);
+
+  /**
+   * Backend that compiles the Java code generated for Enumerable plans.
+   *
+   * <p>The value is "janino" (the default), which compiles the generated
+   * source code with Janino; "jdk", which compiles it with the Java compiler
+   * of the JDK; or the fully-qualified name of a class that implements
+   * {@link org.apache.calcite.adapter.enumerable.BindableCompiler}.
+   */
+  public static final CalciteSystemProperty<String> ENUMERABLE_COMPILER =
+      stringProperty("calcite.enumerable.compiler", "janino");
+
+  /**
+   * Whether to run queries in tiered mode: interpret the Enumerable plan
+   * while it is compiled in the background, then switch to the compiled code
+   * for later executions.
+   *
+   * <p>Tiered mode applies only to plans whose rows are arrays and that
+   * the interpreter can run; see
+   * {@link org.apache.calcite.adapter.enumerable.TieredBindable}.
+   *
+   * <p>The default value is false.
+   */
+  public static final CalciteSystemProperty<Boolean> ENUMERABLE_TIERED =
+      booleanProperty("calcite.enumerable.tiered", false);
+
+  /**
+   * Whether {@link org.apache.calcite.adapter.jdbc.JdbcSchema} reads the
+   * column metadata of all tables in a database schema with a single call to
+   * {@link java.sql.DatabaseMetaData#getColumns}, rather than one call per
+   * table.
+   *
+   * <p>The load starts in the background as soon as the first table of the
+   * schema is resolved, so that several schemas load in parallel. It is
+   * worthwhile if queries use many tables of a schema, or if the round trip
+   * to the database is expensive.
+   *
+   * <p>The default value is false.
+   */
+  public static final CalciteSystemProperty<Boolean> JDBC_METADATA_BULK =
+      booleanProperty("calcite.jdbc.metadata.bulk", false);
+
+  /**
+   * Number of seconds after which the column metadata loaded in bulk by
+   * {@link org.apache.calcite.adapter.jdbc.JdbcSchema} is refreshed.
+   *
+   * <p>The refresh happens in the background; until it completes, the
+   * previous metadata is used. If the value is zero or negative, the
+   * metadata is never refreshed. The default value is 300. Only used if
+   * {@link #JDBC_METADATA_BULK} is set.
+   */
+  public static final CalciteSystemProperty<Integer> JDBC_METADATA_REFRESH =
+      intProperty("calcite.jdbc.metadata.refresh", 300);
+
   private static CalciteSystemProperty<Boolean> booleanProperty(String key,
       boolean defaultValue) {
     // Note that "" -> true (convenient for command-lines flags like '-Dflag')
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.interpreter;
+
+import org.apache.calcite.rel.core.Calc;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexLocalRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexProgram;
+import org.apache.calcite.util.Util;
+
+import com.google.common.collect.ImmutableList;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+
+/**
+ * Interpreter node that implements a
+ * {@link org.apache.calcite.rel.core.Calc}.
+ */
+public class CalcNode extends AbstractSingleNode<Calc> {
+  private final @Nullable Scalar condition;
+  private final Scalar projects;
+  private final Context context;
+  private final int projectCount;
+
+  public CalcNode(Compiler compiler, Calc rel) {
+    super(compiler, rel);
+    final RexProgram program = rel.getProgram();
+    final RelDataType inputRowType = program.getInputRowType();
+    final RexLocalRef condition = program.getCondition();
+    this.condition = condition == null
+        ? null
+        : compiler.compile(ImmutableList.of(program.expandLocalRef(condition)),
+            inputRowType);
+    final List<RexNode> projects =
+        Util.transform(program.getProjectList(), program::expandLocalRef);
+    this.projectCount = projects.size();
+    this.projects = compiler.compile(projects, inputRowType);
+    this.context = compiler.createContext();
+  }
+
+  @Override public void run() throws InterruptedException {
+    Row row;
+    while ((row = source.receive()) != null) {
+      context.values = row.getValues();
+      if (condition != null) {
+        Boolean b = (Boolean) condition.execute(context);
+        if (b == null || !b) {
+          continue;
+        }
+      }
+      Object[] values = new Object[projectCount];
+      projects.execute(context, values);
+      sink.send(new Row(values));
+    }
+  }
+}
@@ -48,6 +48,7 @@
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.checkerframework.checker.initialization.qual.NotOnlyInitialized;
 import org.checkerframework.checker.initialization.qual.UnknownInitialization;
@@ -62,6 +63,14 @@
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apache.calcite.linq4j.Nullness.castNonNull;
 
 import static java.util.Objects.requireNonNull;
 
@@ -71,16 +80,49 @@
  * <p>Contains the context for interpreting relational expressions. In
  * particular it holds working state while the data flow graph is being
  * assembled.
+ *
+ * <p>By default, each node runs to completion, leaves first, and buffers all
+ * of its output. If the buffer size is positive, the interpreter is
+ * pipelined: each node runs in its own thread, and nodes exchange rows
+ * through bounded queues, so that the first rows are returned before the
+ * inputs have been read completely.
  */
 public class Interpreter extends AbstractEnumerable<@Nullable Object[]>
     implements AutoCloseable {
+  /** Marks the end of the rows in a {@link QueueSink}. */
+  private static final Row END = Row.of();
+
   private final Map<RelNode, NodeInfo> nodes;
   private final DataContext dataContext;
   private final RelNode rootRel;
+  private final int bufferSize;
+  /** First error thrown by a node running in pipelined mode. */
+  private final AtomicReference<@Nullable Throwable> failure =
+      new AtomicReference<>();
+  private @Nullable ExecutorService executor;
 
   /** Creates an Interpreter. */
   public Interpreter(DataContext dataContext, RelNode rootRel) {
+    this(dataContext, rootRel,
+        CalciteSystemProperty.INTERPRETER_BUFFER_SIZE.value());
+  }
+
+  /** Creates an Interpreter with a given buffer size.
+   *
+   * @param dataContext Data context
+   * @param rootRel Relational expression to interpret
+   * @param bufferSize Maximum number of rows buffered between a node and
+   *                   each of its consumers, or 0 to run each node to
+   *                   completion before its consumers start
+   */
+  public Interpreter(DataContext dataContext, RelNode rootRel,
+      int bufferSize) {
     this.dataContext = requireNonNull(dataContext, "dataContext");
+    if (bufferSize < 0) {
+      throw new IllegalArgumentException("bufferSize must be non-negative: "
+          + bufferSize);
+    }
+    this.bufferSize = bufferSize;
     final RelNode rel = optimize(rootRel);
     final CompilerImpl compiler =
         new Nodes.CoreCompiler(this, rootRel.getCluster());
@@ -106,16 +148,29 @@ private static RelNode optimize(RelNode rootRel) {
   }
 
   @Override public Enumerator<@Nullable Object[]> enumerator() {
-    start();
     final NodeInfo nodeInfo =
         requireNonNull(nodes.get(rootRel), () -> "nodeInfo for " + rootRel);
     final Enumerator<Row> rows;
-    if (nodeInfo.rowEnumerable != null) {
-      rows = nodeInfo.rowEnumerable.enumerator();
+    if (bufferSize > 0) {
+      startPipelined();
+      if (nodeInfo.rowEnumerable != null) {
+        rows = new SourceEnumerator(
+            new EnumeratorSource(nodeInfo.rowEnumerable.enumerator()),
+            this::stop);
+      } else {
+        rows = new SourceEnumerator(
+            Iterables.getOnlyElement(nodeInfo.sinks.values()).source(),
+            this::stop);
+      }
     } else {
-      final ArrayDeque<Row> queue =
-          Iterables.getOnlyElement(nodeInfo.sinks.values()).list;
-      rows = Linq4j.iterableEnumerator(queue);
+      start();
+      if (nodeInfo.rowEnumerable != null) {
+        rows = nodeInfo.rowEnumerable.enumerator();
+      } else {
+        final ArrayDeque<Row> queue =
+            ((ListSink) Iterables.getOnlyElement(nodeInfo.sinks.values())).list;
+        rows = Linq4j.iterableEnumerator(queue);
+      }
     }
 
     return new TransformedEnumerator<Row, @Nullable Object[]>(rows) {
@@ -142,14 +197,66 @@ private void start() {
     }
   }
 
+  /** Starts a thread for each node. Each thread ends the node's sinks when
+   * the node has finished, whether or not it succeeded, so that consumers
+   * do not wait forever; but not if the interpreter has been stopped. */
+  private void startPipelined() {
+    final ExecutorService executor =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("calcite-interpreter-%d")
+                .build());
+    this.executor = executor;
+    for (NodeInfo nodeInfo : nodes.values()) {
+      final Node node = nodeInfo.node;
+      if (node == null) {
+        throw new AssertionError("node must not be null for nodeInfo, rel="
+            + nodeInfo.rel);
+      }
+      executor.execute(() -> {
+        try {
+          node.run();
+        } catch (Throwable e) {
+          if (!executor.isShutdown()) {
+            failure.compareAndSet(null, e);
+          }
+        } finally {
+          // Once the interpreter has been stopped, nobody reads the queues,
+          // and writing the end marker to a full queue would block forever.
+          // If it is stopped while we are writing, the interrupt wakes us.
+          if (!executor.isShutdown()) {
+            try {
+              for (Channel sink : nodeInfo.sinks.values()) {
+                sink.end();
+              }
+            } catch (InterruptedException e) {
+              // The interpreter has been stopped; nobody is reading
+            }
+          }
+        }
+      });
+    }
+  }
+
+  /** Stops the threads started by {@link #startPipelined()}. */
+  private void stop() {
+    final ExecutorService executor = this.executor;
+    if (executor != null) {
+      this.executor = null;
+      executor.shutdownNow();
+    }
+  }
+
   @Override public void close() {
+    stop();
     nodes.values().forEach(NodeInfo::close);
   }
 
   /** Information about a node registered in the data flow graph. */
   private static class NodeInfo {
     final RelNode rel;
-    final Map<Edge, ListSink> sinks = new LinkedHashMap<>();
+    final Map<Edge, Channel> sinks = new LinkedHashMap<>();
     final @Nullable Enumerable<Row> rowEnumerable;
     @Nullable Node node;
 
@@ -192,14 +299,24 @@ private static class EnumeratorSource implements Source {
     }
   }
 
+  /** A {@link Sink} from which a consumer can read rows. */
+  private interface Channel extends Sink {
+    /** Returns a {@link Source} that reads the rows sent to this sink. */
+    Source source();
+  }
+
   /** Implementation of {@link Sink} using a {@link java.util.ArrayDeque}. */
-  private static class ListSink implements Sink {
+  private static class ListSink implements Channel {
     final ArrayDeque<Row> list;
 
     private ListSink(ArrayDeque<Row> list) {
       this.list = list;
     }
 
+    @Override public Source source() {
+      return new ListSource(list);
+    }
+
     @Override public void send(Row row) {
       list.add(row);
     }
@@ -245,25 +362,145 @@ private static class ListSource implements Source {
     }
   }
 
-  /** Implementation of {@link Sink} using a {@link java.util.ArrayDeque}. */
+  /** Implementation of {@link Sink} using a {@link BlockingQueue}.
+   *
+   * <p>Used in pipelined mode. The producer waits while the queue is full;
+   * the consumer, a {@link QueueSource}, waits while it is empty. */
+  private static class QueueSink implements Channel {
+    private final BlockingQueue<Row> queue;
+    private final AtomicReference<@Nullable Throwable> failure;
+    private boolean ended;
+
+    private QueueSink(BlockingQueue<Row> queue,
+        AtomicReference<@Nullable Throwable> failure) {
+      this.queue = queue;
+      this.failure = failure;
+    }
+
+    @Override public Source source() {
+      return new QueueSource(queue, failure);
+    }
+
+    @Override public void send(Row row) throws InterruptedException {
+      queue.put(row);
+    }
+
+    @Override public void end() throws InterruptedException {
+      if (!ended) {
+        ended = true;
+        queue.put(END);
+      }
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override public void setSourceEnumerable(Enumerable<Row> enumerable)
+        throws InterruptedException {
+      try (Enumerator<Row> enumerator = enumerable.enumerator()) {
+        while (enumerator.moveNext()) {
+          send(enumerator.current());
+        }
+      }
+    }
+  }
+
+  /** Implementation of {@link Source} using a {@link BlockingQueue}. */
+  private static class QueueSource implements Source {
+    private final BlockingQueue<Row> queue;
+    /** First error thrown by any node of the interpreter. */
+    private final AtomicReference<@Nullable Throwable> failure;
+    private boolean done;
+
+    QueueSource(BlockingQueue<Row> queue,
+        AtomicReference<@Nullable Throwable> failure) {
+      this.queue = queue;
+      this.failure = failure;
+    }
+
+    @Override public @Nullable Row receive() {
+      if (done) {
+        return null;
+      }
+      final Row row;
+      try {
+        row = queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("interrupted while reading rows", e);
+      }
+      if (row == END) {
+        done = true;
+        final Throwable e = failure.get();
+        if (e != null) {
+          throw Util.throwAsRuntime(e);
+        }
+        return null;
+      }
+      return row;
+    }
+
+    @Override public void close() {
+      // noop
+    }
+  }
+
+  /** Enumerator that reads from a {@link Source}, and performs an action
+   * when closed. */
+  private static class SourceEnumerator implements Enumerator<Row> {
+    private final Source source;
+    private final Runnable onClose;
+    private @Nullable Row current;
+
+    SourceEnumerator(Source source, Runnable onClose) {
+      this.source = source;
+      this.onClose = onClose;
+    }
+
+    @Override public Row current() {
+      return castNonNull(current);
+    }
+
+    @Override public boolean moveNext() {
+      current = source.receive();
+      return current != null;
+    }
+
+    @Override public void reset() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public void close() {
+      try {
+        source.close();
+      } finally {
+        onClose.run();
+      }
+    }
+  }
+
+  /** Implementation of {@link Sink} that sends each row to several
+   * sinks. */
   private static class DuplicatingSink implements Sink {
-    private final List<ArrayDeque<Row>> queues;
+    private final List<Channel> sinks;
 
-    private DuplicatingSink(List<ArrayDeque<Row>> queues) {
-      this.queues = ImmutableList.copyOf(queues);
+    private DuplicatingSink(List<Channel> sinks) {
+      this.sinks = ImmutableList.copyOf(sinks);
     }
 
-    @Override public void send(Row row) {
-      for (ArrayDeque<Row> queue : queues) {
-        queue.add(row);
+    @Override public void send(Row row) throws InterruptedException {
+      for (Channel sink : sinks) {
+        sink.send(row);
       }
     }
 
-    @Override public void end() {
+    @Override public void end() throws InterruptedException {
+      for (Channel sink : sinks) {
+        sink.end();
+      }
     }
 
     @SuppressWarnings("deprecation")
-    @Override public void setSourceEnumerable(Enumerable<Row> enumerable) {
+    @Override public void setSourceEnumerable(Enumerable<Row> enumerable)
+        throws InterruptedException {
       // just copy over the source into the local list
       final Enumerator<Row> enumerator = enumerable.enumerator();
       while (enumerator.moveNext()) {
@@ -423,9 +660,9 @@ private JavaTypeFactory getTypeFactory() {
         return new EnumeratorSource(nodeInfo.rowEnumerable.enumerator());
       }
       assert nodeInfo.sinks.size() == edges.size();
-      final ListSink sink = nodeInfo.sinks.get(edge);
+      final Channel sink = nodeInfo.sinks.get(edge);
       if (sink != null) {
-        return new ListSource(sink.list);
+        return sink.source();
       }
       throw new IllegalStateException(
           "Got a sink " + sink + " to which there is no match source type!");
@@ -448,26 +685,35 @@ private RelNode getInput(RelNode rel, int ordinal) {
       if (nodeInfo == null) {
         nodeInfo = new NodeInfo(rel, null);
         nodes.put(rel, nodeInfo);
-        for (Edge edge : edges2) {
-          nodeInfo.sinks.put(edge, new ListSink(new ArrayDeque<>()));
-        }
-      } else {
-        for (Edge edge : edges2) {
-          if (nodeInfo.sinks.containsKey(edge)) {
-            continue;
-          }
-          nodeInfo.sinks.put(edge, new ListSink(new ArrayDeque<>()));
+      }
+      for (Edge edge : edges2) {
+        if (nodeInfo.sinks.containsKey(edge)) {
+          continue;
         }
+        nodeInfo.sinks.put(edge, createSink(edges2.size()));
       }
       if (edges.size() == 1) {
         return Iterables.getOnlyElement(nodeInfo.sinks.values());
       } else {
-        final List<ArrayDeque<Row>> queues = new ArrayList<>();
-        for (ListSink sink : nodeInfo.sinks.values()) {
-          queues.add(sink.list);
-        }
-        return new DuplicatingSink(queues);
+        return new DuplicatingSink(new ArrayList<>(nodeInfo.sinks.values()));
+      }
+    }
+
+    /** Creates a sink for one of the consumers of a node.
+     *
+     * <p>In pipelined mode, if a node has several consumers, its queues are
+     * unbounded; otherwise a consumer that reads its inputs one after
+     * another could wait for a row that the producer cannot send, because
+     * another consumer's queue is full. */
+    private Channel createSink(int consumerCount) {
+      final int bufferSize = interpreter.bufferSize;
+      if (bufferSize == 0) {
+        return new ListSink(new ArrayDeque<>());
       }
+      final BlockingQueue<Row> queue = consumerCount == 1
+          ? new ArrayBlockingQueue<>(bufferSize)
+          : new LinkedBlockingQueue<>();
+      return new QueueSink(queue, interpreter.failure);
     }
 
     @Override public void enumerable(RelNode rel, Enumerable<Row> rowEnumerable) {
@@ -17,22 +17,36 @@
 package org.apache.calcite.interpreter;
 
 import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinInfo;
 import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.sql.type.SqlTypeUtil;
+import org.apache.calcite.util.ImmutableIntList;
+import org.apache.calcite.util.IntPair;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Interpreter node that implements a
  * {@link org.apache.calcite.rel.core.Join}.
+ *
+ * <p>If the condition contains equalities between fields of the two inputs,
+ * builds a hash table on the inner input, keyed by those fields, and
+ * evaluates the condition only for the inner rows whose keys equal the
+ * outer row's keys. Otherwise, evaluates the condition for every pair of
+ * rows, as a nested loop.
  */
 public class JoinNode implements Node {
   private final Source leftSource;
@@ -41,6 +55,10 @@ public class JoinNode implements Node {
   private final Join rel;
   private final Scalar condition;
   private final Context context;
+  /** Ordinals of the hash key fields in the left input. */
+  private final int[] leftKeys;
+  /** Ordinals of the hash key fields in the right input. */
+  private final int[] rightKeys;
 
   public JoinNode(Compiler compiler, Join rel) {
     this.leftSource = compiler.source(rel, 0);
@@ -52,6 +70,51 @@ public JoinNode(Compiler compiler, Join rel) {
     this.rel = rel;
     this.context = compiler.createContext();
 
+    final JoinInfo joinInfo =
+        JoinInfo.createWithStrictEquality(rel.getLeft(), rel.getRight(),
+            rel.getCondition());
+    final List<Integer> leftKeys = new ArrayList<>();
+    final List<Integer> rightKeys = new ArrayList<>();
+    for (IntPair pair : joinInfo.pairs()) {
+      final RelDataType leftType =
+          rel.getLeft().getRowType().getFieldList().get(pair.source).getType();
+      final RelDataType rightType =
+          rel.getRight().getRowType().getFieldList().get(pair.target).getType();
+      if (canHash(leftType, rightType)) {
+        leftKeys.add(pair.source);
+        rightKeys.add(pair.target);
+      }
+    }
+    this.leftKeys = Ints.toArray(leftKeys);
+    this.rightKeys = Ints.toArray(rightKeys);
+  }
+
+  /** Returns whether two fields compared using "=" can be used as hash keys;
+   * that is, whether their values are equal if and only if their Java
+   * representations are equal. */
+  private static boolean canHash(RelDataType leftType, RelDataType rightType) {
+    if (!SqlTypeUtil.equalSansNullability(leftType, rightType)) {
+      return false;
+    }
+    switch (leftType.getSqlTypeName()) {
+    case BOOLEAN:
+    case TINYINT:
+    case SMALLINT:
+    case INTEGER:
+    case BIGINT:
+    case CHAR:
+    case VARCHAR:
+    case BINARY:
+    case VARBINARY:
+    case DATE:
+    case TIME:
+    case TIMESTAMP:
+      return true;
+    default:
+      // For example, DECIMAL values 1.0 and 1.00 are equal, but their
+      // BigDecimal representations are not
+      return false;
+    }
   }
 
   @Override public void close() {
@@ -64,60 +127,67 @@ public JoinNode(Compiler compiler, Join rel) {
         + rel.getRight().getRowType().getFieldCount();
     context.values = new Object[fieldCount];
 
-    // source for the outer relation of nested loop
+    final JoinRelType joinType = rel.getJoinType();
+    // source for the outer (probe) relation
     Source outerSource = leftSource;
-    // source for the inner relation of nested loop
+    // source for the inner (build) relation
     Source innerSource = rightSource;
-    if (rel.getJoinType() == JoinRelType.RIGHT) {
+    int[] outerKeys = leftKeys;
+    int[] innerKeys = rightKeys;
+    if (joinType == JoinRelType.RIGHT) {
       outerSource = rightSource;
       innerSource = leftSource;
+      outerKeys = rightKeys;
+      innerKeys = leftKeys;
     }
 
-    // row from outer source
-    Row outerRow = null;
-    // rows from inner source
-    List<Row> innerRows = null;
-    Set<Row> matchRowSet = new HashSet<>();
+    // For a FULL join, unmatched inner rows are sent even if the outer input
+    // is empty, so read the inner input first; otherwise, read it lazily.
+    Inner inner = joinType == JoinRelType.FULL
+        ? new Inner(innerSource, innerKeys)
+        : null;
+    Row outerRow;
     while ((outerRow = outerSource.receive()) != null) {
-      if (innerRows == null) {
-        innerRows = new ArrayList<Row>();
-        Row innerRow = null;
-        while ((innerRow = innerSource.receive()) != null) {
-          innerRows.add(innerRow);
-        }
+      if (inner == null) {
+        inner = new Inner(innerSource, innerKeys);
       }
-      matchRowSet.addAll(doJoin(outerRow, innerRows, rel.getJoinType()));
+      doJoin(outerRow, outerKeys, inner, joinType);
     }
-    if (rel.getJoinType() == JoinRelType.FULL) {
-      // send un-match rows for full join on right source
-      List<Row> empty = new ArrayList<>();
-      // TODO: CALCITE-4308, JointNode in Interpreter might fail with NPE for FULL join
-      for (Row row : requireNonNull(innerRows, "innerRows")) {
-        if (matchRowSet.contains(row)) {
-          continue;
-        }
-        doSend(row, empty, JoinRelType.RIGHT);
+    if (joinType == JoinRelType.FULL) {
+      // send unmatched rows of the right input
+      final List<Row> empty = ImmutableList.of();
+      requireNonNull(inner, "inner");
+      for (int i = inner.matched.nextClearBit(0); i < inner.rows.size();
+           i = inner.matched.nextClearBit(i + 1)) {
+        doSend(inner.rows.get(i), empty, JoinRelType.RIGHT);
       }
     }
   }
 
   /**
-   * Execution of the join action, returns the matched rows for the outer source row.
+   * Joins an outer row with the matching inner rows, and sends the result.
    */
-  private List<Row> doJoin(Row outerRow, List<Row> innerRows,
+  private void doJoin(Row outerRow, int[] outerKeys, Inner inner,
       JoinRelType joinRelType) throws InterruptedException {
+    final List<Integer> candidates = inner.candidates(outerRow, outerKeys);
     boolean outerRowOnLeft = joinRelType != JoinRelType.RIGHT;
     copyToContext(outerRow, outerRowOnLeft);
+    final boolean firstMatchOnly =
+        joinRelType == JoinRelType.SEMI || joinRelType == JoinRelType.ANTI;
     List<Row> matchInnerRows = new ArrayList<>();
-    for (Row innerRow : innerRows) {
+    for (int i : candidates) {
+      final Row innerRow = inner.rows.get(i);
       copyToContext(innerRow, !outerRowOnLeft);
       final Boolean execute = (Boolean) condition.execute(context);
       if (execute != null && execute) {
         matchInnerRows.add(innerRow);
+        inner.matched.set(i);
+        if (firstMatchOnly) {
+          break;
+        }
       }
     }
     doSend(outerRow, matchInnerRows, joinRelType);
-    return matchInnerRows;
   }
 
   /**
@@ -184,4 +254,63 @@ private void copyToContext(Row row, boolean toLeftSide) {
           context.values.length - values.length, values.length);
     }
   }
+
+  /** Returns the hash key of a row, or null if any of the key fields is
+   * null, in which case "=" cannot be true. */
+  private static @Nullable Object key(Row row, int[] keys) {
+    if (keys.length == 1) {
+      return row.getObject(keys[0]);
+    }
+    final @Nullable Object[] values = new Object[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      final Object value = row.getObject(keys[i]);
+      if (value == null) {
+        return null;
+      }
+      values[i] = value;
+    }
+    return Arrays.asList(values);
+  }
+
+  /** Rows of the inner input, indexed by their hash keys. */
+  private static class Inner {
+    final List<Row> rows = new ArrayList<>();
+    /** Ordinals of the rows that have matched at least one outer row. */
+    final BitSet matched = new BitSet();
+    /** Ordinals of the rows with each key; null if there are no keys. */
+    final @Nullable Map<Object, List<Integer>> index;
+    /** Ordinals of all rows, for a nested loop. */
+    private @Nullable List<Integer> all;
+
+    Inner(Source source, int[] keys) {
+      this.index = keys.length == 0 ? null : new HashMap<>();
+      Row row;
+      while ((row = source.receive()) != null) {
+        if (index != null) {
+          final Object key = key(row, keys);
+          if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>(1))
+                .add(rows.size());
+          }
+        }
+        rows.add(row);
+      }
+    }
+
+    /** Returns the ordinals of the rows that may match an outer row. */
+    List<Integer> candidates(Row outerRow, int[] outerKeys) {
+      if (index == null) {
+        if (all == null) {
+          all = ImmutableIntList.identity(rows.size());
+        }
+        return all;
+      }
+      final Object key = key(outerRow, outerKeys);
+      if (key == null) {
+        return ImmutableList.of();
+      }
+      final List<Integer> list = index.get(key);
+      return list == null ? ImmutableList.of() : list;
+    }
+  }
 }
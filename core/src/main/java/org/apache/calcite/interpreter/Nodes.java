@@ -18,6 +18,7 @@
 
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.Calc;
 import org.apache.calcite.rel.core.Collect;
 import org.apache.calcite.rel.core.Filter;
 import org.apache.calcite.rel.core.Join;
@@ -62,6 +63,10 @@ public void visit(Project project) {
       node = new ProjectNode(this, project);
     }
 
+    public void visit(Calc calc) {
+      node = new CalcNode(this, calc);
+    }
+
     public void visit(Values value) {
       node = new ValuesNode(this, value);
     }
@@ -23,6 +23,7 @@
 import org.apache.calcite.adapter.enumerable.EnumerableRel;
 import org.apache.calcite.adapter.enumerable.EnumerableRules;
 import org.apache.calcite.adapter.enumerable.RexToLixTranslator;
+import org.apache.calcite.adapter.enumerable.TieredBindable;
 import org.apache.calcite.adapter.java.JavaTypeFactory;
 import org.apache.calcite.avatica.AvaticaParameter;
 import org.apache.calcite.avatica.ColumnMetaData;
@@ -1182,16 +1183,37 @@ protected SqlValidator createSqlValidator(CatalogReader catalogReader,
           enumerable = EnumerableCalc.create(enumerable, program);
         }
 
-        try {
-          CatalogReader.THREAD_LOCAL.set(catalogReader);
-          final SqlConformance conformance = context.config().conformance();
-          internalParameters.put("_conformance", conformance);
+        final SqlConformance conformance = context.config().conformance();
+        internalParameters.put("_conformance", conformance);
+        if (CalciteSystemProperty.ENUMERABLE_TIERED.value()
+            && prefer == EnumerableRel.Prefer.ARRAY
+            && enumerable.getRowType().getFieldCount() > 1
+            && !context.spark().enabled()
+            && TieredBindable.canInterpret(enumerable)) {
+          // Interpret until the code generated in the background is ready
+          final EnumerableRel rel = enumerable;
+          final Map<String, Object> parameters =
+              new HashMap<>(internalParameters);
           bindable =
-              EnumerableInterpretable.toBindable(internalParameters,
-                  context.spark(), enumerable,
-                  requireNonNull(prefer, "EnumerableRel.Prefer prefer"));
-        } finally {
-          CatalogReader.THREAD_LOCAL.remove();
+              TieredBindable.create(rel, parameters, () -> {
+                try {
+                  CatalogReader.THREAD_LOCAL.set(catalogReader);
+                  return EnumerableInterpretable.toBindable(parameters, null,
+                      rel, EnumerableRel.Prefer.ARRAY);
+                } finally {
+                  CatalogReader.THREAD_LOCAL.remove();
+                }
+              });
+        } else {
+          try {
+            CatalogReader.THREAD_LOCAL.set(catalogReader);
+            bindable =
+                EnumerableInterpretable.toBindable(internalParameters,
+                    context.spark(), enumerable,
+                    requireNonNull(prefer, "EnumerableRel.Prefer prefer"));
+          } finally {
+            CatalogReader.THREAD_LOCAL.remove();
+          }
         }
       }
 
@@ -494,6 +494,23 @@ public static Ordering<List<RexLiteral>> comparator(
     assert EnumerableMergeJoin.isMergeJoinSupported(joinType)
         : "EnumerableMergeJoin unsupported for join type " + joinType;
 
+    switch (joinType) {
+    case RIGHT:
+      // Rows are in the order of the right keys; left columns are null in
+      // rows of the right input that have no match
+      final List<RelFieldCollation> fieldCollations = new ArrayList<>();
+      for (int key : rightKeys.incr(left.getRowType().getFieldCount())) {
+        fieldCollations.add(
+            new RelFieldCollation(key, RelFieldCollation.Direction.ASCENDING,
+                RelFieldCollation.NullDirection.LAST));
+      }
+      return ImmutableList.of(RelCollations.of(fieldCollations));
+    case FULL:
+      return ImmutableList.of();
+    default:
+      break;
+    }
+
     final ImmutableList<RelCollation> leftCollations = mq.collations(left);
     if (!joinType.projectsRight()) {
       return leftCollations;
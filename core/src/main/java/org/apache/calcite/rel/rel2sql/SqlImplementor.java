@@ -99,6 +99,7 @@
 import org.apache.calcite.sql.validate.SqlValidatorUtil;
 import org.apache.calcite.util.DateString;
 import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.calcite.util.Litmus;
 import org.apache.calcite.util.NlsString;
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.RangeSets;
@@ -914,12 +915,52 @@ private SqlNode callToSql(@Nullable RexProgram program, RexCall call0,
           nodeList.add(castNonNull(dialect.getCastSpec(call.getType())));
         }
         break;
+      case OR:
+        if (!not) {
+          final SqlNode in = dynamicParamsToIn(nodeList);
+          if (in != null) {
+            return in;
+          }
+        }
+        break;
       default:
         break;
       }
       return SqlUtil.createCall(op, POS, nodeList);
     }
 
+    /** Converts the operands of an OR to "x IN (?, ?, ...)" if each of them
+     * compares the same column to a dynamic parameter, otherwise returns null.
+     *
+     * <p>Such a disjunction is typically the filter that a batch nested loop
+     * join pushes into its right input, one parameter per row of the batch.
+     * An IN-list is shorter, and databases can use it for an index lookup
+     * more readily than a deep tree of ORs. */
+    private static @Nullable SqlNode dynamicParamsToIn(List<SqlNode> operands) {
+      if (operands.size() < 2) {
+        return null;
+      }
+      @Nullable SqlNode column = null;
+      final SqlNodeList params = new SqlNodeList(POS);
+      for (SqlNode operand : operands) {
+        if (operand.getKind() != SqlKind.EQUALS) {
+          return null;
+        }
+        final List<SqlNode> pair = ((SqlCall) operand).getOperandList();
+        final int i = pair.get(0) instanceof SqlDynamicParam ? 0 : 1;
+        final SqlNode param = pair.get(i);
+        final SqlNode other = pair.get(1 - i);
+        if (!(param instanceof SqlDynamicParam)
+            || !(other instanceof SqlIdentifier)
+            || column != null && !column.equalsDeep(other, Litmus.IGNORE)) {
+          return null;
+        }
+        column = other;
+        params.add(param);
+      }
+      return SqlStdOperatorTable.IN.createCall(POS, requireNonNull(column), params);
+    }
+
     /** Reverses the order of a call, while preserving semantics, if it improves
      * readability.
      *
@@ -99,8 +99,10 @@ protected RelDataTypeImpl() {
           + " in a type with no fields: " + this);
     }
     final Map<String, RelDataTypeField> fieldMap = getFieldMap();
-    if (caseSensitive && fieldMap != null) {
-      RelDataTypeField field = fieldMap.get(fieldName);
+    final Map<String, RelDataTypeField> lookupMap =
+        caseSensitive ? fieldMap : getFieldMapIgnoreCase();
+    if (lookupMap != null) {
+      RelDataTypeField field = lookupMap.get(fieldName);
       if (field != null) {
         return field;
       }
@@ -165,6 +167,12 @@ protected RelDataTypeImpl() {
     return null;
   }
 
+  /** Returns a map from field name to the first field with that name,
+   * ignoring case, or null if the type has too few fields to justify one. */
+  protected @Nullable Map<String, RelDataTypeField> getFieldMapIgnoreCase() {
+    return null;
+  }
+
   private static void getFieldRecurse(List<Slot> slots, RelDataType type,
       int depth, String fieldName, boolean caseSensitive) {
     while (slots.size() <= depth) {
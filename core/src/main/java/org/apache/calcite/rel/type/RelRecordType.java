@@ -20,6 +20,7 @@
 import org.apache.calcite.sql.type.SqlTypeName;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -27,6 +28,8 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static java.util.Objects.requireNonNull;
 
@@ -38,6 +41,9 @@ public class RelRecordType extends RelDataTypeImpl implements Serializable {
   private final StructKind kind;
   private final boolean nullable;
   private final @Nullable Map<String, RelDataTypeField> fieldNameMap;
+  /** Case-insensitive version of {@link #fieldNameMap}; populated on first
+   * use. */
+  private transient @Nullable Map<String, RelDataTypeField> fieldNameMapIgnoreCase;
 
   /** Minimum number of fields where it is worth populating {@link #fieldNameMap}
    * to accelerate lookups by field name. */
@@ -114,6 +120,23 @@ public RelRecordType(List<RelDataTypeField> fields) {
     return fieldNameMap;
   }
 
+  @Override protected @Nullable Map<String, RelDataTypeField> getFieldMapIgnoreCase() {
+    if (fieldNameMap == null) {
+      return null;
+    }
+    Map<String, RelDataTypeField> map = fieldNameMapIgnoreCase;
+    if (map == null) {
+      final SortedMap<String, RelDataTypeField> sortedMap =
+          new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      for (RelDataTypeField f : requireNonNull(fieldList, "fieldList")) {
+        sortedMap.putIfAbsent(f.getName(), f);
+      }
+      map = ImmutableSortedMap.copyOfSorted(sortedMap);
+      fieldNameMapIgnoreCase = map;
+    }
+    return map;
+  }
+
   @Override protected void generateTypeString(StringBuilder sb, boolean withDetail) {
     sb.append("RecordType");
     switch (kind) {
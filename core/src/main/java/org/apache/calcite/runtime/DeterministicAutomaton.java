@@ -80,7 +80,12 @@ public ImmutableList<Transition> getTransitions() {
   private void traverse(MultiState start,
       ImmutableList.Builder<Transition> transitionsBuilder,
       Set<MultiState> traversedStates) {
-    traversedStates.add(start);
+    // A state may have been reached, and traversed, via a sibling since it
+    // was added to its parent's list of new states; adding its transitions
+    // again would create duplicate transitions
+    if (!traversedStates.add(start)) {
+      return;
+    }
     final Set<MultiState> newStates = new HashSet<>();
     for (int symbol = 0; symbol < automaton.symbolNames.size(); symbol++) {
       final Optional<MultiState> next = addTransitions(start, symbol, transitionsBuilder);
@@ -19,12 +19,22 @@
 import org.apache.calcite.interpreter.Row;
 import org.apache.calcite.linq4j.AbstractEnumerable;
 import org.apache.calcite.linq4j.Enumerable;
+import org.apache.calcite.linq4j.EnumerableDefaults;
 import org.apache.calcite.linq4j.Enumerator;
+import org.apache.calcite.linq4j.Linq4j;
+import org.apache.calcite.linq4j.function.EqualityComparer;
 import org.apache.calcite.linq4j.function.Function1;
+import org.apache.calcite.linq4j.function.Function2;
+import org.apache.calcite.linq4j.function.Predicate2;
+import org.apache.calcite.util.trace.CalciteTrace;
+
+import com.google.common.collect.ImmutableList;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +43,8 @@
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import static org.apache.calcite.linq4j.Nullness.castNonNull;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -43,6 +55,11 @@
  * Methods are subject to removal without notice.
  */
 public class Enumerables {
+  private static final Logger JOIN_LOGGER = CalciteTrace.getJoinTracer();
+
+  /** Maximum number of rows in the right input for which
+   * {@link #adaptiveHashJoin} uses a nested loop rather than a hash table. */
+  static final int NESTED_LOOP_MAX_ROWS = 4;
 
   private Enumerables() {}
 
@@ -72,6 +89,254 @@ public static com.google.common.base.Supplier<Enumerable<Row>> toRow(
     return () -> toRow(supplier.get());
   }
 
+  /**
+   * Joins two inputs on matching keys, looking at the right (build) input
+   * before reading the left input, and choosing an algorithm from the
+   * number of rows it actually has rather than the planner's estimate.
+   *
+   * <ul>
+   * <li>If the right input is empty and the join does not generate nulls on
+   * the right, the result is empty and the left input is not read.
+   * <li>If the right input has at most {@link #NESTED_LOOP_MAX_ROWS} rows
+   * and the join does not generate nulls on the left, compares the key of
+   * each left row with the keys of those rows, and builds no hash table.
+   * <li>Otherwise, uses
+   * {@link EnumerableDefaults#hashJoin(Enumerable, Enumerable, Function1, Function1, Function2, EqualityComparer, boolean, boolean, Predicate2)},
+   * building its hash table from the rows of the right input as they are
+   * read, without first copying them into a list.
+   * </ul>
+   *
+   * <p>The result is the same as that of {@code hashJoin}, in the same
+   * order. The choice, and the actual number of rows in the right input, are
+   * reported by the {@link CalciteTrace#getJoinTracer() join tracer}.
+   */
+  public static <TSource, TInner, TKey, TResult> Enumerable<TResult> adaptiveHashJoin(
+      Enumerable<TSource> outer, Enumerable<TInner> inner,
+      Function1<TSource, TKey> outerKeySelector,
+      Function1<TInner, TKey> innerKeySelector,
+      Function2<TSource, TInner, TResult> resultSelector,
+      @Nullable EqualityComparer<TKey> comparer, boolean generateNullsOnLeft,
+      boolean generateNullsOnRight,
+      @Nullable Predicate2<TSource, TInner> predicate) {
+    return new AbstractEnumerable<TResult>() {
+      @Override public Enumerator<TResult> enumerator() {
+        // Read the right input until it ends or has too many rows for a
+        // nested loop
+        final Enumerator<TInner> inners = inner.enumerator();
+        final List<TInner> rows = new ArrayList<>();
+        boolean ended = false;
+        try {
+          while (rows.size() <= NESTED_LOOP_MAX_ROWS) {
+            if (!inners.moveNext()) {
+              ended = true;
+              break;
+            }
+            rows.add(inners.current());
+          }
+        } catch (RuntimeException e) {
+          inners.close();
+          throw e;
+        }
+        if (ended) {
+          inners.close();
+          if (rows.isEmpty() && !generateNullsOnRight) {
+            traceJoin(0, "empty");
+            return Linq4j.emptyEnumerator();
+          }
+          if (!generateNullsOnLeft) {
+            traceJoin(rows.size(), "nested loop");
+            return nestedLoopJoin(outer.enumerator(), rows, outerKeySelector,
+                innerKeySelector, resultSelector, comparer,
+                generateNullsOnRight, predicate);
+          }
+        }
+        final Enumerable<TInner> build =
+            new ReplayEnumerable<>(inner, rows, ended ? null : inners,
+                rowCount -> traceJoin(rowCount, "hash"));
+        return EnumerableDefaults.hashJoin(outer, build, outerKeySelector,
+            innerKeySelector, resultSelector, comparer, generateNullsOnLeft,
+            generateNullsOnRight, predicate).enumerator();
+      }
+    };
+  }
+
+  private static void traceJoin(int rowCount, String algorithm) {
+    if (JOIN_LOGGER.isDebugEnabled()) {
+      JOIN_LOGGER.debug("Right input of join has {} rows; using {} join",
+          rowCount, algorithm);
+    }
+  }
+
+  /** Joins each row of the left input to those of a few right rows whose
+   * key is equal, by comparing the keys one by one; the part of
+   * {@link #adaptiveHashJoin} for a small right input. Returns rows in the
+   * same order as a hash join. */
+  private static <TSource, TInner, TKey, TResult> Enumerator<TResult> nestedLoopJoin(
+      Enumerator<TSource> outers, List<TInner> inners,
+      Function1<TSource, TKey> outerKeySelector,
+      Function1<TInner, TKey> innerKeySelector,
+      Function2<TSource, TInner, TResult> resultSelector,
+      @Nullable EqualityComparer<TKey> comparer, boolean generateNullsOnRight,
+      @Nullable Predicate2<TSource, TInner> predicate) {
+    final List<@Nullable TKey> innerKeys = new ArrayList<>(inners.size());
+    for (TInner inner : inners) {
+      innerKeys.add(innerKeySelector.apply(inner));
+    }
+    return new Enumerator<TResult>() {
+      /** Key of the current left row; null if it matches no right row. */
+      @Nullable TKey outerKey;
+      /** Index of the next right row to compare with the current left row;
+       * greater than the number of right rows if there is no left row. */
+      int i = inners.size() + 1;
+      boolean matched;
+      @Nullable TResult current;
+
+      @Override public TResult current() {
+        return castNonNull(current);
+      }
+
+      @Override public boolean moveNext() {
+        for (;;) {
+          final int n = inners.size();
+          if (i < n) {
+            final int k = i++;
+            final TKey innerKey = innerKeys.get(k);
+            if (outerKey != null
+                && innerKey != null
+                && (comparer == null
+                    ? outerKey.equals(innerKey)
+                    : comparer.equal(outerKey, innerKey))
+                && (predicate == null
+                    || predicate.apply(outers.current(), inners.get(k)))) {
+              matched = true;
+              current = resultSelector.apply(outers.current(), inners.get(k));
+              return true;
+            }
+            continue;
+          }
+          if (i == n) {
+            ++i;
+            if (!matched && generateNullsOnRight) {
+              @SuppressWarnings("argument.type.incompatible")
+              final TResult result = resultSelector.apply(outers.current(), null);
+              current = result;
+              return true;
+            }
+          }
+          if (!outers.moveNext()) {
+            return false;
+          }
+          final TSource outer = outers.current();
+          outerKey = outer == null ? null : outerKeySelector.apply(outer);
+          i = 0;
+          matched = false;
+        }
+      }
+
+      @Override public void reset() {
+        outers.reset();
+        i = inners.size() + 1;
+      }
+
+      @Override public void close() {
+        outers.close();
+      }
+    };
+  }
+
+  /** Enumerable whose first enumerator returns rows that have already been
+   * read from another enumerable and then, if the reading enumerator has
+   * not reached the end, continues it; it reports how many rows it returned
+   * once it reaches the end. Later enumerators read the underlying
+   * enumerable again.
+   *
+   * @param <E> Element type */
+  private static class ReplayEnumerable<E> extends AbstractEnumerable<E> {
+    private final Enumerable<E> enumerable;
+    private @Nullable List<E> rows;
+    private final @Nullable Enumerator<E> rest;
+    private final Consumer<Integer> onEnd;
+
+    /** Creates a ReplayEnumerable.
+     *
+     * @param enumerable Underlying enumerable
+     * @param rows       First rows of {@code enumerable}
+     * @param rest       Enumerator of {@code enumerable} that has returned
+     *                   {@code rows} and may return more, or null if it has
+     *                   reached the end
+     * @param onEnd      Called with the number of rows, at the end of the
+     *                   first enumerator
+     */
+    ReplayEnumerable(Enumerable<E> enumerable, List<E> rows,
+        @Nullable Enumerator<E> rest, Consumer<Integer> onEnd) {
+      this.enumerable = enumerable;
+      this.rows = rows;
+      this.rest = rest;
+      this.onEnd = onEnd;
+    }
+
+    @Override public Enumerator<E> enumerator() {
+      final List<E> rows = this.rows;
+      if (rows == null) {
+        return enumerable.enumerator();
+      }
+      this.rows = null;
+      return new Enumerator<E>() {
+        List<E> replay = rows;
+        @Nullable Enumerator<E> rest = ReplayEnumerable.this.rest;
+        /** Index of the current row of {@code replay}. */
+        int i = -1;
+        int rowCount;
+        boolean done;
+        boolean reported;
+        @Nullable E current;
+
+        @Override public E current() {
+          return castNonNull(current);
+        }
+
+        @Override public boolean moveNext() {
+          if (!done) {
+            if (i + 1 < replay.size()) {
+              current = replay.get(++i);
+              ++rowCount;
+              return true;
+            }
+            final Enumerator<E> rest = this.rest;
+            if (rest != null && rest.moveNext()) {
+              current = rest.current();
+              ++rowCount;
+              return true;
+            }
+            done = true;
+          }
+          if (!reported) {
+            reported = true;
+            onEnd.accept(rowCount);
+          }
+          return false;
+        }
+
+        @Override public void reset() {
+          // Start again from the beginning of the underlying enumerable
+          close();
+          replay = ImmutableList.of();
+          rest = enumerable.enumerator();
+          i = -1;
+          rowCount = 0;
+          done = false;
+        }
+
+        @Override public void close() {
+          final Enumerator<E> rest = this.rest;
+          if (rest != null) {
+            rest.close();
+          }
+        }
+      };
+    }
+  }
+
   public static <E, TKey, TResult> Enumerable<TResult> match(
       Enumerable<E> enumerable,
       final Function1<E, TKey> keySelector,
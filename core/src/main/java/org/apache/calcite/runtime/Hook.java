@@ -66,6 +66,33 @@ public enum Hook {
    * Janino. */
   JAVA_PLAN,
 
+  /** Returns the
+   * {@link org.apache.calcite.adapter.enumerable.BindableCompiler} that
+   * compiles the code generated for an Enumerable plan. Default is the one
+   * selected by
+   * {@link org.apache.calcite.config.CalciteSystemProperty#ENUMERABLE_COMPILER}.
+   * Classes compiled by any other are not cached. */
+  BINDABLE_COMPILER,
+
+  /** Returns a boolean value, whether
+   * {@link org.apache.calcite.adapter.jdbc.JdbcSchema} reads the column
+   * metadata of a database schema in bulk. Default is the value of
+   * {@link org.apache.calcite.config.CalciteSystemProperty#JDBC_METADATA_BULK}.
+   * Read when the schema is created. */
+  JDBC_METADATA_BULK,
+
+  /** Returns an integer value, the number of seconds after which
+   * {@link org.apache.calcite.adapter.jdbc.JdbcSchema} refreshes column
+   * metadata that it has read in bulk. Default is the value of
+   * {@link org.apache.calcite.config.CalciteSystemProperty#JDBC_METADATA_REFRESH}.
+   * Read when the schema is created. */
+  JDBC_METADATA_REFRESH,
+
+  /** Called with the estimated size, in bytes of bytecode, of each method of
+   * the generated Java plan, as a map keyed by the path of the method (for
+   * example "bind/enumerator/current"). */
+  JAVA_METHOD_SIZES,
+
   /** Called before SqlToRelConverter is built. */
   SQL2REL_CONVERTER_CONFIG_BUILDER,
 
@@ -96,6 +123,11 @@ public enum Hook {
    * pipeline expressions (for the MongoDB adapter), et cetera. */
   QUERY_PLAN,
 
+  /** Called after each step of a recursive query (the seed is step 0, then
+   * each iteration) with the name of the transient table, the step number,
+   * and the number of rows the step emitted, in an array. */
+  REPEAT_UNION_STEP,
+
   /**
    * Called when a plan is about to be implemented (e.g. implemented via Enumerable, Bindable,
    * and so on).
@@ -215,6 +247,13 @@ public void run(Object arg) {
     }
   }
 
+  /** Returns whether any handler is registered for this Hook, for all
+   * threads or for this thread. If not, {@link #run} does nothing, so a
+   * caller can skip computing an expensive argument. */
+  public boolean hasHandlers() {
+    return !handlers.isEmpty() || !threadHandlers.get().isEmpty();
+  }
+
   /** Returns the value of a property hook.
    * (Property hooks take a {@link Holder} as an argument.) */
   public <V> V get(V defaultValue) {
@@ -25,9 +25,12 @@
 import org.apache.calcite.util.Util;
 
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.PrettyPrinter;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -43,6 +46,7 @@
 import org.checkerframework.checker.nullness.qual.EnsuresNonNullIf;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -84,6 +88,39 @@ public class JsonFunctions {
 
   private static final String JSON_ROOT_PATH = "$";
 
+  private static final Configuration STRICT_CONFIGURATION =
+      Configuration.builder()
+          .jsonProvider(JSON_PATH_JSON_PROVIDER)
+          .mappingProvider(JSON_PATH_MAPPING_PROVIDER)
+          .build();
+
+  private static final Configuration LAX_CONFIGURATION =
+      Configuration.builder()
+          .options(Option.SUPPRESS_EXCEPTIONS)
+          .jsonProvider(JSON_PATH_JSON_PROVIDER)
+          .mappingProvider(JSON_PATH_MAPPING_PROVIDER)
+          .build();
+
+  /** Simple JSON path: "$" followed by one or more ".name" and "[index]"
+   * steps. */
+  private static final Pattern SIMPLE_JSON_PATH =
+      Pattern.compile("\\$((\\.[A-Za-z_][A-Za-z0-9_]*)|(\\[[0-9]{1,9}]))+");
+
+  private static final Pattern SIMPLE_JSON_PATH_STEP =
+      Pattern.compile("\\.([A-Za-z_][A-Za-z0-9_]*)|\\[([0-9]+)]");
+
+  /** Result of {@link #streamingRead(String, JsonPathSpec)} if the path
+   * must be evaluated against a parsed document. */
+  private static final Object NOT_STREAMABLE = new Object();
+
+  /** Cache of parsed path specifications, keyed by the text of the
+   * specification, such as "lax $.a". Path specifications are almost always
+   * literals, so there are few of them. */
+  private static final LoadingCache<String, JsonPathSpec> PATH_SPEC_CACHE =
+      CacheBuilder.newBuilder()
+          .maximumSize(FUNCTION_LEVEL_CACHE_MAX_SIZE.value())
+          .build(CacheLoader.from(JsonPathSpec::parse));
+
   private JsonFunctions() {
   }
 
@@ -126,48 +163,32 @@ public static JsonPathContext jsonApiCommonSyntax(String input, String pathSpec)
   }
 
   public static JsonPathContext jsonApiCommonSyntax(JsonValueContext input, String pathSpec) {
-    PathMode mode;
-    String pathStr;
     try {
-      Matcher matcher = JSON_PATH_BASE.matcher(pathSpec);
-      if (!matcher.matches()) {
-        mode = PathMode.STRICT;
-        pathStr = pathSpec;
-      } else {
-        mode = PathMode.valueOf(castNonNull(matcher.group(1)).toUpperCase(Locale.ROOT));
-        pathStr = castNonNull(matcher.group(2));
-      }
-      DocumentContext ctx;
-      switch (mode) {
+      final JsonPathSpec spec = PATH_SPEC_CACHE.getUnchecked(pathSpec);
+      final Configuration configuration;
+      switch (spec.mode) {
       case STRICT:
         if (input.hasException()) {
           return JsonPathContext.withStrictException(pathSpec,
               requireNonNull(input.exc));
         }
-        ctx =
-            JsonPath.parse(input.obj(),
-                Configuration.builder()
-                    .jsonProvider(JSON_PATH_JSON_PROVIDER)
-                    .mappingProvider(JSON_PATH_MAPPING_PROVIDER)
-                    .build());
+        configuration = STRICT_CONFIGURATION;
         break;
       case LAX:
         if (input.hasException()) {
           return JsonPathContext.withJavaObj(PathMode.LAX, null);
         }
-        ctx =
-            JsonPath.parse(input.obj(),
-                Configuration.builder()
-                    .options(Option.SUPPRESS_EXCEPTIONS)
-                    .jsonProvider(JSON_PATH_JSON_PROVIDER)
-                    .mappingProvider(JSON_PATH_MAPPING_PROVIDER)
-                    .build());
+        configuration = LAX_CONFIGURATION;
         break;
       default:
-        throw RESOURCE.illegalJsonPathModeInPathSpec(mode.toString(), pathSpec).ex();
+        throw RESOURCE.illegalJsonPathModeInPathSpec(spec.mode.toString(), pathSpec).ex();
       }
+      final DocumentContext ctx = JsonPath.parse(input.obj(), configuration);
       try {
-        return JsonPathContext.withJavaObj(mode, ctx.read(pathStr));
+        final Object value = spec.compiledPath != null
+            ? ctx.read(spec.compiledPath)
+            : ctx.read(spec.path);
+        return JsonPathContext.withJavaObj(spec.mode, value);
       } catch (Exception e) {
         return JsonPathContext.withStrictException(pathSpec, e);
       }
@@ -176,6 +197,87 @@ public static JsonPathContext jsonApiCommonSyntax(JsonValueContext input, String
     }
   }
 
+  /** Evaluates a path against a JSON string by streaming through it,
+   * without building a tree for the whole document.
+   *
+   * <p>Returns {@link #NOT_STREAMABLE} if the path is not simple, or if the
+   * document is not well-formed, does not contain the path, or has a
+   * duplicate key on the path. In those cases, the caller must parse the
+   * document and evaluate the path against the tree, to get the same result
+   * (or error) as it would otherwise. */
+  static @Nullable Object streamingRead(String input, JsonPathSpec spec) {
+    final List<Object> steps = spec.steps;
+    if (steps == null) {
+      return NOT_STREAMABLE;
+    }
+    final ObjectMapper mapper = JSON_PATH_JSON_PROVIDER.getObjectMapper();
+    try (JsonParser parser = mapper.getFactory().createParser(input)) {
+      if (parser.nextToken() == null) {
+        return NOT_STREAMABLE;
+      }
+      return streamingRead(mapper, parser, steps, 0);
+    } catch (IOException | RuntimeException e) {
+      return NOT_STREAMABLE;
+    }
+  }
+
+  /** Evaluates steps {@code i} onwards of a path against the value at which
+   * the parser is positioned, and consumes that value. */
+  private static @Nullable Object streamingRead(ObjectMapper mapper,
+      JsonParser parser, List<Object> steps, int i) throws IOException {
+    if (i == steps.size()) {
+      return mapper.readValue(parser, Object.class);
+    }
+    final Object step = steps.get(i);
+    Object result = NOT_STREAMABLE;
+    boolean found = false;
+    if (step instanceof String) {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        return NOT_STREAMABLE;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final boolean matches = step.equals(parser.getCurrentName());
+        parser.nextToken();
+        if (!matches) {
+          parser.skipChildren();
+        } else if (found) {
+          // The last of duplicate keys wins; leave that to the tree
+          return NOT_STREAMABLE;
+        } else {
+          found = true;
+          result = streamingRead(mapper, parser, steps, i + 1);
+          if (result == NOT_STREAMABLE) {
+            return NOT_STREAMABLE;
+          }
+        }
+      }
+      if (parser.currentToken() != JsonToken.END_OBJECT) {
+        return NOT_STREAMABLE;
+      }
+    } else {
+      if (parser.currentToken() != JsonToken.START_ARRAY) {
+        return NOT_STREAMABLE;
+      }
+      final int index = (Integer) step;
+      for (int k = 0;; k++) {
+        final JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+          break;
+        } else if (token == null) {
+          return NOT_STREAMABLE;
+        } else if (k != index) {
+          parser.skipChildren();
+        } else {
+          found = true;
+          result = streamingRead(mapper, parser, steps, i + 1);
+          if (result == NOT_STREAMABLE) {
+            return NOT_STREAMABLE;
+          }
+        }
+      }
+    }
+    return found ? result : NOT_STREAMABLE;
+  }
 
   /** State for {@code JSON_EXISTS}, {@code JSON_VALUE}, {@code JSON_QUERY}.
    *
@@ -188,9 +290,43 @@ public static class StatefulFunction {
             .maximumSize(FUNCTION_LEVEL_CACHE_MAX_SIZE.value())
             .build(CacheLoader.from(JsonFunctions::jsonValueExpression));
 
+    /** The document most recently read by streaming; null if none. */
+    private @Nullable String streamed;
+
+    /** Evaluates a path against a JSON string.
+     *
+     * <p>Parsed documents are cached, so that several calls on the same
+     * document, typically for different paths in the same row, parse it
+     * only once. But if the document has not been seen before and the path
+     * is simple (such as {@code $.a.b[0]}), the value is extracted by
+     * streaming through the document, and no tree is built. The second time
+     * a document is seen it is parsed and cached, so N paths on the same
+     * document cost one streaming read and one parse, not N reads. */
     public JsonPathContext jsonApiCommonSyntaxWithCache(String input,
         String pathSpec) {
-      return jsonApiCommonSyntax(cache.getUnchecked(input), pathSpec);
+      JsonValueContext value = cache.getIfPresent(input);
+      if (value == null && !input.equals(streamed)) {
+        final JsonPathSpec spec;
+        try {
+          spec = PATH_SPEC_CACHE.getUnchecked(pathSpec);
+        } catch (RuntimeException e) {
+          return JsonPathContext.withUnknownException(e);
+        }
+        final Object o = streamingRead(input, spec);
+        if (o != NOT_STREAMABLE) {
+          streamed = input;
+          try {
+            return JsonPathContext.withJavaObj(spec.mode, o);
+          } catch (Exception e) {
+            return JsonPathContext.withStrictException(pathSpec, e);
+          }
+        }
+      }
+      if (value == null) {
+        streamed = null;
+        value = cache.getUnchecked(input);
+      }
+      return jsonApiCommonSyntax(value, pathSpec);
     }
 
     public @Nullable Boolean jsonExists(String input, String pathSpec) {
@@ -674,12 +810,7 @@ public static String jsonRemove(String input, String... pathSpecs) {
   public static String jsonRemove(JsonValueContext input, String... pathSpecs) {
     try {
       DocumentContext ctx =
-          JsonPath.parse(input.obj(),
-              Configuration.builder()
-                  .options(Option.SUPPRESS_EXCEPTIONS)
-                  .jsonProvider(JSON_PATH_JSON_PROVIDER)
-                  .mappingProvider(JSON_PATH_MAPPING_PROVIDER)
-                  .build());
+          JsonPath.parse(input.obj(), LAX_CONFIGURATION);
       for (String pathSpec : pathSpecs) {
         if ((pathSpec != null) && (ctx.read(pathSpec) != null)) {
           ctx.delete(pathSpec);
@@ -710,12 +841,7 @@ private static String jsonModify(JsonValueContext jsonDoc, JsonModifyMode type,
     assert kvs.length % step == 0;
     String result = null;
     DocumentContext ctx =
-        JsonPath.parse(jsonDoc.obj(),
-            Configuration.builder()
-                .options(Option.SUPPRESS_EXCEPTIONS)
-                .jsonProvider(JSON_PATH_JSON_PROVIDER)
-                .mappingProvider(JSON_PATH_MAPPING_PROVIDER)
-                .build());
+        JsonPath.parse(jsonDoc.obj(), LAX_CONFIGURATION);
 
     for (int i = 0; i < kvs.length; i += step) {
       String k = (String) kvs[i];
@@ -940,6 +1066,58 @@ public static JsonPathContext withJavaObj(PathMode mode, @Nullable Object obj) {
     }
   }
 
+  /** Path specification of a SQL/JSON function, such as "lax $.a[0]",
+   * parsed into its mode and path. */
+  static class JsonPathSpec {
+    final PathMode mode;
+    final String path;
+    /** Compiled path, or null if the path is invalid. */
+    final @Nullable JsonPath compiledPath;
+    /** Property names and array indexes, if the path is simple; otherwise
+     * null. */
+    final @Nullable List<Object> steps;
+
+    private JsonPathSpec(PathMode mode, String path,
+        @Nullable JsonPath compiledPath, @Nullable List<Object> steps) {
+      this.mode = mode;
+      this.path = path;
+      this.compiledPath = compiledPath;
+      this.steps = steps;
+    }
+
+    static JsonPathSpec parse(String pathSpec) {
+      final PathMode mode;
+      final String path;
+      final Matcher matcher = JSON_PATH_BASE.matcher(pathSpec);
+      if (!matcher.matches()) {
+        mode = PathMode.STRICT;
+        path = pathSpec;
+      } else {
+        mode = PathMode.valueOf(castNonNull(matcher.group(1)).toUpperCase(Locale.ROOT));
+        path = castNonNull(matcher.group(2));
+      }
+      JsonPath compiledPath;
+      try {
+        compiledPath = JsonPath.compile(path);
+      } catch (RuntimeException e) {
+        // Reading the path will throw again, and report the error
+        compiledPath = null;
+      }
+      List<Object> steps = null;
+      if (compiledPath != null && SIMPLE_JSON_PATH.matcher(path).matches()) {
+        steps = new ArrayList<>();
+        final Matcher stepMatcher = SIMPLE_JSON_PATH_STEP.matcher(path);
+        while (stepMatcher.find()) {
+          final String name = stepMatcher.group(1);
+          steps.add(name != null
+              ? name
+              : Integer.valueOf(castNonNull(stepMatcher.group(2))));
+        }
+      }
+      return new JsonPathSpec(mode, path, compiledPath, steps);
+    }
+  }
+
   /**
    * The Java output of {@link org.apache.calcite.sql.fun.SqlJsonValueExpressionOperator}.
    */
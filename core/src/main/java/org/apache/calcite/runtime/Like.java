@@ -16,10 +16,13 @@
  */
 package org.apache.calcite.runtime;
 
+import org.apache.calcite.linq4j.function.Predicate1;
+
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.regex.Pattern;
 
 /**
  * Utilities for converting SQL {@code LIKE} and {@code SIMILAR} operators
@@ -45,6 +48,12 @@ public class Like {
       "[:alnum:]", "\\p{Alnum}"
   };
 
+  /** Token of a parsed LIKE pattern that matches any one character. */
+  private static final int ANY_ONE = -1;
+  /** Token of a parsed LIKE pattern that matches any sequence of
+   * characters. */
+  private static final int ANY_MANY = -2;
+
   // It's important to have XDigit before Digit to match XDigit first
   // (i.e. see the posixRegexToPattern method)
   private static final String[] POSIX_CHARACTER_CLASSES = new String[] { "Lower", "Upper", "ASCII",
@@ -110,6 +119,216 @@ static String sqlToRegexLike(
     return javaPattern.toString();
   }
 
+  /**
+   * Returns a predicate that evaluates a SQL LIKE pattern, with optional
+   * escape string.
+   *
+   * <p>The result is the same as matching the regular expression generated
+   * by {@link #sqlToRegexLike(String, CharSequence)}, but no regular
+   * expression is used. A pattern that is a literal string, optionally
+   * preceded and/or followed by '%', becomes a call to
+   * {@link String#equals}, {@link String#startsWith},
+   * {@link String#endsWith} or {@link String#contains}; any other pattern is
+   * evaluated by a backtracking scan that does not allocate.
+   *
+   * @param sqlPattern LIKE pattern
+   * @param escapeStr Escape string, or null
+   * @param caseInsensitive Whether to fold ASCII letters, as {@code ILIKE}
+   *                        and {@link Pattern#CASE_INSENSITIVE} do
+   */
+  static Predicate1<String> likeMatcher(String sqlPattern,
+      @Nullable CharSequence escapeStr, boolean caseInsensitive) {
+    final char escapeChar;
+    if (escapeStr != null) {
+      if (escapeStr.length() != 1) {
+        throw invalidEscapeCharacter(escapeStr.toString());
+      }
+      escapeChar = escapeStr.charAt(0);
+    } else {
+      escapeChar = 0;
+    }
+    for (int i = 0; i < sqlPattern.length(); i++) {
+      if (Character.isSurrogate(sqlPattern.charAt(i))) {
+        // Regular expressions match supplementary characters as a unit
+        final Pattern pattern =
+            Pattern.compile(sqlToRegexLike(sqlPattern, escapeChar),
+                caseInsensitive ? Pattern.CASE_INSENSITIVE : 0);
+        return s -> pattern.matcher(s).matches();
+      }
+    }
+    final int[] tokens = parseLike(sqlPattern, escapeChar, caseInsensitive);
+    if (!caseInsensitive) {
+      final Predicate1<String> predicate = literalMatcher(tokens);
+      if (predicate != null) {
+        return predicate;
+      }
+    }
+    return new LikeMatcher(tokens, caseInsensitive);
+  }
+
+  /**
+   * Returns a predicate that evaluates a SQL SIMILAR pattern without
+   * escape string.
+   *
+   * <p>If the pattern contains no special characters other than '%' and
+   * '_', it has the same meaning as a LIKE pattern and is evaluated as in
+   * {@link #likeMatcher}; otherwise it is converted to a regular expression.
+   */
+  static Predicate1<String> similarMatcher(String sqlPattern) {
+    for (int i = 0; i < sqlPattern.length(); i++) {
+      final char c = sqlPattern.charAt(i);
+      if (c != '%' && c != '_'
+          && (c == 0
+              || Character.isSurrogate(c)
+              || SQL_SIMILAR_SPECIALS.indexOf(c) >= 0
+              || JAVA_REGEX_SPECIALS.indexOf(c) >= 0)) {
+        final Pattern pattern =
+            Pattern.compile(sqlToRegexSimilar(sqlPattern, null));
+        return s -> pattern.matcher(s).matches();
+      }
+    }
+    return likeMatcher(sqlPattern, null, false);
+  }
+
+  /** Converts a LIKE pattern into an array of tokens: characters (folded to
+   * lower case if {@code caseInsensitive}), {@link #ANY_ONE} and
+   * {@link #ANY_MANY}. Consecutive '%' become one {@link #ANY_MANY}. */
+  private static int[] parseLike(String sqlPattern, char escapeChar,
+      boolean caseInsensitive) {
+    final int len = sqlPattern.length();
+    final int[] tokens = new int[len];
+    int n = 0;
+    for (int i = 0; i < len; i++) {
+      char c = sqlPattern.charAt(i);
+      if (c == escapeChar) {
+        if (i == len - 1) {
+          throw invalidEscapeSequence(sqlPattern, i);
+        }
+        char nextChar = sqlPattern.charAt(i + 1);
+        if (nextChar == '_' || nextChar == '%' || nextChar == escapeChar) {
+          tokens[n++] = caseInsensitive ? foldAscii(nextChar) : nextChar;
+          i++;
+        } else {
+          throw invalidEscapeSequence(sqlPattern, i);
+        }
+      } else if (c == '_') {
+        tokens[n++] = ANY_ONE;
+      } else if (c == '%') {
+        if (n == 0 || tokens[n - 1] != ANY_MANY) {
+          tokens[n++] = ANY_MANY;
+        }
+      } else {
+        tokens[n++] = caseInsensitive ? foldAscii(c) : c;
+      }
+    }
+    return Arrays.copyOf(tokens, n);
+  }
+
+  /** Returns a predicate based on a method of {@link String} if the tokens
+   * are a literal string, optionally preceded and/or followed by
+   * {@link #ANY_MANY}; otherwise null. */
+  private static @Nullable Predicate1<String> literalMatcher(int[] tokens) {
+    int start = 0;
+    int end = tokens.length;
+    final boolean leading = end > 0 && tokens[0] == ANY_MANY;
+    if (leading) {
+      ++start;
+    }
+    final boolean trailing = end > start && tokens[end - 1] == ANY_MANY;
+    if (trailing) {
+      --end;
+    }
+    final StringBuilder b = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      if (tokens[i] < 0) {
+        return null;
+      }
+      b.append((char) tokens[i]);
+    }
+    final String literal = b.toString();
+    if (leading && trailing) {
+      return literal.isEmpty() ? s -> true : s -> s.contains(literal);
+    } else if (leading) {
+      return s -> s.endsWith(literal);
+    } else if (trailing) {
+      return s -> s.startsWith(literal);
+    } else {
+      return literal::equals;
+    }
+  }
+
+  /** Converts an ASCII upper-case letter to lower case, and returns any
+   * other character unchanged. */
+  private static char foldAscii(char c) {
+    return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+
+  /** Returns whether a character is a line terminator, which '.' in a
+   * regular expression (and therefore '_' in a LIKE pattern) does not
+   * match. */
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085'
+        || c == '\u2028' || c == '\u2029';
+  }
+
+  /** Predicate that evaluates a parsed LIKE pattern.
+   *
+   * <p>Characters are matched left to right; on a mismatch, the scan
+   * resumes after the most recent '%', which absorbs one more character.
+   * Because each '%' only ever needs to be retried from its own position,
+   * the number of steps is at most the product of the string and pattern
+   * lengths. */
+  private static class LikeMatcher implements Predicate1<String> {
+    private final int[] tokens;
+    private final boolean caseInsensitive;
+
+    LikeMatcher(int[] tokens, boolean caseInsensitive) {
+      this.tokens = tokens;
+      this.caseInsensitive = caseInsensitive;
+    }
+
+    @Override public boolean apply(String s) {
+      final int len = s.length();
+      int i = 0;
+      int t = 0;
+      // Token after the most recent ANY_MANY, and where in "s" it started
+      int star = -1;
+      int starStart = 0;
+      while (i < len) {
+        if (t < tokens.length) {
+          final int token = tokens[t];
+          final char c = s.charAt(i);
+          if (token == ANY_MANY) {
+            star = ++t;
+            starStart = i;
+            continue;
+          } else if (token == ANY_ONE) {
+            if (!isLineTerminator(c)) {
+              i += Character.charCount(s.codePointAt(i));
+              ++t;
+              continue;
+            }
+          } else if (token == (caseInsensitive ? foldAscii(c) : c)) {
+            ++i;
+            ++t;
+            continue;
+          }
+        }
+        if (star < 0) {
+          return false;
+        }
+        // Let the most recent '%' absorb one more (whole) character
+        starStart += Character.charCount(s.codePointAt(starStart));
+        i = starStart;
+        t = star;
+      }
+      while (t < tokens.length && tokens[t] == ANY_MANY) {
+        ++t;
+      }
+      return t == tokens.length;
+    }
+  }
+
   private static RuntimeException invalidEscapeCharacter(String s) {
     return new RuntimeException(
         "Invalid escape character '" + s + "'");
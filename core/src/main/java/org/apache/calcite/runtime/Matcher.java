@@ -26,6 +26,7 @@
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -36,7 +37,6 @@
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
@@ -48,6 +48,10 @@
 public class Matcher<E> {
   private final DeterministicAutomaton dfa;
   private final ImmutableMap<String, Predicate<MemoryFactory.Memory<E>>> predicates;
+  /** Transitions of {@link #dfa}, by source state and symbol, that can lead
+   * to a match. */
+  private final ImmutableMap<DeterministicAutomaton.MultiState,
+      ImmutableMap<String, DeterministicAutomaton.MultiState>> transitions;
 
   // The following members are work space. They can be shared among partitions,
   // but only one thread can use them at a time. Putting them here saves the
@@ -66,6 +70,7 @@ private Matcher(Automaton automaton,
     ImmutableBitSet unusedStartSet = startSetBuilder.build();
     // Build the DFA
     dfa = new DeterministicAutomaton(automaton);
+    transitions = liveTransitions(dfa);
   }
 
   public static <E> Builder<E> builder(Automaton automaton) {
@@ -107,53 +112,53 @@ protected void matchOne(MemoryFactory.Memory<E> rows,
 
   protected List<PartialMatch<E>> matchOneWithSymbols(MemoryFactory.Memory<E> rows,
       PartitionState<E> partitionState) {
-    final HashSet<PartialMatch<E>> newMatches = new HashSet<>();
+    // A predicate sees only the rows, not the partial match, so evaluate
+    // each predicate once per row
+    final List<String> symbols = new ArrayList<>();
     for (Map.Entry<String, Predicate<MemoryFactory.Memory<E>>> predicate
         : predicates.entrySet()) {
-      for (PartialMatch<E> pm : partitionState.getPartialMatches()) {
-        // Remove this match
-        if (predicate.getValue().test(rows)) {
-          // Check if we have transitions from here
-          final List<DeterministicAutomaton.Transition> transitions =
-              dfa.getTransitions().stream()
-                  .filter(t -> predicate.getKey().equals(t.symbol))
-                  .filter(t -> pm.currentState.equals(t.fromState))
-                  .collect(Collectors.toList());
-
-          for (DeterministicAutomaton.Transition transition : transitions) {
-            // System.out.println("Append new transition to ");
-            final PartialMatch<E> newMatch =
-                pm.append(transition.symbol, rows.get(), transition.toState);
-            newMatches.add(newMatch);
+      if (predicate.getValue().test(rows)) {
+        symbols.add(predicate.getKey());
+      }
+    }
+
+    final HashSet<PartialMatch<E>> newMatches = new HashSet<>();
+    if (!symbols.isEmpty()) {
+      final E row = rows.get();
+      for (PartialMatch<E> pm : partitionState.partialMatches) {
+        final Map<String, DeterministicAutomaton.MultiState> next =
+            transitions.getOrDefault(pm.currentState, ImmutableMap.of());
+        for (String symbol : symbols) {
+          final DeterministicAutomaton.@Nullable MultiState toState =
+              next.get(symbol);
+          if (toState != null) {
+            newMatches.add(pm.append(symbol, row, toState));
           }
         }
       }
       // Check if a new Match starts here
-      if (predicate.getValue().test(rows)) {
-        final List<DeterministicAutomaton.Transition> transitions =
-            dfa.getTransitions().stream()
-                .filter(t -> predicate.getKey().equals(t.symbol))
-                .filter(t -> dfa.startState.equals(t.fromState))
-                .collect(Collectors.toList());
-
-        for (DeterministicAutomaton.Transition transition : transitions) {
-          final PartialMatch<E> newMatch =
-              new PartialMatch<>(-1L, ImmutableList.of(transition.symbol),
-                  ImmutableList.of(rows.get()), transition.toState);
-          newMatches.add(newMatch);
+      final Map<String, DeterministicAutomaton.MultiState> next =
+          transitions.getOrDefault(dfa.startState, ImmutableMap.of());
+      for (String symbol : symbols) {
+        final DeterministicAutomaton.@Nullable MultiState toState =
+            next.get(symbol);
+        if (toState != null) {
+          newMatches.add(
+              new PartialMatch<>(-1L, ImmutableList.of(symbol),
+                  ImmutableList.of(row), toState));
         }
       }
     }
 
-    // Remove all current partitions
+    // Replace the partial matches. Keep only those that can be extended; the
+    // others hold rows that can never be part of a future match.
     partitionState.clearPartitions();
-    // Add all partial matches
-    partitionState.addPartialMatches(newMatches);
-    // Check if one of the new Matches is in a final state, otherwise add them
-    // and go on
     final ImmutableList.Builder<PartialMatch<E>> builder =
         ImmutableList.builder();
     for (PartialMatch<E> match : newMatches) {
+      if (transitions.containsKey(match.currentState)) {
+        partitionState.partialMatches.add(match);
+      }
       if (dfa.getEndStates().contains(match.currentState)) {
         // This is the match, handle all "open" partial matches with a suitable
         // strategy
@@ -165,6 +170,40 @@ protected List<PartialMatch<E>> matchOneWithSymbols(MemoryFactory.Memory<E> rows
     return builder.build();
   }
 
+  /** Indexes the transitions of a DFA by source state and symbol, omitting
+   * transitions into states from which no end state can be reached. A state
+   * with no remaining transitions is absent from the result. */
+  private static ImmutableMap<DeterministicAutomaton.MultiState,
+      ImmutableMap<String, DeterministicAutomaton.MultiState>> liveTransitions(
+      DeterministicAutomaton dfa) {
+    // Find the states from which an end state is reachable, walking the
+    // transitions backwards from the end states
+    final Set<DeterministicAutomaton.MultiState> live =
+        new HashSet<>(dfa.getEndStates());
+    for (boolean changed = true; changed;) {
+      changed = false;
+      for (DeterministicAutomaton.Transition t : dfa.getTransitions()) {
+        if (live.contains(t.toState) && live.add(t.fromState)) {
+          changed = true;
+        }
+      }
+    }
+    final Map<DeterministicAutomaton.MultiState,
+        ImmutableMap.Builder<String, DeterministicAutomaton.MultiState>> map =
+        new HashMap<>();
+    for (DeterministicAutomaton.Transition t : dfa.getTransitions()) {
+      if (live.contains(t.toState)) {
+        map.computeIfAbsent(t.fromState, s -> ImmutableMap.builder())
+            .put(t.symbol, t.toState);
+      }
+    }
+    final ImmutableMap.Builder<DeterministicAutomaton.MultiState,
+        ImmutableMap<String, DeterministicAutomaton.MultiState>> builder =
+        ImmutableMap.builder();
+    map.forEach((state, b) -> builder.put(state, b.build()));
+    return builder.build();
+  }
+
   /**
    * State for each partition.
    *
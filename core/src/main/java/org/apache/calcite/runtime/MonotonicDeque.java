@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.runtime;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Deque of values whose first element is the minimum (or maximum) of the
+ * values in a sliding window.
+ *
+ * <p>Used to implement {@code MIN} and {@code MAX} over a moving window
+ * frame. Values are added in increasing order of row index, and rows leave
+ * the window in the same order. A value that can never become the extremum,
+ * because a later row has a lesser (for {@code MIN}) value, is discarded
+ * when the later row is added. Each row is therefore added and removed at
+ * most once, and the cost per row is amortized constant, regardless of the
+ * width of the frame.
+ */
+public class MonotonicDeque {
+  private final boolean min;
+  private int[] indexes = new int[16];
+  private @Nullable Comparable[] values = new Comparable[16];
+  /** Position of the first element; always less than the capacity. */
+  private int head;
+  private int size;
+
+  /** Creates a MonotonicDeque.
+   *
+   * @param min Whether the first element is the minimum; otherwise it is the
+   *            maximum */
+  public MonotonicDeque(boolean min) {
+    this.min = min;
+  }
+
+  /** Returns whether the deque is empty. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns the extremum of the values in the window.
+   *
+   * @throws IllegalStateException if the deque is empty */
+  @SuppressWarnings("unchecked")
+  public Comparable first() {
+    if (size == 0) {
+      throw new IllegalStateException("empty");
+    }
+    return (Comparable) values[head];
+  }
+
+  /** Adds the value of a row that has entered the window. Rows must be
+   * added in increasing order of index. */
+  @SuppressWarnings({"unchecked", "argument.type.incompatible"})
+  public void add(int index, Comparable value) {
+    // Discard values from the tail that the new value dominates. Equal
+    // values are discarded too; the new one leaves the window later.
+    while (size > 0) {
+      final int c = value.compareTo(values[slot(size - 1)]);
+      if (min ? c > 0 : c < 0) {
+        break;
+      }
+      values[slot(--size)] = null;
+    }
+    if (size == indexes.length) {
+      grow();
+    }
+    final int slot = slot(size++);
+    indexes[slot] = index;
+    values[slot] = value;
+  }
+
+  /** Removes a row that has left the window. Rows must be removed in the
+   * order that they were added. */
+  public void remove(int index) {
+    if (size > 0 && indexes[head] == index) {
+      values[head] = null;
+      head = (head + 1) % indexes.length;
+      --size;
+    }
+  }
+
+  private int slot(int i) {
+    return (head + i) % indexes.length;
+  }
+
+  private void grow() {
+    final int[] newIndexes = new int[indexes.length * 2];
+    final @Nullable Comparable[] newValues = new Comparable[values.length * 2];
+    for (int i = 0; i < size; i++) {
+      newIndexes[i] = indexes[slot(i)];
+      newValues[i] = values[slot(i)];
+    }
+    indexes = newIndexes;
+    values = newValues;
+    head = 0;
+  }
+
+  @Override public String toString() {
+    final Object[] a = new Object[size];
+    for (int i = 0; i < size; i++) {
+      a[i] = indexes[slot(i)] + ":" + values[slot(i)];
+    }
+    return Arrays.toString(a);
+  }
+}
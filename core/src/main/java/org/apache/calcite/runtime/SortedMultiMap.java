@@ -16,6 +16,9 @@
  */
 package org.apache.calcite.runtime;
 
+import org.apache.calcite.linq4j.Enumerator;
+import org.apache.calcite.linq4j.function.Function1;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -23,6 +26,8 @@
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * Map that allows you to partition values into lists according to a common
@@ -75,4 +80,62 @@ public static <V> Iterator<V[]> singletonArrayIterator(
     multiMap.put("x", list);
     return multiMap.arrays(comparator);
   }
+
+  /** Returns an iterator over runs of consecutive values that have the same
+   * key, each run as an array.
+   *
+   * <p>The values must already be sorted, so that all values with a given
+   * key are adjacent; for example, if they are sorted on the key. Values are
+   * read from the enumerator as the iterator advances, so only one run is in
+   * memory at a time. The enumerator is closed when it is exhausted. */
+  public static <K, V> Iterator<V[]> runArrayIterator(
+      Enumerator<V> enumerator, Function1<V, K> keySelector) {
+    final boolean nonEmpty = advance(enumerator);
+    return new Iterator<V[]>() {
+      /** Whether the enumerator is positioned on the first value of the
+       * next run. */
+      private boolean pending = nonEmpty;
+
+      @Override public boolean hasNext() {
+        return pending;
+      }
+
+      @Override public V[] next() {
+        if (!pending) {
+          throw new NoSuchElementException();
+        }
+        final V first = enumerator.current();
+        final K key = keySelector.apply(first);
+        final List<V> list = new ArrayList<>();
+        list.add(first);
+        for (;;) {
+          pending = advance(enumerator);
+          if (!pending) {
+            break;
+          }
+          final V v = enumerator.current();
+          if (!Objects.equals(key, keySelector.apply(v))) {
+            break;
+          }
+          list.add(v);
+        }
+        @SuppressWarnings("unchecked")
+        final V[] vs = (V[]) list.toArray();
+        return vs;
+      }
+
+      @Override public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  /** Moves to the next value, and closes the enumerator if there is none. */
+  private static boolean advance(Enumerator<?> enumerator) {
+    if (enumerator.moveNext()) {
+      return true;
+    }
+    enumerator.close();
+    return false;
+  }
 }
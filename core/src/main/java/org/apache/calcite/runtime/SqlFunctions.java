@@ -1970,25 +1970,45 @@ public static ByteString overlay(ByteString s, ByteString r, int start,
         .concat(s.substring(start - 1 + length));
   }
 
+  /** Returns a predicate that evaluates a {@code LIKE} or {@code ILIKE}
+   * pattern.
+   *
+   * <p>Generated code calls this method when the pattern is a literal; being
+   * deterministic, the call is evaluated once per query rather than once per
+   * row. */
+  @Deterministic
+  public static Predicate1<String> likeMatcher(String pattern,
+      @Nullable String escape, boolean caseInsensitive) {
+    return Like.likeMatcher(pattern, escape, caseInsensitive);
+  }
+
+  /** Returns a predicate that evaluates a {@code SIMILAR TO} pattern.
+   *
+   * @see #likeMatcher(String, String, boolean) */
+  @Deterministic
+  public static Predicate1<String> similarMatcher(String pattern) {
+    return Like.similarMatcher(pattern);
+  }
+
   /** State for {@code LIKE}, {@code ILIKE}. */
   @Deterministic
   public static class LikeFunction {
-    /** Key for cache of compiled regular expressions. */
+    /** Key for cache of compiled patterns. */
     private static final class Key {
       final String pattern;
       final @Nullable String escape;
-      final int flags;
+      final boolean caseInsensitive;
 
-      Key(String pattern, @Nullable String escape, int flags) {
+      Key(String pattern, @Nullable String escape, boolean caseInsensitive) {
         this.pattern = pattern;
         this.escape = escape;
-        this.flags = flags;
+        this.caseInsensitive = caseInsensitive;
       }
 
       @Override public int hashCode() {
         return pattern.hashCode()
             ^ (escape == null ? 0 : escape.hashCode())
-            ^ flags;
+            ^ Boolean.hashCode(caseInsensitive);
       }
 
       @Override public boolean equals(@Nullable Object obj) {
@@ -1996,58 +2016,55 @@ private static final class Key {
             || obj instanceof Key
             && pattern.equals(((Key) obj).pattern)
             && Objects.equals(escape, ((Key) obj).escape)
-            && flags == ((Key) obj).flags;
+            && caseInsensitive == ((Key) obj).caseInsensitive;
       }
 
-      Pattern toPattern() {
-        String regex = Like.sqlToRegexLike(pattern, escape);
-        return Pattern.compile(regex, flags);
+      Predicate1<String> toMatcher() {
+        return Like.likeMatcher(pattern, escape, caseInsensitive);
       }
     }
 
-    private final LoadingCache<Key, Pattern> cache =
+    private final LoadingCache<Key, Predicate1<String>> cache =
         CacheBuilder.newBuilder()
             .maximumSize(FUNCTION_LEVEL_CACHE_MAX_SIZE.value())
-            .build(CacheLoader.from(Key::toPattern));
+            .build(CacheLoader.from(Key::toMatcher));
 
     /** SQL {@code LIKE} function. */
     public boolean like(String s, String pattern) {
-      final Key key = new Key(pattern, null, 0);
-      return cache.getUnchecked(key).matcher(s).matches();
+      final Key key = new Key(pattern, null, false);
+      return cache.getUnchecked(key).apply(s);
     }
 
     /** SQL {@code LIKE} function with escape. */
     public boolean like(String s, String pattern, String escape) {
-      final Key key = new Key(pattern, escape, 0);
-      return cache.getUnchecked(key).matcher(s).matches();
+      final Key key = new Key(pattern, escape, false);
+      return cache.getUnchecked(key).apply(s);
     }
 
     /** SQL {@code ILIKE} function. */
     public boolean ilike(String s, String pattern) {
-      final Key key = new Key(pattern, null, Pattern.CASE_INSENSITIVE);
-      return cache.getUnchecked(key).matcher(s).matches();
+      final Key key = new Key(pattern, null, true);
+      return cache.getUnchecked(key).apply(s);
     }
 
     /** SQL {@code ILIKE} function with escape. */
     public boolean ilike(String s, String pattern, String escape) {
-      final Key key = new Key(pattern, escape, Pattern.CASE_INSENSITIVE);
-      return cache.getUnchecked(key).matcher(s).matches();
+      final Key key = new Key(pattern, escape, true);
+      return cache.getUnchecked(key).apply(s);
     }
   }
 
   /** State for {@code SIMILAR} function. */
   @Deterministic
   public static class SimilarFunction {
-    private final LoadingCache<String, Pattern> cache =
+    private final LoadingCache<String, Predicate1<String>> cache =
         CacheBuilder.newBuilder()
             .maximumSize(FUNCTION_LEVEL_CACHE_MAX_SIZE.value())
-            .build(
-                CacheLoader.from(pattern ->
-                    Pattern.compile(Like.sqlToRegexSimilar(pattern, null))));
+            .build(CacheLoader.from(Like::similarMatcher));
 
     /** SQL {@code SIMILAR} function. */
     public boolean similar(String s, String pattern) {
-      return cache.getUnchecked(pattern).matcher(s).matches();
+      return cache.getUnchecked(pattern).apply(s);
     }
   }
 
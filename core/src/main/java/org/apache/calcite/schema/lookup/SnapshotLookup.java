@@ -16,22 +16,35 @@
  */
 package org.apache.calcite.schema.lookup;
 
+import org.apache.calcite.linq4j.function.Predicate1;
 import org.apache.calcite.util.LazyReference;
 import org.apache.calcite.util.NameMap;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * This class can be used to make a snapshot of a lookups.
  *
+ * <p>The snapshot is taken lazily. The first call loads the list of names
+ * from the delegate; each entry is loaded from the delegate the first time
+ * it is requested and then kept until the snapshot is discarded. Therefore,
+ * a schema with many tables of which a query uses only a few
+ * costs one call to {@link Lookup#getNames(LikePattern)} and one call to
+ * {@link Lookup#get(String)} per table used, rather than one per table in
+ * the schema.
+ *
  * @param <T> Element Type
  */
 public class SnapshotLookup<T> implements Lookup<T> {
 
   private final Lookup<T> delegate;
-  private LazyReference<Lookup<T>> cachedDelegate = new LazyReference<>();
+  private final LazyReference<NameMap<String>> names = new LazyReference<>();
+  private final Map<String, T> entries = new ConcurrentHashMap<>();
   private boolean enabled = true;
 
   public SnapshotLookup(Lookup<T> delegate) {
@@ -39,38 +52,61 @@ public SnapshotLookup(Lookup<T> delegate) {
   }
 
   @Override public @Nullable T get(final String name) {
-    return delegate().get(name);
+    if (!enabled) {
+      return delegate.get(name);
+    }
+    final Map.Entry<String, String> entry =
+        names().range(name, true).firstEntry();
+    return entry == null ? null : load(entry.getValue());
   }
 
   @Override public @Nullable Named<T> getIgnoreCase(final String name) {
-    return delegate().getIgnoreCase(name);
+    if (!enabled) {
+      return delegate.getIgnoreCase(name);
+    }
+    final Map.Entry<String, String> entry =
+        names().range(name, false).firstEntry();
+    if (entry == null) {
+      return null;
+    }
+    final T result = load(entry.getValue());
+    return result == null ? null : new Named<>(entry.getKey(), result);
   }
 
   @Override public Set<String> getNames(final LikePattern pattern) {
-    return delegate().getNames(pattern);
-  }
-
-  private Lookup<T> delegate() {
     if (!enabled) {
-      return delegate;
+      return delegate.getNames(pattern);
     }
-    return cachedDelegate.getOrCompute(() -> new NameMapLookup<>(loadNameMap()));
+    final Predicate1<String> matcher = pattern.matcher();
+    return names().map().keySet().stream()
+        .filter(name -> matcher.apply(name))
+        .collect(Collectors.toSet());
+  }
+
+  private NameMap<String> names() {
+    return names.getOrCompute(this::loadNames);
   }
 
-  private NameMap<T> loadNameMap() {
-    NameMap<T> map = new NameMap<>();
+  private NameMap<String> loadNames() {
+    NameMap<String> map = new NameMap<>();
     for (String name : delegate.getNames(LikePattern.any())) {
-      T entry = delegate.get(name);
-      if (entry != null) {
-        map.put(name, entry);
-      }
+      map.put(name, name);
     }
     return map;
   }
 
+  /** Returns the entry with a given name, loading it from the delegate the
+   * first time it is requested. Entries that the delegate does not find are
+   * not remembered. */
+  @SuppressWarnings("argument.type.incompatible")
+  private @Nullable T load(String name) {
+    return entries.computeIfAbsent(name, delegate::get);
+  }
+
   public void enable(boolean enabled) {
     if (!enabled) {
-      cachedDelegate.reset();
+      names.reset();
+      entries.clear();
     }
     this.enabled = enabled;
   }
@@ -38,7 +38,6 @@
 import org.immutables.value.Value;
 
 import java.io.Reader;
-import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -64,18 +63,20 @@ public class SqlParser {
 
   //~ Instance fields --------------------------------------------------------
   private final SqlAbstractParserImpl parser;
+  private final SqlAbstractParserImpl.LexicalState lexicalState;
 
   //~ Constructors -----------------------------------------------------------
   private SqlParser(SqlAbstractParserImpl parser,
       Config config) {
     this.parser = parser;
+    this.lexicalState = SqlAbstractParserImpl.LexicalState.forConfig(config);
     parser.setTabSize(1);
     parser.setQuotedCasing(config.quotedCasing());
     parser.setUnquotedCasing(config.unquotedCasing());
     parser.setIdentifierMaxLength(config.identifierMaxLength());
     parser.setTimeUnitCodes(config.timeUnitCodes());
     parser.setConformance(config.conformance());
-    parser.switchTo(SqlAbstractParserImpl.LexicalState.forConfig(config));
+    parser.switchTo(lexicalState);
   }
 
   //~ Methods ----------------------------------------------------------------
@@ -185,10 +186,26 @@ public SqlNode parseQuery() throws SqlParseException {
    * @throws SqlParseException if there is a parse error
    */
   public SqlNode parseQuery(String sql) throws SqlParseException {
-    parser.ReInit(new StringReader(sql));
+    reset(sql);
     return parseQuery();
   }
 
+  /**
+   * Prepares this parser to parse another statement or expression, keeping
+   * its configuration.
+   *
+   * <p>Re-using a parser is much cheaper than creating one.
+   *
+   * @param sql SQL to parse
+   */
+  void reset(String sql) {
+    parser.ReInit(new SourceStringReader(sql));
+    parser.setOriginalSql(sql);
+    parser.switchTo(lexicalState);
+    parser.nDynamicParams = 0;
+    parser.warnings.clear();
+  }
+
   /**
    * Parses an SQL statement.
    *
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.sql.parser;
+
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlNodeList;
+import org.apache.calcite.sql.util.SqlShuttle;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Thread-safe facility that parses SQL with a pool of re-usable
+ * {@link SqlParser} instances, and optionally caches the parse trees of
+ * queries.
+ *
+ * <p>Creating a parser allocates large JavaCC buffers and tables, which is
+ * expensive when parsing many short statements; a parser taken from the
+ * pool is re-initialized with the new SQL instead.
+ *
+ * <p>If the cache size is positive, the parse tree of each query (a
+ * statement whose kind belongs to {@link SqlKind#QUERY}) is kept, keyed by
+ * the exact SQL text, so that positions in error messages remain correct.
+ * Because the validator modifies parse trees, each call returns a deep copy
+ * of the cached tree. Warnings are not reported for queries found in the
+ * cache.
+ *
+ * <p>For example,
+ *
+ * <blockquote><pre>
+ * SqlParserPool pool = new SqlParserPool(SqlParser.config(), 16, 1_000);
+ * SqlNode node = pool.parseQuery("select * from emp");</pre>
+ * </blockquote>
+ */
+public class SqlParserPool {
+  private final SqlParser.Config config;
+  private final int maxIdle;
+  /** Parsers that are not in use; guarded by itself. */
+  private final Deque<SqlParser> idle = new ArrayDeque<>();
+  private final @Nullable Cache<String, SqlNode> cache;
+
+  /**
+   * Creates a SqlParserPool.
+   *
+   * @param config Configuration of the parsers
+   * @param maxIdle Maximum number of parsers kept for re-use; typically the
+   *                number of threads that parse concurrently
+   * @param cacheSize Maximum number of parse trees to cache; 0 disables
+   *                  the cache
+   */
+  public SqlParserPool(SqlParser.Config config, int maxIdle, int cacheSize) {
+    checkArgument(maxIdle >= 0, "maxIdle must be non-negative: %s", maxIdle);
+    checkArgument(cacheSize >= 0, "cacheSize must be non-negative: %s",
+        cacheSize);
+    this.config = requireNonNull(config, "config");
+    this.maxIdle = maxIdle;
+    this.cache = cacheSize == 0
+        ? null
+        : CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+  }
+
+  /**
+   * Parses a SQL statement.
+   *
+   * @see SqlParser#parseQuery()
+   * @throws SqlParseException if there is a parse error
+   */
+  public SqlNode parseQuery(String sql) throws SqlParseException {
+    if (cache != null) {
+      final SqlNode cached = cache.getIfPresent(sql);
+      if (cached != null) {
+        return deepCopy(cached);
+      }
+    }
+    final SqlParser parser = acquire(sql);
+    final SqlNode node;
+    try {
+      node = parser.parseQuery();
+    } finally {
+      release(parser);
+    }
+    if (cache != null && node.getKind().belongsTo(SqlKind.QUERY)) {
+      final SqlNode copy = deepCopy(node);
+      if (DeepCopier.isFaithful(node, copy)) {
+        cache.put(sql, node);
+        return copy;
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Parses a SQL expression.
+   *
+   * @see SqlParser#parseExpression()
+   * @throws SqlParseException if there is a parse error
+   */
+  public SqlNode parseExpression(String sql) throws SqlParseException {
+    final SqlParser parser = acquire(sql);
+    try {
+      return parser.parseExpression();
+    } finally {
+      release(parser);
+    }
+  }
+
+  /**
+   * Parses a list of SQL statements separated by semicolon.
+   *
+   * @see SqlParser#parseStmtList()
+   * @throws SqlParseException if there is a parse error
+   */
+  public SqlNodeList parseStmtList(String sql) throws SqlParseException {
+    final SqlParser parser = acquire(sql);
+    try {
+      return parser.parseStmtList();
+    } finally {
+      release(parser);
+    }
+  }
+
+  /** Takes a parser from the pool, or creates one, and prepares it to parse
+   * the given SQL. */
+  private SqlParser acquire(String sql) {
+    final SqlParser parser;
+    synchronized (idle) {
+      parser = idle.poll();
+    }
+    if (parser == null) {
+      return SqlParser.create(sql, config);
+    }
+    parser.reset(sql);
+    return parser;
+  }
+
+  /** Returns a parser to the pool, unless the pool is full. */
+  private void release(SqlParser parser) {
+    synchronized (idle) {
+      if (idle.size() < maxIdle) {
+        idle.push(parser);
+      }
+    }
+  }
+
+  private static SqlNode deepCopy(SqlNode node) {
+    return requireNonNull(node.accept(new DeepCopier()), "copy");
+  }
+
+  /** Shuttle that copies every call, list and identifier of a tree. Literals
+   * and other leaves are immutable, so they are shared. */
+  private static class DeepCopier extends SqlShuttle {
+    @Override public SqlNode visit(SqlNodeList nodeList) {
+      final List<@Nullable SqlNode> list = new ArrayList<>(nodeList.size());
+      for (SqlNode node : nodeList) {
+        list.add(node == null ? null : node.accept(this));
+      }
+      return SqlNodeList.of(nodeList.getParserPosition(), list);
+    }
+
+    @Override public SqlNode visit(SqlIdentifier id) {
+      return id.clone(id.getParserPosition());
+    }
+
+    @Override public @Nullable SqlNode visit(SqlCall call) {
+      final CallCopyingArgHandler argHandler =
+          new CallCopyingArgHandler(call, true);
+      call.getOperator().acceptCall(this, call, false, argHandler);
+      return argHandler.result();
+    }
+
+    /** Returns whether a copy has the same structure as the original.
+     *
+     * <p>Some operators do not re-create the same class of call from their
+     * operands; a tree containing one of those cannot be cached. */
+    static boolean isFaithful(@Nullable SqlNode node, @Nullable SqlNode copy) {
+      if (node == null || copy == null) {
+        return node == copy;
+      }
+      if (node.getClass() != copy.getClass()) {
+        return false;
+      }
+      if (node instanceof SqlNodeList) {
+        final SqlNodeList list = (SqlNodeList) node;
+        final SqlNodeList copyList = (SqlNodeList) copy;
+        if (list.size() != copyList.size()) {
+          return false;
+        }
+        for (int i = 0; i < list.size(); i++) {
+          if (!isFaithful(list.get(i), copyList.get(i))) {
+            return false;
+          }
+        }
+      } else if (node instanceof SqlCall) {
+        final SqlCall call = (SqlCall) node;
+        final SqlCall copyCall = (SqlCall) copy;
+        final List<SqlNode> operands = call.getOperandList();
+        final List<SqlNode> copyOperands = copyCall.getOperandList();
+        if (call.getOperator() != copyCall.getOperator()
+            || call.getFunctionQuantifier() != copyCall.getFunctionQuantifier()
+            || operands.size() != copyOperands.size()) {
+          return false;
+        }
+        for (int i = 0; i < operands.size(); i++) {
+          if (!isFaithful(operands.get(i), copyOperands.get(i))) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -93,6 +93,26 @@ class EmptyScope implements SqlValidatorScope {
 
   @Override public void resolveTable(List<String> names, SqlNameMatcher nameMatcher,
       Path path, Resolved resolved) {
+    final List<Resolve> resolves = ((ResolvedImpl) resolved).resolves;
+    if (path != Path.EMPTY || !resolves.isEmpty()) {
+      resolveTable_(names, nameMatcher, path, resolved);
+      return;
+    }
+    // The result depends only on the names, so remember it
+    final List<Object> key =
+        ImmutableList.of(nameMatcher, ImmutableList.copyOf(names));
+    List<Resolve> cached = validator.resolvedTables.get(key);
+    if (cached == null) {
+      resolveTable_(names, nameMatcher, path, resolved);
+      cached = ImmutableList.copyOf(resolves);
+      validator.resolvedTables.put(key, cached);
+    } else {
+      resolves.addAll(cached);
+    }
+  }
+
+  private void resolveTable_(List<String> names, SqlNameMatcher nameMatcher,
+      Path path, Resolved resolved) {
     final List<Resolve> imperfectResolves = new ArrayList<>();
     final List<Resolve> resolves = ((ResolvedImpl) resolved).resolves;
 
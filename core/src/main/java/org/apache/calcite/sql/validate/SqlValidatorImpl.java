@@ -288,6 +288,14 @@ public class SqlValidatorImpl implements SqlValidatorWithHints {
 
   private final Map<SqlNode, SqlNode> originalExprs = new HashMap<>();
 
+  /**
+   * Results of resolving table names in the catalog, so that a table that is
+   * referenced several times is looked up, and its row type computed, only
+   * once. The key is the name matcher and the names.
+   */
+  final Map<List<Object>, List<SqlValidatorScope.Resolve>> resolvedTables =
+      new HashMap<>();
+
   private @Nullable SqlNode top;
 
   // TODO jvs 11-Dec-2008:  make this local to performUnconditionalRewrites
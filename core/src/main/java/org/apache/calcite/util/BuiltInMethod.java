@@ -91,6 +91,7 @@
 import org.apache.calcite.runtime.FunctionContexts;
 import org.apache.calcite.runtime.JsonFunctions;
 import org.apache.calcite.runtime.Matcher;
+import org.apache.calcite.runtime.MonotonicDeque;
 import org.apache.calcite.runtime.PairList;
 import org.apache.calcite.runtime.Pattern;
 import org.apache.calcite.runtime.RandomFunction;
@@ -211,6 +212,9 @@ public enum BuiltInMethod {
       Function1.class,
       Function1.class, Function2.class, EqualityComparer.class,
       boolean.class, boolean.class, Predicate2.class),
+  ADAPTIVE_HASH_JOIN(Enumerables.class, "adaptiveHashJoin", Enumerable.class,
+      Enumerable.class, Function1.class, Function1.class, Function2.class,
+      EqualityComparer.class, boolean.class, boolean.class, Predicate2.class),
   ASOF_JOIN(ExtendedEnumerable.class, "asofJoin", Enumerable.class,
       Function1.class,   // outer key selector
       Function1.class,   // inner key selector
@@ -274,7 +278,8 @@ public enum BuiltInMethod {
   UNION(ExtendedEnumerable.class, "union", Enumerable.class),
   CONCAT(ExtendedEnumerable.class, "concat", Enumerable.class),
   REPEAT_UNION(EnumerableDefaults.class, "repeatUnion", Enumerable.class,
-      Enumerable.class, int.class, boolean.class, EqualityComparer.class, Function0.class),
+      Enumerable.class, int.class, boolean.class, EqualityComparer.class, Function0.class,
+      Collection.class, Function2.class),
   MERGE_UNION(EnumerableDefaults.class, "mergeUnion", List.class, Function1.class,
       Comparator.class, boolean.class, EqualityComparer.class),
   LAZY_COLLECTION_SPOOL(EnumerableDefaults.class, "lazyCollectionSpool", Collection.class,
@@ -292,6 +297,7 @@ public enum BuiltInMethod {
   ARRAY_COMPARER(Functions.class, "arrayComparer"),
   FUNCTION0_APPLY(Function0.class, "apply"),
   FUNCTION1_APPLY(Function1.class, "apply", Object.class),
+  PREDICATE1_APPLY(Predicate1.class, "apply", Object.class),
   ARRAYS_AS_LIST(Arrays.class, "asList", Object[].class),
   ARRAY(SqlFunctions.class, "array", Object[].class),
   ARRAY_COPY(System.class, "arraycopy", Object.class, int.class, Object.class, int.class,
@@ -394,6 +400,8 @@ public enum BuiltInMethod {
   SORTED_MULTI_MAP_ARRAYS(SortedMultiMap.class, "arrays", Comparator.class),
   SORTED_MULTI_MAP_SINGLETON(SortedMultiMap.class, "singletonArrayIterator",
       Comparator.class, List.class),
+  SORTED_MULTI_MAP_RUNS(SortedMultiMap.class, "runArrayIterator",
+      Enumerator.class, Function1.class),
   IMMUTABLE_INT_LIST_IDENTITY(ImmutableIntList.class, "identity", int.class),
   IMMUTABLE_INT_LIST_COPY_OF(ImmutableIntList.class, "copyOf", int[].class),
   BINARY_SEARCH5_LOWER(BinarySearch.class, "lowerBound", Object[].class,
@@ -404,6 +412,11 @@ public enum BuiltInMethod {
       Object.class, int.class, int.class, Function1.class, Comparator.class),
   BINARY_SEARCH6_UPPER(BinarySearch.class, "upperBound", Object[].class,
       Object.class, int.class, int.class, Function1.class, Comparator.class),
+  MONOTONIC_DEQUE_ADD(MonotonicDeque.class, "add", int.class,
+      Comparable.class),
+  MONOTONIC_DEQUE_REMOVE(MonotonicDeque.class, "remove", int.class),
+  MONOTONIC_DEQUE_FIRST(MonotonicDeque.class, "first"),
+  MONOTONIC_DEQUE_IS_EMPTY(MonotonicDeque.class, "isEmpty"),
   ARRAY_ITEM(SqlFunctions.class, "arrayItemOptional", List.class, int.class,
       int.class, boolean.class),
   MAP_ITEM(SqlFunctions.class, "mapItemOptional", Map.class, Object.class),
@@ -612,11 +625,14 @@ public enum BuiltInMethod {
   ILIKE(SqlFunctions.LikeFunction.class, "ilike", String.class, String.class),
   ILIKE_ESCAPE(SqlFunctions.LikeFunction.class, "ilike", String.class,
       String.class, String.class),
+  LIKE_MATCHER(SqlFunctions.class, "likeMatcher", String.class, String.class,
+      boolean.class),
   RLIKE(SqlFunctions.RegexFunction.class, "rlike", String.class, String.class),
   SIMILAR(SqlFunctions.SimilarFunction.class, "similar", String.class,
       String.class),
   SIMILAR_ESCAPE(SqlFunctions.SimilarEscapeFunction.class, "similar",
       String.class, String.class, String.class),
+  SIMILAR_MATCHER(SqlFunctions.class, "similarMatcher", String.class),
   POSIX_REGEX_INSENSITIVE(SqlFunctions.PosixRegexFunction.class,
       "posixRegexInsensitive", String.class, String.class),
   POSIX_REGEX_SENSITIVE(SqlFunctions.PosixRegexFunction.class,
@@ -148,6 +148,17 @@ public static Logger getDpHypJoinReorderTracer() {
     return LoggerFactory.getLogger(DpHyp.class);
   }
 
+  /**
+   * The "org.apache.calcite.runtime.join" tracer reports, at DEBUG, the
+   * algorithm that {@link org.apache.calcite.runtime.Enumerables#adaptiveHashJoin}
+   * chooses at run time and the actual number of rows on which it based the
+   * choice; and, when a hash join is implemented, the planner's estimate of
+   * that number.
+   */
+  public static Logger getJoinTracer() {
+    return LoggerFactory.getLogger("org.apache.calcite.runtime.join");
+  }
+
   /**
    * Thread-local handler that is called with dynamically generated Java code.
    * It exists for unit-testing.
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.enumerable;
+
+import org.apache.calcite.linq4j.tree.ClassDeclaration;
+import org.apache.calcite.runtime.Bindable;
+import org.apache.calcite.runtime.Hook;
+import org.apache.calcite.test.CalciteAssert;
+import org.apache.calcite.util.Holder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests for {@link BindableCompiler}.
+ */
+class BindableCompilerTest {
+  /** Tests the values of the
+   * {@link org.apache.calcite.config.CalciteSystemProperty#ENUMERABLE_COMPILER}
+   * property. */
+  @Test void testCreateCompiler() {
+    assertThat(EnumerableInterpretable.createCompiler("janino"),
+        sameInstance(EnumerableInterpretable.JANINO));
+    assertThat(EnumerableInterpretable.createCompiler("jdk"),
+        sameInstance(EnumerableInterpretable.JDK));
+    assertThat(
+        EnumerableInterpretable.createCompiler(
+            RecordingCompiler.class.getName()),
+        instanceOf(RecordingCompiler.class));
+  }
+
+  /** Tests that a query is compiled by a compiler other than the default,
+   * and returns the right result. */
+  @Test void testCustomCompiler() {
+    final RecordingCompiler compiler = new RecordingCompiler();
+    final String sql = "select \"empid\", \"name\"\n"
+        + "from \"hr\".\"emps\"\n"
+        + "where \"empid\" = 100";
+    CalciteAssert.hr()
+        .query(sql)
+        .withHook(Hook.BINDABLE_COMPILER,
+            (Consumer<Holder<BindableCompiler>>) holder -> holder.set(compiler))
+        .returns("empid=100; name=Bill\n");
+    final int count = compiler.classNames.size();
+    assertThat(count > 0, is(true));
+
+    // Compiled again, not taken from the cache
+    CalciteAssert.hr()
+        .query(sql)
+        .withHook(Hook.BINDABLE_COMPILER,
+            (Consumer<Holder<BindableCompiler>>) holder -> holder.set(compiler))
+        .returns("empid=100; name=Bill\n");
+    assertThat(compiler.classNames.size(), is(2 * count));
+  }
+
+  /** Tests that queries compiled by {@link JdkBindableCompiler}, the
+   * compiler selected by "jdk", return the right results. */
+  @Test void testJdkCompiler() {
+    final RecordingCompiler compiler =
+        new RecordingCompiler(EnumerableInterpretable.JDK);
+    CalciteAssert.hr()
+        .query("select \"empid\", \"name\"\n"
+            + "from \"hr\".\"emps\"\n"
+            + "where \"empid\" = 100")
+        .withHook(Hook.BINDABLE_COMPILER,
+            (Consumer<Holder<BindableCompiler>>) holder -> holder.set(compiler))
+        .returns("empid=100; name=Bill\n");
+    // Join, aggregate and sort, whose generated code has anonymous classes
+    CalciteAssert.hr()
+        .query("select d.\"name\", count(*) as c, sum(e.\"salary\") as s\n"
+            + "from \"hr\".\"emps\" as e\n"
+            + "join \"hr\".\"depts\" as d on e.\"deptno\" = d.\"deptno\"\n"
+            + "group by d.\"name\"\n"
+            + "order by d.\"name\"")
+        .withHook(Hook.BINDABLE_COMPILER,
+            (Consumer<Holder<BindableCompiler>>) holder -> holder.set(compiler))
+        .returns("name=Sales; C=3; S=28500.0\n");
+    assertThat(compiler.classNames.size() >= 2, is(true));
+  }
+
+  /** Compiler that records the names of the classes it compiles, and
+   * compiles them with another compiler, by default Janino. */
+  public static class RecordingCompiler implements BindableCompiler {
+    final List<String> classNames = new ArrayList<>();
+    private final BindableCompiler compiler;
+
+    public RecordingCompiler() {
+      this(EnumerableInterpretable.JANINO);
+    }
+
+    RecordingCompiler(BindableCompiler compiler) {
+      this.compiler = compiler;
+    }
+
+    @Override public Bindable compile(ClassDeclaration expr, String classBody,
+        int fieldCount) throws Exception {
+      classNames.add(expr.name);
+      return compiler.compile(expr, classBody, fieldCount);
+    }
+  }
+}
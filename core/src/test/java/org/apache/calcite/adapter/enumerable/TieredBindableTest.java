@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.enumerable;
+
+import org.apache.calcite.DataContext;
+import org.apache.calcite.adapter.java.JavaTypeFactory;
+import org.apache.calcite.interpreter.Interpreter;
+import org.apache.calcite.jdbc.JavaTypeFactoryImpl;
+import org.apache.calcite.linq4j.Enumerable;
+import org.apache.calcite.linq4j.QueryProvider;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.core.Values;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexProgramBuilder;
+import org.apache.calcite.schema.SchemaPlus;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.tools.Frameworks;
+import org.apache.calcite.tools.RelBuilder;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests for {@link TieredBindable}, which is used if
+ * {@link org.apache.calcite.config.CalciteSystemProperty#ENUMERABLE_TIERED}
+ * is true.
+ */
+class TieredBindableTest {
+  private static RelBuilder builder() {
+    return RelBuilder.create(Frameworks.newConfigBuilder().build());
+  }
+
+  /** Tests that a plan runs in the interpreter until it has been compiled,
+   * and then runs the compiled code, with the same results. */
+  @Test void testInterpretThenCompile() throws Exception {
+    final RelBuilder b = builder();
+    final Values values =
+        (Values) b.values(new String[] {"i", "s"}, 1, "a", 2, "b", 3, "c")
+            .build();
+    final EnumerableRel input =
+        EnumerableValues.create(values.getCluster(), values.getRowType(),
+            values.getTuples());
+    final RexBuilder rexBuilder = b.getRexBuilder();
+    final RexProgramBuilder programBuilder =
+        new RexProgramBuilder(input.getRowType(), rexBuilder);
+    programBuilder.addCondition(
+        rexBuilder.makeCall(SqlStdOperatorTable.GREATER_THAN,
+            rexBuilder.makeInputRef(input, 0),
+            rexBuilder.makeExactLiteral(BigDecimal.ONE)));
+    programBuilder.addProject(rexBuilder.makeInputRef(input, 1), "s");
+    programBuilder.addProject(
+        rexBuilder.makeCall(SqlStdOperatorTable.PLUS,
+            rexBuilder.makeInputRef(input, 0),
+            rexBuilder.makeExactLiteral(BigDecimal.TEN)),
+        "i10");
+    final EnumerableRel rel =
+        EnumerableCalc.create(input, programBuilder.getProgram());
+    assertThat(TieredBindable.canInterpret(rel), is(true));
+
+    final Map<String, Object> parameters = new HashMap<>();
+    final CountDownLatch compile = new CountDownLatch(1);
+    final TieredBindable bindable =
+        TieredBindable.create(rel, parameters, () -> {
+          compile.await();
+          return EnumerableInterpretable.toBindable(parameters, null, rel,
+              EnumerableRel.Prefer.ARRAY);
+        });
+    final DataContext dataContext = new TestDataContext();
+    final List<String> expected = Arrays.asList("[b, 12]", "[c, 13]");
+
+    // Before compilation completes, the plan is interpreted
+    final Enumerable<@Nullable Object[]> interpreted =
+        bindable.bind(dataContext);
+    assertThat(interpreted, instanceOf(Interpreter.class));
+    assertThat(toList(interpreted), is(expected));
+
+    // After compilation completes, the compiled code runs
+    compile.countDown();
+    Enumerable<@Nullable Object[]> compiled = bindable.bind(dataContext);
+    for (int i = 0; compiled instanceof Interpreter; i++) {
+      assertThat("not compiled after 60 seconds", i < 600, is(true));
+      ((Interpreter) compiled).close();
+      Thread.sleep(100);
+      compiled = bindable.bind(dataContext);
+    }
+    assertThat(compiled, not(instanceOf(Interpreter.class)));
+    assertThat(toList(compiled), is(expected));
+  }
+
+  /** Tests that plans with joins that the interpreter cannot execute, such
+   * as ASOF joins, are not interpreted. */
+  @Test void testCanInterpretJoin() {
+    final RelBuilder b = builder();
+    final RelNode join = b.values(new String[] {"k", "t"}, 1, 10, 2, 20)
+        .values(new String[] {"k", "t"}, 1, 5)
+        .join(JoinRelType.LEFT,
+            b.equals(b.field(2, 0, "k"), b.field(2, 1, "k")))
+        .build();
+    assertThat(TieredBindable.canInterpret(join), is(true));
+
+    final RelNode asofJoin = b.values(new String[] {"k", "t"}, 1, 10, 2, 20)
+        .values(new String[] {"k", "t"}, 1, 5)
+        .asofJoin(JoinRelType.ASOF,
+            b.equals(b.field(2, 0, "k"), b.field(2, 1, "k")),
+            b.lessThan(b.field(2, 1, "t"), b.field(2, 0, "t")))
+        .build();
+    assertThat(TieredBindable.canInterpret(asofJoin), is(false));
+  }
+
+  private static List<String> toList(Enumerable<@Nullable Object[]> rows) {
+    final List<String> list = new ArrayList<>();
+    for (@Nullable Object[] row : rows) {
+      list.add(Arrays.toString(row));
+    }
+    return list;
+  }
+
+  /** Data context for plans that do not read from a schema. */
+  private static class TestDataContext implements DataContext {
+    private final JavaTypeFactory typeFactory = new JavaTypeFactoryImpl();
+
+    @Override public @Nullable SchemaPlus getRootSchema() {
+      return null;
+    }
+
+    @Override public JavaTypeFactory getTypeFactory() {
+      return typeFactory;
+    }
+
+    @Override public QueryProvider getQueryProvider() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public @Nullable Object get(String name) {
+      return null;
+    }
+  }
+}
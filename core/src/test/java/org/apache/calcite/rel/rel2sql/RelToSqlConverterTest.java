@@ -4302,6 +4302,26 @@ private SqlDialect nonOrdinalDialect() {
     sql(query).ok(expected);
   }
 
+  /** Tests that a disjunction of equalities between the same column and
+   * dynamic parameters, such as the filter that a batch nested loop join
+   * pushes into its right input, becomes an IN-list. */
+  @Test void testSelectQueryWithParametersInList() {
+    final String query = "select * from \"product\"\n"
+        + "where \"product_id\" = ? or ? = \"product_id\" or \"product_id\" = ?";
+    final String expected = "SELECT *\n"
+        + "FROM \"foodmart\".\"product\"\n"
+        + "WHERE \"product_id\" IN (?, ?, ?)";
+    sql(query).ok(expected);
+
+    // Different columns; remains a disjunction
+    final String query2 = "select * from \"product\"\n"
+        + "where \"product_id\" = ? or \"product_class_id\" = ?";
+    final String expected2 = "SELECT *\n"
+        + "FROM \"foodmart\".\"product\"\n"
+        + "WHERE \"product_id\" = ? OR \"product_class_id\" = ?";
+    sql(query2).ok(expected2);
+  }
+
   @Test void testSelectQueryWithFetchOffsetClause() {
     String query = "select \"product_id\" from \"product\"\n"
         + "order by \"product_id\" offset 10 rows fetch next 100 rows only";
@@ -24,11 +24,13 @@
 import org.junit.jupiter.api.Test;
 
 import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasToString;
+import static org.hamcrest.Matchers.is;
 
 /** Unit tests for {@link Automaton}. */
 class AutomatonTest {
@@ -231,6 +233,78 @@ private void checkRepeat(int minRepeat, int maxRepeat, String pattern,
         hasToString("[[(A, a), (B, ab)], [(A, a), (B, b)]]"));
   }
 
+  /** Tests that a partial match that has reached a state with no outgoing
+   * transitions is not retained, so that its rows can be released. */
+  @Test void testCompletedMatchIsEvicted() {
+    // pattern(a b)
+    final Pattern p = Pattern.builder()
+        .symbol("A")
+        .symbol("B").seq()
+        .build();
+    final Matcher<String> matcher =
+        Matcher.<String>builder(p.toAutomaton())
+            .add("A", s -> s.get().contains("a"))
+            .add("B", s -> s.get().contains("b"))
+            .build();
+    final Matcher.PartitionState<String> partitionState =
+        matcher.createPartitionState(0, 0);
+    final MemoryFactory<String> memoryFactory = new MemoryFactory<>(0, 0);
+    memoryFactory.add("a");
+    assertThat(
+        matcher.matchOneWithSymbols(memoryFactory.create(), partitionState),
+        hasToString("[]"));
+    assertThat(partitionState.getPartialMatches(), hasToString("[[(A, a)]]"));
+
+    // "ab" completes a match and starts another; only the latter is kept
+    memoryFactory.add("ab");
+    assertThat(
+        matcher.matchOneWithSymbols(memoryFactory.create(), partitionState),
+        hasToString("[[(A, a), (B, ab)]]"));
+    assertThat(partitionState.getPartialMatches(), hasToString("[[(A, ab)]]"));
+
+    memoryFactory.add("c");
+    assertThat(
+        matcher.matchOneWithSymbols(memoryFactory.create(), partitionState),
+        hasToString("[]"));
+    assertThat(partitionState.getPartialMatches(), hasToString("[]"));
+  }
+
+  /** Tests a pattern whose DFA reaches the same state from two sibling
+   * states. The DFA used to traverse that state twice and emit its
+   * transitions twice, and the Matcher failed with "Multiple entries with
+   * same key". */
+  @Test void testDfaStateReachedTwice() {
+    // pattern(b b | (a | a | b c)*)
+    final Pattern p = Pattern.builder()
+        .symbol("b")
+        .symbol("b").seq()
+        .symbol("a")
+        .symbol("a").or()
+        .symbol("b")
+        .symbol("c").seq().or()
+        .star().or()
+        .build();
+    assertThat(p, hasToString("b b|(a|a|b c)*"));
+
+    final DeterministicAutomaton dfa =
+        new DeterministicAutomaton(p.toAutomaton());
+    assertThat(
+        dfa.getTransitions().stream()
+            .map(t -> Arrays.asList(t.fromState, t.symbol))
+            .distinct().count(),
+        is((long) dfa.getTransitions().size()));
+
+    final String rows = "bbabcc";
+    final Matcher<Character> matcher =
+        Matcher.<Character>builder(p.toAutomaton())
+            .add("a", s -> s.get() == 'a')
+            .add("b", s -> s.get() == 'b')
+            .add("c", s -> s.get() == 'c')
+            .build();
+    final String expected = "[[b, b], [a], [a, b, c], [b, c]]";
+    assertThat(matcher.match(chars(rows)), isMatchList(expected));
+  }
+
   /** Converts a string into an iterable collection of its characters. */
   private static Iterable<Character> chars(String s) {
     return new AbstractList<Character>() {
@@ -16,8 +16,10 @@
  */
 package org.apache.calcite.runtime;
 
+import org.apache.calcite.linq4j.AbstractEnumerable;
 import org.apache.calcite.linq4j.Enumerable;
 import org.apache.calcite.linq4j.EnumerableDefaults;
+import org.apache.calcite.linq4j.Enumerator;
 import org.apache.calcite.linq4j.JoinType;
 import org.apache.calcite.linq4j.Linq4j;
 import org.apache.calcite.linq4j.function.EqualityComparer;
@@ -37,11 +39,14 @@
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.collect.Lists.newArrayList;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasToString;
 
 /**
@@ -471,6 +476,59 @@ private static <T extends Comparable<T>> Enumerable<String> intersect(
         hasToString("[Emp(3, Fred)-Emp(1, Fred), Emp(5, Joe)-Emp(3, Joe)]"));
   }
 
+  @Test void testMergeRightAndFullJoinWithPredicate() {
+    final List<Emp> listEmp1 =
+        Arrays.asList(new Emp(7, "Ann"),
+            new Emp(1, "Fred"),
+            new Emp(2, "Fred"),
+            new Emp(3, "Joe"),
+            new Emp(4, "Joe"),
+            new Emp(5, "Peter"));
+    final List<Emp> listEmp2 =
+        Arrays.asList(new Emp(2, "Fred"),
+            new Emp(3, "Fred"),
+            new Emp(3, "Joe"),
+            new Emp(5, "Joe"),
+            new Emp(6, "Peter"),
+            new Emp(8, "Zoe"));
+
+    assertThat(
+        EnumerableDefaults.mergeJoin(
+            Linq4j.asEnumerable(listEmp1),
+            Linq4j.asEnumerable(listEmp2),
+            e1 -> e1.name,
+            e2 -> e2.name,
+            (e1, e2) -> e1.deptno < e2.deptno && e2.deptno != 3,
+            (v0, v1) -> v0 + "-" + v1, JoinType.RIGHT, null, null).toList(),
+        hasToString("["
+            + "Emp(1, Fred)-Emp(2, Fred), "
+            + "null-Emp(3, Fred), "
+            + "Emp(3, Joe)-Emp(5, Joe), "
+            + "Emp(4, Joe)-Emp(5, Joe), "
+            + "null-Emp(3, Joe), "
+            + "Emp(5, Peter)-Emp(6, Peter), "
+            + "null-Emp(8, Zoe)]"));
+
+    assertThat(
+        EnumerableDefaults.mergeJoin(
+            Linq4j.asEnumerable(listEmp1),
+            Linq4j.asEnumerable(listEmp2),
+            e1 -> e1.name,
+            e2 -> e2.name,
+            (e1, e2) -> e1.deptno < e2.deptno && e2.deptno != 3,
+            (v0, v1) -> v0 + "-" + v1, JoinType.FULL, null, null).toList(),
+        hasToString("["
+            + "Emp(7, Ann)-null, "
+            + "Emp(1, Fred)-Emp(2, Fred), "
+            + "Emp(2, Fred)-null, "
+            + "null-Emp(3, Fred), "
+            + "Emp(3, Joe)-Emp(5, Joe), "
+            + "Emp(4, Joe)-Emp(5, Joe), "
+            + "null-Emp(3, Joe), "
+            + "Emp(5, Peter)-Emp(6, Peter), "
+            + "null-Emp(8, Zoe)]"));
+  }
+
   @Test void testMergeSemiJoin() {
     assertThat(
         EnumerableDefaults.mergeJoin(
@@ -887,6 +945,72 @@ public void testMatch() {
             + " Emp(30, Greg), Dept(30, Development)]"));
   }
 
+  /** Tests {@link Enumerables#adaptiveHashJoin}, which chooses a join
+   * algorithm from the number of rows in its right input. */
+  @Test void testAdaptiveHashJoin() {
+    // Right input is empty; left input is never read
+    final Enumerable<Emp> unreadable = new AbstractEnumerable<Emp>() {
+      @Override public Enumerator<Emp> enumerator() {
+        throw new AssertionError("left input must not be read");
+      }
+    };
+    assertThat(
+        Enumerables.adaptiveHashJoin(unreadable,
+            Linq4j.<Dept>emptyEnumerable(), e -> e.deptno, d -> d.deptno,
+            (v0, v1) -> v0 + ", " + v1, null, false, false, null)
+            .toList(),
+        hasToString("[]"));
+
+    // Otherwise, whether the right input is small enough for a nested loop
+    // or not, the result is the same as a hash join, and the right input is
+    // read once, not copied into a list first
+    final List<Dept> allDepts =
+        Arrays.asList(new Dept(15, "Marketing"), new Dept(20, "Sales"),
+            new Dept(30, "Research"), new Dept(30, "Development"),
+            new Dept(10, "HR"), new Dept(40, "Legal"),
+            new Dept(20, "Support"));
+    assertThat(allDepts.size(),
+        greaterThan(Enumerables.NESTED_LOOP_MAX_ROWS + 1));
+    final Predicate2<Emp, Dept> predicate =
+        (v0, v1) -> v0.deptno < 30 && !v1.name.equals("Sales");
+    final AtomicInteger readCount = new AtomicInteger();
+    for (int n = 0; n <= allDepts.size(); n++) {
+      final List<Dept> depts = allDepts.subList(0, n);
+      final Enumerable<Dept> deptEnumerable = new AbstractEnumerable<Dept>() {
+        @Override public Enumerator<Dept> enumerator() {
+          readCount.incrementAndGet();
+          return Linq4j.enumerator(depts);
+        }
+      };
+      for (boolean generateNullsOnLeft : new boolean[] {false, true}) {
+        for (boolean generateNullsOnRight : new boolean[] {false, true}) {
+          for (Predicate2<Emp, Dept> p : Arrays.asList(null, predicate)) {
+            readCount.set(0);
+            assertThat(
+                Enumerables.adaptiveHashJoin(EMPS, deptEnumerable,
+                    e -> e.deptno, d -> d.deptno, (v0, v1) -> v0 + ", " + v1,
+                    null, generateNullsOnLeft, generateNullsOnRight, p)
+                    .toList(),
+                equalTo(
+                    EnumerableDefaults.hashJoin(EMPS,
+                        Linq4j.asEnumerable(depts), e -> e.deptno,
+                        d -> d.deptno, (v0, v1) -> v0 + ", " + v1, null,
+                        generateNullsOnLeft, generateNullsOnRight, p)
+                        .toList()));
+            assertThat(readCount.get(), is(1));
+          }
+        }
+      }
+    }
+
+    // Right input is empty, but the join generates nulls on the right
+    assertThat(
+        Enumerables.adaptiveHashJoin(EMPS, Linq4j.<Dept>emptyEnumerable(),
+            e -> e.deptno, d -> d.deptno, (v0, v1) -> v0 + ", " + v1, null,
+            false, true, null).count(),
+        is(EMPS.count()));
+  }
+
   @Test void testLeftHashJoinWithNonEquiConditions() {
     assertThat(
         EnumerableDefaults.hashJoin(
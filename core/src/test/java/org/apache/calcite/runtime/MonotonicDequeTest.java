@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link org.apache.calcite.runtime.MonotonicDeque}.
+ */
+class MonotonicDequeTest {
+  /** Slides a window of each width over random values, and checks that the
+   * deque agrees with a scan of the window. */
+  @Test void testSlidingWindow() {
+    final Random random = new Random(0);
+    final List<Integer> values =
+        IntStream.range(0, 200).mapToObj(i -> random.nextInt(20))
+            .collect(Collectors.toList());
+    for (int width = 1; width < 40; width++) {
+      final MonotonicDeque minDeque = new MonotonicDeque(true);
+      final MonotonicDeque maxDeque = new MonotonicDeque(false);
+      for (int i = 0; i < values.size(); i++) {
+        minDeque.add(i, values.get(i));
+        maxDeque.add(i, values.get(i));
+        if (i >= width) {
+          minDeque.remove(i - width);
+          maxDeque.remove(i - width);
+        }
+        final List<Integer> window =
+            values.subList(Math.max(0, i - width + 1), i + 1);
+        assertThat((Integer) minDeque.first(), is(Collections.min(window)));
+        assertThat((Integer) maxDeque.first(), is(Collections.max(window)));
+      }
+    }
+  }
+
+  @Test void testEmpty() {
+    final MonotonicDeque deque = new MonotonicDeque(true);
+    assertThat(deque.isEmpty(), is(true));
+    deque.add(0, "b");
+    deque.add(1, "a");
+    assertThat((String) deque.first(), is("a"));
+    deque.remove(0);
+    assertThat((String) deque.first(), is("a"));
+    deque.remove(1);
+    assertThat(deque.isEmpty(), is(true));
+  }
+}
@@ -16,11 +16,18 @@
  */
 package org.apache.calcite.schema.lookup;
 
+import com.google.common.collect.ImmutableList;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 
 /**
  * Test for CachedLookup.
@@ -40,4 +47,23 @@ class SnapshotLookupTest {
     assertThat(testee.getIgnoreCase("A"), equalTo(new Named<>("a", "1")));
   }
 
+  /** Tests that a snapshot loads only the entries that are requested, and
+   * each of them only once. */
+  @Test void testLazy() {
+    final List<String> loaded = new ArrayList<>();
+    final Lookup<String> lookup =
+        new SnapshotLookup<>(new FakeLookup("a", "1", "b", "2", "c", "3") {
+          @Override public @Nullable String get(String name) {
+            loaded.add(name);
+            return super.get(name);
+          }
+        });
+    assertThat(lookup.getNames(LikePattern.any()), hasSize(3));
+    assertThat(loaded, hasSize(0));
+    assertThat(lookup.get("b"), equalTo("2"));
+    assertThat(lookup.getIgnoreCase("B"), equalTo(new Named<>("b", "2")));
+    assertThat(lookup.get("b"), equalTo("2"));
+    assertThat(loaded, equalTo(ImmutableList.of("b")));
+  }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.sql.parser;
+
+import org.apache.calcite.sql.SqlDynamicParam;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.util.Litmus;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link SqlParserPool}.
+ */
+class SqlParserPoolTest {
+  @Test void testReuseParser() throws SqlParseException {
+    final SqlParserPool pool = new SqlParserPool(SqlParser.config(), 1, 0);
+    final String sql1 = "select a from t where b = ?";
+    final String sql2 = "select ? from u";
+    final SqlNode node1 = pool.parseQuery(sql1);
+    assertThrows(SqlParseException.class,
+        () -> pool.parseQuery("select from where"));
+    final SqlNode node2 = pool.parseQuery(sql2);
+    assertThat(node1.equalsDeep(SqlParser.create(sql1).parseQuery(),
+        Litmus.THROW), is(true));
+    assertThat(node2.equalsDeep(SqlParser.create(sql2).parseQuery(),
+        Litmus.THROW), is(true));
+
+    // Dynamic parameters are numbered from 0 in each statement
+    final SqlDynamicParam param =
+        (SqlDynamicParam) ((SqlSelect) node2).getSelectList().get(0);
+    assertThat(param.getIndex(), is(0));
+
+    assertThat(
+        pool.parseExpression("x + 1")
+            .equalsDeep(SqlParser.create("x + 1").parseExpression(),
+                Litmus.THROW),
+        is(true));
+  }
+
+  @Test void testCache() throws SqlParseException {
+    final SqlParserPool pool = new SqlParserPool(SqlParser.config(), 1, 10);
+    final String sql = "select a, count(*) from t join u using (c)\n"
+        + "where b in (1, 2) group by a";
+    final SqlNode node1 = pool.parseQuery(sql);
+    final SqlNode node2 = pool.parseQuery(sql);
+    assertThat(node2, not(sameInstance(node1)));
+    assertThat(node2.equalsDeep(node1, Litmus.THROW), is(true));
+
+    // Modifying a returned tree does not affect later calls
+    assertThat(node2, instanceOf(SqlSelect.class));
+    ((SqlSelect) node2).setWhere(null);
+    ((SqlSelect) node2).getSelectList().set(0, new SqlIdentifier("z", SqlParserPos.ZERO));
+    final SqlNode node3 = pool.parseQuery(sql);
+    assertThat(node3.equalsDeep(node1, Litmus.THROW), is(true));
+  }
+}
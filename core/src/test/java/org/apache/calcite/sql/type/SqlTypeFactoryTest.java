@@ -24,6 +24,7 @@
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -39,6 +40,8 @@
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * Test for {@link SqlTypeFactoryImpl}.
  */
@@ -346,4 +349,25 @@ private void checkCreateSqlTypeWithPrecision(
     assertFalse(unknownType2.isNullable());
     assertThat(unknownType2.getFullTypeString(), is("UNKNOWN NOT NULL"));
   }
+
+  /** Tests case-insensitive lookup of fields in a wide record type, which
+   * uses an index rather than a scan; the first matching field wins. */
+  @Test void testGetFieldIgnoreCaseWide() {
+    final SqlTypeFixture f = new SqlTypeFixture();
+    final RelDataTypeFactory.Builder builder = f.typeFactory.builder();
+    for (int i = 0; i < 50; i++) {
+      builder.add("c" + i, SqlTypeName.INTEGER);
+    }
+    builder.add("C7", SqlTypeName.VARCHAR);
+    final RelDataType type = builder.build();
+
+    assertThat(index(type.getField("C7", false, false)), is(7));
+    assertThat(index(type.getField("C7", true, false)), is(50));
+    assertThat(index(type.getField("c49", false, false)), is(49));
+    assertNull(type.getField("c50", false, false));
+  }
+
+  private static int index(@Nullable RelDataTypeField field) {
+    return requireNonNull(field, "field").getIndex();
+  }
 }
@@ -40,6 +40,8 @@
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * Tests for {@link SqlValidatorUtil}.
  */
@@ -158,4 +160,67 @@ private static void checkChangedFieldList(
     assertThat(sensitiveMatcher.indexOf(beatles, "Ringo"), is(-1));
 
   }
+
+  /** Tests that {@link EmptyScope#resolveTable} remembers what it has
+   * resolved, and that a name resolved by a case-insensitive matcher is not
+   * returned to a case-sensitive one. */
+  @Test void testResolveTableIsMemoized() {
+    final SqlValidatorFixture fixture =
+        Fixtures.forValidator().withCaseSensitive(false);
+    final SqlValidatorImpl validator =
+        (SqlValidatorImpl) fixture.factory.createValidator();
+    final SqlValidatorScope scope = validator.getEmptyScope();
+    final SqlNameMatcher sensitive = SqlNameMatchers.withCaseSensitive(true);
+    final SqlNameMatcher insensitive =
+        SqlNameMatchers.withCaseSensitive(false);
+    final List<String> upper = ImmutableList.of("EMP");
+    final List<String> lower = ImmutableList.of("emp");
+    final List<String> mixed = ImmutableList.of("Emp");
+
+    final SqlValidatorScope.Resolve emp = resolveTable(scope, upper, sensitive);
+    assertThat(qualifiedName(emp), is("[CATALOG, SALES, EMP]"));
+    assertThat(resolveTables(scope, lower, sensitive), hasSize(0));
+    final SqlValidatorScope.Resolve emp2 =
+        resolveTable(scope, lower, insensitive);
+    assertThat(qualifiedName(emp2), is("[CATALOG, SALES, EMP]"));
+    assertThat(validator.resolvedTables.size(), is(3));
+
+    // Resolve again, in a different order; each matcher sees its own result,
+    // and nothing new is cached
+    assertThat(resolveTable(scope, lower, insensitive).namespace,
+        sameInstance(emp2.namespace));
+    assertThat(resolveTables(scope, lower, sensitive), hasSize(0));
+    assertThat(resolveTable(scope, upper, sensitive).namespace,
+        sameInstance(emp.namespace));
+    assertThat(validator.resolvedTables.size(), is(3));
+
+    final SqlValidatorScope.Resolve emp3 =
+        resolveTable(scope, mixed, insensitive);
+    assertThat(qualifiedName(emp3), is("[CATALOG, SALES, EMP]"));
+    assertThat(validator.resolvedTables.size(), is(4));
+  }
+
+  private static List<SqlValidatorScope.Resolve> resolveTables(
+      SqlValidatorScope scope, List<String> names,
+      SqlNameMatcher nameMatcher) {
+    final SqlValidatorScope.ResolvedImpl resolved =
+        new SqlValidatorScope.ResolvedImpl();
+    scope.resolveTable(names, nameMatcher, SqlValidatorScope.Path.EMPTY,
+        resolved);
+    return resolved.resolves;
+  }
+
+  private static SqlValidatorScope.Resolve resolveTable(
+      SqlValidatorScope scope, List<String> names,
+      SqlNameMatcher nameMatcher) {
+    final List<SqlValidatorScope.Resolve> resolves =
+        resolveTables(scope, names, nameMatcher);
+    assertThat(resolves, hasSize(1));
+    return resolves.get(0);
+  }
+
+  private static String qualifiedName(SqlValidatorScope.Resolve resolve) {
+    return requireNonNull(resolve.namespace.getTable()).getQualifiedName()
+        .toString();
+  }
 }
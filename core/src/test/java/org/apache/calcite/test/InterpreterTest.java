@@ -21,16 +21,19 @@
 import org.apache.calcite.adapter.java.JavaTypeFactory;
 import org.apache.calcite.avatica.util.DateTimeUtils;
 import org.apache.calcite.interpreter.Interpreter;
+import org.apache.calcite.linq4j.Enumerator;
 import org.apache.calcite.linq4j.QueryProvider;
 import org.apache.calcite.plan.hep.HepPlanner;
 import org.apache.calcite.plan.hep.HepProgram;
 import org.apache.calcite.plan.hep.HepProgramBuilder;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelRoot;
+import org.apache.calcite.rel.logical.LogicalCalc;
 import org.apache.calcite.rel.rules.CoreRules;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexProgramBuilder;
 import org.apache.calcite.schema.ScalarFunction;
 import org.apache.calcite.schema.SchemaPlus;
 import org.apache.calcite.schema.TableFunction;
@@ -38,6 +41,7 @@
 import org.apache.calcite.schema.impl.ScalarFunctionImpl;
 import org.apache.calcite.schema.impl.TableFunctionImpl;
 import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
 import org.apache.calcite.sql.parser.SqlParseException;
 import org.apache.calcite.sql.parser.SqlParser;
 import org.apache.calcite.sql2rel.SqlToRelConverter;
@@ -50,6 +54,7 @@
 import org.apache.calcite.util.Smalls;
 import org.apache.calcite.util.Util;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -62,6 +67,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
@@ -69,6 +75,7 @@
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import static java.util.Objects.requireNonNull;
 
@@ -113,34 +120,48 @@ private static class Sql {
     private final boolean project;
     private final @Nullable Function<RelBuilder, RelNode> relFn;
     private final UnaryOperator<SqlToRelConverter.Config> sqlToRelTransform;
+    private final int bufferSize;
 
     Sql(String sql, SchemaPlus rootSchema, boolean project,
         @Nullable Function<RelBuilder, RelNode> relFn,
-        UnaryOperator<SqlToRelConverter.Config> sqlToRelTransform) {
+        UnaryOperator<SqlToRelConverter.Config> sqlToRelTransform,
+        int bufferSize) {
       this.sql = sql;
       this.rootSchema = rootSchema;
       this.project = project;
       this.relFn = relFn;
       this.sqlToRelTransform = sqlToRelTransform;
+      this.bufferSize = bufferSize;
     }
 
     Sql withSql(String sql) {
-      return new Sql(sql, rootSchema, project, relFn, sqlToRelTransform);
+      return new Sql(sql, rootSchema, project, relFn, sqlToRelTransform,
+          bufferSize);
     }
 
     @SuppressWarnings("SameParameterValue")
     Sql withProject(boolean project) {
-      return new Sql(sql, rootSchema, project, relFn, sqlToRelTransform);
+      return new Sql(sql, rootSchema, project, relFn, sqlToRelTransform,
+          bufferSize);
     }
 
     Sql withRel(Function<RelBuilder, RelNode> relFn) {
-      return new Sql(sql, rootSchema, project, relFn, sqlToRelTransform);
+      return new Sql(sql, rootSchema, project, relFn, sqlToRelTransform,
+          bufferSize);
     }
 
     Sql withSqlToRel(UnaryOperator<SqlToRelConverter.Config> transform) {
       final UnaryOperator<SqlToRelConverter.Config> newTransform = c ->
           transform.apply(this.sqlToRelTransform.apply(c));
-      return new Sql(sql, rootSchema, project, relFn, newTransform);
+      return new Sql(sql, rootSchema, project, relFn, newTransform,
+          bufferSize);
+    }
+
+    /** Sets the number of rows buffered between nodes; a positive value
+     * makes the interpreter pipelined. */
+    Sql withBufferSize(int bufferSize) {
+      return new Sql(sql, rootSchema, project, relFn, sqlToRelTransform,
+          bufferSize);
     }
 
     /** Interprets the sql and checks result with specified rows, ordered. */
@@ -181,19 +202,39 @@ private <T> T withRelBuilder(Function<RelBuilder, T> fn) {
     /** Interprets the sql and checks result with specified rows. */
     private Sql returnsRows(boolean unordered, String[] rows) {
       try (Planner planner = createPlanner()) {
-        final RelNode convert;
-        if (relFn != null) {
-          convert = withRelBuilder(relFn);
-        } else {
-          SqlNode parse = planner.parse(sql);
-          SqlNode validate = planner.validate(parse);
-          final RelRoot root = planner.rel(validate);
-          convert = project ? root.project() : root.rel;
-        }
+        final RelNode convert = toRel(planner);
         final MyDataContext dataContext =
             new MyDataContext(rootSchema, convert);
-        assertInterpret(convert, dataContext, unordered, rows);
+        assertInterpret(convert, dataContext, bufferSize, unordered, rows);
         return this;
+      }
+    }
+
+    /** Creates an interpreter for the sql, and passes it to a consumer;
+     * closes the interpreter when the consumer returns. */
+    @SuppressWarnings("UnusedReturnValue")
+    Sql consumes(Consumer<Interpreter> consumer) {
+      try (Planner planner = createPlanner()) {
+        final RelNode convert = toRel(planner);
+        final MyDataContext dataContext =
+            new MyDataContext(rootSchema, convert);
+        try (Interpreter interpreter =
+                 new Interpreter(dataContext, convert, bufferSize)) {
+          consumer.accept(interpreter);
+        }
+        return this;
+      }
+    }
+
+    private RelNode toRel(Planner planner) {
+      if (relFn != null) {
+        return withRelBuilder(relFn);
+      }
+      try {
+        SqlNode parse = planner.parse(sql);
+        SqlNode validate = planner.validate(parse);
+        final RelRoot root = planner.rel(validate);
+        return project ? root.project() : root.rel;
       } catch (ValidationException
           | SqlParseException
           | RelConversionException e) {
@@ -204,7 +245,8 @@ private Sql returnsRows(boolean unordered, String[] rows) {
 
   /** Creates a {@link Sql}. */
   private Sql fixture() {
-    return new Sql("?", rootSchema(), false, null, UnaryOperator.identity());
+    return new Sql("?", rootSchema(), false, null, UnaryOperator.identity(),
+        0);
   }
 
   private SchemaPlus rootSchema() {
@@ -258,7 +300,13 @@ private void reset() {
 
   private static void assertInterpret(RelNode rel, DataContext dataContext,
       boolean unordered, String... rows) {
-    try (Interpreter interpreter = new Interpreter(dataContext, rel)) {
+    assertInterpret(rel, dataContext, 0, unordered, rows);
+  }
+
+  private static void assertInterpret(RelNode rel, DataContext dataContext,
+      int bufferSize, boolean unordered, String... rows) {
+    try (Interpreter interpreter =
+             new Interpreter(dataContext, rel, bufferSize)) {
       final List<RelDataType> fieldTypes =
           Util.transform(rel.getRowType().getFieldList(),
               RelDataTypeField::getType);
@@ -292,6 +340,82 @@ private static void assertRows(Interpreter interpreter,
             "[200, 20, Eric, 8000.0, 500]");
   }
 
+  /** Tests the pipelined interpreter, whose nodes run concurrently and
+   * exchange rows through bounded buffers smaller than their inputs. */
+  @Test void testInterpretPipelined() {
+    sql("select \"name\" from \"hr\".\"emps\"\n"
+        + "where \"deptno\" = 10 order by \"empid\"")
+        .withBufferSize(1)
+        .returnsRows("[Bill]", "[Theodore]", "[Sebastian]");
+    sql("select e.\"name\", d.\"name\"\n"
+        + "from \"hr\".\"emps\" as e\n"
+        + "join \"hr\".\"depts\" as d on e.\"deptno\" = d.\"deptno\"")
+        .withBufferSize(2)
+        .returnsRowsUnordered("[Bill, Sales]", "[Sebastian, Sales]",
+            "[Theodore, Sales]");
+    sql("select x from (values (1), (2), (3)) as t(x)\n"
+        + "union all\n"
+        + "select x + 10 from (values (1), (2), (3)) as t(x)")
+        .withBufferSize(1)
+        .returnsRowsUnordered("[1]", "[2]", "[3]", "[11]", "[12]", "[13]");
+  }
+
+  /** Tests that closing a pipelined interpreter before reading all rows
+   * stops its threads, even those that are waiting to write to a full
+   * buffer. */
+  @Test void testInterpretPipelinedClosedEarly() {
+    sql("select \"name\" from \"hr\".\"emps\"")
+        .withBufferSize(1)
+        .consumes(interpreter -> {
+          final Enumerator<@Nullable Object[]> enumerator =
+              interpreter.enumerator();
+          assertThat(enumerator.moveNext(), is(true));
+          enumerator.close();
+        });
+    assertNoThreadEndingSink();
+  }
+
+  /** Tests that an error in a node of a pipelined interpreter is thrown to
+   * the consumer, and that closing the interpreter then stops its
+   * threads. */
+  @Test void testInterpretPipelinedFailure() {
+    sql("select 100 / (\"deptno\" - 10) from \"hr\".\"emps\"")
+        .withBufferSize(1)
+        .consumes(interpreter -> {
+          final RuntimeException e =
+              assertThrows(RuntimeException.class, () -> {
+                for (Object[] row : interpreter) {
+                  Util.discard(row);
+                }
+              });
+          assertThat(Throwables.getRootCause(e).getMessage(),
+              is("/ by zero"));
+        });
+    assertNoThreadEndingSink();
+  }
+
+  /** Waits until no interpreter thread is writing the end marker to a
+   * queue; fails if one is still doing so after 10 seconds. */
+  private static void assertNoThreadEndingSink() {
+    for (int i = 0;; i++) {
+      final boolean ending = Thread.getAllStackTraces().values().stream()
+          .anyMatch(stack ->
+              Arrays.stream(stack).anyMatch(element ->
+                  element.getClassName().endsWith("Interpreter$QueueSink")
+                      && element.getMethodName().equals("end")));
+      if (!ending) {
+        return;
+      }
+      assertThat("thread blocked ending a sink", i < 100, is(true));
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
   /** Tests executing a plan on a
    * {@link org.apache.calcite.schema.ScannableTable} using an interpreter. */
   @Test void testInterpretScannableTable() {
@@ -355,6 +479,29 @@ private static void assertRows(Interpreter interpreter,
             "[Ringo, 1]");
   }
 
+  /** Tests executing a {@link org.apache.calcite.rel.core.Calc}, which
+   * filters and projects, using an interpreter. */
+  @Test void testInterpretCalc() {
+    rootSchema().add("beatles", new ScannableTableTest.BeatlesTable());
+    final Function<RelBuilder, RelNode> relFn = b -> {
+      final RelNode input = b.scan("beatles").build();
+      final RexProgramBuilder programBuilder =
+          new RexProgramBuilder(input.getRowType(), b.getRexBuilder());
+      b.push(input);
+      programBuilder.addCondition(
+          b.call(SqlStdOperatorTable.GREATER_THAN, b.field("i"),
+              b.literal(4)));
+      programBuilder.addProject(b.field("j"), "j");
+      programBuilder.addProject(
+          b.call(SqlStdOperatorTable.PLUS, b.field("i"), b.literal(1)),
+          "i1");
+      b.build();
+      return LogicalCalc.create(input, programBuilder.getProgram());
+    };
+    fixture().withRel(relFn)
+        .returnsRowsUnordered("[George, 7]", "[Ringo, 6]");
+  }
+
   /** Tests a GROUP BY query that uses
    * {@link org.apache.calcite.sql.fun.SqlInternalOperators#LITERAL_AGG}. */
   @Test void testAggregateLiteralAgg() {
@@ -580,6 +727,31 @@ private static void assertRows(Interpreter interpreter,
         "[null, null, 4, x]");
   }
 
+  /** Tests a hash join whose condition has a non-equi remainder, and whose
+   * keys contain duplicates and nulls. */
+  @Test void testInterpretHashJoinWithRemainder() {
+    final String sql = "select * from\n"
+        + "(values (1, 'a'), (1, 'b'), (2, 'c'), (cast(null as int), 'd'))"
+        + " as t(x, y)\n"
+        + "join\n"
+        + "(values (1, 'x'), (1, 'y'), (cast(null as int), 'z'), (2, 'b'))"
+        + " as t2(x, y)\n"
+        + "on t.x = t2.x and t.y < t2.y";
+    sql(sql).returnsRows("[1, a, 1, x]", "[1, a, 1, y]", "[1, b, 1, x]",
+        "[1, b, 1, y]");
+  }
+
+  /** Tests a full join whose left input is empty and whose right input
+   * contains duplicate rows. */
+  @Test void testInterpretFullJoinEmptyLeft() {
+    final String sql = "select * from\n"
+        + "(select x from (values (1), (2)) as t(x) where x > 5) t\n"
+        + "full join\n"
+        + "(values (1), (1)) as t2(x)\n"
+        + "on t.x = t2.x";
+    sql(sql).returnsRows("[null, 1]", "[null, 1]");
+  }
+
   @Test void testInterpretDecimalAggregate() {
     final String sql = "select x, min(y), max(y), sum(y), avg(y)\n"
         + "from (values ('a', -1.2), ('a', 2.3), ('a', 15)) as t(x, y)\n"
@@ -102,6 +102,7 @@
 import org.apache.calcite.util.TryThreadLocal;
 import org.apache.calcite.util.Util;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
@@ -120,7 +121,9 @@
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
 import java.sql.Array;
 import java.sql.Connection;
@@ -148,6 +151,7 @@
 import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
@@ -167,9 +171,11 @@
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -5460,6 +5466,38 @@ public boolean moveNext() {
             + "empid=150; deptno=10; name=Sebastian; salary=7000.0; commission=null\n");
   }
 
+  /** Tests that LIKE with a literal pattern whose escape is invalid fails
+   * with a clear error, not an {@link ExceptionInInitializerError} from the
+   * hoisted matcher. */
+  @Test void testLikeInvalidEscape() {
+    checkLikeFails("\"name\" like 'B%' escape 'xy'",
+        "Invalid escape character 'xy'");
+    checkLikeFails("\"name\" like 'B#' escape '#'",
+        "Invalid escape sequence 'B#', 1");
+  }
+
+  private static void checkLikeFails(String condition, String message) {
+    CalciteAssert.that()
+        .with(CalciteAssert.Config.REGULAR)
+        .doWithConnection(c -> {
+          final SQLException e =
+              assertThrows(SQLException.class, () -> {
+                try (Statement s = c.createStatement();
+                     ResultSet rs = s.executeQuery("select \"name\"\n"
+                         + "from \"hr\".\"emps\"\n"
+                         + "where " + condition)) {
+                  while (rs.next()) {
+                    Util.discard(rs.getString(1));
+                  }
+                }
+              });
+          assertThat(Throwables.getCausalChain(e).stream()
+                  .anyMatch(t -> t instanceof ExceptionInInitializerError),
+              is(false));
+          assertThat(Throwables.getRootCause(e).getMessage(), is(message));
+        });
+  }
+
   /** Tests array index. */
   @Test void testArrayIndexing() {
     CalciteAssert.that()
@@ -8337,6 +8375,189 @@ void checkCalciteSchemaGetSubSchemaMap(boolean cache) {
     }
   }
 
+  /** Tests that {@link JdbcSchema}, if
+   * {@link CalciteSystemProperty#JDBC_METADATA_BULK} is set, reads the
+   * columns of all tables of a database schema with one call to
+   * {@link DatabaseMetaData#getColumns}, in the background, and reads the
+   * columns of a table that is missing from that result with a call of its
+   * own until the columns of the schema have been reloaded. */
+  @Test void testJdbcMetadataBulk() throws Exception {
+    final String url = "jdbc:hsqldb:mem:bulkmeta";
+    try (Connection baseConnection = DriverManager.getConnection(url);
+         Statement baseStmt = baseConnection.createStatement()) {
+      // Schema "S11" matches the pattern "S_1" that the bulk load uses; its
+      // columns must not leak into table "T" of "S_1"
+      baseStmt.execute("CREATE SCHEMA S_1");
+      baseStmt.execute("CREATE SCHEMA S11");
+      baseStmt.execute("CREATE TABLE S_1.T (A INTEGER, B VARCHAR(10))");
+      baseStmt.execute("CREATE TABLE S_1.V (C INTEGER)");
+      baseStmt.execute("CREATE TABLE S11.T (X DOUBLE)");
+      baseStmt.execute("INSERT INTO S_1.T VALUES (1, 'x')");
+      baseConnection.commit();
+
+      final List<String> calls = new CopyOnWriteArrayList<>();
+      final DataSource dataSource =
+          recordGetColumns(
+              JdbcSchema.dataSource(url, jdbcDriver.class.getName(), null,
+                  null), calls);
+      try (Hook.Closeable ignored =
+               Hook.JDBC_METADATA_BULK.addThread(Hook.propertyJ(true));
+           Connection connection = DriverManager.getConnection("jdbc:calcite:")) {
+        final CalciteConnection calciteConnection =
+            connection.unwrap(CalciteConnection.class);
+        final SchemaPlus rootSchema = calciteConnection.getRootSchema();
+        // Escape "_", so that only "S_1" contains tables of the schema
+        final JdbcSchema jdbcSchema =
+            JdbcSchema.create(rootSchema, "BULK", dataSource, null, "S\\_1");
+        final SchemaPlus schema = rootSchema.add("BULK", jdbcSchema);
+        // Look up tables on each query, so that "U", created below, is found
+        schema.setCacheEnabled(false);
+
+        // Resolving a table starts loading the columns of its schema
+        assertThat(jdbcSchema.tables().get("T"), notNullValue());
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (calls.isEmpty() && System.currentTimeMillis() < deadline) {
+          Thread.sleep(10);
+        }
+        assertThat(calls, hasSize(1));
+        assertThat(calls.get(0),
+            startsWith("PUBLIC.S_1.null in calcite-jdbc-metadata-"));
+
+        try (Statement statement = connection.createStatement()) {
+          assertThat(
+              CalciteAssert.toString(
+                  statement.executeQuery("select * from bulk.t")),
+              is("A=1; B=x\n"));
+          assertThat(
+              CalciteAssert.toString(
+                  statement.executeQuery("select * from bulk.v")),
+              is(""));
+          assertThat(calls, hasSize(1));
+
+          // "U" is not in the columns loaded in bulk
+          baseStmt.execute("CREATE TABLE S_1.U (D INTEGER)");
+          baseStmt.execute("INSERT INTO S_1.U VALUES (2)");
+          baseConnection.commit();
+          assertThat(
+              CalciteAssert.toString(
+                  statement.executeQuery("select * from bulk.u")),
+              is("D=2\n"));
+          assertThat(calls, hasItem(startsWith("PUBLIC.S_1.U in ")));
+
+          // Reading "U" on its own started a reload of the columns of "S_1";
+          // once that is done, "U" is found in the reloaded columns
+          int callCount;
+          do {
+            callCount = calls.size();
+            Thread.sleep(10);
+            assertThat(
+                CalciteAssert.toString(
+                    statement.executeQuery("select * from bulk.u")),
+                is("D=2\n"));
+          } while (calls.size() > callCount
+              && System.currentTimeMillis() < deadline + 10_000);
+          assertThat(calls, hasSize(callCount));
+          assertThat(
+              calls.stream().filter(c -> c.startsWith("PUBLIC.S_1.null "))
+                  .count(),
+              greaterThan(1L));
+        }
+      }
+    }
+  }
+
+  /** Tests that a table of a {@link JdbcSchema} that reads column metadata
+   * in bulk sees a new column once the metadata has been refreshed, even
+   * though the schema resolved the table, and keeps it, before the column
+   * was added. */
+  @Test void testJdbcMetadataRefresh() throws Exception {
+    final String url = "jdbc:hsqldb:mem:bulkrefresh";
+    try (Connection baseConnection = DriverManager.getConnection(url);
+         Statement baseStmt = baseConnection.createStatement()) {
+      baseStmt.execute("CREATE SCHEMA S");
+      baseStmt.execute("CREATE TABLE S.T (A INTEGER)");
+      baseStmt.execute("INSERT INTO S.T VALUES (1)");
+      baseConnection.commit();
+
+      try (Hook.Closeable ignored =
+               Hook.JDBC_METADATA_BULK.addThread(Hook.propertyJ(true));
+           Hook.Closeable ignored2 =
+               Hook.JDBC_METADATA_REFRESH.addThread(Hook.propertyJ(1));
+           Connection connection = DriverManager.getConnection("jdbc:calcite:");
+           Statement statement = connection.createStatement()) {
+        final SchemaPlus rootSchema =
+            connection.unwrap(CalciteConnection.class).getRootSchema();
+        final JdbcSchema jdbcSchema =
+            JdbcSchema.create(rootSchema, "BULK",
+                JdbcSchema.dataSource(url, jdbcDriver.class.getName(), null,
+                    null), null, "S");
+        rootSchema.add("BULK", jdbcSchema);
+        final Table table = jdbcSchema.tables().get("T");
+        final String sql = "select * from bulk.t";
+        assertThat(CalciteAssert.toString(statement.executeQuery(sql)),
+            is("A=1\n"));
+
+        baseStmt.execute("ALTER TABLE S.T ADD COLUMN B VARCHAR(10) DEFAULT 'x'");
+        baseConnection.commit();
+
+        // The metadata is reloaded in the background, on the first read
+        // more than a second after it was loaded
+        final long deadline = System.currentTimeMillis() + 10_000;
+        String result;
+        do {
+          Thread.sleep(100);
+          result = CalciteAssert.toString(statement.executeQuery(sql));
+        } while (result.equals("A=1\n")
+            && System.currentTimeMillis() < deadline);
+        assertThat(result, is("A=1; B=x\n"));
+        assertThat(jdbcSchema.tables().get("T"), sameInstance(table));
+      }
+    }
+  }
+
+  /** Wraps a data source so that each call to
+   * {@link DatabaseMetaData#getColumns} is recorded, as
+   * "catalog.schema.table in thread". */
+  private static DataSource recordGetColumns(DataSource dataSource,
+      List<String> calls) {
+    return wrap(DataSource.class, dataSource, (method, args, result) ->
+        !method.getName().equals("getConnection") ? result
+            : wrap(Connection.class, (Connection) result, (method2, args2, result2) ->
+                !method2.getName().equals("getMetaData") ? result2
+                    : wrap(DatabaseMetaData.class, (DatabaseMetaData) result2,
+                        (method3, args3, result3) -> {
+                          if (method3.getName().equals("getColumns")) {
+                            calls.add(args3[0] + "." + args3[1] + "." + args3[2]
+                                + " in " + Thread.currentThread().getName());
+                          }
+                          return result3;
+                        })));
+  }
+
+  /** Wraps an object in a proxy that passes the result of each method call
+   * through a function. */
+  private static <T> T wrap(Class<T> iface, T target, ResultFunction function) {
+    return iface.cast(
+        Proxy.newProxyInstance(JdbcTest.class.getClassLoader(),
+            new Class<?>[] {iface}, (proxy, method, args) -> {
+              final Object result;
+              try {
+                result = method.invoke(target, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+              return function.apply(method, args, result);
+            }));
+  }
+
+  /** Function that transforms the result of a method call.
+   *
+   * @see #wrap */
+  private interface ResultFunction {
+    @Nullable Object apply(Method method, @Nullable Object[] args,
+        @Nullable Object result);
+  }
+
   /** Test case for
    * <a href="https://issues.apache.org/jira/browse/CALCITE-730">[CALCITE-730]
    * ClassCastException in table from CloneSchema</a>. */
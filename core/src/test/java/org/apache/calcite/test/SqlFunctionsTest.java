@@ -328,6 +328,71 @@ static <E> List<E> list() {
     assertThat(convertOracle("a", "UTF8"), is("a"));
   }
 
+  /** Tests {@link SqlFunctions.LikeFunction} and
+   * {@link SqlFunctions#likeMatcher(String, String, boolean)}, whose simple
+   * patterns do not use regular expressions. */
+  @Test void testLike() {
+    final SqlFunctions.LikeFunction f = new SqlFunctions.LikeFunction();
+    assertThat(f.like("abc", "abc"), is(true));
+    assertThat(f.like("abc", "ab"), is(false));
+    assertThat(f.like("abc", "ab%"), is(true));
+    assertThat(f.like("abc", "%bc"), is(true));
+    assertThat(f.like("abc", "%b%"), is(true));
+    assertThat(f.like("abc", "%d%"), is(false));
+    assertThat(f.like("", "%%"), is(true));
+    assertThat(f.like("abc", "a_c"), is(true));
+    assertThat(f.like("abbbc", "a%b_c"), is(true));
+    assertThat(f.like("abbbc", "a%c%b"), is(false));
+    assertThat(f.like("a.c", "a.c"), is(true));
+    assertThat(f.like("abc", "a.c"), is(false));
+    assertThat(f.like("a[b]c", "a[b]c"), is(true));
+    assertThat(f.like("a%c", "a\\%c", "\\"), is(true));
+    assertThat(f.like("abc", "a\\%c", "\\"), is(false));
+    assertThat(f.like("a_c", "a!_c", "!"), is(true));
+
+    // '_' matches a whole supplementary character, but not a line
+    // terminator; '%' matches anything
+    assertThat(f.like("a\uD83D\uDE00c", "a_c"), is(true));
+    assertThat(f.like("a\uD83D\uDE00c", "a__c"), is(false));
+    assertThat(f.like("a\nc", "a_c"), is(false));
+    assertThat(f.like("a\nc", "a%c"), is(true));
+
+    // ILIKE folds ASCII letters only, as Pattern.CASE_INSENSITIVE does
+    assertThat(f.ilike("ABC", "a%c"), is(true));
+    assertThat(f.ilike("ABC", "_b_"), is(true));
+    assertThat(f.ilike("\u00C9", "\u00E9"), is(false));
+    assertThat(f.like("ABC", "a%c"), is(false));
+
+    try {
+      final boolean b = f.like("abc", "a\\bc", "\\");
+      fail("expected error, got " + b);
+    } catch (RuntimeException e) {
+      assertThat(e.getMessage(), is("Invalid escape sequence 'a\\bc', 1"));
+    }
+    try {
+      final boolean b = f.like("abc", "abc", "ab");
+      fail("expected error, got " + b);
+    } catch (RuntimeException e) {
+      assertThat(e.getMessage(), is("Invalid escape character 'ab'"));
+    }
+
+    assertThat(SqlFunctions.likeMatcher("a%", null, false).apply("abc"),
+        is(true));
+    assertThat(SqlFunctions.likeMatcher("A%", null, true).apply("abc"),
+        is(true));
+  }
+
+  @Test void testSimilar() {
+    final SqlFunctions.SimilarFunction f = new SqlFunctions.SimilarFunction();
+    assertThat(f.similar("abc", "a%"), is(true));
+    assertThat(f.similar("abc", "_b_"), is(true));
+    assertThat(f.similar("abc", "a(b|d)c"), is(true));
+    assertThat(f.similar("abc", "a[bd]c"), is(true));
+    assertThat(f.similar("abc", "a[de]c"), is(false));
+    assertThat(f.similar("abbc", "ab+c"), is(true));
+    assertThat(SqlFunctions.similarMatcher("%b%").apply("abc"), is(true));
+  }
+
   @Test void testPosixRegex() {
     final SqlFunctions.PosixRegexFunction f =
         new SqlFunctions.PosixRegexFunction();
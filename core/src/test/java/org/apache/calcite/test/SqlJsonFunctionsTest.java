@@ -89,6 +89,45 @@ class SqlJsonFunctionsTest {
             JsonFunctions.JsonPathContext.withJavaObj(JsonFunctions.PathMode.LAX, 100)));
   }
 
+  /** Tests that {@link JsonFunctions.StatefulFunction}, which evaluates
+   * simple paths by streaming through the document, gives the same results
+   * as evaluating the path against the parsed document. */
+  @Test void testJsonApiCommonSyntaxWithCache() {
+    final String doc = "{\"a\": {\"b\": [10, {\"c\": \"x\"}], \"n\": null},"
+        + " \"d\": 1.5, \"e\": 12345678901}";
+    final List<String> docs =
+        Arrays.asList(doc, "[1, [2, 3]]", "{\"a\": 1, \"a\": 2}", "null",
+            "{\"a\": ", "[]", "{\"a\": {\"b\": 1} } trailing");
+    final List<String> paths =
+        Arrays.asList("$.a", "lax $.a.b[1]", "strict $.a.b[1].c",
+            "$.a.b[0]", "lax $.a.b[2]", "strict $.a.b[2]", "$.a.n",
+            "lax $.a.n", "$.d", "$.e", "lax $[1][0]", "$[1][5]", "lax $.x",
+            "strict $.x", "$", "lax $.a.*", "$.a[", "lax $.a.b[0].c");
+    for (String input : docs) {
+      for (String pathSpec : paths) {
+        final JsonFunctions.StatefulFunction f =
+            new JsonFunctions.StatefulFunction();
+        assertThat(input + " " + pathSpec,
+            f.jsonApiCommonSyntaxWithCache(input, pathSpec),
+            contextMatches(JsonFunctions.jsonApiCommonSyntax(input, pathSpec)));
+      }
+    }
+    // One function for many paths on the same document, as in a query that
+    // calls JSON_VALUE several times per row: the first call streams, the
+    // second parses and caches the document, later calls use the cache.
+    for (String input : docs) {
+      final JsonFunctions.StatefulFunction f =
+          new JsonFunctions.StatefulFunction();
+      for (int i = 0; i < 2; i++) {
+        for (String pathSpec : paths) {
+          assertThat(input + " " + pathSpec,
+              f.jsonApiCommonSyntaxWithCache(input, pathSpec),
+              contextMatches(JsonFunctions.jsonApiCommonSyntax(input, pathSpec)));
+        }
+      }
+    }
+  }
+
   @Test void testJsonExists() {
     assertJsonExists(
         JsonFunctions.JsonPathContext.withJavaObj(JsonFunctions.PathMode.STRICT, "bar"),
@@ -17,6 +17,9 @@
 package org.apache.calcite.test.enumerable;
 
 import org.apache.calcite.adapter.java.ReflectiveSchema;
+import org.apache.calcite.config.CalciteSystemProperty;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.runtime.Hook;
 import org.apache.calcite.sql.SqlOperator;
 import org.apache.calcite.sql.fun.SqlStdOperatorTable;
 import org.apache.calcite.test.CalciteAssert;
@@ -25,6 +28,16 @@
 
 import org.junit.jupiter.api.Test;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
 /**
  * Unit test for
  * {@link org.apache.calcite.adapter.enumerable.EnumerableCalc}.
@@ -129,4 +142,84 @@ private CalciteAssert.AssertQuery checkPosixRegex(
         .planContains("input_value != null && input_value.isEmpty()")
         .returnsUnordered("$f0=false", "$f0=true");
   }
+
+  /** Tests that a projection whose code, in a single method, would be
+   * larger than the 64 KB that the JVM allows, is split into several
+   * methods, so that Janino can compile it.
+   *
+   * <p>If splitting is disabled (by setting
+   * {@link CalciteSystemProperty#METHOD_SPLIT_SIZE} to a negative value),
+   * checks that compilation fails. */
+  @Test void testWideProjectionIsSplit() {
+    final int n = 5000;
+    final CalciteAssert.AssertQuery query = CalciteAssert.that()
+        .withSchema("s", new ReflectiveSchema(new HrSchema()))
+        .withRel(builder -> {
+          builder.scan("s", "emps")
+              .filter(
+                  builder.equals(builder.field("empid"), builder.literal(100)));
+          final List<RexNode> projects = new ArrayList<>();
+          for (int i = 0; i < n; i++) {
+            projects.add(
+                builder.alias(
+                    builder.call(SqlStdOperatorTable.PLUS,
+                        builder.field("empid"), builder.literal(i)),
+                    "c" + i));
+          }
+          return builder.project(projects).build();
+        });
+    if (CalciteSystemProperty.METHOD_SPLIT_SIZE.value() < 0) {
+      query.throws_("grows beyond 64 KB");
+      return;
+    }
+    query.planContains("projector1")
+        .returns(resultSet -> {
+          try {
+            assertThat(resultSet.next(), is(true));
+            for (int i = 0; i < n; i++) {
+              assertThat(resultSet.getInt(i + 1), is(100 + i));
+            }
+            assertThat(resultSet.next(), is(false));
+          } catch (SQLException e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+
+  /** Tests that a projection that is a single {@code CASE} with many
+   * branches is split into several methods, each testing some of the
+   * branches, and that the branches are still tested in order. */
+  @Test void testLargeCaseIsSplit() {
+    final int n = 1000;
+    final Map<String, Integer> sizes = new HashMap<>();
+    final CalciteAssert.AssertQuery query = CalciteAssert.that()
+        .withSchema("s", new ReflectiveSchema(new HrSchema()))
+        .withRel(builder -> {
+          builder.scan("s", "emps");
+          final List<RexNode> operands = new ArrayList<>();
+          for (int i = 0; i < n; i++) {
+            // "empid >= 150" is true for empid 150 and 200, but branches
+            // before it match them first
+            operands.add(i == n - 1
+                ? builder.greaterThanOrEqual(builder.field("empid"),
+                    builder.literal(150))
+                : builder.equals(builder.field("empid"), builder.literal(i)));
+            operands.add(builder.literal("v" + i));
+          }
+          operands.add(builder.literal("none"));
+          return builder
+              .project(
+                  builder.alias(
+                      builder.call(SqlStdOperatorTable.CASE, operands), "c"))
+              .build();
+        });
+    if (CalciteSystemProperty.METHOD_SPLIT_SIZE.value() < 0) {
+      return;
+    }
+    query.withHook(Hook.JAVA_METHOD_SIZES,
+            (Consumer<Map<String, Integer>>) sizes::putAll)
+        .planContains("projector1")
+        .returnsUnordered("c=v100", "c=v110", "c=v150", "c=v200");
+    assertThat(sizes.isEmpty(), is(false));
+  }
 }
@@ -301,6 +301,27 @@ class EnumerableJoinTest {
         "empid=4; empid0=4");
   }
 
+  @Test void testMergeJoinRightWithCompositeKeyAndNullValues() {
+    checkMergeJoinWithCompositeKeyAndNullValues(
+        false,
+        JoinRelType.RIGHT,
+        "empid=110; empid0=110",
+        "empid=100; empid0=100",
+        "empid=null; empid0=150",
+        "empid=200; empid0=200");
+  }
+
+  @Test void testMergeJoinFullWithCompositeKeyAndNullValues() {
+    checkMergeJoinWithCompositeKeyAndNullValues(
+        false,
+        JoinRelType.FULL,
+        "empid=110; empid0=110",
+        "empid=100; empid0=100",
+        "empid=null; empid0=150",
+        "empid=150; empid0=null",
+        "empid=200; empid0=200");
+  }
+
   @Test void testMergeJoinSemiWithCompositeKeyAndNullValues() {
     checkMergeJoinWithCompositeKeyAndNullValues(
         false,
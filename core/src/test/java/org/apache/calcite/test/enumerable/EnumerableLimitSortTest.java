@@ -27,8 +27,15 @@
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
 /** Tests for
  * {@link org.apache.calcite.adapter.enumerable.EnumerableLimitSort}. */
 public class EnumerableLimitSortTest {
@@ -158,6 +165,28 @@ public class EnumerableLimitSortTest {
             "commission=250; empid=36");
   }
 
+  /** Tests that if the input is already sorted, EnumerableLimitSort skips
+   * and takes rows as they stream past, rather than sorting them. */
+  @Test void sortedInputWithLimitAndOffset() {
+    final List<String> plans = new ArrayList<>();
+    tester("select x from (values (1), (2), (3), (4), (5)) as t(x)"
+        + " order by x limit 2 offset 1")
+        .withHook(Hook.PLANNER, (Consumer<RelOptPlanner>) planner ->
+            planner.removeRule(EnumerableRules.ENUMERABLE_LIMIT_RULE))
+        .withHook(Hook.JAVA_PLAN, (Consumer<String>) plans::add)
+        .explainContains("EnumerableLimitSort(sort0=[$0], dir0=[ASC], offset=[1], fetch=[2])\n"
+            + "  EnumerableValues(tuples=[[{ 1 }, { 2 }, { 3 }, { 4 }, { 5 }]])")
+        .returnsOrdered(
+            "x=2",
+            "x=3");
+    assertThat(plans, not(empty()));
+    for (String plan : plans) {
+      assertThat(plan, containsString(".skip(1)"));
+      assertThat(plan, containsString(".take(2)"));
+      assertThat(plan, not(containsString("orderBy")));
+    }
+  }
+
   private CalciteAssert.AssertQuery tester(String sqlQuery) {
     return CalciteAssert.that()
         .with(CalciteConnectionProperty.LEX, Lex.JAVA)
@@ -34,9 +34,14 @@
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasToString;
+
 /**
  * Unit tests for {@link EnumerableRepeatUnion}.
  *
@@ -158,6 +163,39 @@ class EnumerableRepeatUnionTest {
             "i=9; j=0");
   }
 
+  /** Tests that, with UNION (DISTINCT), each iteration reads only the rows
+   * that the previous iteration added, and that evaluation stops as soon as
+   * an iteration adds no rows. */
+  @Test void testGenerateNumbersSemiNaive() {
+    final List<String> steps = new ArrayList<>();
+    CalciteAssert.that()
+        .withRel(
+            //   WITH RECURSIVE aux(i) AS (
+            //     VALUES (0), (5)
+            //     UNION
+            //     SELECT (i+1)%10 FROM aux
+            //   )
+            //   SELECT * FROM aux
+            builder -> builder
+                .values(new String[] { "i" }, 0, 5)
+                .transientScan("AUX")
+                .project(
+                    builder.call(SqlStdOperatorTable.MOD,
+                        builder.call(SqlStdOperatorTable.PLUS,
+                            builder.field(0),
+                            builder.literal(1)),
+                        builder.literal(10)))
+                .repeatUnion("AUX", false)
+                .build())
+        .withHook(Hook.REPEAT_UNION_STEP,
+            (Consumer<Object[]>) args -> steps.add(Arrays.toString(args)))
+        .returnsOrdered("i=0", "i=5", "i=1", "i=6", "i=2", "i=7", "i=3", "i=8",
+            "i=4", "i=9");
+    assertThat(steps,
+        hasToString("[[AUX, 0, 2], [AUX, 1, 2], [AUX, 2, 2], [AUX, 3, 2], "
+            + "[AUX, 4, 2], [AUX, 5, 0]]"));
+  }
+
   @Test void testFactorial() {
     CalciteAssert.that()
         .withRel(
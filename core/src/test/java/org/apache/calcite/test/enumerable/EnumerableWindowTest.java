@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.test.enumerable;
+
+import org.apache.calcite.adapter.java.ReflectiveSchema;
+import org.apache.calcite.config.CalciteConnectionProperty;
+import org.apache.calcite.config.Lex;
+import org.apache.calcite.test.CalciteAssert;
+import org.apache.calcite.test.schemata.hr.HrSchema;
+
+import org.junit.jupiter.api.Test;
+
+/** Test for
+ * {@link org.apache.calcite.adapter.enumerable.EnumerableWindow}. */
+class EnumerableWindowTest {
+  /** Tests that if the input is already sorted on the partition and order
+   * keys, the window reads one partition at a time rather than building a
+   * map of all partitions. */
+  @Test void testSortedInput() {
+    tester()
+        .query("select deptno, empid,\n"
+            + "  count(*) over (partition by deptno order by empid) as c\n"
+            + "from (select * from emps order by deptno, empid limit 10)")
+        .planContains("runArrayIterator")
+        .returnsOrdered(
+            "deptno=10; empid=100; c=1",
+            "deptno=10; empid=110; c=2",
+            "deptno=10; empid=150; c=3",
+            "deptno=20; empid=200; c=1");
+  }
+
+  /** Tests that if the input is not sorted, the window partitions it in a
+   * map. */
+  @Test void testUnsortedInput() {
+    tester()
+        .query("select deptno, empid,\n"
+            + "  count(*) over (partition by deptno order by empid) as c\n"
+            + "from emps")
+        .planContains("multiMap")
+        .returnsUnordered(
+            "deptno=10; empid=100; c=1",
+            "deptno=10; empid=110; c=2",
+            "deptno=10; empid=150; c=3",
+            "deptno=20; empid=200; c=1");
+  }
+
+  private static CalciteAssert.AssertThat tester() {
+    return CalciteAssert.that()
+        .with(CalciteConnectionProperty.LEX, Lex.JAVA)
+        .withSchema("s", new ReflectiveSchema(new HrSchema()));
+  }
+}
@@ -40,6 +40,7 @@
     testImplementation("org.codelibs.elasticsearch.module:lang-painless")
     testImplementation("org.elasticsearch.plugin:transport-netty4-client")
     testImplementation("org.elasticsearch:elasticsearch")
+    testImplementation("org.mockito:mockito-core")
     testImplementation(project(":testkit"))
     testRuntimeOnly("net.java.dev.jna:jna")
     testRuntimeOnly("org.apache.logging.log4j:log4j-slf4j-impl")
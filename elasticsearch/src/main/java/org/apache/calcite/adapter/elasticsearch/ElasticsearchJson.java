@@ -244,22 +244,27 @@ static class Result {
     private final SearchHits hits;
     private final Aggregations aggregations;
     private final String scrollId;
+    private final String pitId;
     private final long took;
 
     /**
      * Constructor for this instance.
      *
      * @param hits list of matched documents
+     * @param pitId id of the point in time (possibly refreshed by the
+     *              server), if the search was executed against one
      * @param took time taken (in took) for this query to execute
      */
     @JsonCreator
     Result(@JsonProperty("hits") SearchHits hits,
         @JsonProperty("aggregations") Aggregations aggregations,
         @JsonProperty("_scroll_id") String scrollId,
+        @JsonProperty("pit_id") String pitId,
         @JsonProperty("took") long took) {
       this.hits = requireNonNull(hits, "hits");
       this.aggregations = aggregations;
       this.scrollId = scrollId;
+      this.pitId = pitId;
       this.took = took;
     }
 
@@ -279,6 +284,10 @@ Optional<String> scrollId() {
       return Optional.ofNullable(scrollId);
     }
 
+    Optional<String> pitId() {
+      return Optional.ofNullable(pitId);
+    }
+
   }
 
   /**
@@ -369,11 +378,24 @@ static class SearchHit {
     private final Map<String, Object> source;
     private final Map<String, Object> fields;
 
+    /**
+     * Sort values of this hit; used as {@code search_after} key of the next
+     * page. Only present when the search was sorted.
+     */
+    private final @Nullable List<Object> sort;
+
+    SearchHit(final String id, final Map<String, Object> source,
+        final Map<String, Object> fields) {
+      this(id, source, fields, null);
+    }
+
     @JsonCreator
     SearchHit(@JsonProperty(ElasticsearchConstants.ID) final String id,
                       @JsonProperty("_source") final Map<String, Object> source,
-                      @JsonProperty("fields") final Map<String, Object> fields) {
+                      @JsonProperty("fields") final Map<String, Object> fields,
+                      @JsonProperty("sort") final @Nullable List<Object> sort) {
       this.id = requireNonNull(id, "id");
+      this.sort = sort;
 
       // both can't be null
       if (source == null && fields == null) {
@@ -471,6 +493,10 @@ Map<String, Object> fields() {
     Map<String, Object> sourceOrFields() {
       return source != null ? source : fields;
     }
+
+    @Nullable List<Object> sort() {
+      return sort;
+    }
   }
 
 
@@ -62,6 +62,11 @@ public class ElasticsearchSchema extends AbstractSchema {
    */
   private final int fetchSize;
 
+  /**
+   * Number of slices scrolled concurrently during unordered full scans.
+   */
+  private final int slices;
+
   /**
    * Allows schema to be instantiated from existing elastic search client.
    *
@@ -77,12 +82,20 @@ public ElasticsearchSchema(RestClient client, ObjectMapper mapper,
   @VisibleForTesting
   ElasticsearchSchema(RestClient client, ObjectMapper mapper,
       @Nullable String index, int fetchSize) {
+    this(client, mapper, index, fetchSize, 1);
+  }
+
+  ElasticsearchSchema(RestClient client, ObjectMapper mapper,
+      @Nullable String index, int fetchSize, int slices) {
     super();
     this.client = requireNonNull(client, "client");
     this.mapper = requireNonNull(mapper, "mapper");
     checkArgument(fetchSize > 0,
         "invalid fetch size. Expected %s > 0", fetchSize);
     this.fetchSize = fetchSize;
+    checkArgument(slices > 0,
+        "invalid number of slices. Expected %s > 0", slices);
+    this.slices = slices;
 
     if (index == null) {
       try {
@@ -103,7 +116,7 @@ private Map<String, Table> createTables(Iterable<String> indices) {
     final ImmutableMap.Builder<String, Table> builder = ImmutableMap.builder();
     for (String index : indices) {
       final ElasticsearchTransport transport =
-          new ElasticsearchTransport(client, mapper, index, fetchSize);
+          new ElasticsearchTransport(client, mapper, index, fetchSize, slices);
       builder.put(index, new ElasticsearchTable(transport));
     }
     return builder.build();
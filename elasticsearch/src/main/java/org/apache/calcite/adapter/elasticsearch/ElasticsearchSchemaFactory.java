@@ -117,6 +117,11 @@ public ElasticsearchSchemaFactory() {
    *   the coordinates list must be populated.</li>
    *   <li><b>disableSSLVerification</b>: A boolean parameter to disable SSL verification. Defaults
    *   to false. This should always be set to false for production systems.</li>
+   *   <li><b>fetchSize</b>: Number of documents retrieved per request when
+   *   paging through large results. Defaults to 5196.</li>
+   *   <li><b>slices</b>: Number of slices into which unordered full scans are
+   *   split and scrolled concurrently. Defaults to 1 (no slicing); a good value
+   *   is the number of shards of the index.</li>
    * </ul>
    *
    * @param parentSchema Parent schema
@@ -180,13 +185,27 @@ public ElasticsearchSchemaFactory() {
       final RestClient client =
           connect(sortedHost, pathPrefix, username, password, disableSSLVerification);
       final String index = (String) map.get("index");
+      final int fetchSize =
+          intOperand(map, "fetchSize", ElasticsearchTransport.DEFAULT_FETCH_SIZE);
+      final int slices = intOperand(map, "slices", 1);
 
-      return new ElasticsearchSchema(client, new ObjectMapper(), index);
+      return new ElasticsearchSchema(client, new ObjectMapper(), index,
+          fetchSize, slices);
     } catch (IOException e) {
       throw new RuntimeException("Cannot parse values from json", e);
     }
   }
 
+  private static int intOperand(Map map, String name, int defaultValue) {
+    final Object value = map.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    return value instanceof Number
+        ? ((Number) value).intValue()
+        : Integer.parseInt(value.toString());
+  }
+
   protected static List<HttpHost> getSortedHost(List<HttpHost> hosts) {
     List<HttpHost> sortedHosts =
         hosts
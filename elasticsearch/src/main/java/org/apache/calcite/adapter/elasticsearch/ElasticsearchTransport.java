@@ -67,6 +67,10 @@ final class ElasticsearchTransport {
 
   static final int DEFAULT_FETCH_SIZE = 5196;
 
+  /** How long scroll contexts and points in time are kept alive between
+   * two consecutive requests. */
+  static final String KEEP_ALIVE = "1m";
+
   private final ObjectMapper mapper;
   private final RestClient restClient;
 
@@ -76,6 +80,12 @@ final class ElasticsearchTransport {
 
   final ElasticsearchMapping mapping;
 
+  /**
+   * Whether the cluster supports {@code search_after} pagination over a
+   * point in time (ES 7.12 and later).
+   */
+  final boolean pointInTime;
+
   /**
    * Default batch size.
    *
@@ -83,15 +93,34 @@ final class ElasticsearchTransport {
    */
   final int fetchSize;
 
+  /**
+   * Number of slices into which an unordered full scan is split. Each slice
+   * is scrolled concurrently. A value of 1 disables slicing.
+   *
+   * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/paginate-search-results.html#slice-scroll">Sliced scroll</a>
+   */
+  final int slices;
+
   ElasticsearchTransport(final RestClient restClient,
       final ObjectMapper mapper,
       final String indexName,
       final int fetchSize) {
+    this(restClient, mapper, indexName, fetchSize, 1);
+  }
+
+  ElasticsearchTransport(final RestClient restClient,
+      final ObjectMapper mapper,
+      final String indexName,
+      final int fetchSize,
+      final int slices) {
     this.mapper = requireNonNull(mapper, "mapper");
     this.restClient = requireNonNull(restClient, "restClient");
     this.indexName = requireNonNull(indexName, "indexName");
     this.fetchSize = fetchSize;
-    this.version = version(); // cache version
+    this.slices = slices;
+    final String versionNumber = versionNumber(); // cache version
+    this.version = ElasticsearchVersion.fromString(versionNumber);
+    this.pointInTime = ElasticsearchVersion.supportsPointInTime(versionNumber);
     this.mapping = fetchAndCreateMapping(); // cache mapping
   }
 
@@ -104,14 +133,13 @@ RestClient restClient() {
    * It is a {@code GET} request to {@code /}. Returned JSON has server information
    * (including version).
    *
-   * @return parsed version from ES, or {@link ElasticsearchVersion#UNKNOWN}
+   * @return version number as reported by ES, e.g. {@code 7.17.3}
    */
-  private ElasticsearchVersion version() {
+  private String versionNumber() {
     final HttpRequest request = new HttpGet("/");
     // version extract function
-    final Function<ObjectNode, ElasticsearchVersion> fn =
-        node -> ElasticsearchVersion.fromString(
-            node.get("version").get("number").asText());
+    final Function<ObjectNode, String> fn =
+        node -> node.get("version").get("number").asText();
     return rawHttp(ObjectNode.class)
         .andThen(fn)
         .apply(request);
@@ -151,7 +179,7 @@ Function<String, ElasticsearchJson.Result> scroll() {
       // fetch next scroll
       final HttpPost request = new HttpPost(URI.create("/_search/scroll"));
       final ObjectNode payload = mapper.createObjectNode()
-          .put("scroll", "1m")
+          .put("scroll", KEEP_ALIVE)
           .put("scroll_id", scrollId);
 
       try {
@@ -197,6 +225,64 @@ void closeScroll(Iterable<String> scrollIds) {
     }
   }
 
+  /**
+   * Opens a point in time on the current index, so that subsequent
+   * {@code search_after} requests see a consistent view of the data.
+   *
+   * @return id of the point in time
+   */
+  String openPointInTime() {
+    final String uri =
+        String.format(Locale.ROOT, "/%s/_pit?keep_alive=%s", indexName,
+            KEEP_ALIVE);
+    final ObjectNode root = rawHttp(ObjectNode.class).apply(new HttpPost(uri));
+    return root.get("id").asText();
+  }
+
+  void closePointInTime(String pitId) {
+    requireNonNull(pitId, "pitId");
+
+    // http DELETE with payload
+    final HttpEntityEnclosingRequestBase request = new HttpEntityEnclosingRequestBase() {
+      @Override public String getMethod() {
+        return HttpDelete.METHOD_NAME;
+      }
+    };
+
+    request.setURI(URI.create("/_pit"));
+    final ObjectNode payload = mapper().createObjectNode().put("id", pitId);
+
+    try {
+      final String json = mapper().writeValueAsString(payload);
+      request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+      @SuppressWarnings("unused")
+      Response response = rawHttp().apply(request);
+    } catch (IOException | UncheckedIOException e) {
+      LOGGER.warn("Failed to close point in time: {}", pitId, e);
+    }
+  }
+
+  /**
+   * Search request against a point in time. Unlike {@link #search()}, the
+   * index is not part of the path because it is implied by the
+   * {@code pit} element of the query.
+   */
+  Function<ObjectNode, ElasticsearchJson.Result> searchPointInTime() {
+    return query -> {
+      Hook.QUERY_PLAN.run(query);
+      final HttpPost post = new HttpPost(URI.create("/_search"));
+      try {
+        final String json = mapper.writeValueAsString(query);
+        LOGGER.debug("Elasticsearch Query: {}", json);
+        post.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+      } catch (JsonProcessingException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      return rawHttp(ElasticsearchJson.Result.class).apply(post);
+    };
+  }
+
   Function<ObjectNode, ElasticsearchJson.Result> search() {
     return search(Collections.emptyMap());
   }
@@ -44,12 +44,7 @@ public int elasticVersionMajor() {
   }
 
   static ElasticsearchVersion fromString(String version) {
-    requireNonNull(version, "version");
-    if (!version.matches("\\d+\\.\\d+\\.\\d+")) {
-      final String message = String.format(Locale.ROOT, "Wrong version format. "
-          + "Expected ${digit}.${digit}.${digit} but got %s", version);
-      throw new IllegalArgumentException(message);
-    }
+    checkFormat(version);
 
     // version format is: major.minor.revision
     final int major = parseInt(version.substring(0, version.indexOf(".")));
@@ -65,4 +60,31 @@ static ElasticsearchVersion fromString(String version) {
       return UNKNOWN;
     }
   }
+
+  /**
+   * Returns whether a cluster of a given version supports
+   * <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/point-in-time-api.html">point in time</a>
+   * searches with an implicit {@code _shard_doc} tiebreaker (available
+   * since 7.12), which is required for {@code search_after} pagination over
+   * a consistent view of the index.
+   *
+   * @param version version string in {@code major.minor.revision} format
+   * @return whether {@code search_after} with point in time can be used
+   */
+  static boolean supportsPointInTime(String version) {
+    checkFormat(version);
+    final String[] parts = version.split("\\.");
+    final int major = parseInt(parts[0]);
+    final int minor = parseInt(parts[1]);
+    return major > 7 || (major == 7 && minor >= 12);
+  }
+
+  private static void checkFormat(String version) {
+    requireNonNull(version, "version");
+    if (!version.matches("\\d+\\.\\d+\\.\\d+")) {
+      final String message = String.format(Locale.ROOT, "Wrong version format. "
+          + "Expected ${digit}.${digit}.${digit} but got %s", version);
+      throw new IllegalArgumentException(message);
+    }
+  }
 }
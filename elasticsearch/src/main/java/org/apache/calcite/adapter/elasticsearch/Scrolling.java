@@ -17,11 +17,25 @@
 package org.apache.calcite.adapter.elasticsearch;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.AbstractSequentialIterator;
 import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -29,14 +43,43 @@
 import static java.util.Objects.requireNonNull;
 
 /**
- * "Iterator" which retrieves results lazily and in batches. Uses
- * <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/search-request-scroll.html">Elastic Scrolling API</a>
- * to optimally consume large search results.
+ * "Iterator" which retrieves results lazily and in batches.
+ *
+ * <p>Depending on the query and on the capabilities of the cluster, uses one
+ * of the following strategies:
+ *
+ * <ul>
+ *   <li>For unordered full scans, when {@link ElasticsearchTransport#slices}
+ *   is greater than 1, a
+ *   <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/paginate-search-results.html#slice-scroll">sliced scroll</a>
+ *   whose slices are consumed concurrently;
+ *   <li>On clusters that support it (7.12 and later), {@code search_after}
+ *   over a
+ *   <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/point-in-time-api.html">point in time</a>,
+ *   which does not hold a scroll context open between requests;
+ *   <li>Otherwise, the
+ *   <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/search-request-scroll.html">Elastic Scrolling API</a>.
+ * </ul>
+ *
+ * <p>Returned iterators implement {@link AutoCloseable}, so that server-side
+ * contexts are released when the enumerator is closed early.
  *
  * <p>This class is <strong>not thread safe</strong>.
  */
 class Scrolling {
 
+  /** Threads that consume slices of a sliced scroll. */
+  private static final ExecutorService SLICE_EXECUTOR =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("elasticsearch-slice-%d")
+              .build());
+
+  /** How long a producer or consumer waits on the page queue before checking
+   * whether the other side has gone away. */
+  private static final long POLL_MILLIS = 100;
+
   private final ElasticsearchTransport transport;
   private final int fetchSize;
 
@@ -61,9 +104,19 @@ Iterator<ElasticsearchJson.SearchHit> query(ObjectNode query) {
       limit = Long.MAX_VALUE;
     }
 
+    if (transport.slices > 1 && limit == Long.MAX_VALUE && !query.has("sort")) {
+      // order of results is not defined, so slices may be interleaved
+      return new SlicedIterator(transport, query, fetchSize, transport.slices);
+    }
+
+    if (transport.pointInTime) {
+      return new PointInTimeIterator(transport, query, fetchSize, limit);
+    }
+
     query.put("size", fetchSize);
     final ElasticsearchJson.Result first = transport
-        .search(Collections.singletonMap("scroll", "1m")).apply(query);
+        .search(Collections.singletonMap("scroll", ElasticsearchTransport.KEEP_ALIVE))
+        .apply(query);
 
     AutoClosingIterator iterator =
         new AutoClosingIterator(new SequentialIterator(first, transport, limit),
@@ -170,4 +223,202 @@ private SequentialIterator(final ElasticsearchJson.Result first,
       return transport.scroll().apply(scrollId);
     }
   }
+
+  /**
+   * Iterator that pages through results using {@code search_after} over a
+   * point in time. Unlike a scroll, a point in time is lightweight and does
+   * not pin search contexts to a single request chain.
+   *
+   * <p>If the query has no sort, sorts by {@code _shard_doc}, which is the
+   * most efficient order for a full scan. Otherwise the implicit
+   * {@code _shard_doc} tiebreaker makes sort values unique.
+   */
+  private static class PointInTimeIterator
+      extends AbstractIterator<ElasticsearchJson.SearchHit>
+      implements AutoCloseable {
+    private final ElasticsearchTransport transport;
+    private final ObjectNode query;
+    private final int fetchSize;
+    private final long limit;
+
+    private @Nullable String pitId;
+    private @Nullable List<Object> searchAfter;
+    private Iterator<ElasticsearchJson.SearchHit> page =
+        Collections.emptyIterator();
+    private long count;
+    private boolean exhausted;
+
+    PointInTimeIterator(ElasticsearchTransport transport, ObjectNode query,
+        int fetchSize, long limit) {
+      this.transport = transport;
+      this.query = query.deepCopy();
+      this.fetchSize = fetchSize;
+      checkArgument(limit >= 0, "limit: %s >= 0", limit);
+      this.limit = limit;
+      if (!this.query.has("sort")) {
+        this.query.withArray("sort")
+            .add(transport.mapper().createObjectNode().put("_shard_doc", "asc"));
+      }
+      // total hits are not needed and are expensive to compute on each page
+      this.query.put("track_total_hits", false);
+    }
+
+    @Override protected ElasticsearchJson.SearchHit computeNext() {
+      while (!page.hasNext()) {
+        if (exhausted || count >= limit) {
+          close();
+          return endOfData();
+        }
+        fetchPage();
+      }
+      count++;
+      return page.next();
+    }
+
+    private void fetchPage() {
+      if (pitId == null) {
+        pitId = transport.openPointInTime();
+      }
+      final int size = (int) Math.min(fetchSize, limit - count);
+      final ObjectNode request = query.deepCopy();
+      request.put("size", size);
+      request.putObject("pit")
+          .put("id", pitId)
+          .put("keep_alive", ElasticsearchTransport.KEEP_ALIVE);
+      if (searchAfter != null) {
+        request.set("search_after", transport.mapper().valueToTree(searchAfter));
+      }
+
+      final ElasticsearchJson.Result result =
+          transport.searchPointInTime().apply(request);
+      // the server may return a new id; always use the most recent one
+      result.pitId().ifPresent(id -> pitId = id);
+      final List<ElasticsearchJson.SearchHit> hits = result.searchHits().hits();
+      if (hits.size() < size) {
+        exhausted = true;
+      }
+      if (!hits.isEmpty()) {
+        searchAfter = requireNonNull(hits.get(hits.size() - 1).sort(),
+            "sort values are required for search_after");
+      }
+      page = hits.iterator();
+    }
+
+    @Override public void close() {
+      exhausted = true;
+      if (pitId != null) {
+        transport.closePointInTime(pitId);
+        pitId = null;
+      }
+    }
+  }
+
+  /**
+   * Iterator over a sliced scroll. Each slice is scrolled by a separate
+   * thread, which hands pages to the consumer through a bounded queue as soon
+   * as they arrive. Results from different slices are interleaved.
+   */
+  private static class SlicedIterator
+      implements Iterator<ElasticsearchJson.SearchHit>, AutoCloseable {
+    private final ElasticsearchTransport transport;
+    private final BlockingQueue<List<ElasticsearchJson.SearchHit>> pages;
+    private final AtomicInteger remaining;
+    private final AtomicReference<@Nullable RuntimeException> failure =
+        new AtomicReference<>();
+    private volatile boolean closed;
+    private Iterator<ElasticsearchJson.SearchHit> page =
+        Collections.emptyIterator();
+
+    SlicedIterator(ElasticsearchTransport transport, ObjectNode query,
+        int fetchSize, int slices) {
+      this.transport = transport;
+      // allow each slice to run ahead of the consumer by one page
+      this.pages = new ArrayBlockingQueue<>(slices);
+      this.remaining = new AtomicInteger(slices);
+      final List<ObjectNode> sliceQueries = new ArrayList<>(slices);
+      for (int i = 0; i < slices; i++) {
+        final ObjectNode sliceQuery = query.deepCopy();
+        sliceQuery.put("size", fetchSize);
+        sliceQuery.putObject("slice").put("id", i).put("max", slices);
+        sliceQueries.add(sliceQuery);
+      }
+      for (ObjectNode sliceQuery : sliceQueries) {
+        SLICE_EXECUTOR.execute(() -> produce(sliceQuery));
+      }
+    }
+
+    /** Scrolls through one slice, putting each page on the queue. */
+    private void produce(ObjectNode sliceQuery) {
+      String scrollId = null;
+      try {
+        ElasticsearchJson.Result result = transport
+            .search(Collections.singletonMap("scroll", ElasticsearchTransport.KEEP_ALIVE))
+            .apply(sliceQuery);
+        for (;;) {
+          scrollId = result.scrollId().orElse(scrollId);
+          final List<ElasticsearchJson.SearchHit> hits = result.searchHits().hits();
+          if (hits.isEmpty()) {
+            break;
+          }
+          while (!pages.offer(hits, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (closed) {
+              return;
+            }
+          }
+          if (closed) {
+            return;
+          }
+          result = transport.scroll()
+              .apply(
+                  requireNonNull(scrollId, "scrollId has to be present"));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        failure.compareAndSet(null, e);
+      } finally {
+        if (scrollId != null) {
+          transport.closeScroll(Collections.singleton(scrollId));
+        }
+        remaining.decrementAndGet();
+      }
+    }
+
+    @Override public boolean hasNext() {
+      while (!page.hasNext()) {
+        final List<ElasticsearchJson.SearchHit> next;
+        try {
+          next = pages.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          close();
+          throw new RuntimeException(e);
+        }
+        final RuntimeException e = failure.get();
+        if (e != null) {
+          close();
+          throw e;
+        }
+        if (next != null) {
+          page = next.iterator();
+        } else if (remaining.get() == 0 && pages.isEmpty()) {
+          // producers put their last page before counting down
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override public ElasticsearchJson.SearchHit next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return page.next();
+    }
+
+    @Override public void close() {
+      closed = true;
+      pages.clear();
+    }
+  }
 }
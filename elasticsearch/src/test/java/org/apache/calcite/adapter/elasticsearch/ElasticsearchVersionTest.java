@@ -21,6 +21,7 @@
 import java.util.Locale;
 
 import static org.apache.calcite.adapter.elasticsearch.ElasticsearchVersion.fromString;
+import static org.apache.calcite.adapter.elasticsearch.ElasticsearchVersion.supportsPointInTime;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -55,6 +56,14 @@ class ElasticsearchVersionTest {
     assertFails("2a.2.0");
   }
 
+  @Test void pointInTime() {
+    assertThat(supportsPointInTime("6.8.0"), is(false));
+    assertThat(supportsPointInTime("7.10.2"), is(false));
+    assertThat(supportsPointInTime("7.12.0"), is(true));
+    assertThat(supportsPointInTime("7.17.3"), is(true));
+    assertThat(supportsPointInTime("8.1.0"), is(true));
+  }
+
   private static void assertFails(String version) {
     try {
       fromString(version);
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.elasticsearch;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.StatusLine;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Tests the pagination strategies of {@link Scrolling} (point in time with
+ * {@code search_after}, scroll, and sliced scroll) against a simulated
+ * cluster, so that features of versions newer than the embedded node can be
+ * tested, and so that the release of server-side contexts can be observed
+ * precisely.
+ */
+class PaginationTest {
+  private static final String INDEX = "pagination";
+  private static final int SIZE = 10;
+
+  /** Scrolls an unordered full scan of a cluster that supports point in
+   * time, and checks the {@code search_after} requests. */
+  @Test void pointInTime() {
+    final FakeCluster cluster = new FakeCluster("7.17.0");
+    final ElasticsearchTransport transport = cluster.transport(3, 1);
+    assertThat(transport.pointInTime, is(true));
+
+    final Iterator<ElasticsearchJson.SearchHit> hits =
+        new Scrolling(transport).query(matchAll());
+    assertThat(ids(hits), is(range(0, SIZE)));
+    assertThat(cluster.openPointsInTime, empty());
+    assertThat(cluster.openScrolls.keySet(), empty());
+
+    // Pages of 3, 3, 3 and 1; a short page ends the scan
+    assertThat(cluster.pointInTimeSearches, hasSize(4));
+    for (int i = 0; i < 4; i++) {
+      final ObjectNode search = cluster.pointInTimeSearches.get(i);
+      assertThat(search.get("size").asInt(), is(3));
+      assertThat(search.get("track_total_hits").asBoolean(), is(false));
+      assertThat(search.at("/sort/0/_shard_doc").asText(), is("asc"));
+      assertThat(search.at("/pit/keep_alive").asText(),
+          is(ElasticsearchTransport.KEEP_ALIVE));
+      assertThat(search.at("/search_after/0").asInt(-1), is(3 * i - 1));
+    }
+  }
+
+  /** Tests that a point in time scan stops at the query's limit, and does
+   * not fetch more rows than it needs. */
+  @Test void pointInTimeWithLimit() {
+    final FakeCluster cluster = new FakeCluster("7.17.0");
+    final ObjectNode query = matchAll().put("size", 5);
+
+    final Iterator<ElasticsearchJson.SearchHit> hits =
+        new Scrolling(cluster.transport(2, 1)).query(query);
+    assertThat(ids(hits), is(range(0, 5)));
+    assertThat(cluster.openPointsInTime, empty());
+    assertThat(
+        cluster.pointInTimeSearches.stream()
+            .map(search -> search.get("size").asInt())
+            .collect(Collectors.toList()),
+        is(ImmutableList.of(2, 2, 1)));
+  }
+
+  /** Tests that the point in time is released when the iterator is closed
+   * before it is exhausted. */
+  @Test void pointInTimeClosedEarly() throws Exception {
+    final FakeCluster cluster = new FakeCluster("7.17.0");
+    final Iterator<ElasticsearchJson.SearchHit> hits =
+        new Scrolling(cluster.transport(3, 1)).query(matchAll());
+    for (int i = 0; i < 4; i++) {
+      assertThat(hits.next().id(), is(Integer.toString(i)));
+    }
+    assertThat(cluster.openPointsInTime, hasSize(1));
+
+    ((AutoCloseable) hits).close();
+    assertThat(cluster.openPointsInTime, empty());
+    assertThat(cluster.pointInTimeSearches, hasSize(2));
+  }
+
+  /** Tests that a cluster that does not support point in time is scanned
+   * using the scroll API, and that the scroll is cleared. */
+  @Test void scrollOnOlderCluster() {
+    final FakeCluster cluster = new FakeCluster("7.10.2");
+    final ElasticsearchTransport transport = cluster.transport(3, 1);
+    assertThat(transport.pointInTime, is(false));
+
+    final Iterator<ElasticsearchJson.SearchHit> hits =
+        new Scrolling(transport).query(matchAll());
+    assertThat(ids(hits), is(range(0, SIZE)));
+    assertThat(cluster.pointInTimeSearches, empty());
+    assertThat(cluster.openScrolls.keySet(), empty());
+  }
+
+  /** Tests that the scroll contexts of all slices are cleared when a sliced
+   * scroll is closed after reading only some of its rows. */
+  @Test void slicedScrollClosedEarly() throws Exception {
+    final FakeCluster cluster = new FakeCluster("7.10.2");
+    final Iterator<ElasticsearchJson.SearchHit> hits =
+        new Scrolling(cluster.transport(1, 3)).query(matchAll());
+    assertThat(hits.hasNext(), is(true));
+    hits.next();
+
+    ((AutoCloseable) hits).close();
+    // Slices are consumed by other threads, which notice within a few
+    // polling intervals that the consumer has gone away
+    final long deadline = System.currentTimeMillis() + 10_000;
+    while ((!cluster.openScrolls.isEmpty() || cluster.scrollsOpened.get() < 3)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(cluster.scrollsOpened.get(), is(3));
+    assertThat(cluster.openScrolls.keySet(), empty());
+  }
+
+  /** Tests that each row of a sliced scroll is returned exactly once. */
+  @Test void slicedScroll() {
+    final FakeCluster cluster = new FakeCluster("7.10.2");
+    final Iterator<ElasticsearchJson.SearchHit> hits =
+        new Scrolling(cluster.transport(2, 3)).query(matchAll());
+    final List<String> ids = ids(hits);
+    ids.sort(null);
+    final List<String> expected = range(0, SIZE);
+    expected.sort(null);
+    assertThat(ids, is(expected));
+  }
+
+  private static ObjectNode matchAll() {
+    final ObjectNode query = new ObjectMapper().createObjectNode();
+    query.putObject("query").putObject("match_all");
+    return query;
+  }
+
+  private static List<String> ids(Iterator<ElasticsearchJson.SearchHit> hits) {
+    final List<String> ids = new ArrayList<>();
+    hits.forEachRemaining(hit -> ids.add(hit.id()));
+    return ids;
+  }
+
+  private static List<String> range(int start, int end) {
+    return IntStream.range(start, end).mapToObj(Integer::toString)
+        .collect(Collectors.toList());
+  }
+
+  /** Simulated Elasticsearch cluster with one index whose documents are
+   * {@code {"value": i}}, with id {@code i}, for i in [0, {@link #SIZE}).
+   * Answers the requests made by {@link ElasticsearchTransport}, and keeps
+   * track of open points in time and scrolls. */
+  private static class FakeCluster {
+    private static final StatusLine OK =
+        new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String version;
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    final Set<String> openPointsInTime = ConcurrentHashMap.newKeySet();
+    final List<ObjectNode> pointInTimeSearches = new CopyOnWriteArrayList<>();
+    /** Open scrolls, and for each the documents it has not returned yet. */
+    final Map<String, Iterator<Integer>> openScrolls =
+        new ConcurrentHashMap<>();
+    /** Page size of each open scroll. */
+    final Map<String, Integer> scrollSizes = new ConcurrentHashMap<>();
+    final AtomicInteger scrollsOpened = new AtomicInteger();
+
+    FakeCluster(String version) {
+      this.version = version;
+    }
+
+    ElasticsearchTransport transport(int fetchSize, int slices) {
+      final RestClient restClient =
+          Mockito.mock(RestClient.class, invocation -> {
+            if (invocation.getMethod().getName().equals("performRequest")) {
+              return respond(invocation.getArgument(0));
+            }
+            return null;
+          });
+      return new ElasticsearchTransport(restClient, mapper, INDEX, fetchSize,
+          slices);
+    }
+
+    private Response respond(Request request) throws IOException {
+      final JsonNode body = request.getEntity() == null
+          ? mapper.createObjectNode()
+          : mapper.readTree(EntityUtils.toString(request.getEntity()));
+      final ObjectNode result = mapper.createObjectNode();
+      final String endpoint = request.getMethod() + " " + request.getEndpoint();
+      switch (endpoint) {
+      case "GET /":
+        result.putObject("version").put("number", version);
+        break;
+      case "GET /" + INDEX + "/_mapping":
+        result.putObject(INDEX).putObject("mappings").putObject("properties")
+            .putObject("value").put("type", "long");
+        break;
+      case "POST /" + INDEX + "/_pit?keep_alive=" + ElasticsearchTransport.KEEP_ALIVE:
+        final String pitId = "pit-" + nextId.incrementAndGet();
+        openPointsInTime.add(pitId);
+        result.put("id", pitId);
+        break;
+      case "DELETE /_pit":
+        openPointsInTime.remove(body.get("id").asText());
+        break;
+      case "POST /_search":
+        pointInTimeSearches.add((ObjectNode) body);
+        final String id = body.at("/pit/id").asText();
+        if (!openPointsInTime.contains(id)) {
+          throw new AssertionError("point in time " + id + " is not open");
+        }
+        final int from = body.at("/search_after/0").asInt(-1) + 1;
+        final int to = Math.min(from + body.get("size").asInt(), SIZE);
+        result.put("pit_id", id);
+        addHits(result, IntStream.range(from, to).iterator());
+        break;
+      case "POST /" + INDEX + "/_search?scroll=" + ElasticsearchTransport.KEEP_ALIVE:
+        final int sliceId = body.at("/slice/id").asInt(0);
+        final int sliceMax = body.at("/slice/max").asInt(1);
+        final String scrollId = "scroll-" + nextId.incrementAndGet();
+        scrollsOpened.incrementAndGet();
+        openScrolls.put(scrollId,
+            IntStream.range(0, SIZE).filter(i -> i % sliceMax == sliceId)
+                .iterator());
+        scrollSizes.put(scrollId, body.get("size").asInt());
+        nextPage(result, scrollId);
+        break;
+      case "POST /_search/scroll":
+        nextPage(result, body.get("scroll_id").asText());
+        break;
+      case "DELETE /_search/scroll":
+        for (JsonNode scroll : body.get("scroll_id")) {
+          openScrolls.remove(scroll.asText());
+        }
+        break;
+      default:
+        throw new AssertionError("unexpected request " + endpoint);
+      }
+      return response(result);
+    }
+
+    private void nextPage(ObjectNode result, String scrollId) {
+      final Iterator<Integer> documents = openScrolls.get(scrollId);
+      if (documents == null) {
+        throw new AssertionError("scroll " + scrollId + " is not open");
+      }
+      final List<Integer> page = new ArrayList<>();
+      final int size = scrollSizes.get(scrollId);
+      while (page.size() < size && documents.hasNext()) {
+        page.add(documents.next());
+      }
+      result.put("_scroll_id", scrollId);
+      addHits(result, page.iterator());
+    }
+
+    private void addHits(ObjectNode result, Iterator<Integer> documents) {
+      final ArrayNode hits = result.putObject("hits").putArray("hits");
+      documents.forEachRemaining(i -> {
+        final ObjectNode hit = hits.addObject();
+        hit.put("_id", Integer.toString(i));
+        hit.putObject("_source").put("value", i);
+        hit.putArray("sort").add(i);
+      });
+    }
+
+    private static Response response(ObjectNode json) {
+      final HttpEntity entity =
+          new StringEntity(json.toString(), ContentType.APPLICATION_JSON);
+      return Mockito.mock(Response.class, invocation -> {
+        switch (invocation.getMethod().getName()) {
+        case "getStatusLine":
+          return OK;
+        case "getEntity":
+          return entity;
+        default:
+          return null;
+        }
+      });
+    }
+  }
+}
@@ -35,6 +35,8 @@
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -42,6 +44,10 @@
 import java.util.Locale;
 import java.util.stream.IntStream;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
 /**
  * Tests usage of scrolling API like correct results and resource cleanup
  * (delete scroll after scan).
@@ -66,6 +72,10 @@ public static void setupInstance() throws Exception {
   }
 
   private ConnectionFactory newConnectionFactory(int fetchSize) {
+    return newConnectionFactory(fetchSize, 1);
+  }
+
+  private ConnectionFactory newConnectionFactory(int fetchSize, int slices) {
     return () -> {
       final Connection connection =
           DriverManager.getConnection("jdbc:calcite:");
@@ -73,7 +83,7 @@ private ConnectionFactory newConnectionFactory(int fetchSize) {
           connection.unwrap(CalciteConnection.class).getRootSchema();
       root.add("elastic",
           new ElasticsearchSchema(NODE.restClient(), NODE.mapper(), NAME,
-              fetchSize));
+              fetchSize, slices));
       return connection;
     };
   }
@@ -95,13 +105,67 @@ private ConnectionFactory newConnectionFactory(int fetchSize) {
     }
   }
 
+  /** Tests that a sliced scroll, consumed concurrently, returns every
+   * document exactly once. */
+  @Test void slicedScrolling() {
+    final String[] expected = IntStream.range(0, SIZE).mapToObj(i -> "V=" + i)
+        .toArray(String[]::new);
+    final String query = String.format(Locale.ROOT, "select _MAP['value'] as v from "
+        + "\"elastic\".\"%s\"", NAME);
+
+    for (int slices : Arrays.asList(2, 3)) {
+      for (int fetchSize : Arrays.asList(1, 3, SIZE, 2 * SIZE)) {
+        CalciteAssert.that()
+            .with(newConnectionFactory(fetchSize, slices))
+            .query(query)
+            .returnsUnordered(expected);
+      }
+    }
+  }
+
+  /** Tests that the scroll contexts of a sliced scroll are cleared when the
+   * query is closed after reading only some of its rows. */
+  @Test void slicedScrollingClosedEarly() throws Exception {
+    final String query = String.format(Locale.ROOT, "select _MAP['value'] as v from "
+        + "\"elastic\".\"%s\"", NAME);
+    // Other tests may leave scrolls behind, so compare with the count before
+    final int before = activeScrolls();
+    try (Connection connection = newConnectionFactory(1, 3).createConnection();
+         Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(query)) {
+      assertThat(resultSet.next(), is(true));
+    }
+    // Slices are scrolled by other threads, which release their scroll
+    // shortly after they notice that the query has been closed
+    final long deadline = System.currentTimeMillis() + 10_000;
+    while (activeScrolls() > before
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertThat(activeScrolls(), lessThanOrEqualTo(before));
+  }
+
   /**
    * Ensures there are no pending scroll contexts in elastic search cluster.
+   *
+   * @see #activeScrolls()
+   */
+  private void assertNoActiveScrolls() throws IOException  {
+    final int scrollCurrent = activeScrolls();
+    if (scrollCurrent != 0) {
+      final String message = String.format(Locale.ROOT, "Expected no active scrolls "
+          + "but got %d", scrollCurrent);
+      throw new AssertionError(message);
+    }
+  }
+
+  /**
+   * Returns the number of pending scroll contexts in elastic search cluster.
    * Queries {@code /_nodes/stats/indices/search} endpoint.
    *
    * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/indices-stats.html">Indices Stats</a>
    */
-  private void assertNoActiveScrolls() throws IOException  {
+  private static int activeScrolls() throws IOException  {
     // get node stats
     final Response response = NODE.restClient()
         .performRequest(new Request("GET", "/_nodes/stats/indices/search"));
@@ -114,12 +178,7 @@ private void assertNoActiveScrolls() throws IOException  {
       if (scrollCurrent.isMissingNode()) {
         throw new IllegalStateException("Couldn't find node at " + path);
       }
-
-      if (scrollCurrent.asInt() != 0) {
-        final String message = String.format(Locale.ROOT, "Expected no active scrolls "
-            + "but got %d. Current index stats %s", scrollCurrent.asInt(), node);
-        throw new AssertionError(message);
-      }
+      return scrollCurrent.asInt();
     }
   }
 
@@ -94,11 +94,22 @@ public CsvEnumerator(Source source, AtomicBoolean cancelFlag,
       List<RelDataType> fieldTypes, List<Integer> fields) {
     //noinspection unchecked
     this(source, cancelFlag, false, null,
-        (RowConverter<E>) converter(fieldTypes, fields));
+        (RowConverter<E>) converter(fieldTypes, fields), fields);
   }
 
   public CsvEnumerator(Source source, AtomicBoolean cancelFlag, boolean stream,
       @Nullable String @Nullable [] filterValues, RowConverter<E> rowConverter) {
+    this(source, cancelFlag, stream, filterValues, rowConverter, null);
+  }
+
+  /** Creates a CsvEnumerator.
+   *
+   * <p>If {@code fields} is not null, only those fields of each line are
+   * guaranteed to be present in the array passed to {@code rowConverter};
+   * other fields may be null. */
+  private CsvEnumerator(Source source, AtomicBoolean cancelFlag,
+      boolean stream, @Nullable String @Nullable [] filterValues,
+      RowConverter<E> rowConverter, @Nullable List<Integer> fields) {
     this.cancelFlag = cancelFlag;
     this.rowConverter = rowConverter;
     this.filterValues =
@@ -108,7 +119,10 @@ public CsvEnumerator(Source source, AtomicBoolean cancelFlag, boolean stream,
       if (stream) {
         this.reader = new CsvStreamReader(source);
       } else {
-        this.reader = openCsv(source);
+        // Fields used by a filter must be read, too
+        this.reader =
+            new FastCsvReader(source.reader(),
+                filterValues == null ? fields : null);
       }
       this.reader.readNext(); // skip header row
     } catch (IOException e) {
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.file;
+
+import au.com.bytecode.opencsv.CSVParser;
+import au.com.bytecode.opencsv.CSVReader;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Extension to {@link CSVReader} that reads large blocks of characters and
+ * splits simple lines itself.
+ *
+ * <p>Most lines of a typical CSV file contain neither quotes nor escape
+ * characters. Such lines are split directly in the read buffer, without
+ * copying the line into an intermediate string, and only the projected
+ * fields are materialized as strings; the other elements of the returned
+ * array are null. Lines that need unquoting are handed to opencsv's
+ * {@link CSVParser}, so the result is the same as {@link CSVReader} with
+ * default settings.
+ */
+class FastCsvReader extends CSVReader {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Reader in;
+  private final CSVParser parser = new CSVParser();
+
+  /** Whether each field is needed, or null if all fields are needed. */
+  private final boolean @Nullable [] projected;
+
+  private char[] buffer = new char[BUFFER_SIZE];
+  /** Offset of the first character not yet consumed. */
+  private int position;
+  /** Offset after the last valid character in the buffer. */
+  private int limit;
+  private boolean eof;
+  /** Whether the previous line ended with '\r', so that a following '\n'
+   * belongs to the same line terminator. */
+  private boolean skipLineFeed;
+
+  private int lineStart;
+  private int lineEnd;
+
+  /**
+   * Creates a FastCsvReader.
+   *
+   * @param in Reader of the CSV text; closed when this reader is closed
+   * @param fields Ordinals of the fields that will be read, or null to read
+   *               all fields
+   */
+  FastCsvReader(Reader in, @Nullable List<Integer> fields) {
+    super(in);
+    this.in = in;
+    if (fields == null) {
+      this.projected = null;
+    } else {
+      int max = -1;
+      for (int field : fields) {
+        max = Math.max(max, field);
+      }
+      this.projected = new boolean[max + 1];
+      for (int field : fields) {
+        this.projected[field] = true;
+      }
+    }
+  }
+
+  @Override public String @Nullable [] readNext() throws IOException {
+    String[] result = null;
+    do {
+      if (!nextLine()) {
+        return result;
+      }
+      final String[] r;
+      if (!parser.isPending() && isSimple()) {
+        r = split();
+      } else {
+        r = parser.parseLineMulti(
+            new String(buffer, lineStart, lineEnd - lineStart));
+      }
+      if (r.length == 0) {
+        continue;
+      }
+      if (result == null) {
+        result = r;
+      } else {
+        final String[] t = Arrays.copyOf(result, result.length + r.length);
+        System.arraycopy(r, 0, t, result.length, r.length);
+        result = t;
+      }
+    } while (parser.isPending());
+    return result;
+  }
+
+  /** Returns whether the current line contains no quote or escape
+   * characters, and can therefore be split on separators. */
+  private boolean isSimple() {
+    for (int i = lineStart; i < lineEnd; i++) {
+      final char c = buffer[i];
+      if (c == CSVParser.DEFAULT_QUOTE_CHARACTER
+          || c == CSVParser.DEFAULT_ESCAPE_CHARACTER) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Splits the current line on separators, creating strings only for
+   * projected fields. */
+  @SuppressWarnings("nullness")
+  private String[] split() {
+    int count = 1;
+    for (int i = lineStart; i < lineEnd; i++) {
+      if (buffer[i] == CSVParser.DEFAULT_SEPARATOR) {
+        ++count;
+      }
+    }
+    final String[] fields = new String[count];
+    int field = 0;
+    int start = lineStart;
+    for (int i = lineStart; i <= lineEnd; i++) {
+      if (i == lineEnd || buffer[i] == CSVParser.DEFAULT_SEPARATOR) {
+        if (projected == null
+            || field < projected.length && projected[field]) {
+          fields[field] = new String(buffer, start, i - start);
+        }
+        ++field;
+        start = i + 1;
+      }
+    }
+    return fields;
+  }
+
+  /** Locates the next line in the buffer, reading more input if necessary,
+   * and sets {@link #lineStart} and {@link #lineEnd}. Lines are terminated
+   * as in {@link java.io.BufferedReader#readLine()}.
+   *
+   * @return Whether there is a line; false at end of input */
+  private boolean nextLine() throws IOException {
+    if (skipLineFeed) {
+      if (position == limit) {
+        fill();
+      }
+      if (position < limit && buffer[position] == '\n') {
+        ++position;
+      }
+      skipLineFeed = false;
+    }
+    int i = position;
+    for (;;) {
+      while (i < limit) {
+        final char c = buffer[i];
+        if (c == '\n' || c == '\r') {
+          lineStart = position;
+          lineEnd = i;
+          position = i + 1;
+          skipLineFeed = c == '\r';
+          return true;
+        }
+        ++i;
+      }
+      if (eof) {
+        if (position < limit) {
+          lineStart = position;
+          lineEnd = limit;
+          position = limit;
+          return true;
+        }
+        return false;
+      }
+      final int scanned = i - position;
+      fill();
+      i = position + scanned;
+    }
+  }
+
+  /** Moves unconsumed characters to the start of the buffer, growing it if
+   * it is full, and appends as many characters as the reader provides. */
+  private void fill() throws IOException {
+    final int remaining = limit - position;
+    if (position > 0) {
+      System.arraycopy(buffer, position, buffer, 0, remaining);
+    } else if (remaining == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+    position = 0;
+    limit = remaining;
+    final int n = in.read(buffer, limit, buffer.length - limit);
+    if (n < 0) {
+      eof = true;
+    } else {
+      limit += n;
+    }
+  }
+}
@@ -20,27 +20,55 @@
 import org.apache.calcite.linq4j.Linq4j;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.sql.type.SqlTypeUtil;
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.Source;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.google.common.collect.ImmutableList;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.apache.calcite.linq4j.Nullness.castNonNull;
+
+import static java.util.Objects.requireNonNull;
+
 /**
- * Enumerator that reads from a Object List.
+ * Enumerator that reads from a JSON source or an Object List.
+ *
+ * <p>A JSON source is read as a stream of rows: either a top-level array, or
+ * a sequence of top-level values such as newline-delimited JSON. Only the
+ * fields that are projected or filtered are deserialized; other fields are
+ * skipped by the parser.
  */
 public class JsonEnumerator implements Enumerator<@Nullable Object[]> {
 
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true)
+      .configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true)
+      .configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+
   private final Enumerator<@Nullable Object[]> enumerator;
 
   public JsonEnumerator(List<? extends @Nullable Object> list) {
@@ -59,66 +87,86 @@ public JsonEnumerator(List<? extends @Nullable Object> list) {
     enumerator = Linq4j.enumerator(objs);
   }
 
-  /** Deduces the names and types of a table's columns by reading the first line
-   * of a JSON file. */
-  static JsonDataConverter deduceRowType(RelDataTypeFactory typeFactory, Source source) {
-    final ObjectMapper objectMapper = new ObjectMapper();
-    List<Object> list;
-    LinkedHashMap<String, Object> jsonFieldMap = new LinkedHashMap<>(1);
-    Object jsonObj = null;
-    try {
-      objectMapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true)
-          .configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true)
-          .configure(JsonParser.Feature.ALLOW_COMMENTS, true);
-
-      if ("file".equals(source.protocol()) && source.file().exists()) {
-        //noinspection unchecked
-        jsonObj = objectMapper.readValue(source.file(), Object.class);
-      } else if (Arrays.asList("http", "https", "ftp").contains(source.protocol())) {
-        //noinspection unchecked
-        jsonObj = objectMapper.readValue(source.url(), Object.class);
-      } else {
-        jsonObj = objectMapper.readValue(source.reader(), Object.class);
+  /** Creates a JsonEnumerator that streams rows from a JSON source.
+   *
+   * @param source JSON source
+   * @param rowType Row type of the table, as returned by
+   *                {@link #deduceRowType}
+   * @param projects Ordinals of the fields to return, or null to return
+   *                 all fields
+   * @param conditions Conditions that each returned row must satisfy
+   */
+  JsonEnumerator(Source source, RelDataType rowType,
+      int @Nullable [] projects, List<Condition> conditions) {
+    enumerator =
+        new StreamingEnumerator(source, rowType, projects, conditions);
+  }
+
+  /** Creates a parser for a JSON source. */
+  private static JsonParser createParser(Source source) throws IOException {
+    if (Arrays.asList("http", "https", "ftp").contains(source.protocol())) {
+      return MAPPER.createParser(source.url());
+    }
+    return MAPPER.createParser(source.reader());
+  }
+
+  /** Moves to the first token of the next row. A row is an element of a
+   * top-level array, or a top-level value that is not an array.
+   *
+   * @param parser Parser
+   * @param inArray Whether the parser is inside a top-level array; updated
+   * @return First token of the row, or null at end of input
+   */
+  private static @Nullable JsonToken nextRow(JsonParser parser,
+      boolean[] inArray) throws IOException {
+    JsonToken token = parser.nextToken();
+    if (inArray[0]) {
+      if (token != JsonToken.END_ARRAY) {
+        return token;
+      }
+      inArray[0] = false;
+      token = parser.nextToken();
+    }
+    while (token == JsonToken.START_ARRAY) {
+      token = parser.nextToken();
+      if (token != JsonToken.END_ARRAY) {
+        inArray[0] = true;
+        return token;
       }
+      token = parser.nextToken();
+    }
+    return token;
+  }
 
-    } catch (MismatchedInputException e) {
-      if (!e.getMessage().contains("No content")) {
-        throw new RuntimeException("Couldn't read " + source, e);
+  /** Deduces the names and types of a table's columns by reading the first
+   * row of a JSON file. */
+  static RelDataType deduceRowType(RelDataTypeFactory typeFactory,
+      Source source) {
+    final LinkedHashMap<String, Object> jsonFieldMap = new LinkedHashMap<>();
+    try (JsonParser parser = createParser(source)) {
+      final JsonToken token = nextRow(parser, new boolean[1]);
+      if (token == null) {
+        jsonFieldMap.put("EmptyFileHasNoColumns", Boolean.TRUE);
+      } else {
+        final Object jsonObj = parser.readValueAs(Object.class);
+        if (jsonObj instanceof Map) {
+          //noinspection unchecked
+          jsonFieldMap.putAll((Map<String, Object>) jsonObj);
+        } else {
+          jsonFieldMap.put("line", jsonObj);
+        }
       }
     } catch (Exception e) {
       throw new RuntimeException("Couldn't read " + source, e);
     }
 
-    if (jsonObj == null) {
-      list = new ArrayList<>();
-      jsonFieldMap.put("EmptyFileHasNoColumns", Boolean.TRUE);
-    } else if (jsonObj instanceof Collection) {
-      //noinspection unchecked
-      list = (List<Object>) jsonObj;
-      //noinspection unchecked
-      jsonFieldMap = (LinkedHashMap) list.get(0);
-    } else if (jsonObj instanceof Map) {
-      //noinspection unchecked
-      jsonFieldMap = (LinkedHashMap) jsonObj;
-      //noinspection unchecked
-      list = new ArrayList(((LinkedHashMap) jsonObj).values());
-    } else {
-      jsonFieldMap.put("line", jsonObj);
-      list = new ArrayList<>();
-      list.add(0, jsonObj);
-    }
-
-    final List<RelDataType> types = new ArrayList<RelDataType>(jsonFieldMap.size());
-    final List<String> names = new ArrayList<String>(jsonFieldMap.size());
-
-    for (Object key : jsonFieldMap.keySet()) {
-      final RelDataType type = typeFactory.createJavaType(jsonFieldMap.get(key).getClass());
-      names.add(key.toString());
-      types.add(type);
-    }
-
-    RelDataType relDataType = typeFactory.createStructType(Pair.zip(names, types));
-    return new JsonDataConverter(relDataType, list);
+    final List<RelDataType> types = new ArrayList<>(jsonFieldMap.size());
+    final List<String> names = new ArrayList<>(jsonFieldMap.size());
+    jsonFieldMap.forEach((name, value) -> {
+      names.add(name);
+      types.add(typeFactory.createJavaType(value.getClass()));
+    });
+    return typeFactory.createStructType(Pair.zip(names, types));
   }
 
   @Override public Object[] current() {
@@ -137,24 +185,274 @@ static JsonDataConverter deduceRowType(RelDataTypeFactory typeFactory, Source so
     enumerator.close();
   }
 
+  /** Enumerator that parses rows from a JSON source as they are requested.
+   *
+   * <p>Fields of an object that are neither projected nor referenced by a
+   * condition are skipped without being deserialized. Conditions are
+   * evaluated as soon as their field has been read, and if one fails, the
+   * remainder of the object is skipped. */
+  private static class StreamingEnumerator
+      implements Enumerator<@Nullable Object[]> {
+    private final Source source;
+    private final int fieldCount;
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final int @Nullable [] projects;
+    private final List<Condition> conditions;
+    /** Whether each field must be read. */
+    private final boolean[] needed;
+    /** Whether each field is referenced by a condition. */
+    private final boolean[] filtered;
+
+    private @Nullable JsonParser jsonParser;
+    private final boolean[] inArray = new boolean[1];
+    private @Nullable Object @Nullable [] current;
+
+    StreamingEnumerator(Source source, RelDataType rowType,
+        int @Nullable [] projects, List<Condition> conditions) {
+      this.source = requireNonNull(source, "source");
+      this.fieldCount = rowType.getFieldCount();
+      for (RelDataTypeField field : rowType.getFieldList()) {
+        ordinals.put(field.getName(), field.getIndex());
+      }
+      this.projects = projects;
+      this.conditions = ImmutableList.copyOf(conditions);
+      this.needed = new boolean[fieldCount];
+      this.filtered = new boolean[fieldCount];
+      if (projects == null) {
+        Arrays.fill(needed, true);
+      } else {
+        for (int project : projects) {
+          needed[project] = true;
+        }
+      }
+      for (Condition condition : conditions) {
+        needed[condition.field] = true;
+        filtered[condition.field] = true;
+      }
+    }
+
+    @Override public @Nullable Object[] current() {
+      return castNonNull(current);
+    }
+
+    @Override public boolean moveNext() {
+      try {
+        JsonParser parser = jsonParser;
+        if (parser == null) {
+          parser = createParser(source);
+          jsonParser = parser;
+          inArray[0] = false;
+        }
+        for (;;) {
+          final JsonToken token = nextRow(parser, inArray);
+          if (token == null) {
+            current = null;
+            close();
+            return false;
+          }
+          final @Nullable Object[] values = new Object[fieldCount];
+          if (token == JsonToken.START_OBJECT) {
+            if (!readObject(parser, values)) {
+              continue;
+            }
+          } else if (fieldCount > 0) {
+            values[0] = parser.readValueAs(Object.class);
+          } else {
+            parser.skipChildren();
+          }
+          if (matches(values)) {
+            current = project(values);
+            return true;
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Couldn't read " + source, e);
+      }
+    }
+
+    /** Reads the needed fields of an object into {@code values}, returning
+     * false as soon as a condition fails. */
+    private boolean readObject(JsonParser parser,
+        @Nullable Object[] values) throws IOException {
+      for (JsonToken token = parser.nextToken();
+           token == JsonToken.FIELD_NAME;
+           token = parser.nextToken()) {
+        final Integer ordinal = ordinals.get(parser.currentName());
+        parser.nextToken();
+        if (ordinal == null || !needed[ordinal]) {
+          parser.skipChildren();
+          continue;
+        }
+        final Object value = parser.readValueAs(Object.class);
+        values[ordinal] = value;
+        if (filtered[ordinal]) {
+          for (Condition condition : conditions) {
+            if (condition.field == ordinal && !condition.test(value)) {
+              skipObject(parser);
+              return false;
+            }
+          }
+        }
+      }
+      return true;
+    }
+
+    /** Skips the remaining fields of the current object. */
+    private static void skipObject(JsonParser parser) throws IOException {
+      for (JsonToken token = parser.nextToken();
+           token == JsonToken.FIELD_NAME;
+           token = parser.nextToken()) {
+        parser.nextToken();
+        parser.skipChildren();
+      }
+    }
+
+    private boolean matches(@Nullable Object[] values) {
+      for (Condition condition : conditions) {
+        if (!condition.test(values[condition.field])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private @Nullable Object[] project(@Nullable Object[] values) {
+      if (projects == null) {
+        return values;
+      }
+      final @Nullable Object[] row = new Object[projects.length];
+      for (int i = 0; i < projects.length; i++) {
+        row[i] = values[projects[i]];
+      }
+      return row;
+    }
+
+    @Override public void reset() {
+      close();
+    }
+
+    @Override public void close() {
+      final JsonParser parser = jsonParser;
+      if (parser != null) {
+        jsonParser = null;
+        try {
+          parser.close();
+        } catch (IOException e) {
+          throw new UncheckedIOException("Error closing JSON parser", e);
+        }
+      }
+    }
+  }
+
   /**
-   * Json data and relDataType Converter.
+   * Comparison between a field and a literal that can be evaluated while a
+   * JSON source is being parsed.
+   *
+   * <p>Numeric fields support {@code =}, {@code <>}, {@code <},
+   * {@code <=}, {@code >} and {@code >=}; string and boolean fields
+   * support {@code =} and {@code <>}. A null or missing value never
+   * satisfies a condition.
    */
-  static class JsonDataConverter {
-    private final RelDataType relDataType;
-    private final List<Object> dataList;
+  static class Condition {
+    final int field;
+    final SqlKind kind;
+    final Object value;
+
+    private Condition(int field, SqlKind kind, Object value) {
+      this.field = field;
+      this.kind = kind;
+      this.value = value;
+    }
 
-    private JsonDataConverter(RelDataType relDataType, List<Object> dataList) {
-      this.relDataType = relDataType;
-      this.dataList = dataList;
+    /** Converts a filter to a Condition, or returns null if the filter is
+     * not a simple comparison. */
+    static @Nullable Condition of(RexNode filter) {
+      SqlKind kind = filter.getKind();
+      switch (kind) {
+      case EQUALS:
+      case NOT_EQUALS:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+        break;
+      default:
+        return null;
+      }
+      final RexCall call = (RexCall) filter;
+      RexNode left = call.getOperands().get(0);
+      RexNode right = call.getOperands().get(1);
+      if (left instanceof RexLiteral && right instanceof RexInputRef) {
+        final RexNode t = left;
+        left = right;
+        right = t;
+        kind = kind.reverse();
+      }
+      if (!(left instanceof RexInputRef) || !(right instanceof RexLiteral)) {
+        return null;
+      }
+      final int field = ((RexInputRef) left).getIndex();
+      final RexLiteral literal = (RexLiteral) right;
+      if (literal.isNull()) {
+        return null;
+      }
+      if (SqlTypeUtil.isNumeric(literal.getType())) {
+        return new Condition(field, kind,
+            requireNonNull(literal.getValueAs(BigDecimal.class)));
+      }
+      if (kind != SqlKind.EQUALS && kind != SqlKind.NOT_EQUALS) {
+        return null;
+      }
+      if (SqlTypeUtil.isCharacter(literal.getType())) {
+        return new Condition(field, kind,
+            requireNonNull(literal.getValueAs(String.class)));
+      }
+      if (literal.getTypeName() == SqlTypeName.BOOLEAN) {
+        return new Condition(field, kind,
+            requireNonNull(literal.getValueAs(Boolean.class)));
+      }
+      return null;
     }
 
-    RelDataType getRelDataType() {
-      return relDataType;
+    boolean test(@Nullable Object o) {
+      final int c;
+      if (value instanceof BigDecimal && o instanceof Number) {
+        c = toBigDecimal((Number) o).compareTo((BigDecimal) value);
+      } else if (value instanceof String && o instanceof String
+          || value instanceof Boolean && o instanceof Boolean) {
+        c = value.equals(o) ? 0 : 1;
+      } else {
+        return false;
+      }
+      switch (kind) {
+      case EQUALS:
+        return c == 0;
+      case NOT_EQUALS:
+        return c != 0;
+      case LESS_THAN:
+        return c < 0;
+      case LESS_THAN_OR_EQUAL:
+        return c <= 0;
+      case GREATER_THAN:
+        return c > 0;
+      case GREATER_THAN_OR_EQUAL:
+        return c >= 0;
+      default:
+        throw new AssertionError(kind);
+      }
     }
 
-    List<Object> getDataList() {
-      return dataList;
+    private static BigDecimal toBigDecimal(Number n) {
+      if (n instanceof BigDecimal) {
+        return (BigDecimal) n;
+      } else if (n instanceof BigInteger) {
+        return new BigDecimal((BigInteger) n);
+      } else if (n instanceof Long || n instanceof Integer
+          || n instanceof Short || n instanceof Byte) {
+        return BigDecimal.valueOf(n.longValue());
+      } else {
+        return new BigDecimal(n.toString());
+      }
     }
   }
 }
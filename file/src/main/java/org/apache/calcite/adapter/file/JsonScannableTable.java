@@ -21,19 +21,30 @@
 import org.apache.calcite.linq4j.AbstractEnumerable;
 import org.apache.calcite.linq4j.Enumerable;
 import org.apache.calcite.linq4j.Enumerator;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.schema.ProjectableFilterableTable;
 import org.apache.calcite.schema.ScannableTable;
 import org.apache.calcite.util.Source;
 
+import com.google.common.collect.ImmutableList;
+
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Table based on a JSON file.
  *
  * <p>It implements the {@link ScannableTable} interface, so Calcite gets
- * data by calling the {@link #scan(DataContext)} method.
+ * data by calling the {@link #scan(DataContext)} method. It also implements
+ * {@link ProjectableFilterableTable}, so that the file is parsed only for
+ * the fields that a query uses, and simple comparisons with literals are
+ * evaluated while parsing.
  */
 public class JsonScannableTable extends JsonTable
-    implements ScannableTable {
+    implements ScannableTable, ProjectableFilterableTable {
   /**
    * Creates a JsonScannableTable.
    */
@@ -46,10 +57,24 @@ public JsonScannableTable(Source source) {
   }
 
   @Override public Enumerable<@Nullable Object[]> scan(DataContext root) {
+    return scan(root, new ArrayList<>(), null);
+  }
+
+  @Override public Enumerable<@Nullable Object[]> scan(DataContext root,
+      List<RexNode> filters, int @Nullable [] projects) {
+    final JavaTypeFactory typeFactory = root.getTypeFactory();
+    final RelDataType rowType = getRowType(typeFactory);
+    final List<JsonEnumerator.Condition> conditions = new ArrayList<>();
+    filters.removeIf(filter -> {
+      final JsonEnumerator.Condition condition =
+          JsonEnumerator.Condition.of(filter);
+      return condition != null && conditions.add(condition);
+    });
+    final List<JsonEnumerator.Condition> conditionList =
+        ImmutableList.copyOf(conditions);
     return new AbstractEnumerable<@Nullable Object[]>() {
       @Override public Enumerator<@Nullable Object[]> enumerator() {
-        JavaTypeFactory typeFactory = root.getTypeFactory();
-        return new JsonEnumerator(getDataList(typeFactory));
+        return new JsonEnumerator(source, rowType, projects, conditionList);
       }
     };
   }
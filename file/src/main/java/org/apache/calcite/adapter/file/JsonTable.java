@@ -16,7 +16,7 @@
  */
 package org.apache.calcite.adapter.file;
 
-import org.apache.calcite.adapter.file.JsonEnumerator.JsonDataConverter;
+import org.apache.calcite.linq4j.Enumerator;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeFactory;
 import org.apache.calcite.schema.Statistic;
@@ -24,15 +24,19 @@
 import org.apache.calcite.schema.impl.AbstractTable;
 import org.apache.calcite.util.Source;
 
+import com.google.common.collect.ImmutableList;
+
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Table based on a JSON file.
  */
 public class JsonTable extends AbstractTable {
-  private final Source source;
+  protected final Source source;
   private @Nullable RelDataType rowType;
   protected @Nullable List<Object> dataList;
 
@@ -42,17 +46,27 @@ public JsonTable(Source source) {
 
   @Override public RelDataType getRowType(RelDataTypeFactory typeFactory) {
     if (rowType == null) {
-      rowType = JsonEnumerator.deduceRowType(typeFactory, source).getRelDataType();
+      rowType = JsonEnumerator.deduceRowType(typeFactory, source);
     }
     return rowType;
   }
 
-  /** Returns the data list of the table. */
+  /** Returns the data list of the table.
+   *
+   * @deprecated Reads the whole file into memory; use
+   * {@link JsonScannableTable}, which streams rows */
+  @Deprecated // to be removed before 2.0
   public List<Object> getDataList(RelDataTypeFactory typeFactory) {
     if (dataList == null) {
-      JsonDataConverter jsonDataConverter =
-          JsonEnumerator.deduceRowType(typeFactory, source);
-      dataList = jsonDataConverter.getDataList();
+      final List<Object> list = new ArrayList<>();
+      try (Enumerator<@Nullable Object[]> enumerator =
+               new JsonEnumerator(source, getRowType(typeFactory), null,
+                   ImmutableList.of())) {
+        while (enumerator.moveNext()) {
+          list.add(Arrays.asList(enumerator.current()));
+        }
+      }
+      dataList = list;
     }
     return dataList;
   }
@@ -18,9 +18,17 @@
 
 import org.junit.jupiter.api.Test;
 
+import au.com.bytecode.opencsv.CSVReader;
+
+import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -57,4 +65,59 @@ private static void checkThrows(int precision, int scale, String s) {
     assertThrows(IllegalArgumentException.class,
         () -> CsvEnumerator.parseDecimal(precision, scale, s));
   }
+
+  /** Tests that {@link FastCsvReader} splits lines the same way as
+   * opencsv's {@link CSVReader}, including quoted fields, escapes, embedded
+   * line breaks and the various line terminators. */
+  @Test void testFastReaderMatchesOpenCsv() throws IOException {
+    checkFastReader("");
+    checkFastReader("a,b,c");
+    checkFastReader("a,b,c\n1,2,3\n");
+    checkFastReader("a,b\r\n1,\r\n,2\r\r\n\n x , y ");
+    checkFastReader("a,\"b,c\",d\n\"x\"\"y\",z");
+    checkFastReader("a,\"multi\nline\",b\n1,2,3");
+    checkFastReader("a\\,b,\"c\\\"d\"\n");
+
+    // A line longer than the read buffer
+    final StringBuilder b = new StringBuilder();
+    for (int i = 0; i < 20_000; i++) {
+      b.append(i).append(',');
+    }
+    checkFastReader(b.append('\n').append(b).toString());
+  }
+
+  private static void checkFastReader(String csv) throws IOException {
+    final List<List<String>> expected = new ArrayList<>();
+    try (CSVReader reader = new CSVReader(new StringReader(csv))) {
+      for (String[] strings; (strings = reader.readNext()) != null;) {
+        expected.add(Arrays.asList(strings));
+      }
+    }
+    final List<List<String>> actual = new ArrayList<>();
+    try (CSVReader reader = new FastCsvReader(new StringReader(csv), null)) {
+      for (String[] strings; (strings = reader.readNext()) != null;) {
+        actual.add(Arrays.asList(strings));
+      }
+    }
+    assertThat(actual, is(expected));
+  }
+
+  /** Tests that {@link FastCsvReader} skips fields that are not
+   * projected. */
+  @Test void testFastReaderProjection() throws IOException {
+    try (CSVReader reader =
+             new FastCsvReader(new StringReader("a,b,c,d\n1,2,3\n"),
+                 Arrays.asList(2, 0))) {
+      final String[] header = reader.readNext();
+      assertThat(header.length, is(4));
+      assertThat(header[0], is("a"));
+      assertThat(header[1], nullValue());
+      assertThat(header[2], is("c"));
+      assertThat(header[3], nullValue());
+      final String[] row = reader.readNext();
+      assertThat(row.length, is(3));
+      assertThat(row[2], is("3"));
+      assertThat(reader.readNext(), nullValue());
+    }
+  }
 }
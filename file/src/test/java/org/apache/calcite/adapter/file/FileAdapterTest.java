@@ -225,6 +225,44 @@ private static void checkEmpty(ResultSet resultSet) {
     sql("sales-json", sql).returns(lines).ok();
   }
 
+  /** Reads a table from a newline-delimited JSON file, whose objects have
+   * fields in different orders and fields not in the row type. */
+  @Test void testJsonNewlineDelimited() {
+    final String sql = "select * from sales.nddepts";
+    sql("sales-json", sql)
+        .returns("DEPTNO=10; NAME=Sales",
+            "DEPTNO=20; NAME=Marketing",
+            "DEPTNO=30; NAME=Accounts")
+        .ok();
+  }
+
+  /** Tests that projections and filters are pushed into the JSON scan. No
+   * operator remains above the scan. */
+  @Test void testJsonPushDownProjectFilter() {
+    sql("sales-json", "select name from sales.depts where deptno > 10")
+        .explainContains("PLAN=EnumerableInterpreter\n"
+            + "  BindableTableScan(table=[[SALES, DEPTS]], filters=[[>($0, 10)]],"
+            + " projects=[[1]])\n")
+        .returns("NAME=Marketing",
+            "NAME=Accounts")
+        .ok();
+    sql("sales-json", "select deptno from sales.nddepts\n"
+        + "where name = 'Marketing' or deptno = 10")
+        .explainContains("PLAN=EnumerableInterpreter\n"
+                + "  BindableTableScan(table=[[SALES, NDDEPTS]], filters=[[OR(",
+            "projects=[[0]])\n")
+        .returnsUnordered("DEPTNO=10",
+            "DEPTNO=20")
+        .ok();
+    sql("sales-json", "select name from sales.emps\n"
+        + "where slacker = true and 120 > empno")
+        .explainContains("PLAN=EnumerableInterpreter\n"
+                + "  BindableTableScan(table=[[SALES, EMPS]], filters=[[",
+            "projects=[[1]])\n")
+        .returns("NAME=Fred")
+        .ok();
+  }
+
   /** Reads the EMPTY table from the JSON schema. The JSON file has no lines,
    * therefore the table has a system-generated column called
    * "EmptyFileHasNoColumns". */
@@ -41,6 +41,7 @@
 
 import static org.apache.calcite.test.Matchers.isListOf;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -224,6 +225,22 @@ Fluent returns(String... expectedLines) {
       return checking(expect(expectedLines));
     }
 
+    /** Checks that the plan of the SQL query contains each of the given
+     * strings. */
+    Fluent explainContains(String... expectedStrings) {
+      new Fluent(model, "explain plan for " + sql, resultSet -> {
+        try {
+          final String plan = FileAdapterTests.toString(resultSet);
+          for (String expected : expectedStrings) {
+            assertThat(plan, containsString(expected));
+          }
+        } catch (SQLException e) {
+          throw TestUtil.rethrow(e);
+        }
+      }).ok();
+      return this;
+    }
+
     /** Sets the rows that are expected to be returned from the SQL query,
      * in no particular order. */
     Fluent returnsUnordered(String... expectedLines) {
@@ -35,7 +35,6 @@
 import org.apache.calcite.linq4j.function.Predicate2;
 
 import com.google.common.base.Suppliers;
-import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 
@@ -561,16 +560,7 @@ public static <TSource> Enumerable<TSource> except(
    */
   public static <TSource> Enumerable<TSource> except(
       Enumerable<TSource> source0, Enumerable<TSource> source1, boolean all) {
-    Collection<TSource> collection = all ? HashMultiset.create() : new HashSet<>();
-    source0.into(collection);
-    try (Enumerator<TSource> os = source1.enumerator()) {
-      while (os.moveNext()) {
-        TSource o = os.current();
-        @SuppressWarnings("argument.type.incompatible")
-        boolean unused = collection.remove(o);
-      }
-      return Linq4j.asEnumerable(collection);
-    }
+    return setOp(source0, source1, Functions.identitySelector(), all, false);
   }
 
   /**
@@ -595,18 +585,88 @@ public static <TSource> Enumerable<TSource> except(
     if (comparer == Functions.identityComparer()) {
       return except(source0, source1, all);
     }
-    Collection<Wrapped<TSource>> collection = all ? HashMultiset.create() : new HashSet<>();
-    Function1<TSource, Wrapped<TSource>> wrapper = wrapperFor(comparer);
-    source0.select(wrapper).into(collection);
-    try (Enumerator<Wrapped<TSource>> os =
-             source1.select(wrapper).enumerator()) {
+    return setOp(source0, source1, wrapperFor(comparer), all, false);
+  }
+
+  /**
+   * Implements EXCEPT and INTERSECT, with or without ALL.
+   *
+   * <p>Counts the occurrences of each distinct key of {@code source1} in a
+   * single hash table, then streams {@code source0}, emitting or discarding
+   * each element according to, and updating, the count of its key. Only the
+   * keys of {@code source1} (and, for EXCEPT DISTINCT, of the elements
+   * emitted) are held in memory, and elements are emitted in the order of
+   * {@code source0}.
+   *
+   * @param source0     Left input
+   * @param source1     Right input
+   * @param keySelector Converts an element to a key that has the required
+   *                    equality semantics
+   * @param all         Whether to keep duplicates (EXCEPT ALL, INTERSECT ALL)
+   * @param intersect   Whether INTERSECT (otherwise EXCEPT)
+   */
+  private static <TSource, TKey> Enumerable<TSource> setOp(
+      Enumerable<TSource> source0, Enumerable<TSource> source1,
+      Function1<TSource, TKey> keySelector, boolean all, boolean intersect) {
+    return new AbstractEnumerable<TSource>() {
+      @Override public Enumerator<TSource> enumerator() {
+        final Map<TKey, int[]> counts = new HashMap<>();
+        countKeys(source1, keySelector, all, counts);
+        final Enumerator<TSource> enumerator = EnumerableDefaults.where(source0, o -> {
+          final TKey key = keySelector.apply(o);
+          final int @Nullable [] count = counts.get(key);
+          if (intersect) {
+            // INTERSECT ALL emits min(n0, n1) copies; INTERSECT one
+            if (count == null || count[0] == 0) {
+              return false;
+            }
+            count[0] = all ? count[0] - 1 : 0;
+            return true;
+          } else if (all) {
+            // EXCEPT ALL emits max(n0 - n1, 0) copies
+            if (count != null && count[0] > 0) {
+              --count[0];
+              return false;
+            }
+            return true;
+          } else {
+            // EXCEPT emits one copy, if n1 = 0; a zero count marks a key
+            // that has been emitted
+            if (count != null) {
+              return false;
+            }
+            counts.put(key, new int[1]);
+            return true;
+          }
+        }).enumerator();
+        return new DelegatingEnumerator<TSource>(enumerator) {
+          @Override public void reset() {
+            // The predicate has updated the counts; count again
+            counts.clear();
+            countKeys(source1, keySelector, all, counts);
+            super.reset();
+          }
+        };
+      }
+    };
+  }
+
+  /** Counts the occurrences of each distinct key of a sequence, or, if not
+   * {@code all}, records each key with a count of 1. */
+  private static <TSource, TKey> void countKeys(Enumerable<TSource> source,
+      Function1<TSource, TKey> keySelector, boolean all,
+      Map<TKey, int[]> counts) {
+    try (Enumerator<TSource> os = source.enumerator()) {
       while (os.moveNext()) {
-        Wrapped<TSource> o = os.current();
-        collection.remove(o);
+        final TKey key = keySelector.apply(os.current());
+        final int @Nullable [] count = counts.get(key);
+        if (count == null) {
+          counts.put(key, new int[] {1});
+        } else if (all) {
+          ++count[0];
+        }
       }
     }
-    Function1<Wrapped<TSource>, TSource> unwrapper = unwrapper();
-    return Linq4j.asEnumerable(collection).select(unwrapper);
   }
 
   /**
@@ -870,9 +930,10 @@ public static <TSource, TKey, TAccumulate, TResult> Enumerable<TResult> sortedGr
    * @param resultSelector      Produces the result from a pair (left, right)
    * @param matchComparator     Compares an element from the left input with one from the right
    *                            input and returns 'true' if the timestamp are appropriate
-   * @param timestampComparator Compares two elements from the right input and returns
-   *                            true if the second is in the right order with respect
-   *                            to the ASOF comparison.
+   * @param timestampComparator Compares two elements from the right input; the greater
+   *                            one is the better match. For any left element, the
+   *                            right elements that match it must precede (in this
+   *                            order) those that do not.
    * @param emitNullsOnRight    If true this is a left join.
    */
   public static <TResult, TSource, TInner, TKey> Enumerable<TResult> asofJoin(
@@ -884,45 +945,15 @@ public static <TResult, TSource, TInner, TKey> Enumerable<TResult> asofJoin(
       Comparator<TInner> timestampComparator,
       boolean emitNullsOnRight) {
 
-    // The basic algorithm is simple:
-    // - scan and index left collection by key
-    // - for each left record keep the best right record, initialized to 'null'
-    // - scan the right collection and for each record
-    //   - match it against all left collection records with the same key
-    //   - if the timestamp is closer, update the right record
-    // - emit all items in the index
-    Map<TKey, List<TSource>> leftIndex = new HashMap<>();
-    // For each left element the corresponding best right element
-    Map<TKey, List<@Nullable TInner>> rightIndex = new HashMap<>();
-    // Outer elements that have null keys.  Will remain empty if !emitNullsOnRight.
-    List<TSource> outerWithNullKeys = new ArrayList<>();
-    try (Enumerator<TSource> os = outer.enumerator()) {
-      while (os.moveNext()) {
-        TSource l = os.current();
-        TKey key = outerKeySelector.apply(l);
-        if (key == null) {
-          // key contains null fields (result of key selector is null)
-          if (emitNullsOnRight) {
-            outerWithNullKeys.add(l);
-          }
-        } else {
-          List<TSource> left;
-          List<@Nullable TInner> right;
-          if (!leftIndex.containsKey(key)) {
-            left = new ArrayList<>();
-            right = new ArrayList<>();
-            leftIndex.put(key, left);
-            rightIndex.put(key, right);
-          } else {
-            left = leftIndex.get(key);
-            right = rightIndex.get(key);
-          }
-          left.add(l);
-          requireNonNull(right, "right").add(null);
-        }
-      }
-    }
-    // Scan right collection
+    // The algorithm:
+    // - scan the right collection and index it by key
+    // - sort the records of each key using the timestampComparator; for any
+    //   left record, the right records that match it now form a prefix
+    // - scan the left collection; for each record, binary search the right
+    //   records with the same key for the last one that matches
+    // The cost is O((L + R) log R) rather than O(L * R) for each key, and
+    // the result preserves the order of the left collection.
+    final Map<TKey, List<TInner>> rightIndex = new HashMap<>();
     try (Enumerator<TInner> is = inner.enumerator()) {
       while (is.moveNext()) {
         TInner r = is.current();
@@ -931,115 +962,61 @@ public static <TResult, TSource, TInner, TKey> Enumerable<TResult> asofJoin(
           // key contains null fields (result of key selector is null)
           continue;
         }
-        List<TSource> left = leftIndex.get(key);
-        if (left == null) {
-          continue;
-        }
-        assert !left.isEmpty();
-        List<@Nullable TInner> best = requireNonNull(rightIndex.get(key));
-        assert left.size() == best.size();
-        for (int i = 0; i < left.size(); i++) {
-          TSource leftElement = left.get(i);
-          boolean matches = matchComparator.apply(leftElement, r);
-          if (!matches) {
-            continue;
-          }
-          @Nullable TInner bestElement = best.get(i);
-          if (bestElement == null) {
-            best.set(i, r);
-          } else {
-            boolean isCloser = timestampComparator.compare(bestElement, r) < 0;
-            if (isCloser) {
-              best.set(i, r);
-            }
-          }
-        }
+        rightIndex.computeIfAbsent(key, k -> new ArrayList<>()).add(r);
       }
     }
+    for (List<TInner> list : rightIndex.values()) {
+      list.sort(timestampComparator);
+    }
 
     return new AbstractEnumerable<TResult>() {
       @Override public Enumerator<TResult> enumerator() {
         return new Enumerator<TResult>() {
-          final Enumerator<Map.Entry<TKey, List<TSource>>> enumerator =
-              new Linq4j.IterableEnumerator<>(leftIndex.entrySet());
-
-          boolean emittingNullKeys = false;  // True when we emit the records with null keys
-          @Nullable Enumerator<TSource> left = null;  // Iterates over values with same key
-          @Nullable Enumerator<@Nullable TInner> right = null;
-          final Enumerator<TSource> leftNullKeys =    // not used for inner ASOF joins
-              new Linq4j.IterableEnumerator<>(outerWithNullKeys);
-
-          // This is a small state machine
-          // if (emittingNullKeys) {
-          //    we are iterating over 'outerWithNullKeys' using 'leftNullKeys'
-          // } else {
-          //    we are iterating over the 'leftIndex' using 'enumerator'
-          //    for each value of the key we iterate advancing
-          //        concurrently using 'left' and 'right'
-          //    when finished set emittingNullKeys = true
-          // }
+          final Enumerator<TSource> left = outer.enumerator();
+          @Nullable TInner right = null;
 
           @Override public TResult current() {
-            if (emittingNullKeys) {
-              TSource l = leftNullKeys.current();
-              return resultSelector.apply(l, null);
-            }
-
-            TSource l = requireNonNull(left, "left").current();
-            @Nullable TInner r = requireNonNull(right, "right").current();
-            return resultSelector.apply(l, r);
+            return resultSelector.apply(left.current(), right);
           }
 
           @Override public boolean moveNext() {
-            while (true) {
-              boolean hasNext = false;
-              if (emittingNullKeys) {
-                return leftNullKeys.moveNext();
+            while (left.moveNext()) {
+              TSource l = left.current();
+              TKey key = outerKeySelector.apply(l);
+              // key is null if it contains null fields
+              @Nullable List<TInner> list =
+                  key == null ? null : rightIndex.get(key);
+              right = list == null ? null : best(l, list);
+              if (right != null || emitNullsOnRight) {
+                return true;
+              }
+            }
+            return false;
+          }
+
+          /** Returns the last element of a sorted list that matches a left
+           * record, or null if there is none. */
+          private @Nullable TInner best(TSource l, List<TInner> list) {
+            int lo = 0;
+            int hi = list.size();
+            while (lo < hi) {
+              int mid = (lo + hi) >>> 1;
+              if (matchComparator.apply(l, list.get(mid))) {
+                lo = mid + 1;
               } else {
-                if (left != null) {
-                  // Advance left, right
-                  hasNext = left.moveNext();
-                  boolean rightHasNext =
-                      requireNonNull(right, "right").moveNext();
-                  assert hasNext == rightHasNext;
-                }
-                if (hasNext) {
-                  if (!emitNullsOnRight) {
-                    @Nullable TInner r =
-                        requireNonNull(right, "right").current();
-                    if (r == null) {
-                      continue;
-                    }
-                  }
-                  return true;
-                }
-                // Advance enumerator
-                hasNext = enumerator.moveNext();
-                if (hasNext) {
-                  Map.Entry<TKey, List<TSource>> current = enumerator.current();
-                  TKey key = current.getKey();
-                  List<TSource> value = current.getValue();
-                  left = new Linq4j.IterableEnumerator<>(value);
-                  List<@Nullable TInner> rightList =
-                      requireNonNull(rightIndex.get(key));
-                  right = new Linq4j.IterableEnumerator<>(rightList);
-                } else {
-                  // Done with the data, start emitting records with null keys
-                  emittingNullKeys = true;
-                }
+                hi = mid;
               }
             }
+            return lo == 0 ? null : list.get(lo - 1);
           }
 
           @Override public void reset() {
-            enumerator.reset();
-            left = null;
+            left.reset();
             right = null;
           }
 
           @Override public void close() {
-            enumerator.close();
-            left = null;
+            left.close();
             right = null;
           }
         };
@@ -1329,20 +1306,7 @@ public static <TSource> Enumerable<TSource> intersect(
    */
   public static <TSource> Enumerable<TSource> intersect(
       Enumerable<TSource> source0, Enumerable<TSource> source1, boolean all) {
-    Collection<TSource> set1 = all ? HashMultiset.create() : new HashSet<>();
-    source1.into(set1);
-    Collection<TSource> resultCollection = all ? HashMultiset.create() : new HashSet<>();
-    try (Enumerator<TSource> os = source0.enumerator()) {
-      while (os.moveNext()) {
-        TSource o = os.current();
-        @SuppressWarnings("argument.type.incompatible")
-        boolean removed = set1.remove(o);
-        if (removed) {
-          resultCollection.add(o);
-        }
-      }
-    }
-    return Linq4j.asEnumerable(resultCollection);
+    return setOp(source0, source1, Functions.identitySelector(), all, true);
   }
 
   /**
@@ -1367,20 +1331,7 @@ public static <TSource> Enumerable<TSource> intersect(
     if (comparer == Functions.identityComparer()) {
       return intersect(source0, source1, all);
     }
-    Collection<Wrapped<TSource>> collection = all ? HashMultiset.create() : new HashSet<>();
-    Function1<TSource, Wrapped<TSource>> wrapper = wrapperFor(comparer);
-    source1.select(wrapper).into(collection);
-    Collection<Wrapped<TSource>> resultCollection = all ? HashMultiset.create() : new HashSet<>();
-    try (Enumerator<Wrapped<TSource>> os = source0.select(wrapper).enumerator()) {
-      while (os.moveNext()) {
-        Wrapped<TSource> o = os.current();
-        if (collection.remove(o)) {
-          resultCollection.add(o);
-        }
-      }
-    }
-    Function1<Wrapped<TSource>, TSource> unwrapper = unwrapper();
-    return Linq4j.asEnumerable(resultCollection).select(unwrapper);
+    return setOp(source0, source1, wrapperFor(comparer), all, true);
   }
 
   /**
@@ -2378,6 +2329,8 @@ public static boolean isMergeJoinSupported(JoinType joinType) {
     case SEMI:
     case ANTI:
     case LEFT:
+    case RIGHT:
+    case FULL:
       return true;
     default:
       return false;
@@ -2434,6 +2387,15 @@ public static boolean isMergeJoinSupported(JoinType joinType) {
     if (!isMergeJoinSupported(joinType)) {
       throw new UnsupportedOperationException("MergeJoin unsupported for join type " + joinType);
     }
+    if (joinType.generatesNullsOnLeft()) {
+      return new AbstractEnumerable<TResult>() {
+        @Override public Enumerator<TResult> enumerator() {
+          return new OuterMergeJoinEnumerator<>(outer, inner, outerKeySelector,
+              innerKeySelector, extraPredicate, resultSelector, joinType,
+              comparator, equalityComparer);
+        }
+      };
+    }
     return new AbstractEnumerable<TResult>() {
       @Override public Enumerator<TResult> enumerator() {
         return new MergeJoinEnumerator<>(outer, inner, outerKeySelector, innerKeySelector,
@@ -2880,87 +2842,154 @@ public static <TSource, TKey> Enumerable<TSource> orderBy(
       Comparator<TKey> comparator,
       int offset, int fetch) {
     // As discussed in CALCITE-3920 and CALCITE-4157, this method avoids to sort the complete input,
-    // if only the first N rows are actually needed. A TreeMap implementation has been chosen,
-    // so that it behaves similar to the orderBy method without fetch/offset.
-    // The TreeMap has a better performance if there are few distinct sort keys.
+    // if only the first N rows are actually needed. It keeps the best 'offset + fetch' rows in a
+    // bounded max-heap, so each input row costs at most O(log N), and a row that is not better
+    // than the worst retained row is rejected after a single comparison. Rows with equal keys are
+    // returned in input order, as in the orderBy method without fetch/offset.
     return new AbstractEnumerable<TSource>() {
       @Override public Enumerator<TSource> enumerator() {
         if (fetch == 0) {
           return Linq4j.emptyEnumerator();
         }
 
-        TreeMap<TKey, List<TSource>> map = new TreeMap<>(comparator);
-        long size = 0;
-        long needed = fetch + (long) offset;
-
-        // read the input into a tree map
+        final TopNHeap<TSource, TKey> heap =
+            new TopNHeap<>(comparator, fetch + (long) offset);
         try (Enumerator<TSource> os = source.enumerator()) {
           while (os.moveNext()) {
             TSource o = os.current();
-            TKey key = keySelector.apply(o);
-            if (needed >= 0 && size >= needed) {
-              // the current row will never appear in the output, so just skip it
-              @KeyFor("map") TKey lastKey = map.lastKey();
-              if (comparator.compare(key, lastKey) >= 0) {
-                continue;
-              }
-              // remove last entry from tree map, so that we keep at most 'needed' rows
-              @SuppressWarnings("argument.type.incompatible")
-              List<TSource> l = map.get(lastKey);
-              if (l.size() == 1) {
-                map.remove(lastKey);
-              } else {
-                l.remove(l.size() - 1);
-              }
-              size--;
-            }
-            // add the current element to the map
-            map.compute(key, (k, l) -> {
-              // for first entry, use a singleton list to save space
-              // when we go from 1 to 2 elements, switch to array list
-              if (l == null) {
-                return Collections.singletonList(o);
-              }
-              if (l.size() == 1) {
-                l = new ArrayList<>(l);
-              }
-              l.add(o);
-              return l;
-            });
-            size++;
+            heap.add(keySelector.apply(o), o);
           }
         }
 
-        // skip the first 'offset' rows by deleting them from the map
-        if (offset > 0) {
-          // search the key up to (but excluding) which we have to remove entries from the map
-          int skipped = 0;
-          TKey until = (TKey) DUMMY;
-          for (Map.Entry<TKey, List<TSource>> e : map.entrySet()) {
-            skipped += e.getValue().size();
-
-            if (skipped > offset) {
-              // we might need to remove entries from the list
-              List<TSource> l = e.getValue();
-              int toKeep = skipped - offset;
-              if (toKeep < l.size()) {
-                l.subList(0, l.size() - toKeep).clear();
-              }
+        // skip the first 'offset' rows
+        final List<TSource> list = heap.toSortedList();
+        if (offset >= list.size()) {
+          // the offset is bigger than the number of rows
+          return Linq4j.emptyEnumerator();
+        }
+        return Linq4j.enumerator(list.subList(offset, list.size()));
+      }
+    };
+  }
 
-              until = e.getKey();
-              break;
-            }
-          }
-          if (until == DUMMY) {
-            // the offset is bigger than the number of rows in the map
-            return Linq4j.emptyEnumerator();
-          }
-          map.headMap(until, false).clear();
+  /** Bounded max-heap that retains the smallest N rows of its input.
+   *
+   * <p>Keys, rows and sequence numbers are held in parallel arrays, which
+   * grow on demand up to N, so a large fetch does not allocate memory for
+   * rows that never arrive. Sequence numbers break ties between equal keys,
+   * so that the sort is stable.
+   *
+   * @param <TSource> row type
+   * @param <TKey> key type */
+  private static class TopNHeap<TSource, TKey> {
+    private final Comparator<TKey> comparator;
+    private final int limit;
+    private @Nullable Object[] keys;
+    private @Nullable Object[] rows;
+    private long[] seqs;
+    private int size;
+    private long seq;
+
+    TopNHeap(Comparator<TKey> comparator, long limit) {
+      this.comparator = comparator;
+      this.limit = (int) Math.min(limit, Integer.MAX_VALUE - 8);
+      final int capacity = Math.min(this.limit, 16);
+      this.keys = new Object[capacity];
+      this.rows = new Object[capacity];
+      this.seqs = new long[capacity];
+    }
+
+    void add(TKey key, TSource row) {
+      final long s = seq++;
+      if (size < limit) {
+        if (size == keys.length) {
+          final int capacity = (int) Math.min((long) size * 2, limit);
+          keys = Arrays.copyOf(keys, capacity);
+          rows = Arrays.copyOf(rows, capacity);
+          seqs = Arrays.copyOf(seqs, capacity);
         }
+        set(size, key, row, s);
+        siftUp(size++);
+        return;
+      }
+      // The heap is full, and its root is the greatest row retained. A row
+      // with an equal key arrived later, so it is greater too.
+      if (comparator.compare(key, key(0)) >= 0) {
+        return;
+      }
+      set(0, key, row, s);
+      siftDown(0, size);
+    }
 
-        return new LookupImpl<>(map).valuesEnumerable().enumerator();
+    /** Sorts the heap in place and returns its rows, smallest first. */
+    @SuppressWarnings("unchecked")
+    List<TSource> toSortedList() {
+      for (int end = size - 1; end > 0; end--) {
+        swap(0, end);
+        siftDown(0, end);
       }
-    };
+      return (List<TSource>) Arrays.asList(rows).subList(0, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TKey key(int i) {
+      return (TKey) castNonNull(keys[i]);
+    }
+
+    private void set(int i, TKey key, TSource row, long s) {
+      keys[i] = key;
+      rows[i] = row;
+      seqs[i] = s;
+    }
+
+    /** Returns whether the row at position {@code i} sorts after the row at
+     * position {@code j}. */
+    private boolean greater(int i, int j) {
+      final int c = comparator.compare(key(i), key(j));
+      return c != 0 ? c > 0 : seqs[i] > seqs[j];
+    }
+
+    private void swap(int i, int j) {
+      final Object key = keys[i];
+      final Object row = rows[i];
+      final long s = seqs[i];
+      keys[i] = keys[j];
+      rows[i] = rows[j];
+      seqs[i] = seqs[j];
+      keys[j] = key;
+      rows[j] = row;
+      seqs[j] = s;
+    }
+
+    private void siftUp(int i) {
+      while (i > 0) {
+        final int parent = (i - 1) >>> 1;
+        if (!greater(i, parent)) {
+          break;
+        }
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    /** Moves the row at position {@code i} down until the heap property
+     * holds for the first {@code n} rows. */
+    private void siftDown(int i, int n) {
+      for (;;) {
+        int child = 2 * i + 1;
+        if (child >= n) {
+          break;
+        }
+        if (child + 1 < n && greater(child + 1, child)) {
+          ++child;
+        }
+        if (!greater(child, i)) {
+          break;
+        }
+        swap(i, child);
+        i = child;
+      }
+    }
   }
 
   /**
@@ -4694,6 +4723,218 @@ private boolean advanceRight(TInner right, TKey rightKey) {
     }
   }
 
+  /** Enumerator that evaluates a merge join that generates nulls on the left
+   * (RIGHT or FULL).
+   *
+   * <p>Reads each input one group of rows with equal keys at a time. A group
+   * whose key is less than the current group of the other input has no match.
+   * Two groups with equal keys are joined using a nested loop join, which
+   * applies the extra predicate and emits the rows of either group that it
+   * rejects.
+   *
+   * @param <TResult> result type
+   * @param <TSource> left input record type
+   * @param <TInner> right input record type
+   * @param <TKey> key type */
+  private static class OuterMergeJoinEnumerator<TResult, TSource, TInner,
+      TKey extends Comparable<TKey>> implements Enumerator<TResult> {
+    private final Enumerable<TSource> leftEnumerable;
+    private final Enumerable<TInner> rightEnumerable;
+    private final Function1<TSource, TKey> outerKeySelector;
+    private final Function1<TInner, TKey> innerKeySelector;
+    private final @Nullable Predicate2<TSource, TInner> extraPredicate;
+    private final Function2<TSource, @Nullable TInner, TResult> resultSelector;
+    private final JoinType joinType;
+    private final @Nullable Comparator<TKey> comparator;
+    private final @Nullable EqualityComparer<TKey> equalityComparer;
+    private @Nullable Enumerator<TSource> leftEnumerator = null;
+    private @Nullable Enumerator<TInner> rightEnumerator = null;
+    /** Current group of left rows, all with key {@link #leftKey}; empty if
+     * the left input is exhausted. */
+    private List<TSource> lefts = new ArrayList<>();
+    private List<TInner> rights = new ArrayList<>();
+    private @Nullable TKey leftKey;
+    private @Nullable TKey rightKey;
+    /** Whether each enumerator is positioned on a row that does not yet
+     * belong to a group. */
+    private boolean leftPending;
+    private boolean rightPending;
+    private boolean started;
+    private Enumerator<TResult> results = Linq4j.emptyEnumerator();
+    private TResult current = (TResult) DUMMY;
+
+    OuterMergeJoinEnumerator(Enumerable<TSource> leftEnumerable,
+        Enumerable<TInner> rightEnumerable,
+        Function1<TSource, TKey> outerKeySelector,
+        Function1<TInner, TKey> innerKeySelector,
+        @Nullable Predicate2<TSource, TInner> extraPredicate,
+        Function2<TSource, @Nullable TInner, TResult> resultSelector,
+        JoinType joinType,
+        @Nullable Comparator<TKey> comparator,
+        @Nullable EqualityComparer<TKey> equalityComparer) {
+      this.leftEnumerable = leftEnumerable;
+      this.rightEnumerable = rightEnumerable;
+      this.outerKeySelector = outerKeySelector;
+      this.innerKeySelector = innerKeySelector;
+      this.extraPredicate = extraPredicate;
+      this.resultSelector = resultSelector;
+      this.joinType = joinType;
+      this.comparator = comparator;
+      this.equalityComparer = equalityComparer;
+    }
+
+    private Enumerator<TSource> getLeftEnumerator() {
+      if (leftEnumerator == null) {
+        leftEnumerator = leftEnumerable.enumerator();
+      }
+      return leftEnumerator;
+    }
+
+    private Enumerator<TInner> getRightEnumerator() {
+      if (rightEnumerator == null) {
+        rightEnumerator = rightEnumerable.enumerator();
+      }
+      return rightEnumerator;
+    }
+
+    /** Method to compare keys from the same input (nulls must be considered equal). */
+    private boolean compareEquals(@Nullable TKey key1, @Nullable TKey key2) {
+      return equalityComparer != null
+          ? equalityComparer.equal(key1, key2)
+          : Objects.equals(key1, key2);
+    }
+
+    /** Compares the keys of the current left and right groups. A null key, or
+     * a key whose components are both null, matches nothing; inputs are
+     * sorted nulls last. */
+    private int compareGroups() {
+      if (lefts.isEmpty()) {
+        return 1;
+      }
+      if (rights.isEmpty() || leftKey == null || rightKey == null) {
+        return -1;
+      }
+      try {
+        return comparator != null
+            ? comparator.compare(leftKey, rightKey)
+            : compareNullsLastForMergeJoin(leftKey, rightKey);
+      } catch (BothValuesAreNullException e) {
+        // consider the left value as "bigger", to advance on the right value
+        return 1;
+      }
+    }
+
+    /** Reads the next group of left rows into {@link #lefts}. */
+    private void nextLefts() {
+      lefts = new ArrayList<>();
+      if (!leftPending) {
+        return;
+      }
+      final Enumerator<TSource> enumerator = getLeftEnumerator();
+      final TSource left = enumerator.current();
+      leftKey = outerKeySelector.apply(left);
+      lefts.add(left);
+      while ((leftPending = enumerator.moveNext())
+          && compareEquals(leftKey, outerKeySelector.apply(enumerator.current()))) {
+        lefts.add(enumerator.current());
+      }
+    }
+
+    /** Reads the next group of right rows into {@link #rights}. */
+    private void nextRights() {
+      rights = new ArrayList<>();
+      if (!rightPending) {
+        return;
+      }
+      final Enumerator<TInner> enumerator = getRightEnumerator();
+      final TInner right = enumerator.current();
+      rightKey = innerKeySelector.apply(right);
+      rights.add(right);
+      while ((rightPending = enumerator.moveNext())
+          && compareEquals(rightKey, innerKeySelector.apply(enumerator.current()))) {
+        rights.add(enumerator.current());
+      }
+    }
+
+    @Override public TResult current() {
+      if (current == DUMMY) {
+        throw new NoSuchElementException();
+      }
+      return current;
+    }
+
+    @Override public boolean moveNext() {
+      if (!started) {
+        started = true;
+        leftPending = getLeftEnumerator().moveNext();
+        rightPending = getRightEnumerator().moveNext();
+        nextLefts();
+        nextRights();
+      }
+      for (;;) {
+        if (results.moveNext()) {
+          current = results.current();
+          return true;
+        }
+        results = Linq4j.emptyEnumerator();
+        if (lefts.isEmpty() && rights.isEmpty()) {
+          current = (TResult) DUMMY;
+          return false;
+        }
+        final int c = compareGroups();
+        if (c < 0) {
+          // left rows that have no match
+          if (joinType.generatesNullsOnRight()) {
+            results =
+                new CartesianProductJoinEnumerator<>(resultSelector,
+                    Linq4j.enumerator(lefts),
+                    Linq4j.enumerator(Collections.singletonList(null)));
+          }
+          nextLefts();
+        } else if (c > 0) {
+          // right rows that have no match
+          results =
+              new CartesianProductJoinEnumerator<>(resultSelector,
+                  Linq4j.enumerator(Collections.singletonList(null)),
+                  Linq4j.enumerator(rights));
+          nextRights();
+        } else {
+          results = extraPredicate == null
+              ? new CartesianProductJoinEnumerator<>(resultSelector,
+                  Linq4j.enumerator(lefts), Linq4j.enumerator(rights))
+              : nestedLoopJoin(Linq4j.asEnumerable(lefts),
+                  Linq4j.asEnumerable(rights), extraPredicate, resultSelector,
+                  joinType).enumerator();
+          nextLefts();
+          nextRights();
+        }
+      }
+    }
+
+    @Override public void reset() {
+      started = false;
+      lefts = new ArrayList<>();
+      rights = new ArrayList<>();
+      results = Linq4j.emptyEnumerator();
+      current = (TResult) DUMMY;
+      if (leftEnumerator != null) {
+        leftEnumerator.reset();
+      }
+      if (rightEnumerator != null) {
+        rightEnumerator.reset();
+      }
+    }
+
+    @Override public void close() {
+      if (leftEnumerator != null) {
+        leftEnumerator.close();
+      }
+      if (rightEnumerator != null) {
+        rightEnumerator.close();
+      }
+    }
+  }
+
   /**
    * Exception used for control flow (it does not populate the stack trace to be more efficient)
    * to signal that both values are <code>null</code>, so that the caller method (i.e. MergeJoin
@@ -4765,7 +5006,6 @@ public static int compareNullsLastForMergeJoin(@Nullable Comparable v0, @Nullabl
    * @param cleanUpFunction optional clean-up actions (e.g. delete temporary table)
    * @param <TSource> record type
    */
-  @SuppressWarnings("unchecked")
   public static <TSource> Enumerable<TSource> repeatUnion(
       Enumerable<TSource> seed,
       Enumerable<TSource> iteration,
@@ -4773,6 +5013,45 @@ public static <TSource> Enumerable<TSource> repeatUnion(
       boolean all,
       EqualityComparer<TSource> comparer,
       @Nullable Function0<Boolean> cleanUpFunction) {
+    return repeatUnion(seed, iteration, iterationLimit, all, comparer,
+        cleanUpFunction, null, null);
+  }
+
+  /**
+   * Repeat Union enumerable that evaluates recursion semi-naively.
+   *
+   * <p>As {@link #repeatUnion(Enumerable, Enumerable, int, boolean, EqualityComparer, Function0)},
+   * but if {@code delta} is not null and {@code all} is false, after the seed
+   * and after each iteration, replaces the contents of {@code delta} (the
+   * collection that the next iteration reads) with just the rows that were
+   * new in that step. Without this, rows that an iteration re-derives are
+   * fed back and expanded again. Evaluation stops as soon as a step yields
+   * no new rows.
+   *
+   * @param seed seed enumerable
+   * @param iteration iteration enumerable
+   * @param iterationLimit maximum numbers of repetitions for the iteration enumerable
+   *                       (negative value means no limit)
+   * @param all whether duplicates will be considered or not
+   * @param comparer {@link EqualityComparer} to control duplicates,
+   *                 only used if {@code all} is {@code false}
+   * @param cleanUpFunction optional clean-up actions (e.g. delete temporary table)
+   * @param delta collection that holds the input of the next iteration, or null
+   * @param listener called after the seed (step 0) and after each iteration
+   *                 with the step number and the number of rows it emitted,
+   *                 or null
+   * @param <TSource> record type
+   */
+  @SuppressWarnings("unchecked")
+  public static <TSource> Enumerable<TSource> repeatUnion(
+      Enumerable<TSource> seed,
+      Enumerable<TSource> iteration,
+      int iterationLimit,
+      boolean all,
+      EqualityComparer<TSource> comparer,
+      @Nullable Function0<Boolean> cleanUpFunction,
+      @Nullable Collection<TSource> delta,
+      @Nullable Function2<Integer, Integer, ?> listener) {
     return new AbstractEnumerable<TSource>() {
       @Override public Enumerator<TSource> enumerator() {
         return new Enumerator<TSource>() {
@@ -4781,11 +5060,17 @@ public static <TSource> Enumerable<TSource> repeatUnion(
           private int currentIteration = 0;
           private final Enumerator<TSource> seedEnumerator = seed.enumerator();
           private @Nullable Enumerator<TSource> iterativeEnumerator = null;
+          private boolean done = false;
 
           // Set to control duplicates, only used if "all" is false
           private final Set<Wrapped<TSource>> processed = new HashSet<>();
           private final Function1<TSource, Wrapped<TSource>> wrapper = wrapperFor(comparer);
 
+          // Rows emitted by the current step; retained only if they are to
+          // replace the contents of "delta"
+          private final List<TSource> emitted = new ArrayList<>();
+          private int stepCount = 0;
+
           @Override public TSource current() {
             if (current == DUMMY) {
               throw new NoSuchElementException();
@@ -4794,21 +5079,42 @@ public static <TSource> Enumerable<TSource> repeatUnion(
           }
 
           private boolean checkValue(TSource value) {
-            if (all) {
-              return true; // no need to check duplicates
+            if (!all) {
+              // check duplicates
+              final Wrapped<TSource> wrapped = wrapper.apply(value);
+              if (!processed.add(wrapped)) {
+                return false;
+              }
+              if (delta != null) {
+                emitted.add(value);
+              }
             }
+            ++stepCount;
+            return true;
+          }
 
-            // check duplicates
-            final Wrapped<TSource> wrapped = wrapper.apply(value);
-            if (!processed.contains(wrapped)) {
-              processed.add(wrapped);
-              return true;
+          /** Finishes a step (the seed or an iteration), and returns the
+           * number of rows it emitted. */
+          private int endStep(int step) {
+            final int count = stepCount;
+            stepCount = 0;
+            if (delta != null && !all) {
+              // The spool has just written all rows of this step to "delta";
+              // keep only the new ones
+              delta.clear();
+              delta.addAll(emitted);
+              emitted.clear();
             }
-
-            return false;
+            if (listener != null) {
+              listener.apply(step, count);
+            }
+            return count;
           }
 
           @Override public boolean moveNext() {
+            if (done) {
+              return false;
+            }
             // if we are not done with the seed moveNext on it
             while (!seedProcessed) {
               if (seedEnumerator.moveNext()) {
@@ -4819,6 +5125,7 @@ private boolean checkValue(TSource value) {
                 }
               } else {
                 seedProcessed = true;
+                endStep(0);
               }
             }
 
@@ -4827,6 +5134,7 @@ private boolean checkValue(TSource value) {
               if (iterationLimit >= 0 && currentIteration == iterationLimit) {
                 // max number of iterations reached, we are done
                 current = (TSource) DUMMY;
+                done = true;
                 return false;
               }
 
@@ -4843,8 +5151,10 @@ private boolean checkValue(TSource value) {
                 }
               }
 
-              if (current == DUMMY) {
-                // current iteration did not return any value, we are done
+              if (endStep(currentIteration + 1) == 0) {
+                // current iteration did not return any new value, we are done
+                current = (TSource) DUMMY;
+                done = true;
                 return false;
               }
 
@@ -4859,7 +5169,10 @@ private boolean checkValue(TSource value) {
           @Override public void reset() {
             seedEnumerator.reset();
             seedProcessed = false;
+            done = false;
             processed.clear();
+            emitted.clear();
+            stepCount = 0;
             if (iterativeEnumerator != null) {
               iterativeEnumerator.close();
               iterativeEnumerator = null;
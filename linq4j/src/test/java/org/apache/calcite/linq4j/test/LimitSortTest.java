@@ -24,6 +24,7 @@
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
@@ -141,6 +142,20 @@ private void randomizedTest(final long seed) {
     assertThat("Fetch has not been respected.", actFetch, is(expFetch));
   }
 
+  /** Tests a fetch that is much larger than the input, and that rows with
+   * equal keys are returned in input order. */
+  @Test void testLargeFetch() {
+    final List<String> list =
+        Arrays.asList("c1", "a1", "b1", "a2", "c2", "b2", "a3");
+    final Enumerable<String> ordered =
+        EnumerableDefaults.orderBy(Linq4j.asEnumerable(list),
+            s -> s.substring(0, 1),
+            Comparator.naturalOrder(),
+            2, Integer.MAX_VALUE);
+    assertThat(ordered.toList(),
+        is(Arrays.asList("a3", "b1", "b2", "c1", "c2")));
+  }
+
   /** A comparison function that takes the order of creation into account. */
   private static boolean isSmaller(@Nullable Row left, @Nullable Row right,
       Comparator<String> cmp) {
@@ -877,6 +877,55 @@ private void checkIterable(Enumerator<Integer> enumerator) {
         is(2));
   }
 
+  /** Tests EXCEPT and INTERSECT, with and without ALL, on inputs with
+   * duplicates; results are in the order of the first input. */
+  @Test void testSetOpsWithDuplicates() {
+    final Enumerable<Integer> e0 =
+        Linq4j.asEnumerable(Arrays.asList(1, 1, 1, 2, 2, 3, 4, null, null));
+    final Enumerable<Integer> e1 =
+        Linq4j.asEnumerable(Arrays.asList(1, 2, 2, 2, 5, null));
+    assertThat(e0.except(e1, false).toList(),
+        is(Arrays.asList(3, 4)));
+    assertThat(e0.except(e1, true).toList(),
+        is(Arrays.asList(1, 1, 3, 4, null)));
+    assertThat(e0.intersect(e1, false).toList(),
+        is(Arrays.asList(1, 2, null)));
+    assertThat(e0.intersect(e1, true).toList(),
+        is(Arrays.asList(1, 2, 2, null)));
+
+    // Enumerating again gives the same result
+    final Enumerable<Integer> except = e0.except(e1, true);
+    assertThat(except.count(), is(5));
+    assertThat(except.count(), is(5));
+  }
+
+  /** Tests that an enumerator of EXCEPT or INTERSECT gives the same result
+   * after {@link Enumerator#reset()}. */
+  @Test void testSetOpsReset() {
+    final Enumerable<Integer> e0 =
+        Linq4j.asEnumerable(Arrays.asList(1, 1, 1, 2, 2, 3, 4, null, null));
+    final Enumerable<Integer> e1 =
+        Linq4j.asEnumerable(Arrays.asList(1, 2, 2, 2, 5, null));
+    checkReset(e0.except(e1, false), Arrays.asList(3, 4));
+    checkReset(e0.except(e1, true), Arrays.asList(1, 1, 3, 4, null));
+    checkReset(e0.intersect(e1, false), Arrays.asList(1, 2, null));
+    checkReset(e0.intersect(e1, true), Arrays.asList(1, 2, 2, null));
+  }
+
+  private static <E> void checkReset(Enumerable<E> enumerable,
+      List<E> expected) {
+    try (Enumerator<E> enumerator = enumerable.enumerator()) {
+      for (int i = 0; i < 2; i++) {
+        final List<E> list = new ArrayList<>();
+        while (enumerator.moveNext()) {
+          list.add(enumerator.current());
+        }
+        assertThat(list, is(expected));
+        enumerator.reset();
+      }
+    }
+  }
+
   @Test void testDistinct() {
     final Employee[] emps2 = {
         new Employee(150, "Theodore", 10),
@@ -1373,11 +1422,8 @@ public boolean apply(Department v1, Integer v2) {
   }
 
   @Test void testAsofJoin() {
-    // TODO: improve this test
     Enumerable<Employee> employees = Linq4j.asEnumerable(emps);
     Enumerable<Department> departments = Linq4j.asEnumerable(depts);
-    employees.iterator().forEachRemaining(System.out::println);
-    departments.iterator().forEachRemaining(System.out::println);
     Enumerable<String> result =
         employees.asofJoin(departments, // inner
             e -> e.deptno, // outerKeySelector
@@ -1386,7 +1432,33 @@ public boolean apply(Department v1, Integer v2) {
             (e, d) -> e.name.charAt(1) <= d.name.charAt(1), // matchComparator
             Comparator.comparing(d0 -> d0.name),            // timestampComparator
             true);
-    result.iterator().forEachRemaining(System.out::println);
+    // Results are in the order of the outer input
+    assertThat(result.toList(),
+        hasToString("[Fred:null, Bill:null, Eric:null, Janet:Sales]"));
+  }
+
+  /** Tests that an ASOF join picks, for each outer element, the greatest
+   * inner element (per the timestamp comparator) that matches it, among
+   * many inner elements with the same key. */
+  @Test void testAsofJoinMany() {
+    final List<Integer> outer = Arrays.asList(5, 0, 25, null, 12, 100);
+    final List<Integer> inner = new ArrayList<>();
+    for (int i = 30; i >= 0; i -= 3) {
+      inner.add(i);
+    }
+    // outer and inner elements all have the same key; the best inner element
+    // is the greatest that is less than or equal to the outer element
+    final Enumerable<String> result =
+        Linq4j.asEnumerable(outer)
+            .asofJoin(Linq4j.asEnumerable(inner),
+                o -> 0,
+                i -> 0,
+                (o, i) -> o + ":" + i,
+                (o, i) -> o != null && i <= o,
+                Comparator.naturalOrder(),
+                true);
+    assertThat(result.toList(),
+        hasToString("[5:3, 0:0, 25:24, null:null, 12:12, 100:30]"));
   }
 
   @Test void testTakeWhileNNoMatch() {
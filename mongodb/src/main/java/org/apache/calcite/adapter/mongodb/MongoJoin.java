@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.adapter.mongodb;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptCost;
+import org.apache.calcite.plan.RelOptPlanner;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.util.Util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implementation of {@link org.apache.calcite.rel.core.Join} in MongoDB,
+ * as a {@code $lookup} stage followed by {@code $unwind}.
+ *
+ * <p>The left input is the main pipeline; the right input must be a
+ * collection of the same database, optionally filtered and projected, whose
+ * pipeline becomes the {@code $lookup} sub-pipeline, correlated to the left
+ * document by the join keys. Only inner and left equi-joins are supported.
+ */
+public class MongoJoin extends Join implements MongoRel {
+  public MongoJoin(RelOptCluster cluster, RelTraitSet traitSet,
+      RelNode left, RelNode right, RexNode condition, JoinRelType joinType) {
+    super(cluster, traitSet, ImmutableList.of(), left, right, condition,
+        ImmutableSet.of(), joinType);
+    assert getConvention() == MongoRel.CONVENTION;
+  }
+
+  @Override public MongoJoin copy(RelTraitSet traitSet, RexNode condition,
+      RelNode left, RelNode right, JoinRelType joinType,
+      boolean semiJoinDone) {
+    return new MongoJoin(getCluster(), traitSet, left, right, condition,
+        joinType);
+  }
+
+  /** {@inheritDoc}
+   *
+   * <p>A {@code $lookup} runs its sub-pipeline once for each left document,
+   * and before MongoDB 5.0 the correlating {@code $match} on {@code $expr}
+   * cannot use an index, so each run reads every document of the right
+   * input. The work is therefore proportional to the product of the input
+   * row counts, not to their sum as in a hash join. Like the other
+   * operators of this convention, work that MongoDB does is weighted by
+   * 0.1, so that a {@code $lookup} beats a hash join when the inputs are
+   * small and loses to it when they are large. */
+  @Override public @Nullable RelOptCost computeSelfCost(RelOptPlanner planner,
+      RelMetadataQuery mq) {
+    final double rowCount = mq.getRowCount(this);
+    final double leftRowCount = mq.getRowCount(getLeft());
+    final double rightRowCount = mq.getRowCount(getRight());
+    return planner.getCostFactory()
+        .makeCost(rowCount + leftRowCount * rightRowCount, 0, 0)
+        .multiplyBy(0.1);
+  }
+
+  /** Returns whether a join can be implemented as a {@code $lookup}. */
+  static boolean canImplement(Join join) {
+    if (join.getJoinType() != JoinRelType.INNER
+        && join.getJoinType() != JoinRelType.LEFT) {
+      return false;
+    }
+    if (!join.getVariablesSet().isEmpty()) {
+      return false;
+    }
+    final JoinInfo joinInfo =
+        JoinInfo.createWithStrictEquality(join.getLeft(), join.getRight(),
+            join.getCondition());
+    if (!joinInfo.isEqui() || joinInfo.leftKeys.isEmpty()) {
+      return false;
+    }
+    // Raw collections (a single "_MAP" field) have no named fields to join on
+    if (MongoRules.mongoFieldNames(join.getLeft().getRowType()).contains("_MAP")
+        || MongoRules.mongoFieldNames(join.getRight().getRowType()).contains("_MAP")) {
+      return false;
+    }
+    final MongoTable leftTable = collection(join.getLeft(), false);
+    final MongoTable rightTable = collection(join.getRight(), true);
+    return leftTable != null
+        && rightTable != null
+        && leftTable.schema != null
+        && leftTable.schema == rightTable.schema
+        && leftTable.schema.lookupJoin;
+  }
+
+  /** Returns the collection that a relational expression reads, or null if
+   * it does not read exactly one collection.
+   *
+   * @param rel Relational expression
+   * @param simple Whether to allow only filters and projects above the scan
+   */
+  private static @Nullable MongoTable collection(RelNode rel, boolean simple) {
+    final RelNode node = rel.stripped();
+    if (node instanceof TableScan) {
+      return ((TableScan) node).getTable().unwrap(MongoTable.class);
+    }
+    if (simple && !(node instanceof Project || node instanceof Filter)) {
+      return null;
+    }
+    if (node.getInputs().size() != 1) {
+      return null;
+    }
+    return collection(node.getInput(0), simple);
+  }
+
+  @Override public void implement(Implementor implementor) {
+    implementor.visitChild(0, getLeft());
+
+    final Implementor rightImplementor =
+        new Implementor(implementor.rexBuilder);
+    rightImplementor.visitChild(0, getRight());
+    final MongoTable rightTable =
+        requireNonNull(rightImplementor.mongoTable, "mongoTable");
+
+    final JoinInfo joinInfo =
+        JoinInfo.createWithStrictEquality(getLeft(), getRight(),
+            getCondition());
+    final List<String> leftNames =
+        MongoRules.mongoFieldNames(getLeft().getRowType());
+    final List<String> rightNames =
+        MongoRules.mongoFieldNames(getRight().getRowType());
+    final List<String> outNames = MongoRules.mongoFieldNames(getRowType());
+
+    // Name of the array that $lookup adds to each left document
+    String as = "_right";
+    while (leftNames.contains(as)) {
+      as += "_";
+    }
+
+    // Correlate right documents to the left document. Keys that are null
+    // or missing match nothing, as in SQL; "$gt: null" is false for both.
+    final List<String> lets = new ArrayList<>();
+    final List<String> conditions = new ArrayList<>();
+    for (int i = 0; i < joinInfo.leftKeys.size(); i++) {
+      final String leftName = leftNames.get(joinInfo.leftKeys.get(i));
+      final String rightName = rightNames.get(joinInfo.rightKeys.get(i));
+      lets.add("k" + i + ": " + MongoRules.quote("$" + leftName));
+      conditions.add("{$gt: ['$$k" + i + "', null]}");
+      conditions.add("{$eq: [" + MongoRules.quote("$" + rightName)
+          + ", '$$k" + i + "']}");
+    }
+    final List<String> pipeline =
+        new ArrayList<>(rightImplementor.list.rightList());
+    pipeline.add("{$match: {$expr: {$and: "
+        + Util.toString(conditions, "[", ", ", "]") + "}}}");
+
+    implementor.add(null,
+        "{$lookup: {from: " + MongoRules.quote(rightTable.collectionName)
+            + ", let: " + Util.toString(lets, "{", ", ", "}")
+            + ", pipeline: " + Util.toString(pipeline, "[", ", ", "]")
+            + ", as: " + MongoRules.quote(as) + "}}");
+    implementor.add(null,
+        "{$unwind: {path: " + MongoRules.quote("$" + as)
+            + ", preserveNullAndEmptyArrays: "
+            + (joinType == JoinRelType.LEFT) + "}}");
+
+    // Flatten into the row type of the join
+    final List<String> items = new ArrayList<>();
+    for (int i = 0; i < outNames.size(); i++) {
+      final String source = i < leftNames.size()
+          ? "$" + leftNames.get(i)
+          : "$" + as + "." + rightNames.get(i - leftNames.size());
+      items.add(MongoRules.maybeQuote(outNames.get(i)) + ": "
+          + MongoRules.quote(source));
+    }
+    implementor.add(null,
+        "{$project: " + Util.toString(items, "{", ", ", "}") + "}");
+  }
+}
@@ -30,6 +30,7 @@
 import org.apache.calcite.rel.core.Sort;
 import org.apache.calcite.rel.logical.LogicalAggregate;
 import org.apache.calcite.rel.logical.LogicalFilter;
+import org.apache.calcite.rel.logical.LogicalJoin;
 import org.apache.calcite.rel.logical.LogicalProject;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rex.RexCall;
@@ -69,6 +70,7 @@ private MongoRules() {}
       MongoFilterRule.INSTANCE,
       MongoProjectRule.INSTANCE,
       MongoAggregateRule.INSTANCE,
+      MongoJoinRule.INSTANCE,
   };
 
   /** Returns 'string' if it is a call to item['string'], null otherwise. */
@@ -259,6 +261,13 @@ private static class MongoSortRule extends MongoConverterRule {
       super(config);
     }
 
+    @Override public boolean matches(RelOptRuleCall call) {
+      final Sort sort = call.rel(0);
+      // $skip and $limit require constants, not dynamic parameters
+      return (sort.offset == null || sort.offset instanceof RexLiteral)
+          && (sort.fetch == null || sort.fetch instanceof RexLiteral);
+    }
+
     @Override public RelNode convert(RelNode rel) {
       final Sort sort = (Sort) rel;
       final RelTraitSet traitSet =
@@ -296,6 +305,36 @@ private static class MongoFilterRule extends MongoConverterRule {
     }
   }
 
+  /**
+   * Rule to convert a {@link org.apache.calcite.rel.logical.LogicalJoin} to a
+   * {@link MongoJoin}, if the schema allows it and the right input is a
+   * collection of the same database.
+   */
+  private static class MongoJoinRule extends MongoConverterRule {
+    static final MongoJoinRule INSTANCE = Config.INSTANCE
+        .withConversion(LogicalJoin.class, Convention.NONE,
+            MongoRel.CONVENTION, "MongoJoinRule")
+        .withRuleFactory(MongoJoinRule::new)
+        .toRule(MongoJoinRule.class);
+
+    MongoJoinRule(Config config) {
+      super(config);
+    }
+
+    @Override public boolean matches(RelOptRuleCall call) {
+      final LogicalJoin join = call.rel(0);
+      return MongoJoin.canImplement(join);
+    }
+
+    @Override public RelNode convert(RelNode rel) {
+      final LogicalJoin join = (LogicalJoin) rel;
+      final RelTraitSet traitSet = join.getTraitSet().replace(out);
+      return new MongoJoin(join.getCluster(), traitSet,
+          convert(join.getLeft(), out), convert(join.getRight(), out),
+          join.getCondition(), join.getJoinType());
+    }
+  }
+
   /**
    * Rule to convert a {@link org.apache.calcite.rel.logical.LogicalProject}
    * to a {@link MongoProject}.
@@ -37,6 +37,18 @@
 public class MongoSchema extends AbstractSchema {
   final MongoDatabase mongoDb;
 
+  /** Number of documents per batch returned by cursors; 0 to use the server
+   * default. */
+  final int batchSize;
+
+  /** Whether aggregation pipelines may write temporary files, so that large
+   * {@code $group} and {@code $sort} stages do not fail. */
+  final boolean allowDiskUse;
+
+  /** Whether equi-joins between collections of this schema are pushed down
+   * as {@code $lookup} stages. */
+  final boolean lookupJoin;
+
   /**
    * Creates a MongoDB schema.
    *
@@ -44,6 +56,20 @@ public class MongoSchema extends AbstractSchema {
    * @param database Mongo database name, e.g. "foodmart"
    */
   MongoSchema(MongoClientSettings settings, String database) {
+    this(settings, database, 0, false, false);
+  }
+
+  /**
+   * Creates a MongoDB schema.
+   *
+   * @param settings Mongo connection settings, including host and credentials
+   * @param database Mongo database name, e.g. "foodmart"
+   * @param batchSize Number of documents per cursor batch; 0 for server default
+   * @param allowDiskUse Whether aggregations may use temporary files
+   * @param lookupJoin Whether to push down joins as {@code $lookup}
+   */
+  MongoSchema(MongoClientSettings settings, String database, int batchSize,
+      boolean allowDiskUse, boolean lookupJoin) {
     super();
 
     final MongoClient mongo = MongoClients.create(settings);
@@ -53,6 +79,9 @@ public class MongoSchema extends AbstractSchema {
       mongo.close();
       throw new RuntimeException(e);
     }
+    this.batchSize = batchSize;
+    this.allowDiskUse = allowDiskUse;
+    this.lookupJoin = lookupJoin;
   }
 
   /**
@@ -62,14 +91,23 @@ public class MongoSchema extends AbstractSchema {
    */
   @VisibleForTesting
   MongoSchema(MongoDatabase mongoDb) {
+    this(mongoDb, 0, false, false);
+  }
+
+  @VisibleForTesting
+  MongoSchema(MongoDatabase mongoDb, int batchSize, boolean allowDiskUse,
+      boolean lookupJoin) {
     super();
     this.mongoDb = requireNonNull(mongoDb, "mongoDb");
+    this.batchSize = batchSize;
+    this.allowDiskUse = allowDiskUse;
+    this.lookupJoin = lookupJoin;
   }
 
   @Override protected Map<String, Table> getTableMap() {
     final ImmutableMap.Builder<String, Table> builder = ImmutableMap.builder();
     for (String collectionName : mongoDb.listCollectionNames()) {
-      builder.put(collectionName, new MongoTable(collectionName));
+      builder.put(collectionName, new MongoTable(collectionName, this));
     }
     return builder.build();
   }
@@ -31,6 +31,18 @@
  * Factory that creates a {@link MongoSchema}.
  *
  * <p>Allows a custom schema to be included in a model.json file.
+ *
+ * <p>Besides connection properties ({@code host}, {@code database} and
+ * credentials), the following operands are optional:
+ *
+ * <ul>
+ *   <li>{@code batchSize}: number of documents per cursor batch; defaults to
+ *   the server's default;
+ *   <li>{@code allowDiskUse}: whether aggregation pipelines may write
+ *   temporary files (default false);
+ *   <li>{@code lookupJoin}: whether equi-joins between collections of the
+ *   database are pushed down as {@code $lookup} stages (default false).
+ * </ul>
  */
 public class MongoSchemaFactory implements SchemaFactory {
   // public constructor, per factory contract
@@ -52,7 +64,13 @@ public MongoSchemaFactory() {
       settings.credential(createCredential(operand));
     }
 
-    return new MongoSchema(settings.build(), database);
+    final Object batchSize = operand.get("batchSize");
+    final Object allowDiskUse = operand.get("allowDiskUse");
+    final Object lookupJoin = operand.get("lookupJoin");
+    return new MongoSchema(settings.build(), database,
+        batchSize == null ? 0 : Integer.parseInt(batchSize.toString()),
+        allowDiskUse != null && Boolean.parseBoolean(allowDiskUse.toString()),
+        lookupJoin != null && Boolean.parseBoolean(lookupJoin.toString()));
   }
 
   private static MongoCredential createCredential(Map<String, Object> map) {
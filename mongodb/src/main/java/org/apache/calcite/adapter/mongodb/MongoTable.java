@@ -34,6 +34,7 @@
 import org.apache.calcite.sql.type.SqlTypeName;
 import org.apache.calcite.util.Util;
 
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
@@ -41,23 +42,34 @@
 import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * Table based on a MongoDB collection.
  */
 public class MongoTable extends AbstractQueryableTable
     implements TranslatableTable {
-  private final String collectionName;
+  final String collectionName;
+  /** Schema that this table belongs to, or null if not known. */
+  final @Nullable MongoSchema schema;
 
   /** Creates a MongoTable. */
   MongoTable(String collectionName) {
+    this(collectionName, null);
+  }
+
+  /** Creates a MongoTable within a schema. */
+  MongoTable(String collectionName, @Nullable MongoSchema schema) {
     super(Object[].class);
     this.collectionName = collectionName;
+    this.schema = schema;
   }
 
   @Override public String toString() {
@@ -91,14 +103,16 @@ public class MongoTable extends AbstractQueryableTable
    * <p>For example,
    * <code>zipsTable.find("{state: 'OR'}", "{city: 1, zipcode: 1}")</code>
    *
-   * @param mongoDb MongoDB connection
+   * @param mongoSchema MongoDB schema, which holds the connection
    * @param filterJson Filter JSON string, or null
    * @param projectJson Project JSON string, or null
    * @param fields List of fields to project; or null to return map
    * @return Enumerator of results
    */
-  private Enumerable<Object> find(MongoDatabase mongoDb, String filterJson,
+  private Enumerable<Object> find(MongoSchema mongoSchema, String filterJson,
       String projectJson, List<Map.Entry<String, Class>> fields) {
+    final MongoDatabase mongoDb = mongoSchema.mongoDb;
+    final int batchSize = mongoSchema.batchSize;
     final MongoCollection collection =
         mongoDb.getCollection(collectionName);
     final Bson filter =
@@ -110,6 +124,9 @@ private Enumerable<Object> find(MongoDatabase mongoDb, String filterJson,
       @Override public Enumerator<Object> enumerator() {
         @SuppressWarnings("unchecked") final FindIterable<Document> cursor =
             collection.find(filter).projection(project);
+        if (batchSize > 0) {
+          cursor.batchSize(batchSize);
+        }
         return new MongoEnumerator(cursor.iterator(), getter);
       }
     };
@@ -123,14 +140,17 @@ private Enumerable<Object> find(MongoDatabase mongoDb, String filterJson,
    * "{$group: {_id: '$city', c: {$sum: 1}, p: {$sum: '$pop'}}}")
    * </code>
    *
-   * @param mongoDb MongoDB connection
+   * @param mongoSchema MongoDB schema, which holds the connection
    * @param fields List of fields to project; or null to return map
    * @param operations One or more JSON strings
    * @return Enumerator of results
    */
-  private Enumerable<Object> aggregate(final MongoDatabase mongoDb,
+  private Enumerable<Object> aggregate(final MongoSchema mongoSchema,
       final List<Map.Entry<String, Class>> fields,
       final List<String> operations) {
+    final MongoDatabase mongoDb = mongoSchema.mongoDb;
+    final int batchSize = mongoSchema.batchSize;
+    final boolean allowDiskUse = mongoSchema.allowDiskUse;
     final List<Bson> list = new ArrayList<>();
     for (String operation : operations) {
       list.add(BsonDocument.parse(operation));
@@ -141,8 +161,15 @@ private Enumerable<Object> aggregate(final MongoDatabase mongoDb,
       @Override public Enumerator<Object> enumerator() {
         final Iterator<Document> resultIterator;
         try {
-          resultIterator = mongoDb.getCollection(collectionName)
-              .aggregate(list).iterator();
+          final AggregateIterable<Document> cursor =
+              mongoDb.getCollection(collectionName).aggregate(list);
+          if (allowDiskUse) {
+            cursor.allowDiskUse(true);
+          }
+          if (batchSize > 0) {
+            cursor.batchSize(batchSize);
+          }
+          resultIterator = cursor.iterator();
         } catch (Exception e) {
           throw new RuntimeException("While running MongoDB query "
               + Util.toString(operations, "[", ",\n", "]"), e);
@@ -165,12 +192,12 @@ private Enumerable<Object> aggregate(final MongoDatabase mongoDb,
     @Override public Enumerator<T> enumerator() {
       //noinspection unchecked
       final Enumerable<T> enumerable =
-          (Enumerable<T>) getTable().find(getMongoDb(), null, null, null);
+          (Enumerable<T>) getTable().find(getMongoSchema(), null, null, null);
       return enumerable.enumerator();
     }
 
-    private MongoDatabase getMongoDb() {
-      return schema.unwrap(MongoSchema.class).mongoDb;
+    private MongoSchema getMongoSchema() {
+      return requireNonNull(schema.unwrap(MongoSchema.class), "schema");
     }
 
     private MongoTable getTable() {
@@ -184,7 +211,7 @@ private MongoTable getTable() {
     @SuppressWarnings("UnusedDeclaration")
     public Enumerable<Object> aggregate(List<Map.Entry<String, Class>> fields,
         List<String> operations) {
-      return getTable().aggregate(getMongoDb(), fields, operations);
+      return getTable().aggregate(getMongoSchema(), fields, operations);
     }
 
     /** Called via code-generation.
@@ -199,7 +226,7 @@ public Enumerable<Object> aggregate(List<Map.Entry<String, Class>> fields,
     @SuppressWarnings("UnusedDeclaration")
     public Enumerable<Object> find(String filterJson,
         String projectJson, List<Map.Entry<String, Class>> fields) {
-      return getTable().find(getMongoDb(), filterJson, projectJson, fields);
+      return getTable().find(getMongoSchema(), filterJson, projectJson, fields);
     }
   }
 }
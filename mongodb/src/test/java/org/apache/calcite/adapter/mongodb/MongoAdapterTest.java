@@ -146,10 +146,21 @@ private static void populate(MongoCollection<Document> collection, URL resource)
     });
   }
 
-  /** Returns always the same schema to avoid initialization costs. */
+  /** Returns always the same schema to avoid initialization costs, or a
+   * schema over the same database if the operand sets any of the options
+   * that {@link MongoSchemaFactory} accepts. */
   @Override public Schema create(SchemaPlus parentSchema, String name,
       Map<String, Object> operand) {
-    return schema;
+    final Object batchSize = operand.get("batchSize");
+    final Object allowDiskUse = operand.get("allowDiskUse");
+    final Object lookupJoin = operand.get("lookupJoin");
+    if (batchSize == null && allowDiskUse == null && lookupJoin == null) {
+      return schema;
+    }
+    return new MongoSchema(schema.mongoDb,
+        batchSize == null ? 0 : Integer.parseInt(batchSize.toString()),
+        allowDiskUse != null && Boolean.parseBoolean(allowDiskUse.toString()),
+        lookupJoin != null && Boolean.parseBoolean(lookupJoin.toString()));
   }
 
   private CalciteAssert.AssertThat assertModel(String model) {
@@ -169,6 +180,20 @@ private CalciteAssert.AssertThat assertModel(URL url) {
     }
   }
 
+  /** Returns {@link #MODEL} with extra operands for the "mongo_raw" schema,
+   * for example {@code "lookupJoin": true}. */
+  private CalciteAssert.AssertThat assertModelWithOperands(String operands) {
+    requireNonNull(MODEL, "MODEL");
+    try {
+      final String model = Resources.toString(MODEL, StandardCharsets.UTF_8);
+      final String raw = "\"database\": \"test\"";
+      assertThat(model.contains(raw), is(true));
+      return assertModel(model.replace(raw, raw + ",\n" + operands));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   @Test void testSort() {
     assertModel(MODEL)
         .query("select * from zips order by state")
@@ -238,6 +263,89 @@ private CalciteAssert.AssertThat assertModel(URL url) {
                 "{$sort: {ID: 1}}"));
   }
 
+  /** Tests that a join between two collections is pushed down as a
+   * {@code $lookup} if the schema has the "lookupJoin" operand, and returns
+   * the same rows as the join done by Calcite. */
+  @Test void testLookupJoin() {
+    final String sql = "select s.\"store_name\", w.\"warehouse_state_province\"\n"
+        + "from \"store\" as s\n"
+        + "join \"warehouse\" as w on s.\"store_id\" = w.\"warehouse_id\"\n"
+        + "where w.\"warehouse_state_province\" = 'CA'";
+    final String[] expected = {
+        "store_name=Store 6; warehouse_state_province=CA",
+        "store_name=Store 7; warehouse_state_province=CA",
+        "store_name=Store 14; warehouse_state_province=CA",
+        "store_name=Store 24; warehouse_state_province=CA"};
+    assertModel(MODEL)
+        .query(sql)
+        .explainMatches("", resultSet -> {
+          try {
+            assertThat(CalciteAssert.toString(resultSet).contains("MongoJoin"),
+                is(false));
+          } catch (SQLException e) {
+            throw TestUtil.rethrow(e);
+          }
+        })
+        .returns(MongoAssertions.checkResultUnordered(expected));
+    assertModelWithOperands("\"lookupJoin\": true")
+        .query(sql)
+        .explainContains("MongoJoin(condition=[=($0, $2)], joinType=[inner])")
+        .returns(MongoAssertions.checkResultUnordered(expected))
+        .queryContains(
+            mongoChecker(
+                "{$project: {store_id: 1, store_name: 1}}",
+                "{$lookup: {from: 'warehouse', let: {k0: '$store_id'}, "
+                    + "pipeline: ["
+                    + "{$match: {warehouse_state_province: 'CA'}}, "
+                    + "{$project: {warehouse_id: 1, warehouse_state_province: 1}}, "
+                    + "{$match: {$expr: {$and: [{$gt: ['$$k0', null]}, "
+                    + "{$eq: ['$warehouse_id', '$$k0']}]}}}], "
+                    + "as: '_right'}}",
+                "{$unwind: {path: '$_right', preserveNullAndEmptyArrays: false}}",
+                "{$project: {store_id: '$store_id', store_name: '$store_name', "
+                    + "warehouse_id: '$_right.warehouse_id', "
+                    + "warehouse_state_province: '$_right.warehouse_state_province'}}",
+                "{$project: {store_name: 1, warehouse_state_province: 1}}"));
+  }
+
+  /** Tests that the "batchSize" and "allowDiskUse" operands reach the
+   * aggregate command sent to MongoDB. */
+  @Test void testBatchSizeAndAllowDiskUse() {
+    assertModelWithOperands("\"batchSize\": 7, \"allowDiskUse\": true")
+        .query("select state, count(*) as c from zips group by state")
+        .runs();
+    // Only this test sets "allowDiskUse"; other tests may run concurrently
+    final List<BsonDocument> commands =
+        POLICY.aggregateCommands().stream()
+            .filter(command -> command.containsKey("allowDiskUse"))
+            .collect(Collectors.toList());
+    assertThat(commands.isEmpty(), is(false));
+    for (BsonDocument command : commands) {
+      assertThat(command.getString("aggregate").getValue(), is("zips"));
+      assertThat(command.getBoolean("allowDiskUse").getValue(), is(true));
+      assertThat(
+          command.getDocument("cursor").getInt32("batchSize").getValue(),
+          is(7));
+    }
+  }
+
+  /** Tests that a sort whose offset and fetch are dynamic parameters is
+   * not pushed down, because {@code $skip} and {@code $limit} take only
+   * constants; it used to fail with a {@link ClassCastException}. */
+  @Test void testSortLimitDynamicParameters() {
+    assertModel(MODEL)
+        .query("select state, id from zips\n"
+            + "order by state, id offset ? rows fetch next ? rows only")
+        .explainContains("offset=[?0], fetch=[?1]")
+        .consumesPreparedStatement(p -> {
+          p.setInt(1, 2);
+          p.setInt(2, 3);
+        })
+        .returnsOrdered("STATE=AK; ID=99801",
+            "STATE=AL; ID=35215",
+            "STATE=AL; ID=35401");
+  }
+
   @Disabled
   @Test void testFilterSort() {
     // LONGITUDE and LATITUDE are null because of CALCITE-194.
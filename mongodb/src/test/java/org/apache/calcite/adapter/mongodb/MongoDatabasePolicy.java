@@ -24,12 +24,17 @@
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
 
+import org.bson.BsonDocument;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 
 import java.io.Closeable;
 import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import de.bwaldvogel.mongo.MongoServer;
 import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
@@ -54,10 +59,16 @@ class MongoDatabasePolicy implements AfterAllCallback {
   private final MongoDatabase database;
   private final Closer closer;
 
-  private MongoDatabasePolicy(MongoClient client, Closer closer) {
+  /** Aggregate commands sent to the database, in the order they were sent. */
+  private final List<BsonDocument> aggregateCommands;
+
+  private MongoDatabasePolicy(MongoClient client, Closer closer,
+      List<BsonDocument> aggregateCommands) {
     MongoClient client1 = requireNonNull(client, "client");
     this.database = client.getDatabase(DB_NAME);
     this.closer = requireNonNull(closer, "closer");
+    this.aggregateCommands =
+        requireNonNull(aggregateCommands, "aggregateCommands");
     closer.add(client);
   }
 
@@ -71,11 +82,23 @@ private MongoDatabasePolicy(MongoClient client, Closer closer) {
    * @return new instance of the policy to be used by unit tests
    */
   static MongoDatabasePolicy create() {
+    final List<BsonDocument> aggregateCommands = new CopyOnWriteArrayList<>();
+    final CommandListener listener = new CommandListener() {
+      @Override public void commandStarted(CommandStartedEvent event) {
+        if (event.getCommandName().equals("aggregate")) {
+          // the event's document is only valid during the call
+          aggregateCommands.add(event.getCommand().clone());
+        }
+      }
+    };
     final MongoClient client;
     final Closer closer = new Closer();
     if (MongoAssertions.useMongo()) {
       // use to real client (connects to default mongo instance)
-      client = MongoClients.create();
+      client =
+          MongoClients.create(MongoClientSettings.builder()
+              .addCommandListener(listener)
+              .build());
     } else if (MongoAssertions.useFake()) {
       final MongoServer server = new MongoServer(new MemoryBackend());
       final InetSocketAddress address = server.bind();
@@ -87,15 +110,21 @@ static MongoDatabasePolicy create() {
                       .applyConnectionString(
                                new ConnectionString("mongodb://127.0.0.1:" + address.getPort())
                       )
+                      .addCommandListener(listener)
                       .build());
     } else {
       throw new UnsupportedOperationException("I can only connect to Mongo or Fake instances");
     }
 
-    return new MongoDatabasePolicy(client, closer);
+    return new MongoDatabasePolicy(client, closer, aggregateCommands);
   }
 
   MongoDatabase database() {
     return database;
   }
+
+  /** Returns the aggregate commands that have been sent to the database. */
+  List<BsonDocument> aggregateCommands() {
+    return aggregateCommands;
+  }
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.benchmarks;
+
+import org.apache.calcite.linq4j.function.Predicate1;
+import org.apache.calcite.runtime.SqlFunctions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks evaluation of SQL {@code LIKE} over a batch of strings.
+ *
+ * <p>Compares a regular expression (how {@code LIKE} used to be evaluated),
+ * {@link SqlFunctions.LikeFunction} (used when the pattern is not a
+ * literal, and which looks up its matcher in a cache for each row), and the
+ * matcher returned by {@link SqlFunctions#likeMatcher} (used when the pattern
+ * is a literal).
+ */
+@Fork(value = 1, jvmArgsPrepend = "-Xmx1024m")
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class LikeBenchmark {
+  /** LIKE pattern and an equivalent Java regular expression, separated by
+   * a space. */
+  @Param({
+      "calcite% calcite(?s:.*)",
+      "%calcite (?s:.*)calcite",
+      "%calcite% (?s:.*)calcite(?s:.*)",
+      "%cal_ite%query% (?s:.*)cal.ite(?s:.*)query(?s:.*)"
+  })
+  String patterns;
+
+  private static final int COUNT = 1_000;
+
+  private final String[] strings = new String[COUNT];
+  private String likePattern;
+  private Pattern regex;
+  private SqlFunctions.LikeFunction likeFunction;
+  private Predicate1<String> matcher;
+
+  @Setup
+  public void setup() {
+    final String[] split = patterns.split(" ");
+    likePattern = split[0];
+    regex = Pattern.compile(split[1]);
+    likeFunction = new SqlFunctions.LikeFunction();
+    matcher = SqlFunctions.likeMatcher(likePattern, null, false);
+
+    final Random random = new Random(0);
+    final String[] words = {"apache", "calcite", "query", "planner", "sql"};
+    for (int i = 0; i < COUNT; i++) {
+      final StringBuilder b = new StringBuilder();
+      final int n = 2 + random.nextInt(10);
+      for (int j = 0; j < n; j++) {
+        if (j > 0) {
+          b.append(' ');
+        }
+        b.append(words[random.nextInt(words.length)]);
+      }
+      strings[i] = b.toString();
+    }
+  }
+
+  @Benchmark
+  public int regex() {
+    int n = 0;
+    for (String s : strings) {
+      if (regex.matcher(s).matches()) {
+        ++n;
+      }
+    }
+    return n;
+  }
+
+  @Benchmark
+  public int likeFunction() {
+    int n = 0;
+    for (String s : strings) {
+      if (likeFunction.like(s, likePattern)) {
+        ++n;
+      }
+    }
+    return n;
+  }
+
+  @Benchmark
+  public int matcher() {
+    int n = 0;
+    for (String s : strings) {
+      if (matcher.apply(s)) {
+        ++n;
+      }
+    }
+    return n;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(LikeBenchmark.class.getSimpleName())
+        .detectJvmArgs()
+        .build();
+
+    new Runner(opt).run();
+  }
+}
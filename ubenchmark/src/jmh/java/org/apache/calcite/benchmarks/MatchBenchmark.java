@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.benchmarks;
+
+import org.apache.calcite.linq4j.Enumerator;
+import org.apache.calcite.linq4j.Linq4j;
+import org.apache.calcite.runtime.Enumerables;
+import org.apache.calcite.runtime.Matcher;
+import org.apache.calcite.runtime.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the throughput of {@code MATCH_RECOGNIZE} row matching, as
+ * performed by {@link Enumerables#match}, over a stream of events that is
+ * partitioned by device.
+ *
+ * <p>The pattern is {@code LOW MID+ HIGH}, where each symbol is a range of
+ * the event's value.
+ */
+@Fork(value = 1, jvmArgsPrepend = "-Xmx1024m")
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class MatchBenchmark {
+  /** Number of devices, hence partitions. */
+  @Param({"1", "100", "10000"})
+  int partitions;
+
+  private static final int COUNT = 100_000;
+
+  private final List<int[]> rows = new ArrayList<>(COUNT);
+  private Matcher<int[]> matcher;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random(0);
+    for (int i = 0; i < COUNT; i++) {
+      rows.add(new int[] {random.nextInt(partitions), random.nextInt(100)});
+    }
+    final Pattern pattern = Pattern.builder()
+        .symbol("LOW")
+        .symbol("MID").plus().seq()
+        .symbol("HIGH").seq()
+        .build();
+    matcher = Matcher.<int[]>builder(pattern.toAutomaton())
+        .add("LOW", m -> m.get()[1] < 20)
+        .add("MID", m -> m.get()[1] >= 20 && m.get()[1] < 80)
+        .add("HIGH", m -> m.get()[1] >= 80)
+        .build();
+  }
+
+  @Benchmark
+  public int match() {
+    final Enumerator<Integer> enumerator =
+        Enumerables.match(Linq4j.asEnumerable(rows), row -> row[0], matcher,
+            (Enumerables.Emitter<int[], Integer>) (matchRows, rowStates, symbols,
+                match, consumer) -> consumer.accept(matchRows.size()),
+            0, 0).enumerator();
+    int n = 0;
+    while (enumerator.moveNext()) {
+      n += enumerator.current();
+    }
+    return n;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(MatchBenchmark.class.getSimpleName())
+        .detectJvmArgs()
+        .build();
+
+    new Runner(opt).run();
+  }
+}
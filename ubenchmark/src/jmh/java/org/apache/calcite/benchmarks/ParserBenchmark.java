@@ -19,6 +19,7 @@
 import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.parser.SqlParseException;
 import org.apache.calcite.sql.parser.SqlParser;
+import org.apache.calcite.sql.parser.SqlParserPool;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -61,6 +62,8 @@ public class ParserBenchmark {
 
   String sql;
   SqlParser parser;
+  SqlParserPool pool;
+  SqlParserPool cachingPool;
 
   @Setup
   public void setup() {
@@ -94,6 +97,8 @@ public void setup() {
     }
     sb.append(" from dual");
     parser = SqlParser.create("values(1)");
+    pool = new SqlParserPool(SqlParser.config(), 1, 0);
+    cachingPool = new SqlParserPool(SqlParser.config(), 1, 100);
     sql = sb.toString();
   }
 
@@ -107,6 +112,16 @@ public SqlNode parseNonCached() throws SqlParseException {
     return SqlParser.create(sql).parseQuery();
   }
 
+  @Benchmark
+  public SqlNode parsePooled() throws SqlParseException {
+    return pool.parseQuery(sql);
+  }
+
+  @Benchmark
+  public SqlNode parsePooledCached() throws SqlParseException {
+    return cachingPool.parseQuery(sql);
+  }
+
   public static void main(String[] args) throws RunnerException {
     Options opt = new OptionsBuilder()
         .include(ParserBenchmark.class.getSimpleName())
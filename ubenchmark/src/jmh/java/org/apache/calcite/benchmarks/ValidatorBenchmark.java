@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.calcite.benchmarks;
+
+import org.apache.calcite.config.Lex;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.schema.SchemaPlus;
+import org.apache.calcite.schema.impl.AbstractSchema;
+import org.apache.calcite.schema.impl.AbstractTable;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.parser.SqlParser;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.tools.FrameworkConfig;
+import org.apache.calcite.tools.Frameworks;
+import org.apache.calcite.tools.Planner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks validation of queries against a wide schema: many tables, each
+ * with many columns, whose names are resolved case-insensitively.
+ */
+@Fork(value = 1, jvmArgsPrepend = "-Xmx2048m")
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Threads(1)
+public class ValidatorBenchmark {
+
+  @Param({"10", "5000"})
+  int tableCount;
+
+  @Param({"10", "500"})
+  int columnCount;
+
+  /** Number of tables joined by the query. */
+  @Param({"4"})
+  int joinCount;
+
+  String sql;
+  Planner planner;
+  SqlNode sqlNode;
+
+  @Setup(Level.Trial)
+  public void setupTrial() {
+    final SchemaPlus rootSchema = Frameworks.createRootSchema(true);
+    final SchemaPlus schema = rootSchema.add("s", new AbstractSchema());
+    for (int t = 0; t < tableCount; t++) {
+      schema.add("t" + t, new WideTable(columnCount));
+    }
+
+    // Reference each column of each joined table twice, in different case
+    final StringBuilder sb = new StringBuilder("select 1");
+    for (int j = 0; j < joinCount; j++) {
+      for (int c = 0; c < columnCount; c++) {
+        sb.append(String.format(Locale.ROOT, ", T%d.C%d + t%d.c%d", j, c, j, c));
+      }
+    }
+    sb.append(" from S.T0 as t0");
+    for (int j = 1; j < joinCount; j++) {
+      sb.append(
+          String.format(Locale.ROOT, " join s.t%d as t%d on t%d.c0 = t%d.c0",
+              j * (tableCount / joinCount), j, j - 1, j));
+    }
+    sql = sb.toString();
+
+    final FrameworkConfig config = Frameworks.newConfigBuilder()
+        .parserConfig(SqlParser.config().withLex(Lex.MYSQL))
+        .defaultSchema(rootSchema)
+        .build();
+    planner = Frameworks.getPlanner(config);
+  }
+
+  @Setup(Level.Invocation)
+  public void setupInvocation() throws Exception {
+    sqlNode = planner.parse(sql);
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDownInvocation() {
+    planner.close();
+    planner.reset();
+  }
+
+  @Benchmark
+  public SqlNode validate() throws Exception {
+    return planner.validate(sqlNode);
+  }
+
+  /** Table with a given number of integer columns. */
+  private static class WideTable extends AbstractTable {
+    private final int columnCount;
+
+    WideTable(int columnCount) {
+      this.columnCount = columnCount;
+    }
+
+    @Override public RelDataType getRowType(RelDataTypeFactory typeFactory) {
+      final RelDataTypeFactory.Builder builder = typeFactory.builder();
+      for (int i = 0; i < columnCount; i++) {
+        builder.add("c" + i, SqlTypeName.INTEGER);
+      }
+      return builder.build();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(ValidatorBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .detectJvmArgs()
+        .build();
+
+    new Runner(opt).run();
+  }
+}